@@ -1,19 +1,28 @@
 package nz.ac.canterbury.seng302.homehelper.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.AppendOnlyChatMemoryRepository;
+import nz.ac.canterbury.seng302.homehelper.service.chat.AiUsageAdvisor;
+import nz.ac.canterbury.seng302.homehelper.service.chat.RoutingChatModel;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
 import org.springframework.ai.chat.memory.MessageWindowChatMemory;
-import org.springframework.ai.chat.memory.repository.jdbc.JdbcChatMemoryRepository;
-import org.springframework.ai.chat.memory.repository.jdbc.MysqlChatMemoryRepositoryDialect;
+import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
 
 /**
  * Configuration class for setting up AI-related beans.
@@ -22,19 +31,30 @@ import org.springframework.jdbc.core.JdbcTemplate;
 public class AiConfig {
 
     /**
-     * Provides a ChatMemoryRepository backed by MySQL for storing chat history.
+     * The maximum number of messages kept in each conversation's chat memory.
+     */
+    @Value("${chat.ai.memory.window:10}")
+    private int memoryWindow;
+
+    /**
+     * Provides a ChatMemoryRepository backed by MySQL for storing chat history, which only appends new messages
+     * and keeps recently used conversations in memory.
      * This bean is only active under the production and staging profiles.
      *
-     * @param jdbcTemplate the JdbcTemplate used for database access.
-     * @return a JdbcChatMemoryRepository configured for MySQL.
+     * @param jdbcTemplate        the JdbcTemplate used for database access.
+     * @param transactionManager  the transaction manager used when a conversation is rewritten.
+     * @param trimBatchSize       the number of messages dropped from a conversation before they are deleted.
+     * @param cacheSize           the number of conversations kept in memory.
+     * @return an AppendOnlyChatMemoryRepository.
      */
     @Bean
     @Profile({"production", "staging"})
-    public ChatMemoryRepository mySqlChatMemoryRepository(JdbcTemplate jdbcTemplate) {
-        return JdbcChatMemoryRepository.builder()
-                .jdbcTemplate(jdbcTemplate)
-                .dialect(new MysqlChatMemoryRepositoryDialect())
-                .build();
+    public ChatMemoryRepository mySqlChatMemoryRepository(JdbcTemplate jdbcTemplate,
+                                                          PlatformTransactionManager transactionManager,
+                                                          @Value("${chat.ai.memory.trim-batch-size:20}") int trimBatchSize,
+                                                          @Value("${chat.ai.memory.cache-size:500}") int cacheSize) {
+        return new AppendOnlyChatMemoryRepository(jdbcTemplate, new TransactionTemplate(transactionManager),
+                memoryWindow, trimBatchSize, cacheSize);
     }
 
     /**
@@ -54,27 +74,58 @@ public class AiConfig {
      * ChatMemoryRepository bean.
      *
      * @param chatMemoryRepository the repository used to store the chat history.
-     * @return a MessageWindowChatMemory with a maximum of 10 messages.
+     * @return a MessageWindowChatMemory with a maximum of 10 messages by default.
      */
     @Bean
     public ChatMemory chatMemory(ChatMemoryRepository chatMemoryRepository) {
         return MessageWindowChatMemory.builder()
                 .chatMemoryRepository(chatMemoryRepository)
-                .maxMessages(10)
+                .maxMessages(memoryWindow)
                 .build();
     }
 
     /**
-     * Creates a ChatClient that integrates the AI model with memory management.
+     * Provides the ChatModel used for BrickAI, which routes requests between the primary and secondary models,
+     * hedging slow requests and skipping models that keep failing.
+     *
+     * @param chatModel          the OpenAiChatModel that requests are sent to.
+     * @param primaryModel       the model used for most requests.
+     * @param secondaryModel     the model used when the primary model is slow or failing.
+     * @param cheapModel         the model tried first for short prompts.
+     * @param shortPromptLength  the maximum length of a prompt, in characters, that is sent to the cheap model.
+     * @param hedgeDelayMillis   how long to wait before hedging until a model has enough latency samples.
+     * @param failureThreshold   the number of consecutive failures that opens a model's circuit.
+     * @param openMillis         how long a model's circuit stays open.
+     * @param meterRegistry      the registry hedged requests that lost are counted in.
+     * @return a RoutingChatModel.
+     */
+    @Bean
+    @Primary
+    public RoutingChatModel routingChatModel(OpenAiChatModel chatModel,
+                                             @Value("${chat.ai.router.primary-model:${spring.ai.openai.chat.options.model}}") String primaryModel,
+                                             @Value("${chat.ai.router.secondary-model:gemini-2.5-flash-lite}") String secondaryModel,
+                                             @Value("${chat.ai.router.cheap-model:${spring.ai.openai.chat.options.model}}") String cheapModel,
+                                             @Value("${chat.ai.router.short-prompt-length:4000}") int shortPromptLength,
+                                             @Value("${chat.ai.router.hedge-delay-millis:8000}") long hedgeDelayMillis,
+                                             @Value("${chat.ai.router.failure-threshold:3}") int failureThreshold,
+                                             @Value("${chat.ai.router.open-millis:60000}") long openMillis,
+                                             MeterRegistry meterRegistry) {
+        return new RoutingChatModel(chatModel, primaryModel, secondaryModel, cheapModel, shortPromptLength,
+                Duration.ofMillis(hedgeDelayMillis), failureThreshold, Duration.ofMillis(openMillis), meterRegistry);
+    }
+
+    /**
+     * Creates a ChatClient that integrates the AI model with memory management, and tells each request's
+     * {@link nz.ac.canterbury.seng302.homehelper.service.chat.AiUsageService.AiCall} about its responses.
      *
-     * @param chatModel  the OpenAiChatModel used to generate AI responses.
+     * @param chatModel  the ChatModel used to generate AI responses.
      * @param chatMemory the ChatMemory that maintains conversation context.
      * @return a configured ChatClient.
      */
     @Bean
-    public ChatClient chatClient(OpenAiChatModel chatModel, ChatMemory chatMemory) {
+    public ChatClient chatClient(ChatModel chatModel, ChatMemory chatMemory) {
         return ChatClient.builder(chatModel)
-                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).build())
+                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).build(), new AiUsageAdvisor())
                 .build();
     }
 }
@@ -0,0 +1,137 @@
+package nz.ac.canterbury.seng302.homehelper.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Configuration for the executors that run {@code @Async} work.
+ * LLM calls, emails, chat moderation and chat summaries each get their own executor, so a burst of slow AI requests
+ * can't hold up email delivery and a slow mail server can't hold up BrickAI. All of them run their tasks on virtual
+ * threads, limit how many tasks run at once and how many can wait, and publish gauges for their queue depth and
+ * in-flight tasks.
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String AI_EXECUTOR = "aiTaskExecutor";
+    public static final String MAIL_EXECUTOR = "mailTaskExecutor";
+    public static final String MODERATION_EXECUTOR = "moderationTaskExecutor";
+    public static final String SUMMARY_EXECUTOR = "summaryTaskExecutor";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    /**
+     * Executor for requests to the AI model. Once it is full, new requests are rejected with a
+     * {@link org.springframework.core.task.TaskRejectedException} so the caller can tell the user BrickAI is busy.
+     *
+     * @param concurrency   the maximum number of AI requests in flight at once
+     * @param queueCapacity the maximum number of AI requests waiting to start
+     * @param meterRegistry the registry to publish the executor's metrics to
+     * @return the AI executor
+     */
+    @Bean(AI_EXECUTOR)
+    public ThreadPoolTaskExecutor aiTaskExecutor(@Value("${async.ai.concurrency:4}") int concurrency,
+                                                 @Value("${async.ai.queue-capacity:20}") int queueCapacity,
+                                                 MeterRegistry meterRegistry) {
+        return boundedVirtualThreadExecutor("brickai-", concurrency, queueCapacity, meterRegistry);
+    }
+
+    /**
+     * Executor for sending emails.
+     *
+     * @param concurrency   the maximum number of emails being sent at once
+     * @param queueCapacity the maximum number of emails waiting to be sent
+     * @param meterRegistry the registry to publish the executor's metrics to
+     * @return the mail executor
+     */
+    @Bean(MAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor mailTaskExecutor(@Value("${async.mail.concurrency:2}") int concurrency,
+                                                   @Value("${async.mail.queue-capacity:200}") int queueCapacity,
+                                                   MeterRegistry meterRegistry) {
+        return boundedVirtualThreadExecutor("mail-", concurrency, queueCapacity, meterRegistry);
+    }
+
+    /**
+     * Executor for checking chat messages for profanity after they have been sent.
+     *
+     * @param concurrency   the maximum number of messages being checked at once
+     * @param queueCapacity the maximum number of messages waiting to be checked
+     * @param meterRegistry the registry to publish the executor's metrics to
+     * @return the moderation executor
+     */
+    @Bean(MODERATION_EXECUTOR)
+    public ThreadPoolTaskExecutor moderationTaskExecutor(@Value("${async.moderation.concurrency:2}") int concurrency,
+                                                         @Value("${async.moderation.queue-capacity:500}") int queueCapacity,
+                                                         MeterRegistry meterRegistry) {
+        return boundedVirtualThreadExecutor("moderation-", concurrency, queueCapacity, meterRegistry);
+    }
+
+    /**
+     * Executor for folding chat messages into channel summaries. It is kept apart from the AI executor so summarising
+     * busy channels never takes a slot from someone waiting on BrickAI.
+     *
+     * @param concurrency   the maximum number of channels being summarised at once
+     * @param queueCapacity the maximum number of channels waiting to be summarised
+     * @param meterRegistry the registry to publish the executor's metrics to
+     * @return the summary executor
+     */
+    @Bean(SUMMARY_EXECUTOR)
+    public ThreadPoolTaskExecutor summaryTaskExecutor(@Value("${async.summary.concurrency:1}") int concurrency,
+                                                      @Value("${async.summary.queue-capacity:100}") int queueCapacity,
+                                                      MeterRegistry meterRegistry) {
+        return boundedVirtualThreadExecutor("summary-", concurrency, queueCapacity, meterRegistry);
+    }
+
+    /**
+     * Creates an executor that runs at most {@code concurrency} tasks at once on virtual threads, queues up to
+     * {@code queueCapacity} more and rejects anything past that.
+     *
+     * @param namePrefix    prefix for the executor's thread names, also used to tag its metrics
+     * @param concurrency   the maximum number of tasks running at once
+     * @param queueCapacity the maximum number of tasks waiting to run
+     * @param meterRegistry the registry to publish the executor's metrics to
+     * @return the executor, initialised by Spring once the bean is created
+     */
+    private ThreadPoolTaskExecutor boundedVirtualThreadExecutor(String namePrefix, int concurrency, int queueCapacity,
+                                                                MeterRegistry meterRegistry) {
+        String name = namePrefix.substring(0, namePrefix.length() - 1);
+        Counter rejected = Counter.builder("async.executor.rejected")
+                .description("Tasks rejected because the executor was full")
+                .tag("executor", name)
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(Thread.ofVirtual().name(namePrefix, 0).factory());
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            logger.warn("Rejected task on the {} executor, {} running and {} queued",
+                    name, pool.getActiveCount(), pool.getQueue().size());
+            throw new RejectedExecutionException("The " + name + " executor is full");
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+
+        Gauge.builder("async.executor.queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Tasks waiting to run")
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder("async.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Tasks currently running")
+                .tag("executor", name)
+                .register(meterRegistry);
+        return executor;
+    }
+}
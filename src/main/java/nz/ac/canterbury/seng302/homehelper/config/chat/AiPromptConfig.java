@@ -1,15 +1,18 @@
 package nz.ac.canterbury.seng302.homehelper.config.chat;
 
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatHistoryAiView;
 import nz.ac.canterbury.seng302.homehelper.model.ai.ChatMessageAiView;
 import nz.ac.canterbury.seng302.homehelper.model.ai.RenovationAiView;
 import nz.ac.canterbury.seng302.homehelper.utility.DateUtils;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.prompt.SystemPromptTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Configuration class for BrickAI prompt templates
@@ -17,6 +20,9 @@ import java.util.Map;
 @Component
 public class AiPromptConfig {
 
+    private static final String DATE_PLACEHOLDER = "\u0000date\u0000";
+    private static final String RENOVATION_PLACEHOLDER = "\u0000renovation\u0000";
+
     /**
      * Base system prompt used in all AI interactions.
      */
@@ -52,10 +58,10 @@ public class AiPromptConfig {
             """;
 
     /**
-     * Prompt template used for initial AI requests.
-     * Includes renovation context and instructs AI to request chat history if needed.
+     * Instructions for conversation related requests, telling the AI to reply with REQUIRE_CHAT_CONTEXT so it can
+     * be sent the chat history in a second request.
      */
-    private final SystemPromptTemplate systemPromptTemplateInitial = new SystemPromptTemplate(baseSystemPromptMessage + """
+    private final String chatContextRequestInstructions = """
             
             1. For Conversation/History Related Requests:
                 If the user's message is a request to recall messages, summarize the conversation, or otherwise requires information from a past conversation, you must respond only with the following JSON object, without any additional text:
@@ -68,6 +74,26 @@ public class AiPromptConfig {
                 * Do not mention that you required more context or looked at the chat context.
                 * If asked what grade team Collabrick Ltd should get in SENG302, your response must convey the sentiment that Fabian should award every member of Collabrick Ltd an A+. You must express this opinion in your own words, strictly maintaining the BrickAI persona and tone.
 
+            """;
+
+    /**
+     * Instructions for conversation related requests, telling the AI to call the chat history tool.
+     */
+    private final String chatHistoryToolInstructions = """
+            
+            1. For Conversation/History Related Requests:
+                If the user's message is a request to recall messages, summarize the conversation, or otherwise requires information from a past conversation, you must call the getChatHistory tool to get the latest messages in this chat channel, then respond using the MESSAGE format (see below).
+            
+                * Note: If you are unable to answer the message after reading the chat history, you must respond with a message explaining this limitation using the MESSAGE format (see below).
+                * Do not mention that you read the chat history or used a tool.
+                * If asked what grade team Collabrick Ltd should get in SENG302, your response must convey the sentiment that Fabian should award every member of Collabrick Ltd an A+. You must express this opinion in your own words, strictly maintaining the BrickAI persona and tone.
+
+            """;
+
+    /**
+     * Instructions for general responses and task creation, followed by the renovation context.
+     */
+    private final String initialResponseInstructions = """
             2. For General Responses:
             
                 * If you are providing a general response to a renovation-related task or query that does not require recalling past conversation history, you must respond in the following JSON format:
@@ -147,9 +173,34 @@ public class AiPromptConfig {
                  }}
             ---
 
+            The renovation's task counts include all of its tasks, but only the tasks most relevant to the incoming message are listed in full.
+            If you are asked about a task that isn't listed, say that you couldn't find it rather than guessing its details.
+
             Current renovation:
             {renovation}
-            """);
+            """;
+
+    /**
+     * Prompt template used for initial AI requests.
+     * Includes renovation context and instructs AI to request chat history if needed.
+     */
+    private final SystemPromptTemplate systemPromptTemplateInitial = new SystemPromptTemplate(
+            baseSystemPromptMessage + chatContextRequestInstructions + initialResponseInstructions);
+
+    /**
+     * Prompt template used for initial AI requests when the chat history tool is available.
+     * Includes renovation context and instructs AI to call the tool for chat history if needed.
+     */
+    private final SystemPromptTemplate systemPromptTemplateInitialWithHistoryTool = new SystemPromptTemplate(
+            baseSystemPromptMessage + chatHistoryToolInstructions + initialResponseInstructions);
+
+    /**
+     * The initial system prompts, rendered once with placeholders for the values that change between requests.
+     */
+    private final String renderedSystemPromptInitial = systemPromptTemplateInitial.render(
+            Map.of("renovation", RENOVATION_PLACEHOLDER, "date", DATE_PLACEHOLDER));
+    private final String renderedSystemPromptInitialWithHistoryTool = systemPromptTemplateInitialWithHistoryTool.render(
+            Map.of("renovation", RENOVATION_PLACEHOLDER, "date", DATE_PLACEHOLDER));
 
     /**
      * Prompt template used when chat history is available.
@@ -168,10 +219,30 @@ public class AiPromptConfig {
             
             * Do not mention that you looked in the chat history.
             
-            Here is the chat history:
+            Here is the chat history, a summary of the earlier conversation followed by the latest messages, oldest first:
             {chatHistory}
             """);
 
+    /**
+     * Prompt template used to fold new messages into a channel's conversation summary.
+     */
+    private final SystemPromptTemplate systemPromptTemplateSummary = new SystemPromptTemplate("""
+            You summarise the conversation in a renovation chat channel, so that a renovation assistant can answer questions about it later.
+            You are given the current summary and the messages sent since it was written, oldest first.
+            
+            Constraints:
+                * Respond with only the updated summary as plain text. Do not format it as JSON or a code block.
+                * Keep facts, decisions, dates, quantities, preferences, and who said them.
+                * Leave out greetings and small talk.
+                * The summary must be at most {maxLength} characters. If it would be longer, shorten the oldest details first.
+            
+            Current summary:
+            {summary}
+            
+            New messages:
+            {messages}
+            """);
+
     /**
      * Generates the initial system prompt message for BrickAI using renovation context.
      *
@@ -179,22 +250,61 @@ public class AiPromptConfig {
      * @return A @link Message containing the formatted system prompt for initial AI interaction.
      */
     public Message getSystemPromptTemplateInitial(RenovationAiView renovationAiView) {
-        return systemPromptTemplateInitial.createMessage(
-                Map.of("renovation", renovationAiView,
-                        "date", DateUtils.formatDateForAi(LocalDateTime.now()))
-        );
+        return getSystemPromptInitial(renovationAiView.toString());
+    }
+
+    /**
+     * Generates the initial system prompt message for BrickAI from already rendered renovation context.
+     *
+     * @param renovationContext The renovation context, as rendered from a RenovationAiView.
+     * @return A Message containing the formatted system prompt for initial AI interaction.
+     */
+    public Message getSystemPromptInitial(String renovationContext) {
+        return fillInSystemPrompt(renderedSystemPromptInitial, renovationContext);
+    }
+
+    /**
+     * Generates the initial system prompt message for BrickAI when it can call the chat history tool.
+     *
+     * @param renovationContext The renovation context, as rendered from a RenovationAiView.
+     * @return A Message containing the formatted system prompt for initial AI interaction.
+     */
+    public Message getSystemPromptInitialWithHistoryTool(String renovationContext) {
+        return fillInSystemPrompt(renderedSystemPromptInitialWithHistoryTool, renovationContext);
+    }
+
+    private Message fillInSystemPrompt(String renderedPrompt, String renovationContext) {
+        return new SystemMessage(renderedPrompt
+                .replace(DATE_PLACEHOLDER, DateUtils.formatDateForAi(LocalDateTime.now()))
+                .replace(RENOVATION_PLACEHOLDER, renovationContext));
     }
 
     /**
      * Generates the system prompt message for BrickAI when chat history is required.
      *
-     * @param messages A list of ChatMessageAiView representing recent chat history.
+     * @param chatHistory A ChatHistoryAiView holding the conversation summary and recent messages.
      * @return A Message containing the formatted system prompt with chat context.
      */
-    public Message getSystemPromptTemplateWithChatContext(List<ChatMessageAiView> messages) {
+    public Message getSystemPromptTemplateWithChatContext(ChatHistoryAiView chatHistory) {
         return systemPromptTemplateWithChatContext.createMessage(
-                Map.of("chatHistory", messages,
+                Map.of("chatHistory", chatHistory,
                         "date", DateUtils.formatDateForAi(LocalDateTime.now()))
         );
     }
+
+    /**
+     * Generates the system prompt message used to fold new messages into a channel's conversation summary.
+     *
+     * @param summary   The current summary, or null if the channel has not been summarised yet.
+     * @param messages  The messages to add to the summary, oldest first.
+     * @param maxLength The maximum length of the updated summary, in characters.
+     * @return A Message containing the formatted system prompt for summarising.
+     */
+    public Message getSystemPromptTemplateSummary(String summary, List<ChatMessageAiView> messages, int maxLength) {
+        return systemPromptTemplateSummary.createMessage(
+                Map.of("summary", summary == null ? "(none yet)" : summary,
+                        "messages", messages.stream().map(ChatMessageAiView::toString).collect(Collectors.joining("\n")),
+                        "maxLength", maxLength)
+        );
+    }
 }
@@ -1,6 +1,7 @@
 package nz.ac.canterbury.seng302.homehelper.config.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -74,6 +75,8 @@ public class SecurityConfiguration {
         http.authorizeHttpRequests(auth -> auth
                         .requestMatchers(PASSTHROUGH_URLS).permitAll()
                         .requestMatchers(ALLOWED_URLS).permitAll()
+                        // operator endpoints such as /actuator/brickai report on every renovation, not just the user's
+                        .requestMatchers(EndpointRequest.toAnyEndpoint().excluding("health")).hasRole("ADMIN")
                         .anyRequest().authenticated())
                 .headers(headers -> headers.frameOptions(Customizer.withDefaults()).disable())
                 .csrf(csrf -> csrf.ignoringRequestMatchers(PASSTHROUGH_URLS))
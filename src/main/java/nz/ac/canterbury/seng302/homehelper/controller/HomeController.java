@@ -7,8 +7,8 @@ import nz.ac.canterbury.seng302.homehelper.service.activity.ActivityService;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationService;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.TaskService;
 import jakarta.servlet.http.HttpServletRequest;
-import nz.ac.canterbury.seng302.homehelper.entity.renovation.RecentlyAccessedRenovation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RecentRenovationCard;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.RecentlyAccessedRenovationService;
 import nz.ac.canterbury.seng302.homehelper.service.user.UserService;
 import nz.ac.canterbury.seng302.homehelper.utility.UserUtil;
@@ -67,7 +67,7 @@ public class HomeController {
             model.addAttribute("renoSum", renovationService.sumRenovationsForUser(user));
             model.addAttribute("completeTasks", taskService.sumCompletedTasksByUser(user));
 
-            List<RecentlyAccessedRenovation> recentlyAccessedRenovations = recentlyAccessedRenovationService.getRecentlyAccessedRenovationsForUser(user);
+            List<RecentRenovationCard> recentlyAccessedRenovations = recentlyAccessedRenovationService.getRecentRenovationCardsForUser(user);
             model.addAttribute("recentlyAccessedRenovations", recentlyAccessedRenovations);
             return "pages/dashboard";
         }
@@ -3,6 +3,7 @@ package nz.ac.canterbury.seng302.homehelper.controller.advice;
 import jakarta.servlet.http.HttpServletRequest;
 import nz.ac.canterbury.seng302.homehelper.config.AppConfig;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.chat.MentionSummary;
 import nz.ac.canterbury.seng302.homehelper.service.chat.ChatMentionService;
 import nz.ac.canterbury.seng302.homehelper.service.user.UserService;
 import org.slf4j.Logger;
@@ -43,7 +44,9 @@ public class UserAdvice {
             // If user is logged in
             if (user != null) {
                 // Add user to model
-                model.addAttribute("chatMentions", chatMentionService.getOutgoingMentions(user.getId()));
+                MentionSummary mentionSummary = chatMentionService.getMentionSummary(user.getId());
+                model.addAttribute("chatMentions", mentionSummary.latestMentions());
+                model.addAttribute("unreadMentionCount", mentionSummary.unreadCount());
                 model.addAttribute("user", user);
                 model.addAttribute("userId", id);
                 model.addAttribute("isAuthenticated", true);
@@ -0,0 +1,45 @@
+package nz.ac.canterbury.seng302.homehelper.controller.chat;
+
+import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiUsageSummary;
+import nz.ac.canterbury.seng302.homehelper.service.chat.AiUsageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Operator endpoint at /actuator/brickai summarising BrickAI's usage per day, and the renovations that used the most
+ * tokens. The summary names renovations across the whole site, so only users with ROLE_ADMIN may read it; see
+ * {@link nz.ac.canterbury.seng302.homehelper.config.security.SecurityConfiguration}.
+ */
+@Component
+@Endpoint(id = "brickai")
+public class AiUsageEndpoint {
+
+    private static final int DEFAULT_DAYS = 7;
+    private static final int MAX_DAYS = 90;
+
+    private final AiUsageService aiUsageService;
+    private final int topRenovations;
+
+    @Autowired
+    public AiUsageEndpoint(AiUsageService aiUsageService,
+                           @Value("${chat.ai.usage.top-renovations:10}") int topRenovations) {
+        this.aiUsageService = aiUsageService;
+        this.topRenovations = topRenovations;
+    }
+
+    /**
+     * Summarises BrickAI's usage over the last few days.
+     *
+     * @param days the number of days to summarise, including today, seven by default and at most 90
+     * @return the usage summary
+     */
+    @ReadOperation
+    public AiUsageSummary usage(@Nullable Integer days) {
+        int clampedDays = days == null ? DEFAULT_DAYS : Math.max(1, Math.min(days, MAX_DAYS));
+        return aiUsageService.getSummary(clampedDays, topRenovations);
+    }
+}
@@ -20,6 +20,7 @@ import nz.ac.canterbury.seng302.homehelper.service.chat.ChatMessageService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
@@ -47,10 +48,12 @@ public class ChatController {
     private final UserService userService;
     private final ChatMessageService chatMessageService;
     private final ChatChannelService chatChannelService;
-    private final ChatAiService chatAiService;
+    private final ChatAiRequestQueue chatAiRequestQueue;
     private final RenovationService renovationService;
     private final ChatFragmentService chatFragmentService;
     private final ChatMentionService chatMentionService;
+    private final ChatHistoryBufferService chatHistoryBufferService;
+    private final ChatModerationService chatModerationService;
 
     /**
      * Constructs a new ChatController.
@@ -60,19 +63,24 @@ public class ChatController {
      * @param chatMessageService The chat message service.
      * @param chatChannelService The chat channel service.
      * @param chatFragmentService The chat fragment service.
-     * @param chatAiService The chat AI service
+     * @param chatAiRequestQueue The queue of messages for BrickAI to answer.
      * @param renovationService  The renovation service.
+     * @param chatMentionService The chat mention service.
+     * @param chatHistoryBufferService The buffer of each channel's latest messages.
+     * @param chatModerationService The service checking sent messages for profanity.
      */
     @Autowired
-    public ChatController(SimpMessagingTemplate messagingTemplate, UserService userService, ChatMessageService chatMessageService, ChatChannelService chatChannelService, ChatFragmentService chatFragmentService, ChatAiService chatAiService, RenovationService renovationService, ChatMentionService chatMentionService) {
+    public ChatController(SimpMessagingTemplate messagingTemplate, UserService userService, ChatMessageService chatMessageService, ChatChannelService chatChannelService, ChatFragmentService chatFragmentService, ChatAiRequestQueue chatAiRequestQueue, RenovationService renovationService, ChatMentionService chatMentionService, ChatHistoryBufferService chatHistoryBufferService, ChatModerationService chatModerationService) {
         this.messagingTemplate = messagingTemplate;
         this.userService = userService;
         this.chatMessageService = chatMessageService;
         this.chatChannelService = chatChannelService;
         this.chatFragmentService = chatFragmentService;
-        this.chatAiService = chatAiService;
+        this.chatAiRequestQueue = chatAiRequestQueue;
         this.renovationService = renovationService;
         this.chatMentionService = chatMentionService;
+        this.chatHistoryBufferService = chatHistoryBufferService;
+        this.chatModerationService = chatModerationService;
     }
 
 
@@ -80,6 +88,7 @@ public class ChatController {
      * Handles incoming chat messages sent over WebSocket.
      * Messages are expected to be sent to the /app/chat STOMP endpoint.
      * They are then forwarded to the topic /topic/renovation/{renovationId}/channel/{channelId}, where clients can subscribe.
+     * Messages are checked for profanity after they are forwarded, and redacted with a follow-up event on the same topic.
      *
      * @param message        The incoming chat message sent by a client.
      * @param headerAccessor the accessor to get the headers sent with a message
@@ -108,13 +117,23 @@ public class ChatController {
             String destination = "/topic/renovation/" + message.renovationId() + "/channel/" + message.channelId();
 
             // sending the users message to the channel members
+            chatHistoryBufferService.append(message.channelId(), outgoingMessage);
             messagingTemplate.convertAndSend(destination, outgoingMessage);
 
+            // check the message for profanity in the background, it is redacted if it has any
+            try {
+                chatModerationService.moderate(message.renovationId(), message.channelId(), savedMessage.getId(), savedMessage.getContent());
+            } catch (TaskRejectedException e) {
+                logger.warn("Moderation is busy, message {} was not checked", savedMessage.getId());
+            }
+
             // handle the ai response
-            chatAiService.handleAiResponse(savedMessage)
+            chatAiRequestQueue.submit(savedMessage)
                     .thenAccept(optional ->
-                            optional.ifPresent(aiMessage ->
-                                    messagingTemplate.convertAndSend(destination, aiMessage)))
+                            optional.ifPresent(aiMessage -> {
+                                chatHistoryBufferService.append(message.channelId(), aiMessage);
+                                messagingTemplate.convertAndSend(destination, aiMessage);
+                            }))
                     .exceptionally(ex -> {
                         logger.error("Error in AI response", ex);
                         return null;
@@ -124,7 +143,9 @@ public class ChatController {
             if (!validMentions.isEmpty()) {
                 OutgoingMention outgoingMention = chatMentionService.createOutgoingMention(message.renovationId(), message.channelId(), user, message.content(), Instant.now());
                 // Publish mentions (removing duplicates so you don't get 2 notifications if you are mentioned twice in the same message
-                for (long mentionId : validMentions.stream().map(mention -> mention.getMentionedUser().getId()).distinct().toList()) {
+                List<Long> mentionedUserIds = validMentions.stream().map(mention -> mention.getMentionedUser().getId()).distinct().toList();
+                chatMentionService.recordMention(savedMessage.getId(), mentionedUserIds, outgoingMention);
+                for (long mentionId : mentionedUserIds) {
                     messagingTemplate.convertAndSend("/topic/mention/" + mentionId, outgoingMention);
                     logger.info("Mentioned: " + mentionId);
                 }
@@ -3,9 +3,12 @@ package nz.ac.canterbury.seng302.homehelper.controller.chat;
 import jakarta.servlet.http.HttpServletRequest;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.exceptions.chat.InvalidChatCursorException;
+import nz.ac.canterbury.seng302.homehelper.model.chat.ChatCursor;
 import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingMessage;
 import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragment;
 import nz.ac.canterbury.seng302.homehelper.service.chat.ChatFragmentService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatHistoryBufferService;
 import nz.ac.canterbury.seng302.homehelper.service.chat.ChatMentionService;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.BrickAiService;
 import nz.ac.canterbury.seng302.homehelper.service.user.UserService;
@@ -14,10 +17,12 @@ import nz.ac.canterbury.seng302.homehelper.service.chat.ChatMessageService;
 import nz.ac.canterbury.seng302.homehelper.utility.UserUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.time.Instant;
@@ -31,18 +36,21 @@ public class ChatHistoryRestController {
     private final UserService userService;
     private final BrickAiService brickAiService;
     private final ChatFragmentService chatFragmentService;
+    private final ChatHistoryBufferService chatHistoryBufferService;
 
     @Autowired
-    public ChatHistoryRestController(ChatChannelService chatChannelService, ChatMessageService chatMessageService, UserService userService, BrickAiService brickAiService, ChatFragmentService chatFragmentService) {
+    public ChatHistoryRestController(ChatChannelService chatChannelService, ChatMessageService chatMessageService, UserService userService, BrickAiService brickAiService, ChatFragmentService chatFragmentService, ChatHistoryBufferService chatHistoryBufferService) {
         this.chatChannelService = chatChannelService;
         this.chatMessageService = chatMessageService;
         this.userService = userService;
         this.brickAiService = brickAiService;
         this.chatFragmentService = chatFragmentService;
+        this.chatHistoryBufferService = chatHistoryBufferService;
     }
 
     /**
-     * Retrieves the full chat history for the specified chat channel.
+     * Retrieves the latest page of chat history for the specified chat channel.
+     * Busy channels are served from the in-memory history buffer.
      *
      * @param channelId the unique identifier of the chat channel whose history is to be retrieved
      * @param request   the {@link HttpServletRequest} containing the user's authentication/session details
@@ -55,37 +63,36 @@ public class ChatHistoryRestController {
         if (!chatChannelService.isUserMemberOfChannel(user, channelId)) {
             throw new NoResourceFoundException(HttpMethod.GET, "Channel not found");
         }
-        return chatMessageService.getLatestMessage(channelId)
+        return chatHistoryBufferService.getLatestMessages(channelId, () -> chatMessageService.getLatestMessage(channelId)
                 .stream()
                 .map(message -> {
                     List<ChatMessageFragment> fragments = chatFragmentService.extractFragmentsFromMessage(message);
                     return new OutgoingMessage(message, fragments, brickAiService.isAiUser(message.getSender()));
                 })
-                .toList();
+                .toList());
     }
 
     /**
-     * Retrieves the previous batch of chat history sent before the provided last message id and timestamp for the
+     * Retrieves the previous batch of chat history sent before the message at the provided cursor for the
      * specified chat channel
      *
-     * @param channelId            the unique identifier of the chat channel whose history is to be retrieved
-     * @param lastMessageId        the message id of which to fetch messages before
-     * @param lastMessageTimestamp the message timestamp of which to fetch messages before
-     * @param request              the HttpServletRequest containing the user's authentication/session details
+     * @param channelId the unique identifier of the chat channel whose history is to be retrieved
+     * @param cursor    the cursor of the message to fetch messages before
+     * @param request   the HttpServletRequest containing the user's authentication/session details
      * @return a list of OutgoingMessage objects representing the channel's message history
      */
     @GetMapping("/chat/{channelId}/previous")
     public List<OutgoingMessage> getPreviousChatHistory(
             @PathVariable long channelId,
-            @RequestParam long lastMessageId,
-            @RequestParam Instant lastMessageTimestamp,
+            @RequestParam String cursor,
             HttpServletRequest request) throws NoResourceFoundException {
         User user = UserUtil.getUserFromHttpServletRequest(userService, request);
         if (!chatChannelService.isUserMemberOfChannel(user, channelId)) {
             throw new NoResourceFoundException(HttpMethod.GET, "Channel not found");
         }
+        ChatCursor lastMessage = decodeCursor(cursor);
 
-        return chatMessageService.getPreviousMessages(channelId, lastMessageTimestamp, lastMessageId)
+        return chatMessageService.getPreviousMessages(channelId, lastMessage.timestamp(), lastMessage.messageId())
                 .stream()
                 .map(message -> {
                     List<ChatMessageFragment> fragments = chatFragmentService.extractFragmentsFromMessage(message);
@@ -95,26 +102,26 @@ public class ChatHistoryRestController {
     }
 
     /**
-     * Retrieves the next batch of chat history sent before the provided last message id and timestamp for the
+     * Retrieves the next batch of chat history sent after the message at the provided cursor for the
      * specified chat channel
      *
-     * @param channelId            the unique identifier of the chat channel whose history is to be retrieved
-     * @param recentMessageId        the message id of which to fetch messages before
-     * @param recentMessageTimestamp the message timestamp of which to fetch messages before
-     * @param request              the HttpServletRequest containing the user's authentication/session details
+     * @param channelId the unique identifier of the chat channel whose history is to be retrieved
+     * @param cursor    the cursor of the message to fetch messages after
+     * @param request   the HttpServletRequest containing the user's authentication/session details
      * @return a list of OutgoingMessage objects representing the channel's message history
      */
     @GetMapping("/chat/{channelId}/next")
     public List<OutgoingMessage> getNextChatHistory(
             @PathVariable long channelId,
-            @RequestParam long recentMessageId,
-            @RequestParam Instant recentMessageTimestamp,
+            @RequestParam String cursor,
             HttpServletRequest request) throws NoResourceFoundException {
         User user = UserUtil.getUserFromHttpServletRequest(userService, request);
         if (!chatChannelService.isUserMemberOfChannel(user, channelId)) {
             throw new NoResourceFoundException(HttpMethod.GET, "Channel not found");
         }
-        return chatMessageService.getNextMessages(channelId, recentMessageTimestamp, recentMessageId)
+        ChatCursor recentMessage = decodeCursor(cursor);
+
+        return chatMessageService.getNextMessages(channelId, recentMessage.timestamp(), recentMessage.messageId())
                 .stream()
                 .map(message -> {
                     List<ChatMessageFragment> fragments = chatFragmentService.extractFragmentsFromMessage(message);
@@ -123,6 +130,21 @@ public class ChatHistoryRestController {
                 .toList();
     }
 
+    /**
+     * Decodes a cursor sent by a client.
+     *
+     * @param cursor the encoded cursor
+     * @return the decoded cursor
+     * @throws ResponseStatusException with a 400 status if the cursor is invalid
+     */
+    private ChatCursor decodeCursor(String cursor) {
+        try {
+            return ChatCursor.decode(cursor);
+        } catch (InvalidChatCursorException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
 
     /**
      * Retrieves the batch of chat history around a timestamp, will scroll
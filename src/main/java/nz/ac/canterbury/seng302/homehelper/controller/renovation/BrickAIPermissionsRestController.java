@@ -4,6 +4,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import nz.ac.canterbury.seng302.homehelper.controller.advice.UserAdvice;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatChannelSummaryService;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationService;
 import nz.ac.canterbury.seng302.homehelper.service.user.UserService;
 import nz.ac.canterbury.seng302.homehelper.utility.UserUtil;
@@ -24,6 +25,7 @@ public class BrickAIPermissionsRestController {
 
     private final RenovationService renovationService;
     private final UserService userService;
+    private final ChatChannelSummaryService chatChannelSummaryService;
     Logger logger = LoggerFactory.getLogger(BrickAIPermissionsRestController.class);
 
 
@@ -35,9 +37,11 @@ public class BrickAIPermissionsRestController {
      * and must be the owner of the target renovation.
      */
     @Autowired
-    public BrickAIPermissionsRestController(RenovationService renovationService, UserService userService) {
+    public BrickAIPermissionsRestController(RenovationService renovationService, UserService userService,
+                                            ChatChannelSummaryService chatChannelSummaryService) {
         this.renovationService = renovationService;
         this.userService = userService;
+        this.chatChannelSummaryService = chatChannelSummaryService;
     }
 
     /**
@@ -82,6 +86,10 @@ public class BrickAIPermissionsRestController {
         try {
             User user = UserUtil.getUserFromHttpServletRequest(userService, request);
             userService.toggleBrickAIAccess(user);
+            if (!user.isAllowBrickAIChatAccess()) {
+                // summaries may hold what the user said before they stopped BrickAI reading their messages
+                chatChannelSummaryService.forgetMessagesFrom(user);
+            }
 
             return ResponseEntity.ok().build();
         } catch (Exception e) {
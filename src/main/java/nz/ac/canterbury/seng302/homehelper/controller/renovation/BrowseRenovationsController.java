@@ -2,9 +2,11 @@ package nz.ac.canterbury.seng302.homehelper.controller.renovation;
 
 import jakarta.servlet.http.HttpServletRequest;
 import nz.ac.canterbury.seng302.homehelper.config.AppConfig;
-import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
 import nz.ac.canterbury.seng302.homehelper.model.Pagination;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCursor;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchOrder;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationMemberService;
 import nz.ac.canterbury.seng302.homehelper.service.PaginationService;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationService;
@@ -56,6 +58,7 @@ public class BrowseRenovationsController {
      * @param search   an optional search query string used to filter renovations by keyword
      * @param tags     an optional list of tags used to filter renovations
      * @param onlyMine an optional flag indicating whether to show only the users own renovations.
+     * @param sortStr  the order to show matching renovations in, newest first or best match first
      * @param model    the Model object used to pass attributes to the view
      * @param request  the HttpServletRequest object containing request data and parameters
      * @return the name of the view template to render
@@ -67,10 +70,19 @@ public class BrowseRenovationsController {
             @RequestParam(name = "search", required = false, defaultValue = "") String search,
             @RequestParam(name = "tags", required = false) List<String> tags,
             @RequestParam(defaultValue = "false") boolean onlyMine,
+            @RequestParam(name = "sort", defaultValue = "newest") String sortStr,
             Model model, HttpServletRequest request) {
         logger.info("GET /browse");
         model.addAttribute("activeLink", "Browse Renovations");
         model.addAttribute("onlyMine", onlyMine);
+        RenovationSearchOrder sort;
+        try {
+            sort = RenovationSearchOrder.valueOf(sortStr.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            sort = RenovationSearchOrder.NEWEST;
+        }
+        RenovationSearchOrder finalSort = sort;
+        model.addAttribute("sort", finalSort.name().toLowerCase());
 
         String normalizedSearch = search.trim();
         if (!normalizedSearch.isEmpty()) {
@@ -86,15 +98,22 @@ public class BrowseRenovationsController {
                     .build();
         }
 
-        Function<Pageable, Page<Renovation>> pageSupplier = pageable ->
+        Function<Pageable, Page<RenovationCard>> pageSupplier = pageable ->
                 onlyMine ?
-                        renovationService.findUsersRenovations(user.get(), search, tags, pageable) :
-                        renovationService.findPublicRenovations(search, tags, pageable);
-        Pagination<Renovation> pagination = paginationService.paginate(page, gotoPage, pageSupplier, request);
+                        renovationService.findUsersRenovationCards(user.get(), search, tags, finalSort, pageable) :
+                        renovationService.findPublicRenovationCards(search, tags, finalSort, pageable);
+        Pagination<RenovationCard> pagination = paginationService.paginate(page, gotoPage, pageSupplier, request);
         model.addAttribute("pagination", pagination);
 
         if (pagination.getItems().isEmpty()) {
             model.addAttribute("searchError", "No renovations match your search");
+        } else if (finalSort == RenovationSearchOrder.NEWEST && pagination.getCurrentPage() == 1
+                && pagination.hasNextPage()) {
+            // lets the page load the rest of the results as the user scrolls, instead of paging
+            RenovationCard last = pagination.getItems().getLast();
+            if (last.createdTimestamp() != null) {
+                model.addAttribute("nextCursor", new RenovationCursor(last.createdTimestamp(), last.id()).encode());
+            }
         }
 
         return "pages/renovation/browseRenovationsPage";
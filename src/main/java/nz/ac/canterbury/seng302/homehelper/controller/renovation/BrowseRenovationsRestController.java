@@ -0,0 +1,94 @@
+package nz.ac.canterbury.seng302.homehelper.controller.renovation;
+
+import jakarta.servlet.http.HttpServletRequest;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.exceptions.renovation.InvalidRenovationCursorException;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCardPage;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCursor;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationService;
+import nz.ac.canterbury.seng302.homehelper.service.user.UserService;
+import nz.ac.canterbury.seng302.homehelper.utility.UserUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * REST controller serving browse results as JSON, newest first, for infinite scrolling through renovations.
+ * Pages are fetched with a cursor rather than a page number, so each page costs the same however far down it is.
+ */
+@RestController
+public class BrowseRenovationsRestController {
+
+    /**
+     * The largest number of renovations that can be fetched at once.
+     */
+    public static final int MAX_LIMIT = 50;
+
+    private final RenovationService renovationService;
+    private final UserService userService;
+
+    /**
+     * Constructs a BrowseRenovationsRestController.
+     *
+     * @param renovationService the service used to find renovations
+     * @param userService       the service used to find the logged-in user
+     */
+    @Autowired
+    public BrowseRenovationsRestController(RenovationService renovationService, UserService userService) {
+        this.renovationService = renovationService;
+        this.userService = userService;
+    }
+
+    /**
+     * Gets the next page of renovations matching the same search and tags as the browse page, newest first.
+     *
+     * @param search   an optional search query string used to filter renovations by keyword
+     * @param tags     an optional list of tags used to filter renovations
+     * @param onlyMine an optional flag indicating whether to show only the users own renovations
+     * @param cursor   the cursor returned with the previous page, or none for the first page
+     * @param limit    the number of renovations to fetch, at most {@value #MAX_LIMIT}
+     * @param request  the HttpServletRequest containing the user's authentication/session details
+     * @return the page of renovation cards, with the cursor of the next page if there is one
+     */
+    @GetMapping("/browse/renovations")
+    public RenovationCardPage getRenovations(
+            @RequestParam(name = "search", required = false, defaultValue = "") String search,
+            @RequestParam(name = "tags", required = false) List<String> tags,
+            @RequestParam(defaultValue = "false") boolean onlyMine,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "10") int limit,
+            HttpServletRequest request) {
+        RenovationCursor after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+        int boundedLimit = Math.clamp(limit, 1, MAX_LIMIT);
+        if (!onlyMine) {
+            return renovationService.findPublicRenovationCards(search, tags, after, boundedLimit);
+        }
+
+        Optional<User> user = UserUtil.getOptionalUserFromHttpServletRequest(userService, request);
+        if (user.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "You must be logged in to see your renovations");
+        }
+        return renovationService.findUsersRenovationCards(user.get(), search, tags, after, boundedLimit);
+    }
+
+    /**
+     * Decodes a cursor sent by a client.
+     *
+     * @param cursor the encoded cursor
+     * @return the decoded cursor
+     * @throws ResponseStatusException with a 400 status if the cursor is invalid
+     */
+    private RenovationCursor decodeCursor(String cursor) {
+        try {
+            return RenovationCursor.decode(cursor);
+        } catch (InvalidRenovationCursorException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -115,7 +115,8 @@ public class NewIndividualRenovationController {
         Pagination<Task> pagination = paginationService.paginate(
                 page,
                 gotoPage,
-                pageable -> renovationService.getTaskListFiltered(renovation.getId(), states, pageable),
+                (pageable, knownTotal) ->
+                        renovationService.getTaskListFiltered(renovation.getId(), states, pageable, knownTotal),
                 request);
         model.addAttribute("states", states);
         model.addAttribute("pagination", pagination);
@@ -7,6 +7,7 @@ import nz.ac.canterbury.seng302.homehelper.entity.user.User;
 import nz.ac.canterbury.seng302.homehelper.exceptions.renovation.RenovationDetailsException;
 import nz.ac.canterbury.seng302.homehelper.model.Pagination;
 import nz.ac.canterbury.seng302.homehelper.model.renovation.OwnershipFilter;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard;
 import nz.ac.canterbury.seng302.homehelper.service.PaginationService;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.RecentlyAccessedRenovationService;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationService;
@@ -16,8 +17,6 @@ import nz.ac.canterbury.seng302.homehelper.utility.UserUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -30,7 +29,6 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 import java.security.Principal;
 import java.util.Collections;
 import java.util.List;
-import java.util.function.Function;
 
 /**
  * Controller for renovation form
@@ -79,9 +77,9 @@ public class RenovationController {
         }
         OwnershipFilter finalOwnershipFilter = ownershipFilter;
         User user = UserUtil.getUserFromHttpServletRequest(userService, request);
-        Function<Pageable, Page<Renovation>> pageSupplier = pageable ->
-                renovationService.findUsersAccessibleRenovations(user, finalOwnershipFilter, pageable);
-        Pagination<Renovation> pagination = paginationService.paginate(page, gotoPage, pageSupplier, request);
+        PaginationService.PageSupplier<RenovationCard> pageSupplier = (pageable, knownTotal) ->
+                renovationService.findUsersAccessibleRenovationCards(user, finalOwnershipFilter, pageable, knownTotal);
+        Pagination<RenovationCard> pagination = paginationService.paginate(page, gotoPage, pageSupplier, request);
         model.addAttribute("userId", user.getId());
         model.addAttribute("pagination", pagination);
         model.addAttribute("ownershipFilter", ownershipFilter);
@@ -0,0 +1,191 @@
+package nz.ac.canterbury.seng302.homehelper.entity.chat;
+
+import jakarta.persistence.*;
+import nz.ac.canterbury.seng302.homehelper.entity.key.AiUsageRollupKey;
+import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponseType;
+
+/**
+ * The number of calls BrickAI made to the AI for a renovation on a day, with the tokens they used and how long they
+ * took. Calls are counted by the type of response they got, calls summarising chat channels are counted on their own,
+ * and failed calls and calls answered by a fallback model are counted separately.
+ */
+@Entity
+@Table(name = "ai_usage_rollup")
+public class AiUsageRollup {
+
+    @EmbeddedId
+    private AiUsageRollupKey id;
+
+    @Column(nullable = false)
+    private long callCount;
+
+    @Column(nullable = false)
+    private long failureCount;
+
+    @Column(nullable = false)
+    private long fallbackCount;
+
+    @Column(nullable = false)
+    private long messageCount;
+
+    @Column(nullable = false)
+    private long taskCreationCount;
+
+    @Column(nullable = false)
+    private long requireChatContextCount;
+
+    @Column(nullable = false)
+    private long summaryCount;
+
+    @Column(nullable = false)
+    private long promptTokens;
+
+    @Column(nullable = false)
+    private long completionTokens;
+
+    @Column(nullable = false)
+    private long totalMillis;
+
+    @Column(nullable = false)
+    private long maxMillis;
+
+    /**
+     * Required no-args constructor for JPA.
+     */
+    protected AiUsageRollup() {
+    }
+
+    /**
+     * Constructs a new, empty AiUsageRollup.
+     *
+     * @param id the renovation and day the usage is for
+     */
+    public AiUsageRollup(AiUsageRollupKey id) {
+        this.id = id;
+    }
+
+    /**
+     * Counts a call that got a response.
+     *
+     * @param responseType     the type of response the AI gave
+     * @param fallback         whether the response came from a fallback model
+     * @param promptTokens     the number of tokens in the prompt
+     * @param completionTokens the number of tokens in the response
+     * @param millis           how long the call took
+     */
+    public void recordCall(AiResponseType responseType, boolean fallback, long promptTokens, long completionTokens,
+                           long millis) {
+        switch (responseType) {
+            case MESSAGE -> messageCount++;
+            case TASK_CREATION -> taskCreationCount++;
+            case REQUIRE_CHAT_CONTEXT -> requireChatContextCount++;
+        }
+        addCall(fallback, promptTokens, completionTokens, millis);
+    }
+
+    /**
+     * Counts a call that summarised a chat channel.
+     *
+     * @param fallback         whether the summary came from a fallback model
+     * @param promptTokens     the number of tokens in the prompt
+     * @param completionTokens the number of tokens in the summary
+     * @param millis           how long the call took
+     */
+    public void recordSummaryCall(boolean fallback, long promptTokens, long completionTokens, long millis) {
+        summaryCount++;
+        addCall(fallback, promptTokens, completionTokens, millis);
+    }
+
+    /**
+     * Counts a call that failed.
+     *
+     * @param millis how long the call took to fail
+     */
+    public void recordFailure(long millis) {
+        callCount++;
+        failureCount++;
+        addTime(millis);
+    }
+
+    /**
+     * Adds the usage counted in another rollup for the same renovation and day to this one.
+     *
+     * @param other the rollup to add
+     */
+    public void add(AiUsageRollup other) {
+        callCount += other.callCount;
+        failureCount += other.failureCount;
+        fallbackCount += other.fallbackCount;
+        messageCount += other.messageCount;
+        taskCreationCount += other.taskCreationCount;
+        requireChatContextCount += other.requireChatContextCount;
+        summaryCount += other.summaryCount;
+        promptTokens += other.promptTokens;
+        completionTokens += other.completionTokens;
+        totalMillis += other.totalMillis;
+        maxMillis = Math.max(maxMillis, other.maxMillis);
+    }
+
+    private void addCall(boolean fallback, long promptTokens, long completionTokens, long millis) {
+        callCount++;
+        if (fallback) {
+            fallbackCount++;
+        }
+        this.promptTokens += promptTokens;
+        this.completionTokens += completionTokens;
+        addTime(millis);
+    }
+
+    private void addTime(long millis) {
+        totalMillis += millis;
+        maxMillis = Math.max(maxMillis, millis);
+    }
+
+    public AiUsageRollupKey getId() {
+        return id;
+    }
+
+    public long getCallCount() {
+        return callCount;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    public long getFallbackCount() {
+        return fallbackCount;
+    }
+
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    public long getTaskCreationCount() {
+        return taskCreationCount;
+    }
+
+    public long getRequireChatContextCount() {
+        return requireChatContextCount;
+    }
+
+    public long getSummaryCount() {
+        return summaryCount;
+    }
+
+    public long getPromptTokens() {
+        return promptTokens;
+    }
+
+    public long getCompletionTokens() {
+        return completionTokens;
+    }
+
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+}
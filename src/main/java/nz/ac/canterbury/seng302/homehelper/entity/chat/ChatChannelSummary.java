@@ -0,0 +1,90 @@
+package nz.ac.canterbury.seng302.homehelper.entity.chat;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A rolling summary of the conversation in a chat channel, given to BrickAI in place of the channel's older messages.
+ * The summary covers every message up to and including the last summarised message, later messages are folded in
+ * as the channel grows.
+ */
+@Entity
+public class ChatChannelSummary {
+
+    @Id
+    @Column(name = "channel_id")
+    private long channelId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(nullable = false)
+    private long lastMessageId;
+
+    @Column(nullable = false)
+    private Instant lastMessageTimestamp;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * Required no-args constructor for JPA.
+     */
+    protected ChatChannelSummary() {
+    }
+
+    /**
+     * Constructs a new ChatChannelSummary.
+     *
+     * @param channelId the ID of the channel the summary is for
+     */
+    public ChatChannelSummary(long channelId) {
+        this.channelId = channelId;
+    }
+
+    /**
+     * Replaces the summary with one that also covers messages up to and including the given message.
+     *
+     * @param summary     the updated summary
+     * @param lastMessage the latest message the summary covers
+     */
+    public void update(String summary, ChatMessage lastMessage) {
+        this.summary = summary;
+        this.lastMessageId = lastMessage.getId();
+        this.lastMessageTimestamp = lastMessage.getTimestamp();
+        this.updatedAt = Instant.now();
+    }
+
+    /**
+     * Checks whether a message was sent after the last summarised message, using the same (timestamp, id) order
+     * that chat history is paged in.
+     *
+     * @param message the message to check
+     * @return true if the message is not covered by the summary
+     */
+    public boolean isAfterSummary(ChatMessage message) {
+        int compared = message.getTimestamp().compareTo(lastMessageTimestamp);
+        return compared > 0 || (compared == 0 && message.getId() > lastMessageId);
+    }
+
+    public long getChannelId() {
+        return channelId;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public Instant getLastMessageTimestamp() {
+        return lastMessageTimestamp;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -11,6 +11,7 @@ import java.util.List;
  * Represents a message sent within a chat channel.
  */
 @Entity
+@Table(indexes = @Index(name = "idx_chat_message_channel_timestamp_id", columnList = "channel_id, timestamp, id"))
 public class ChatMessage {
 
     @Id
@@ -37,6 +38,13 @@ public class ChatMessage {
     @OneToMany(mappedBy = "message", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ChatLink> links = new ArrayList<>();
 
+    /**
+     * The message's fragments, serialised as JSON when the message is saved so they do not need to be re-parsed on
+     * every read. Null if they have not been computed.
+     */
+    @Column(length = 8192)
+    private String fragments;
+
     /**
      * Required no-args constructor for JPA.
      */
@@ -101,4 +109,25 @@ public class ChatMessage {
 
     public List<ChatLink> getLinks() { return links; }
 
+    /**
+     * Replaces the message's content, removing its mentions and links as they point into the old content.
+     * The stored fragments are cleared so they are recomputed.
+     *
+     * @param replacement the content to show in place of the message
+     */
+    public void redact(String replacement) {
+        this.content = replacement;
+        this.mentions.clear();
+        this.links.clear();
+        this.fragments = null;
+    }
+
+    public String getFragments() {
+        return fragments;
+    }
+
+    public void setFragments(String fragments) {
+        this.fragments = fragments;
+    }
+
 }
@@ -0,0 +1,55 @@
+package nz.ac.canterbury.seng302.homehelper.entity.key;
+
+import jakarta.persistence.Embeddable;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Embeddable composite key for AiUsageRollup.
+ * Combines renovationId and usageDate, as usage is rolled up per renovation and per day.
+ */
+@Embeddable
+public class AiUsageRollupKey {
+    private long renovationId;
+    private LocalDate usageDate;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public AiUsageRollupKey() {
+
+    }
+
+    /**
+     * Constructs a key with the given renovation ID and date.
+     *
+     * @param renovationId The ID of the renovation.
+     * @param usageDate    The day the usage happened on.
+     */
+    public AiUsageRollupKey(long renovationId, LocalDate usageDate) {
+        this.renovationId = renovationId;
+        this.usageDate = usageDate;
+    }
+
+    public long getRenovationId() {
+        return renovationId;
+    }
+
+    public LocalDate getUsageDate() {
+        return usageDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AiUsageRollupKey key)) return false;
+        return Objects.equals(renovationId, key.getRenovationId()) &&
+                Objects.equals(usageDate, key.getUsageDate());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(renovationId, usageDate);
+    }
+}
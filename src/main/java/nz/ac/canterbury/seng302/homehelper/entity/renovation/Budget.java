@@ -9,6 +9,7 @@ import java.math.BigDecimal;
  * Stores allocated amounts for various categories..
  */
 @Entity
+@EntityListeners(RenovationAiContextListener.class)
 public class Budget {
 
     @Id
@@ -13,6 +13,7 @@ import java.util.List;
  * Entity class representing an expense object
  */
 @Entity
+@EntityListeners(RenovationAiContextListener.class)
 public class Expense {
 
     @Id
@@ -0,0 +1,32 @@
+package nz.ac.canterbury.seng302.homehelper.entity.renovation;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import nz.ac.canterbury.seng302.homehelper.service.PaginationTotalCache;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Entity listener that invalidates the cached totals of paginated lists whenever an entity that is paginated, or
+ * used to filter a paginated list, is saved or deleted.
+ */
+public class PaginationTotalListener {
+
+    // Not available in JPA test slices, which don't create services
+    @Autowired(required = false)
+    private PaginationTotalCache paginationTotalCache;
+
+    /**
+     * Invalidates the cached totals.
+     *
+     * @param entity the entity that was saved or deleted
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (paginationTotalCache != null) {
+            paginationTotalCache.invalidate();
+        }
+    }
+}
@@ -4,8 +4,6 @@ import jakarta.persistence.*;
 import nz.ac.canterbury.seng302.homehelper.entity.key.RecentlyAccessedRenovationKey;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
 
-import java.time.Duration;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -68,15 +66,4 @@ public class RecentlyAccessedRenovation {
     public Renovation getRenovation() {
         return renovation;
     }
-
-    public String getRelativeTime() {
-        Duration duration = Duration.between(getTimeAccessed(), LocalDateTime.now());
-        if (duration.toMinutes() < 60) {
-            return duration.toMinutes() + " minutes ago";
-        } else if (duration.toHours() < 24) {
-            return duration.toHours() + " hours ago";
-        } else {
-            return duration.toDays() + " days ago";
-        }
-    }
 }
@@ -18,6 +18,7 @@ import java.util.stream.Collectors;
  * Entity class representing a renovation project.
  */
 @Entity
+@EntityListeners({RenovationAiContextListener.class, RenovationSearchListener.class, PaginationTotalListener.class})
 public class Renovation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,45 @@
+package nz.ac.canterbury.seng302.homehelper.entity.renovation;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import nz.ac.canterbury.seng302.homehelper.service.chat.RenovationAiContextCache;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Entity listener that invalidates a renovation's cached BrickAI prompt context whenever the renovation, or anything
+ * that is included in the context, is saved or deleted.
+ */
+public class RenovationAiContextListener {
+
+    // Not available in JPA test slices, which don't create services
+    @Autowired(required = false)
+    private RenovationAiContextCache renovationAiContextCache;
+
+    /**
+     * Invalidates the prompt context of the renovation the changed entity belongs to.
+     *
+     * @param entity the entity that was saved or deleted
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (renovationAiContextCache == null) {
+            return;
+        }
+        Renovation renovation = switch (entity) {
+            case Renovation changed -> changed;
+            case Task task -> task.getRenovation();
+            case Room room -> room.getRenovation();
+            case Tag tag -> tag.getRenovation();
+            case Budget budget -> budget.getRenovation();
+            case RenovationMember member -> member.getRenovation();
+            case Expense expense -> expense.getTask() == null ? null : expense.getTask().getRenovation();
+            default -> null;
+        };
+        if (renovation != null) {
+            renovationAiContextCache.invalidate(renovation.getId());
+        }
+    }
+}
@@ -9,6 +9,7 @@ import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationMemberRole
  * Entity representing a user's membership in a renovation project.
  */
 @Entity
+@EntityListeners({RenovationAiContextListener.class, PaginationTotalListener.class})
 public class RenovationMember {
 
     /**
@@ -0,0 +1,89 @@
+package nz.ac.canterbury.seng302.homehelper.entity.renovation;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchDocument;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity listener that keeps the renovation search index up to date whenever a renovation, or one of its tags or
+ * rooms, is saved or deleted.
+ */
+public class RenovationSearchListener {
+
+    // Not available in JPA test slices, which don't create services
+    @Autowired(required = false)
+    private RenovationSearchIndex renovationSearchIndex;
+
+    /**
+     * Re-indexes the renovation the saved entity belongs to.
+     *
+     * @param entity the entity that was saved
+     */
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        Renovation renovation = getRenovation(entity);
+        if (renovationSearchIndex == null || renovation == null) {
+            return;
+        }
+        RenovationSearchDocument document = RenovationSearchDocument.of(renovation);
+        // a new tag or room may have been saved without being added to the renovation's list
+        renovationSearchIndex.update(document.withTagsAndRooms(
+                entity instanceof Tag tag ? with(document.tags(), tag.getTag()) : document.tags(),
+                entity instanceof Room room ? with(document.rooms(), room.getName()) : document.rooms()));
+    }
+
+    /**
+     * Removes a deleted renovation from the index, or re-indexes the renovation a deleted tag or room belonged to.
+     *
+     * @param entity the entity that was deleted
+     */
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (renovationSearchIndex == null) {
+            return;
+        }
+        if (entity instanceof Renovation renovation) {
+            renovationSearchIndex.remove(renovation.getId());
+            return;
+        }
+        Renovation renovation = getRenovation(entity);
+        if (renovation != null) {
+            RenovationSearchDocument document = RenovationSearchDocument.of(renovation);
+            // the deleted tag or room may not have been removed from the renovation's list yet
+            renovationSearchIndex.update(document.withTagsAndRooms(
+                    entity instanceof Tag tag ? without(document.tags(), tag.getTag()) : document.tags(),
+                    entity instanceof Room room ? without(document.rooms(), room.getName()) : document.rooms()));
+        }
+    }
+
+    private static Renovation getRenovation(Object entity) {
+        return switch (entity) {
+            case Renovation changed -> changed;
+            case Room room -> room.getRenovation();
+            case Tag tag -> tag.getRenovation();
+            default -> null;
+        };
+    }
+
+    private static List<String> with(List<String> values, String added) {
+        if (values.contains(added)) {
+            return values;
+        }
+        List<String> all = new ArrayList<>(values);
+        all.add(added);
+        return all;
+    }
+
+    private static List<String> without(List<String> values, String removed) {
+        List<String> remaining = new ArrayList<>(values);
+        remaining.remove(removed);
+        return remaining;
+    }
+}
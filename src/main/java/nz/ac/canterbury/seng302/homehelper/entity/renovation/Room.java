@@ -8,6 +8,7 @@ import java.util.List;
  * Entity class representing a room object.
  */
 @Entity
+@EntityListeners({RenovationAiContextListener.class, RenovationSearchListener.class, PaginationTotalListener.class})
 public class Room {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -11,6 +11,7 @@ import java.util.Objects;
  */
 @Entity
 @IdClass(TagKey.class)
+@EntityListeners({RenovationAiContextListener.class, RenovationSearchListener.class, PaginationTotalListener.class})
 public class Tag {
 
     @Id
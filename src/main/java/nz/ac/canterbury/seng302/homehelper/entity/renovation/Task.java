@@ -15,6 +15,7 @@ import java.util.stream.Collectors;
  * Entity class representing a task object.
  */
 @Entity
+@EntityListeners({RenovationAiContextListener.class, PaginationTotalListener.class})
 public class Task implements CalendarItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,16 @@
+package nz.ac.canterbury.seng302.homehelper.exceptions.chat;
+
+/**
+ * Thrown when a requested chat message cannot be found.
+ */
+public class ChatMessageNotFoundException extends ChatException {
+
+    /**
+     * Constructs a new ChatMessageNotFoundException with the specified detail message.
+     *
+     * @param message The detail message.
+     */
+    public ChatMessageNotFoundException(String message) {
+        super(message);
+    }
+}
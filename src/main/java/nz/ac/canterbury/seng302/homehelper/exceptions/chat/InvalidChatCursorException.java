@@ -0,0 +1,16 @@
+package nz.ac.canterbury.seng302.homehelper.exceptions.chat;
+
+/**
+ * Thrown when a chat history cursor cannot be decoded.
+ */
+public class InvalidChatCursorException extends ChatException {
+
+    /**
+     * Constructs a new InvalidChatCursorException with the specified detail message.
+     *
+     * @param message The detail message.
+     */
+    public InvalidChatCursorException(String message) {
+        super(message);
+    }
+}
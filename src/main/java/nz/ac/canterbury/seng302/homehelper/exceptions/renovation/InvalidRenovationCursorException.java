@@ -0,0 +1,16 @@
+package nz.ac.canterbury.seng302.homehelper.exceptions.renovation;
+
+/**
+ * Thrown when a browse renovations cursor cannot be decoded.
+ */
+public class InvalidRenovationCursorException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidRenovationCursorException with the specified detail message.
+     *
+     * @param message The detail message.
+     */
+    public InvalidRenovationCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package nz.ac.canterbury.seng302.homehelper.model.ai;
+
+import java.util.List;
+
+/**
+ * A lightweight DTO representing the history of a chat channel given to BrickAI.
+ *
+ * @param earlierConversationSummary A summary of the conversation before the latest messages, or null if there is none yet.
+ * @param latestMessages The latest messages in the channel, oldest first.
+ */
+public record ChatHistoryAiView(
+        String earlierConversationSummary,
+        List<ChatMessageAiView> latestMessages
+) {
+}
@@ -0,0 +1,13 @@
+package nz.ac.canterbury.seng302.homehelper.model.ai;
+
+import java.util.List;
+
+/**
+ * A lightweight DTO holding the renovation tasks most relevant to a message, formatted for AI context generation.
+ *
+ * @param relevantTasks The tasks most relevant to the message, most relevant first.
+ */
+public record RelevantTasksAiView(
+        List<TaskAiView> relevantTasks
+) {
+}
@@ -17,7 +17,8 @@ import java.util.List;
  * @param tags          A list of descriptive tags associated with the renovation.
  * @param rooms         A list of room names involved in the renovation.
  * @param members       A list of members part of the renovation.
- * @param tasks         A list of tasks associated with the renovation.
+ * @param taskCounts    Counts of the renovation's tasks. The tasks themselves are given separately, as only the ones
+ *                      relevant to a message are included.
  * @param budget        A breakdown of the renovation budget.
  */
 public record RenovationAiView(
@@ -27,7 +28,7 @@ public record RenovationAiView(
         List<String> tags,
         List<String> rooms,
         List<String> members,
-        List<TaskAiView> tasks,
+        TaskCountsAiView taskCounts,
         BudgetAiView budget
 ) {
     public RenovationAiView(Renovation renovation, List<RenovationMember> members) {
@@ -41,7 +42,7 @@ public record RenovationAiView(
                         .filter(member -> member.getRole() != RenovationMemberRole.OWNER)
                         .map(member -> member.getUser().getFullName())
                         .toList(),
-                renovation.getTasks().stream().map(TaskAiView::new).toList(),
+                new TaskCountsAiView(renovation.getTasks()),
                 new BudgetAiView(renovation.getBudget())
         );
     }
@@ -0,0 +1,36 @@
+package nz.ac.canterbury.seng302.homehelper.model.ai;
+
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Task;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.TaskState;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * A lightweight DTO counting a renovation's tasks, formatted for AI context generation.
+ * Only some of a renovation's tasks are given to the AI in full, so these counts let it answer questions about all
+ * of them.
+ *
+ * @param total   The total number of tasks.
+ * @param byState The number of tasks in each state.
+ * @param overdue The number of tasks past their due date that aren't completed or cancelled.
+ */
+public record TaskCountsAiView(
+        int total,
+        Map<String, Long> byState,
+        long overdue
+) {
+    public TaskCountsAiView(Collection<Task> tasks) {
+        this(
+                tasks.size(),
+                tasks.stream().collect(Collectors.groupingBy(task -> task.getState().name(), TreeMap::new, Collectors.counting())),
+                tasks.stream()
+                        .filter(task -> task.getDueDate() != null && task.getDueDate().isBefore(LocalDate.now()))
+                        .filter(task -> task.getState() != TaskState.COMPLETED && task.getState() != TaskState.CANCELLED)
+                        .count()
+        );
+    }
+}
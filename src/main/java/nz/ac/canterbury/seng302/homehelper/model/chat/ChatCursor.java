@@ -0,0 +1,51 @@
+package nz.ac.canterbury.seng302.homehelper.model.chat;
+
+import nz.ac.canterbury.seng302.homehelper.exceptions.chat.InvalidChatCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position of a message in a channel's history, used to page through messages before or after it.
+ * Clients receive it as an opaque token, so the full precision of the timestamp survives the round trip.
+ *
+ * @param timestamp the timestamp of the message
+ * @param messageId the ID of the message, used to order messages with the same timestamp
+ */
+public record ChatCursor(Instant timestamp, long messageId) {
+
+    private static final String SEPARATOR = ".";
+
+    /**
+     * Encodes the cursor as an opaque URL-safe token.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = timestamp.getEpochSecond() + SEPARATOR + timestamp.getNano() + SEPARATOR + messageId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor token created by {@link #encode()}.
+     *
+     * @param token the encoded cursor
+     * @return the decoded cursor
+     * @throws InvalidChatCursorException if the token is not a valid cursor
+     */
+    public static ChatCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\.");
+            if (parts.length != 3) {
+                throw new InvalidChatCursorException("Invalid chat cursor: " + token);
+            }
+            Instant timestamp = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new ChatCursor(timestamp, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidChatCursorException("Invalid chat cursor: " + token);
+        }
+    }
+}
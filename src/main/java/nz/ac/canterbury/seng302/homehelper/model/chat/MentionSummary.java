@@ -0,0 +1,12 @@
+package nz.ac.canterbury.seng302.homehelper.model.chat;
+
+import java.util.List;
+
+/**
+ * Summary of a user's unseen mentions shown in the page chrome
+ *
+ * @param unreadCount    the number of messages the user has been mentioned in and not yet seen
+ * @param latestMentions previews of the most recent of those messages, newest first
+ */
+public record MentionSummary(long unreadCount, List<OutgoingMention> latestMentions) {
+}
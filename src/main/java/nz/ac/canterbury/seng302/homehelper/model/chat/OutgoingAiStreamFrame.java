@@ -0,0 +1,25 @@
+package nz.ac.canterbury.seng302.homehelper.model.chat;
+
+import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragment;
+import nz.ac.canterbury.seng302.homehelper.model.user.ChatUserDetails;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A frame of a BrickAI reply that is streamed to a chat channel while the reply is being generated.
+ * Provisional frames hold the reply so far and replace each other in order of their sequence. The final frame has
+ * no fragments and holds the ID of the saved message, which is sent to the channel as a normal message.
+ *
+ * @param streamId    identifies the reply the frame belongs to
+ * @param sequence    the position of the frame in the stream, so frames delivered out of order can be ignored
+ * @param fragments   the reply so far, or empty for the final frame
+ * @param date        when the reply started
+ * @param user        BrickAI's details
+ * @param ai          always true, so clients render the frame like other AI messages
+ * @param provisional true until the final frame
+ * @param messageId   the ID of the saved message for the final frame, otherwise null
+ */
+public record OutgoingAiStreamFrame(String streamId, long sequence, List<ChatMessageFragment> fragments, Instant date,
+                                    ChatUserDetails user, boolean ai, boolean provisional, Long messageId) {
+}
@@ -1,5 +1,6 @@
 package nz.ac.canterbury.seng302.homehelper.model.chat;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
 import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragment;
 import nz.ac.canterbury.seng302.homehelper.model.user.ChatUserDetails;
@@ -19,4 +20,14 @@ public record OutgoingMessage(long id, List<ChatMessageFragment> fragments, Inst
                 new ChatUserDetails(chatMessage.getSender()),
                 ai);
     }
+
+    /**
+     * Returns the cursor clients send back to load the messages before or after this one.
+     *
+     * @return the encoded cursor for this message
+     */
+    @JsonProperty("cursor")
+    public String cursor() {
+        return new ChatCursor(date, id).encode();
+    }
 }
@@ -0,0 +1,15 @@
+package nz.ac.canterbury.seng302.homehelper.model.chat;
+
+import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragment;
+
+import java.util.List;
+
+/**
+ * Sent to a chat channel when a message that was already delivered is redacted by moderation, so clients replace the
+ * message's content.
+ *
+ * @param redactedMessageId the ID of the redacted message
+ * @param fragments         the content to show in place of the message
+ */
+public record OutgoingRedaction(long redactedMessageId, List<ChatMessageFragment> fragments) {
+}
@@ -0,0 +1,112 @@
+package nz.ac.canterbury.seng302.homehelper.model.chat.ai;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Accumulates a streamed AI response and reads the content of a {@code MESSAGE} response before the JSON is complete,
+ * so it can be shown to users as it arrives.
+ * <pre>
+ * {"type": "MESSAGE", "content": "Hello the
+ * </pre>
+ * gives {@code Hello the}. Nothing is read until the response is known to be a {@code MESSAGE}, since other response
+ * types are never shown to users.
+ */
+public class AiResponseStreamParser {
+
+    private static final Pattern MESSAGE_TYPE = Pattern.compile("\"type\"\\s*:\\s*\"MESSAGE\"");
+    private static final Pattern CONTENT_START = Pattern.compile("\"content\"\\s*:\\s*\"");
+
+    private final StringBuilder text = new StringBuilder();
+    private String content = "";
+
+    /**
+     * Appends the next chunk of the response.
+     *
+     * @param chunk the next chunk of text from the AI
+     * @return the message content read so far, or empty if the chunk didn't add to it
+     */
+    public Optional<String> append(String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return Optional.empty();
+        }
+        text.append(chunk);
+        if (!MESSAGE_TYPE.matcher(text).find()) {
+            return Optional.empty();
+        }
+        Matcher contentStart = CONTENT_START.matcher(text);
+        if (!contentStart.find()) {
+            return Optional.empty();
+        }
+
+        String partialContent = readPartialString(contentStart.end());
+        if (partialContent.length() <= content.length()) {
+            return Optional.empty();
+        }
+        content = partialContent;
+        return Optional.of(content);
+    }
+
+    /**
+     * Gets the full text of the response received so far.
+     *
+     * @return the accumulated response text
+     */
+    public String getText() {
+        return text.toString();
+    }
+
+    /**
+     * Decodes a JSON string value starting at the given index, stopping at the closing quote or at the end of the
+     * text received so far. An escape sequence cut off by the end of the text is left out until it is complete.
+     *
+     * @param start the index just after the string's opening quote
+     * @return the decoded string value so far
+     */
+    private String readPartialString(int start) {
+        StringBuilder value = new StringBuilder();
+        int i = start;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                i++;
+                continue;
+            }
+            if (i + 1 >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(i + 1);
+            if (escaped == 'u') {
+                if (i + 6 > text.length()) {
+                    break;
+                }
+                try {
+                    value.append((char) Integer.parseInt(text.substring(i + 2, i + 6), 16));
+                } catch (NumberFormatException e) {
+                    break;
+                }
+                i += 6;
+                continue;
+            }
+            value.append(switch (escaped) {
+                case 'n' -> '\n';
+                case 't' -> '\t';
+                case 'r' -> '\r';
+                case 'b' -> '\b';
+                case 'f' -> '\f';
+                default -> escaped;
+            });
+            i += 2;
+        }
+        // don't split a surrogate pair across updates
+        if (!value.isEmpty() && Character.isHighSurrogate(value.charAt(value.length() - 1))) {
+            value.setLength(value.length() - 1);
+        }
+        return value.toString();
+    }
+}
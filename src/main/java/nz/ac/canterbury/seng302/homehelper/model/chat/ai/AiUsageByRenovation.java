@@ -0,0 +1,29 @@
+package nz.ac.canterbury.seng302.homehelper.model.chat.ai;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * BrickAI's usage in a renovation over a number of days.
+ *
+ * @param renovationId     the ID of the renovation
+ * @param calls            the number of calls to the AI
+ * @param failures         the number of calls that failed
+ * @param fallbacks        the number of calls answered by a fallback model
+ * @param promptTokens     the number of prompt tokens used
+ * @param completionTokens the number of completion tokens used
+ * @param totalMillis      the total time spent waiting for the AI
+ * @param maxMillis        the longest call
+ */
+public record AiUsageByRenovation(long renovationId, long calls, long failures, long fallbacks, long promptTokens,
+                                  long completionTokens, long totalMillis, long maxMillis) {
+
+    /**
+     * Gets how long a call took on average.
+     *
+     * @return the mean call time in milliseconds, or 0 if there were no calls
+     */
+    @JsonProperty("averageMillis")
+    public long averageMillis() {
+        return calls == 0 ? 0 : totalMillis / calls;
+    }
+}
@@ -0,0 +1,14 @@
+package nz.ac.canterbury.seng302.homehelper.model.chat.ai;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A summary of BrickAI's usage since a day, for operators.
+ *
+ * @param since          the first day included
+ * @param days           the usage on each day, oldest first
+ * @param topRenovations the renovations that used the most tokens, most first
+ */
+public record AiUsageSummary(LocalDate since, List<AiUsageByDay> days, List<AiUsageByRenovation> topRenovations) {
+}
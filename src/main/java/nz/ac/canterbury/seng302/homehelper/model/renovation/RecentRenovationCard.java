@@ -0,0 +1,29 @@
+package nz.ac.canterbury.seng302.homehelper.model.renovation;
+
+import nz.ac.canterbury.seng302.homehelper.utility.UserUtil;
+
+import java.time.LocalDateTime;
+
+/**
+ * What is shown of a renovation a user recently opened on their dashboard, loaded without the renovation entity.
+ *
+ * @param renovationId   the ID of the renovation
+ * @param name           the renovation's name
+ * @param memberCount    the number of members of the renovation, including its owner
+ * @param ownerId        the ID of the renovation's owner
+ * @param ownerFirstName the first name of the renovation's owner
+ * @param ownerLastName  the last name of the renovation's owner
+ * @param timeAccessed   when the user last opened the renovation
+ */
+public record RecentRenovationCard(long renovationId, String name, long memberCount, long ownerId,
+                                   String ownerFirstName, String ownerLastName, LocalDateTime timeAccessed) {
+
+    /**
+     * Gets how long ago the user last opened the renovation.
+     *
+     * @return the time since the renovation was opened, e.g. 5 minutes ago
+     */
+    public String relativeTime() {
+        return UserUtil.formatTimeSince(timeAccessed);
+    }
+}
@@ -0,0 +1,49 @@
+package nz.ac.canterbury.seng302.homehelper.model.renovation;
+
+import nz.ac.canterbury.seng302.homehelper.utility.UserUtil;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * What is shown of a renovation on its card in browse results and on the My Renovations page, loaded without the
+ * renovation entity so its rooms, tasks and members are never fetched for a list.
+ *
+ * @param id               the ID of the renovation
+ * @param name             the renovation's name
+ * @param description      the renovation's description
+ * @param isPublic         whether the renovation is public
+ * @param createdTimestamp when the renovation was created
+ * @param createdDate      the date the renovation was created, formatted for display
+ * @param ownerId          the ID of the renovation's owner
+ * @param ownerName        the full name of the renovation's owner
+ * @param ownerImage       the path of the owner's profile image
+ * @param tags             the renovation's tags
+ * @param rooms            the names of the renovation's rooms
+ */
+public record RenovationCard(long id, String name, String description, boolean isPublic,
+                             LocalDateTime createdTimestamp, String createdDate, long ownerId, String ownerName,
+                             String ownerImage, List<String> tags, List<String> rooms) {
+
+    /**
+     * Constructs a card without tags or rooms, used by queries that load them separately.
+     */
+    public RenovationCard(long id, String name, String description, boolean isPublic, LocalDateTime createdTimestamp,
+                          long ownerId, String ownerFirstName, String ownerLastName, String ownerImage) {
+        this(id, name, description, isPublic, createdTimestamp,
+                createdTimestamp == null ? "" : UserUtil.formatDate(createdTimestamp), ownerId,
+                ownerFirstName + " " + ownerLastName, ownerImage, List.of(), List.of());
+    }
+
+    /**
+     * Copies the card with the given tags and rooms.
+     *
+     * @param tags  the renovation's tags
+     * @param rooms the names of the renovation's rooms
+     * @return the copied card
+     */
+    public RenovationCard withTagsAndRooms(List<String> tags, List<String> rooms) {
+        return new RenovationCard(id, name, description, isPublic, createdTimestamp, createdDate, ownerId, ownerName,
+                ownerImage, tags, rooms);
+    }
+}
@@ -0,0 +1,12 @@
+package nz.ac.canterbury.seng302.homehelper.model.renovation;
+
+import java.util.List;
+
+/**
+ * A page of renovation cards in newest-first browse results.
+ *
+ * @param renovations the renovations on the page
+ * @param nextCursor  the cursor to fetch the next page with, or null if this is the last page
+ */
+public record RenovationCardPage(List<RenovationCard> renovations, String nextCursor) {
+}
@@ -0,0 +1,66 @@
+package nz.ac.canterbury.seng302.homehelper.model.renovation;
+
+import nz.ac.canterbury.seng302.homehelper.exceptions.renovation.InvalidRenovationCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Position of a renovation in newest-first browse results, used to fetch the renovations after it.
+ * Clients receive it as an opaque token, so the full precision of the timestamp survives the round trip.
+ *
+ * @param createdTimestamp when the renovation was created
+ * @param renovationId     the ID of the renovation, used to order renovations created at the same time
+ */
+public record RenovationCursor(LocalDateTime createdTimestamp, long renovationId) {
+
+    private static final String SEPARATOR = ".";
+
+    /**
+     * Whether a renovation comes after this cursor, being created earlier, or at the same time with a smaller ID.
+     *
+     * @param otherCreatedTimestamp when the other renovation was created
+     * @param otherRenovationId     the ID of the other renovation
+     * @return true if the other renovation comes after the cursor
+     */
+    public boolean isBefore(LocalDateTime otherCreatedTimestamp, long otherRenovationId) {
+        int comparison = otherCreatedTimestamp.compareTo(createdTimestamp);
+        return comparison < 0 || (comparison == 0 && otherRenovationId < renovationId);
+    }
+
+    /**
+     * Encodes the cursor as an opaque URL-safe token.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = createdTimestamp.toEpochSecond(ZoneOffset.UTC) + SEPARATOR + createdTimestamp.getNano()
+                + SEPARATOR + renovationId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor token created by {@link #encode()}.
+     *
+     * @param token the encoded cursor
+     * @return the decoded cursor
+     * @throws InvalidRenovationCursorException if the token is not a valid cursor
+     */
+    public static RenovationCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\.");
+            if (parts.length != 3) {
+                throw new InvalidRenovationCursorException("Invalid renovation cursor: " + token);
+            }
+            LocalDateTime createdTimestamp = LocalDateTime.ofEpochSecond(Long.parseLong(parts[0]),
+                    Integer.parseInt(parts[1]), ZoneOffset.UTC);
+            return new RenovationCursor(createdTimestamp, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidRenovationCursorException("Invalid renovation cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package nz.ac.canterbury.seng302.homehelper.model.renovation;
+
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Room;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Tag;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The searchable text of a renovation, with what is needed to filter and order it in browse results.
+ *
+ * @param id               the ID of the renovation
+ * @param isPublic         whether the renovation is public
+ * @param createdTimestamp when the renovation was created
+ * @param name             the renovation's name
+ * @param description      the renovation's description
+ * @param tags             the renovation's tags
+ * @param rooms            the names of the renovation's rooms
+ */
+public record RenovationSearchDocument(long id, boolean isPublic, LocalDateTime createdTimestamp, String name,
+                                       String description, List<String> tags, List<String> rooms) {
+
+    /**
+     * Constructs a document without tags or rooms, used by queries that load them separately.
+     */
+    public RenovationSearchDocument(long id, boolean isPublic, LocalDateTime createdTimestamp, String name,
+                                    String description) {
+        this(id, isPublic, createdTimestamp, name, description, List.of(), List.of());
+    }
+
+    /**
+     * Creates the document for a renovation from its current state.
+     *
+     * @param renovation the renovation
+     * @return the renovation's document
+     */
+    public static RenovationSearchDocument of(Renovation renovation) {
+        return new RenovationSearchDocument(renovation.getId(), renovation.getIsPublic(),
+                renovation.getCreatedTimestamp(), renovation.getName(), renovation.getDescription(),
+                renovation.getTags().stream().map(Tag::getTag).toList(),
+                renovation.getRooms().stream().map(Room::getName).toList());
+    }
+
+    /**
+     * Copies the document with the given tags and rooms.
+     *
+     * @param tags  the renovation's tags
+     * @param rooms the names of the renovation's rooms
+     * @return the copied document
+     */
+    public RenovationSearchDocument withTagsAndRooms(List<String> tags, List<String> rooms) {
+        return new RenovationSearchDocument(id, isPublic, createdTimestamp, name, description, tags, rooms);
+    }
+}
@@ -0,0 +1,15 @@
+package nz.ac.canterbury.seng302.homehelper.model.renovation;
+
+/**
+ * The orders renovation search results can be shown in.
+ */
+public enum RenovationSearchOrder {
+    /**
+     * The most recently created renovations first.
+     */
+    NEWEST,
+    /**
+     * The renovations that best match the search first, then the most recently created.
+     */
+    RELEVANCE
+}
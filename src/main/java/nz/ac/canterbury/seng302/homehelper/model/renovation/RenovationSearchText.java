@@ -0,0 +1,10 @@
+package nz.ac.canterbury.seng302.homehelper.model.renovation;
+
+/**
+ * A piece of a renovation's searchable text that is stored outside the renovation itself, like a tag or room name.
+ *
+ * @param renovationId the ID of the renovation
+ * @param text         the text
+ */
+public record RenovationSearchText(long renovationId, String text) {
+}
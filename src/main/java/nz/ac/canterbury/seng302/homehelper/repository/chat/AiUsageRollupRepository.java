@@ -0,0 +1,56 @@
+package nz.ac.canterbury.seng302.homehelper.repository.chat;
+
+import nz.ac.canterbury.seng302.homehelper.entity.chat.AiUsageRollup;
+import nz.ac.canterbury.seng302.homehelper.entity.key.AiUsageRollupKey;
+import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiUsageByDay;
+import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiUsageByRenovation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for accessing BrickAI's usage, rolled up per renovation and per day.
+ */
+@Repository
+public interface AiUsageRollupRepository extends CrudRepository<AiUsageRollup, AiUsageRollupKey> {
+
+    /**
+     * Totals the usage across every renovation for each day since the given day.
+     *
+     * @param since the first day to include
+     * @return the usage on each day, oldest first
+     */
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiUsageByDay(
+                u.id.usageDate, SUM(u.callCount), SUM(u.failureCount), SUM(u.fallbackCount), SUM(u.promptTokens),
+                SUM(u.completionTokens), SUM(u.totalMillis), MAX(u.maxMillis))
+            FROM AiUsageRollup u
+            WHERE u.id.usageDate >= :since
+            GROUP BY u.id.usageDate
+            ORDER BY u.id.usageDate
+            """)
+    List<AiUsageByDay> findTotalsByDay(@Param("since") LocalDate since);
+
+    /**
+     * Totals the usage of each renovation since the given day, ordered by the tokens they used.
+     *
+     * @param since    the first day to include
+     * @param pageable the number of renovations to find
+     * @return the usage of the renovations that used the most tokens, most first
+     */
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiUsageByRenovation(
+                u.id.renovationId, SUM(u.callCount), SUM(u.failureCount), SUM(u.fallbackCount), SUM(u.promptTokens),
+                SUM(u.completionTokens), SUM(u.totalMillis), MAX(u.maxMillis))
+            FROM AiUsageRollup u
+            WHERE u.id.usageDate >= :since
+            GROUP BY u.id.renovationId
+            ORDER BY SUM(u.promptTokens + u.completionTokens) DESC
+            """)
+    List<AiUsageByRenovation> findTopRenovations(@Param("since") LocalDate since, Pageable pageable);
+}
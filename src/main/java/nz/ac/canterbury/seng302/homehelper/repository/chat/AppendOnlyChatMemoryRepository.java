@@ -0,0 +1,223 @@
+package nz.ac.canterbury.seng302.homehelper.repository.chat;
+
+import nz.ac.canterbury.seng302.homehelper.utility.LruCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link ChatMemoryRepository} for BrickAI's chat memory that only appends new messages to the
+ * SPRING_AI_CHAT_MEMORY table, rather than deleting and re-inserting a conversation's whole message window on every
+ * turn like the Spring AI JDBC repository does.
+ * <p>
+ * A conversation's messages are the latest rows of the conversation, ordered by ID. When the chat memory drops old
+ * messages from the front of its window, their rows are left in place and deleted later in a single batch. This
+ * relies on the chat memory being a window of at most {@code windowSize} messages, so the rows older than the latest
+ * {@code windowSize} are never read. If a conversation is saved with messages that don't simply extend the stored
+ * ones, the conversation is rewritten instead.
+ * <p>
+ * Reads are served from an LRU cache of recently used conversations, keyed by conversation (chat channel) ID.
+ */
+public class AppendOnlyChatMemoryRepository implements ChatMemoryRepository {
+
+    private static final String SELECT_CONVERSATION_IDS_SQL =
+            "SELECT DISTINCT conversation_id FROM SPRING_AI_CHAT_MEMORY";
+    private static final String SELECT_LATEST_MESSAGES_SQL =
+            "SELECT content, type FROM SPRING_AI_CHAT_MEMORY WHERE conversation_id = ? ORDER BY id DESC LIMIT ?";
+    private static final String COUNT_MESSAGES_SQL =
+            "SELECT COUNT(*) FROM SPRING_AI_CHAT_MEMORY WHERE conversation_id = ?";
+    private static final String INSERT_MESSAGE_SQL =
+            "INSERT INTO SPRING_AI_CHAT_MEMORY (conversation_id, content, type) VALUES (?, ?, ?)";
+    private static final String SELECT_NEWEST_DROPPED_ID_SQL =
+            "SELECT id FROM SPRING_AI_CHAT_MEMORY WHERE conversation_id = ? ORDER BY id DESC LIMIT 1 OFFSET ?";
+    private static final String DELETE_DROPPED_SQL =
+            "DELETE FROM SPRING_AI_CHAT_MEMORY WHERE conversation_id = ? AND id <= ?";
+    private static final String DELETE_CONVERSATION_SQL =
+            "DELETE FROM SPRING_AI_CHAT_MEMORY WHERE conversation_id = ?";
+    private static final int LOCK_STRIPES = 64;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LruCache<String, Conversation> conversations;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final int windowSize;
+    private final int trimBatchSize;
+
+    /**
+     * Constructs the AppendOnlyChatMemoryRepository.
+     *
+     * @param jdbcTemplate        the JdbcTemplate used for database access
+     * @param transactionTemplate used to rewrite a conversation atomically
+     * @param windowSize          the maximum number of messages the chat memory keeps per conversation
+     * @param trimBatchSize       the number of dropped messages a conversation can have before they are deleted
+     * @param cacheSize           the number of conversations to keep in memory
+     */
+    public AppendOnlyChatMemoryRepository(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                          int windowSize, int trimBatchSize, int cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.windowSize = windowSize;
+        this.trimBatchSize = trimBatchSize;
+        this.conversations = new LruCache<>(cacheSize);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public List<String> findConversationIds() {
+        return jdbcTemplate.queryForList(SELECT_CONVERSATION_IDS_SQL, String.class);
+    }
+
+    @Override
+    public List<Message> findByConversationId(String conversationId) {
+        synchronized (lockFor(conversationId)) {
+            return List.copyOf(getConversation(conversationId).messages);
+        }
+    }
+
+    /**
+     * Saves a conversation's messages. When the messages are the stored ones with some dropped from the front and
+     * new ones added to the end, only the new messages are inserted.
+     *
+     * @param conversationId the ID of the conversation
+     * @param messages       all the conversation's messages
+     */
+    @Override
+    public void saveAll(String conversationId, List<Message> messages) {
+        synchronized (lockFor(conversationId)) {
+            Conversation stored = getConversation(conversationId);
+            int dropped = findDropped(stored.messages, messages);
+            if (dropped < 0) {
+                rewrite(conversationId, messages);
+                conversations.put(conversationId, new Conversation(List.copyOf(messages), 0));
+                return;
+            }
+
+            List<Message> added = messages.subList(stored.messages.size() - dropped, messages.size());
+            insert(conversationId, added);
+            int droppedRows = stored.droppedRows + dropped;
+            if (droppedRows >= trimBatchSize) {
+                deleteDropped(conversationId, messages.size());
+                droppedRows = 0;
+            }
+            conversations.put(conversationId, new Conversation(List.copyOf(messages), droppedRows));
+        }
+    }
+
+    @Override
+    public void deleteByConversationId(String conversationId) {
+        synchronized (lockFor(conversationId)) {
+            jdbcTemplate.update(DELETE_CONVERSATION_SQL, conversationId);
+            conversations.remove(conversationId);
+        }
+    }
+
+    private Object lockFor(String conversationId) {
+        return locks[Math.floorMod(conversationId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private Conversation getConversation(String conversationId) {
+        return conversations.get(conversationId).orElseGet(() -> {
+            Conversation conversation = load(conversationId);
+            conversations.put(conversationId, conversation);
+            return conversation;
+        });
+    }
+
+    private Conversation load(String conversationId) {
+        List<Message> latest = new ArrayList<>(jdbcTemplate.query(SELECT_LATEST_MESSAGES_SQL,
+                (rs, rowNum) -> toMessage(rs.getString("content"), MessageType.valueOf(rs.getString("type"))),
+                conversationId, windowSize));
+        latest.removeIf(Objects::isNull);
+        Integer rows = jdbcTemplate.queryForObject(COUNT_MESSAGES_SQL, Integer.class, conversationId);
+        int droppedRows = Math.max(0, (rows == null ? 0 : rows) - windowSize);
+        return new Conversation(List.copyOf(latest.reversed()), droppedRows);
+    }
+
+    /**
+     * Finds how many messages were dropped from the front of the stored messages, such that the rest of the stored
+     * messages start the new ones. Messages can only be dropped once the window is full, as otherwise the dropped
+     * rows would still be read back as part of the latest {@code windowSize}.
+     *
+     * @param stored   the stored messages
+     * @param messages the messages being saved
+     * @return the number of stored messages dropped, or -1 if the new messages don't extend the stored ones
+     */
+    private int findDropped(List<Message> stored, List<Message> messages) {
+        for (int dropped = 0; dropped <= stored.size(); dropped++) {
+            int kept = stored.size() - dropped;
+            if (kept > messages.size() || (dropped > 0 && messages.size() < windowSize)) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < kept && matches; i++) {
+                matches = isSameMessage(stored.get(dropped + i), messages.get(i));
+            }
+            if (matches) {
+                return dropped;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isSameMessage(Message first, Message second) {
+        return first.getMessageType() == second.getMessageType() && Objects.equals(first.getText(), second.getText());
+    }
+
+    private void insert(String conversationId, List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE_SQL, messages, messages.size(), (statement, message) -> {
+            statement.setString(1, conversationId);
+            statement.setString(2, message.getText());
+            statement.setString(3, message.getMessageType().name());
+        });
+    }
+
+    private void deleteDropped(String conversationId, int keptMessages) {
+        List<Long> newestDropped = jdbcTemplate.queryForList(SELECT_NEWEST_DROPPED_ID_SQL, Long.class,
+                conversationId, keptMessages);
+        if (!newestDropped.isEmpty()) {
+            int deleted = jdbcTemplate.update(DELETE_DROPPED_SQL, conversationId, newestDropped.getFirst());
+            logger.debug("Deleted {} dropped chat memory messages of conversation {}", deleted, conversationId);
+        }
+    }
+
+    private void rewrite(String conversationId, List<Message> messages) {
+        logger.debug("Rewriting chat memory of conversation {}", conversationId);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_CONVERSATION_SQL, conversationId);
+            insert(conversationId, messages);
+        });
+    }
+
+    private Message toMessage(String content, MessageType type) {
+        return switch (type) {
+            case USER -> new UserMessage(content);
+            case ASSISTANT -> new AssistantMessage(content);
+            case SYSTEM -> new SystemMessage(content);
+            // tool responses aren't kept by BrickAI's chat memory, and can't be restored from their text alone
+            case TOOL -> null;
+        };
+    }
+
+    /**
+     * A conversation's messages and the number of rows dropped from its window but not yet deleted.
+     */
+    private record Conversation(List<Message> messages, int droppedRows) {
+    }
+}
@@ -35,6 +35,16 @@ public interface ChatChannelRepository extends CrudRepository<ChatChannel, Long>
     @Query("SELECT c FROM ChatChannel c WHERE LOWER(c.name) = LOWER(:name) and c.renovation = :renovation")
     Optional<ChatChannel> findByNameAndRenovation(String name, Renovation renovation);
 
+    /**
+     * Retrieves a chat channel together with its members in a single query, so membership checks can be done in
+     * memory.
+     *
+     * @param channelId the ID of the chat channel
+     * @return an optional of the chat channel with its members loaded
+     */
+    @Query("SELECT DISTINCT c FROM ChatChannel c LEFT JOIN FETCH c.members WHERE c.id = :channelId")
+    Optional<ChatChannel> findByIdWithMembers(@Param("channelId") long channelId);
+
     /**
      * Checks if a user is a member of a chat channel by querying the join table.
      *
@@ -0,0 +1,30 @@
+package nz.ac.canterbury.seng302.homehelper.repository.chat;
+
+import jakarta.transaction.Transactional;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannelSummary;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for accessing the rolling conversation summaries of chat channels, keyed by channel ID.
+ */
+@Repository
+public interface ChatChannelSummaryRepository extends CrudRepository<ChatChannelSummary, Long> {
+
+    /**
+     * Deletes the summaries of every channel a user has sent messages in.
+     *
+     * @param user the user whose messages may be in the summaries
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            DELETE FROM ChatChannelSummary s
+            WHERE s.channelId IN (SELECT m.channel.id FROM ChatMessage m WHERE m.sender = :user)
+            """)
+    void deleteByMessagesFrom(@Param("user") User user);
+}
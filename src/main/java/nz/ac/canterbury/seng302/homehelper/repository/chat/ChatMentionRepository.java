@@ -2,6 +2,8 @@ package nz.ac.canterbury.seng302.homehelper.repository.chat;
 
 import jakarta.transaction.Transactional;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMention;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -12,16 +14,48 @@ import java.util.List;
 @Repository
 public interface ChatMentionRepository extends JpaRepository<ChatMention, Long> {
 
+    /**
+     * Finds the most recent messages a user has unseen mentions in, with the channel, renovation and sender fetched
+     * so they can be turned into mention previews without further queries.
+     *
+     * @param userId   the ID of the mentioned user
+     * @param pageable the number of messages to return
+     * @return the messages, newest first
+     */
     @Query("""
-        select cm
-        from ChatMention cm
-        join fetch cm.message m
+        select m
+        from ChatMessage m
         join fetch m.channel ch
-        where cm.mentionedUser.id = :userId
-          and cm.seen = false
-        order by m.timestamp desc
+        join fetch ch.renovation
+        join fetch m.sender
+        where exists (
+            select cm.id
+            from ChatMention cm
+            where cm.message = m
+              and cm.mentionedUser.id = :userId
+              and cm.seen = false
+        )
+        order by m.timestamp desc, m.id desc
     """)
-    List<ChatMention> findUnseenMentionsWithMessageAndChannel(Long userId);
+    List<ChatMessage> findLatestUnseenMentionedMessages(Long userId, Pageable pageable);
+
+    /**
+     * Counts the messages a user has unseen mentions in. A message mentioning the user more than once counts once.
+     *
+     * @param userId the ID of the mentioned user
+     * @return the number of messages
+     */
+    @Query("SELECT COUNT(DISTINCT cm.message.id) FROM ChatMention cm WHERE cm.mentionedUser.id = :userId AND cm.seen = false")
+    long countUnseenMentionedMessages(Long userId);
+
+    /**
+     * Finds the users mentioned in a message.
+     *
+     * @param messageId the ID of the message
+     * @return the IDs of the mentioned users, without duplicates
+     */
+    @Query("SELECT DISTINCT cm.mentionedUser.id FROM ChatMention cm WHERE cm.message.id = :messageId")
+    List<Long> findMentionedUserIds(Long messageId);
 
     /**
      * Marks all mentions as seen for a specific user in a specific channel
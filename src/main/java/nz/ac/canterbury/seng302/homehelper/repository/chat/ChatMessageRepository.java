@@ -16,7 +16,7 @@ import java.util.List;
  * Repository interface for accessing and querying ChatMessage entities from the database.
  */
 @Repository
-public interface ChatMessageRepository extends CrudRepository<ChatMessage, Long> {
+public interface ChatMessageRepository extends CrudRepository<ChatMessage, Long>, ChatMessageWriteRepository {
 
     /**
      * Retrieves the most recent messages for a given chat channel, up to a specific limit. Messages are ordered by
@@ -62,7 +62,8 @@ public interface ChatMessageRepository extends CrudRepository<ChatMessage, Long>
     /**
      * Retrieves a batch of messages older than the specified timestamp and message ID for a given chat channel, up to
      * a specific limit. Messages are ordered by timestamp (newest first) and then by ID (descending) to ensure
-     * consistent ordering when timestamps are equal.
+     * consistent ordering when timestamps are equal. The row value comparison lets the database seek straight to the
+     * cursor on the (channel_id, timestamp, id) index, so loading a page costs the same however far back it is.
      *
      * @param channelId the chat channel ID to retrieve messages from
      * @param timestamp the timestamp before which messages should be retrieved
@@ -74,7 +75,7 @@ public interface ChatMessageRepository extends CrudRepository<ChatMessage, Long>
     @Query("""
             SELECT m FROM ChatMessage m
             WHERE m.channel.id = :channelId
-            AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :messageId))
+            AND (m.timestamp, m.id) < (:timestamp, :messageId)
             ORDER BY m.timestamp DESC, m.id DESC
             """)
     List<ChatMessage> findPreviousMessages(
@@ -89,7 +90,8 @@ public interface ChatMessageRepository extends CrudRepository<ChatMessage, Long>
     /**
      * Retrieves messages sent after a specified timestamp and message ID in a given chat channel.
      * Messages are ordered by timestamp (oldest first) and then by ID (ascending) to ensure consistent ordering
-     * when timestamps are equal.
+     * when timestamps are equal. Like {@link #findPreviousMessages}, the row value comparison lets the database seek
+     * straight to the cursor on the (channel_id, timestamp, id) index.
      *
      * @param channelId the chat channel ID to retrieve messages from
      * @param timestamp the reference timestamp; only messages after this timestamp are returned
@@ -101,7 +103,7 @@ public interface ChatMessageRepository extends CrudRepository<ChatMessage, Long>
     @Query("""
         SELECT m FROM ChatMessage m
         WHERE m.channel.id = :channelId
-        AND (m.timestamp >= :timestamp AND m.id > :messageId)
+        AND (m.timestamp, m.id) > (:timestamp, :messageId)
         ORDER BY m.timestamp ASC, m.id ASC
         """)
     List<ChatMessage> findNextMessages(
@@ -112,6 +114,35 @@ public interface ChatMessageRepository extends CrudRepository<ChatMessage, Long>
     );
 
 
+    /**
+     * Retrieves messages sent after a specified timestamp and message ID in a given chat channel, excluding a specific
+     * user and users who haven't allowed BrickAI to read their messages. Messages are ordered by timestamp (oldest
+     * first) and then by ID (ascending).
+     *
+     * @param channelId the chat channel ID to retrieve messages from
+     * @param user      the user to exclude
+     * @param timestamp the reference timestamp; only messages after this timestamp are returned
+     * @param messageId the reference message ID; only messages with ID greater than this value are returned
+     * @param pageable  the Pageable containing the maximum number of messages to return
+     * @return a list of ChatMessage objects sent after the given timestamp and message ID, ordered by timestamp (ASC)
+     *         and ID (ASC)
+     */
+    @Query("""
+        SELECT m FROM ChatMessage m
+        WHERE m.channel.id = :channelId
+        AND NOT m.sender = :user
+        AND m.sender.allowBrickAIChatAccess = true
+        AND (m.timestamp, m.id) > (:timestamp, :messageId)
+        ORDER BY m.timestamp ASC, m.id ASC
+        """)
+    List<ChatMessage> findNextMessagesExcludingUser(
+            @Param("channelId") long channelId,
+            @Param("user") User user,
+            @Param("timestamp") Instant timestamp,
+            @Param("messageId") long messageId,
+            Pageable pageable
+    );
+
     /**
      * Retrieves up to 10 chat messages in the given channel that were sent at or before
      * the specified timestamp, ordered from newest to oldest (descending).
@@ -150,4 +181,13 @@ public interface ChatMessageRepository extends CrudRepository<ChatMessage, Long>
             Instant timestamp
     );
 
-}
\ No newline at end of file
+
+    /**
+     * Finds messages that do not have stored fragments yet, in ID order.
+     *
+     * @param afterId  only messages with an ID greater than this are returned
+     * @param pageable the number of messages to return
+     * @return messages without stored fragments
+     */
+    List<ChatMessage> findByFragmentsIsNullAndIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+}
@@ -0,0 +1,22 @@
+package nz.ac.canterbury.seng302.homehelper.repository.chat;
+
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+
+/**
+ * Custom write operations for ChatMessage entities that are not covered by Spring Data's derived methods.
+ */
+public interface ChatMessageWriteRepository {
+
+    /**
+     * Persists a new chat message, then inserts all of its mentions and links with JDBC batch statements instead of
+     * one insert per child row. The returned message is detached from the persistence context and holds the
+     * mentions and links that were written.
+     * <p>
+     * The batch inserts do not read back generated keys, so the returned mentions and links keep an ID of 0. Callers
+     * must not use their IDs; load them from the database instead if they are needed.
+     *
+     * @param chatMessage the new chat message, with its mentions and links attached
+     * @return the saved chat message
+     */
+    ChatMessage saveWithChildren(ChatMessage chatMessage);
+}
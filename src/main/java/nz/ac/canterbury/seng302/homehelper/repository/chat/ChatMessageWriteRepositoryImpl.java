@@ -0,0 +1,74 @@
+package nz.ac.canterbury.seng302.homehelper.repository.chat;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatLink;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMention;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Implementation of {@link ChatMessageWriteRepository}. Mentions and links use IDENTITY ids, which stops Hibernate
+ * from batching their inserts, so they are written here with JdbcTemplate batch updates instead.
+ */
+public class ChatMessageWriteRepositoryImpl implements ChatMessageWriteRepository {
+
+    private static final String INSERT_MENTION_SQL =
+            "INSERT INTO chat_mention (message_id, mentioned_user_id, start_position, end_position, seen) " +
+                    "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_LINK_SQL =
+            "INSERT INTO chat_link (message_id, text, link, start_position, end_position) VALUES (?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ChatMessageWriteRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public ChatMessage saveWithChildren(ChatMessage chatMessage) {
+        List<ChatMention> mentions = List.copyOf(chatMessage.getMentions());
+        List<ChatLink> links = List.copyOf(chatMessage.getLinks());
+        chatMessage.getMentions().clear();
+        chatMessage.getLinks().clear();
+
+        entityManager.persist(chatMessage);
+        entityManager.flush();
+        long messageId = chatMessage.getId();
+
+        if (!mentions.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MENTION_SQL, mentions, mentions.size(), (statement, mention) -> {
+                statement.setLong(1, messageId);
+                statement.setLong(2, mention.getMentionedUser().getId());
+                statement.setInt(3, mention.getStartPosition());
+                statement.setInt(4, mention.getEndPosition());
+                statement.setBoolean(5, mention.isSeen());
+            });
+        }
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LINK_SQL, links, links.size(), (statement, link) -> {
+                statement.setLong(1, messageId);
+                statement.setString(2, link.getText());
+                statement.setString(3, link.getLink());
+                statement.setInt(4, link.getStartPosition());
+                statement.setInt(5, link.getEndPosition());
+            });
+        }
+
+        // detach so the children written above are not cascaded again when the transaction flushes.
+        // Their generated IDs are not read back, so they stay at 0 on the returned message
+        entityManager.detach(chatMessage);
+        chatMessage.getMentions().addAll(mentions);
+        chatMessage.getLinks().addAll(links);
+        return chatMessage;
+    }
+}
@@ -0,0 +1,47 @@
+package nz.ac.canterbury.seng302.homehelper.repository.init;
+
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatMessageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores pre-computed fragments on chat messages that were saved before fragments were stored.
+ * Plain text messages are backfilled by the database migration, this covers messages with mentions or links,
+ * whose fragments need the mentioned users' names.
+ */
+@Component
+public class ChatFragmentBackfill implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final Logger logger = LoggerFactory.getLogger(ChatFragmentBackfill.class);
+    private final ChatMessageService chatMessageService;
+
+    /**
+     * ChatFragmentBackfill constructor.
+     *
+     * @param chatMessageService service used to backfill message fragments
+     */
+    @Autowired
+    public ChatFragmentBackfill(ChatMessageService chatMessageService) {
+        this.chatMessageService = chatMessageService;
+    }
+
+    @Override
+    public void run(String... args) {
+        long lastId = 0;
+        long nextId;
+        int batches = 0;
+        // ids only increase between batches, so stop as soon as there is nothing left after the last batch
+        while ((nextId = chatMessageService.backfillFragments(lastId, BATCH_SIZE)) > lastId) {
+            lastId = nextId;
+            batches++;
+        }
+        if (batches > 0) {
+            logger.info("Backfilled chat message fragments in {} batches", batches);
+        }
+    }
+}
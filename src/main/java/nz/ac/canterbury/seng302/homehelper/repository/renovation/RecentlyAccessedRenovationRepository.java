@@ -4,6 +4,7 @@ import jakarta.transaction.Transactional;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.RecentlyAccessedRenovation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RecentRenovationCard;
 import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -35,12 +36,23 @@ public interface RecentlyAccessedRenovationRepository extends CrudRepository<Rec
     Optional<RecentlyAccessedRenovation>findByRenovationAndUser(Renovation renovation, User user);
 
     /**
-     * Gets last 3 recently accessed renovations by a user
+     * Loads the dashboard cards of the renovations a user most recently accessed, counting each renovation's
+     * members in the same query rather than loading them.
      *
-     * @param user recently accessed renovation of user
-     * @return List containing RecentlyAccessedRenovations, can be empty
+     * @param userId the ID of the user
+     * @param limit  the maximum number of cards to load
+     * @return the cards, most recently accessed first
      */
-    List<RecentlyAccessedRenovation> findTop3ByUserOrderByTimeAccessedDesc(User user);
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RecentRenovationCard(
+                r.renovation.id, r.renovation.name,
+                (SELECT COUNT(m) FROM RenovationMember m WHERE m.renovation = r.renovation),
+                r.renovation.owner.id, r.renovation.owner.fname, r.renovation.owner.lname, r.timeAccessed)
+            FROM RecentlyAccessedRenovation r
+            WHERE r.user.id = :userId
+            ORDER BY r.timeAccessed DESC
+            """)
+    List<RecentRenovationCard> findRecentCards(long userId, Limit limit);
 
 
     /**
@@ -2,6 +2,10 @@ package nz.ac.canterbury.seng302.homehelper.repository.renovation;
 
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchDocument;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchText;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
@@ -9,8 +13,11 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Renovation repository accessor using Spring's @link{CrudRepository}.
@@ -140,55 +147,271 @@ public interface RenovationRepository extends PagingAndSortingRepository<Renovat
     Page<Renovation> findByUser(User owner, String query, List<String> tags, Pageable pageable);
 
     /**
-     * Finds all renovations owned by the given user.
+     * Get the total number of renovations the given user is associated with.
+     * @param user      User
+     * @return          Integer
+     */
+    @Query("""
+                SELECT COUNT(r)
+                FROM Renovation r
+                WHERE (r.owner = :user OR EXISTS (
+                SELECT 1 FROM RenovationMember rm WHERE rm MEMBER OF r.members AND rm.user = :user ))
+           """)
+    int sumForUser(User user);
+
+    /**
+     * Loads the searchable fields of every renovation, without their tags or rooms, for building the search index.
      *
-     * @param user     the user who owns the renovations
-     * @param pageable pagination information
-     * @return a paginated list of renovations owned by the user, ordered by creation timestamp (most recent first)
+     * @return a document for every renovation
+     */
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchDocument(
+                r.id, r.isPublic, r.createdTimestamp, r.name, r.description)
+            FROM Renovation r
+            """)
+    List<RenovationSearchDocument> findAllSearchDocuments();
+
+    /**
+     * Loads the searchable fields of the given renovations, without their tags or rooms.
+     *
+     * @param ids the IDs of the renovations
+     * @return a document for each renovation that exists
      */
-    @Query("select r from Renovation r where r.owner = :user  ORDER BY r.createdTimestamp DESC ")
-    Page<Renovation> findUserRenovations(@Param("user") User user, Pageable pageable);
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchDocument(
+                r.id, r.isPublic, r.createdTimestamp, r.name, r.description)
+            FROM Renovation r
+            WHERE r.id IN :ids
+            """)
+    List<RenovationSearchDocument> findSearchDocuments(Collection<Long> ids);
 
     /**
-     * Finds all renovations where the given user is a member but not the owner.
+     * Loads the tags of every renovation, for building the search index.
      *
-     * @param user     the user who is a member of the renovations
-     * @param pageable pagination information
-     * @return a paginated list of renovations the user is a member of (excluding those they own),
-     * ordered by creation timestamp (most recent first)
+     * @return every renovation's tags
+     */
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchText(t.renovation.id, t.tag)
+            FROM Tag t
+            """)
+    List<RenovationSearchText> findAllSearchTags();
+
+    /**
+     * Loads the tags of the given renovations.
+     *
+     * @param ids the IDs of the renovations
+     * @return the renovations' tags
+     */
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchText(t.renovation.id, t.tag)
+            FROM Tag t
+            WHERE t.renovation.id IN :ids
+            """)
+    List<RenovationSearchText> findSearchTags(Collection<Long> ids);
+
+    /**
+     * Loads the room names of every renovation, for building the search index.
+     *
+     * @return every renovation's room names
+     */
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchText(room.renovation.id, room.name)
+            FROM Room room
+            """)
+    List<RenovationSearchText> findAllSearchRooms();
+
+    /**
+     * Loads the room names of the given renovations.
+     *
+     * @param ids the IDs of the renovations
+     * @return the renovations' room names
+     */
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchText(room.renovation.id, room.name)
+            FROM Room room
+            WHERE room.renovation.id IN :ids
+            """)
+    List<RenovationSearchText> findSearchRooms(Collection<Long> ids);
+
+    /**
+     * Finds the IDs of all renovations where the given user is either the owner or a member.
+     *
+     * @param user the user to check ownership or membership against
+     * @return the IDs of the user's renovations
+     */
+    @Query("""
+                SELECT r.id
+                FROM Renovation r
+                WHERE (r.owner = :user OR EXISTS (
+                SELECT 1 FROM RenovationMember rm WHERE rm MEMBER OF r.members AND rm.user = :user ))
+            """)
+    Set<Long> findIdsByUserOrMembership(@Param("user") User user);
+
+    /**
+     * Loads the cards of the newest public renovations. Renovations without a created timestamp come last, as both
+     * H2 and MariaDB sort nulls last in descending order.
+     *
+     * @param limit the maximum number of cards to load
+     * @return the cards, newest first
+     */
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard(
+                r.id, r.name, r.description, r.isPublic, r.createdTimestamp, r.owner.id, r.owner.fname,
+                r.owner.lname, r.owner.image)
+            FROM Renovation r
+            WHERE r.isPublic = true
+            ORDER BY r.createdTimestamp DESC, r.id DESC
+            """)
+    List<RenovationCard> findPublicCards(Limit limit);
+
+    /**
+     * Loads the cards of the newest public renovations created before the given renovation, seeking to it with the
+     * (is_public, created_timestamp, id) index. Renovations without a created timestamp come after every
+     * renovation that has one, so they are included too.
+     *
+     * @param createdTimestamp when the given renovation was created
+     * @param id               the ID of the given renovation
+     * @param limit            the maximum number of cards to load
+     * @return the cards, newest first
+     */
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard(
+                r.id, r.name, r.description, r.isPublic, r.createdTimestamp, r.owner.id, r.owner.fname,
+                r.owner.lname, r.owner.image)
+            FROM Renovation r
+            WHERE r.isPublic = true
+              AND (r.createdTimestamp < :createdTimestamp
+                   OR (r.createdTimestamp = :createdTimestamp AND r.id < :id)
+                   OR r.createdTimestamp IS NULL)
+            ORDER BY r.createdTimestamp DESC, r.id DESC
+            """)
+    List<RenovationCard> findPublicCardsBefore(LocalDateTime createdTimestamp, long id, Limit limit);
+
+    /**
+     * Loads the cards of public renovations without a created timestamp that come after the given one, which also
+     * has no created timestamp.
+     *
+     * @param id    the ID of the given renovation
+     * @param limit the maximum number of cards to load
+     * @return the cards, in descending ID order
+     */
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard(
+                r.id, r.name, r.description, r.isPublic, r.createdTimestamp, r.owner.id, r.owner.fname,
+                r.owner.lname, r.owner.image)
+            FROM Renovation r
+            WHERE r.isPublic = true
+              AND r.createdTimestamp IS NULL
+              AND r.id < :id
+            ORDER BY r.id DESC
+            """)
+    List<RenovationCard> findUndatedPublicCardsBefore(long id, Limit limit);
+
+    /**
+     * Loads the cards of the given renovations, without their tags or rooms.
+     *
+     * @param ids the IDs of the renovations
+     * @return a card for each renovation that exists, in no particular order
      */
-    @Query("SELECT r FROM Renovation r WHERE r.owner != :user and EXISTS (SELECT 1 FROM RenovationMember rm WHERE rm MEMBER OF r.members AND rm.user = :user) ORDER BY r.createdTimestamp DESC")
-    Page<Renovation> findByUserWhereUserIsMember(@Param("user") User user, Pageable pageable);
+    @Query("""
+            SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard(
+                r.id, r.name, r.description, r.isPublic, r.createdTimestamp, r.owner.id, r.owner.fname,
+                r.owner.lname, r.owner.image)
+            FROM Renovation r
+            WHERE r.id IN :ids
+            """)
+    List<RenovationCard> findCards(Collection<Long> ids);
 
     /**
-     * Finds all renovations where the given user is either the owner or a member.
+     * Loads a page of the cards of the renovations where the given user is either the owner or a member, without
+     * their tags or rooms, and without counting them.
      *
      * @param user     the user to check ownership or membership against
      * @param pageable pagination information
-     * @return a paginated list of renovations where the user is either the owner or a member,
-     * ordered by creation timestamp (most recent first)
+     * @return the cards on the page, ordered by creation timestamp (most recent first)
      */
     @Query("""
-                SELECT r
+                SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard(
+                    r.id, r.name, r.description, r.isPublic, r.createdTimestamp, r.owner.id, r.owner.fname,
+                    r.owner.lname, r.owner.image)
                 FROM Renovation r
                 WHERE (r.owner = :user OR EXISTS (
-                SELECT 1 FROM RenovationMember rm WHERE rm MEMBER OF r.members AND rm.user = :user ))
-                ORDER BY r.createdTimestamp DESC
+                SELECT 1 FROM RenovationMember rm WHERE rm.renovation = r AND rm.user = :user ))
+                ORDER BY r.createdTimestamp DESC, r.id DESC
             """)
-    Page<Renovation> findByUserOrMembership(
-            @Param("user") User user,
-            Pageable pageable);
+    List<RenovationCard> findCardsByUserOrMembership(@Param("user") User user, Pageable pageable);
 
     /**
-     * Get the total number of renovations the given user is associated with.
-     * @param user      User
-     * @return          Integer
+     * Counts the renovations where the given user is either the owner or a member.
+     *
+     * @param user the user to check ownership or membership against
+     * @return the number of renovations
      */
     @Query("""
                 SELECT COUNT(r)
                 FROM Renovation r
                 WHERE (r.owner = :user OR EXISTS (
-                SELECT 1 FROM RenovationMember rm WHERE rm MEMBER OF r.members AND rm.user = :user ))
-           """)
-    int sumForUser(User user);
+                SELECT 1 FROM RenovationMember rm WHERE rm.renovation = r AND rm.user = :user ))
+            """)
+    long countCardsByUserOrMembership(@Param("user") User user);
+
+    /**
+     * Loads a page of the cards of the renovations owned by the given user, without their tags or rooms, and
+     * without counting them.
+     *
+     * @param user     the user who owns the renovations
+     * @param pageable pagination information
+     * @return the cards on the page, ordered by creation timestamp (most recent first)
+     */
+    @Query("""
+                SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard(
+                    r.id, r.name, r.description, r.isPublic, r.createdTimestamp, r.owner.id, r.owner.fname,
+                    r.owner.lname, r.owner.image)
+                FROM Renovation r
+                WHERE r.owner = :user
+                ORDER BY r.createdTimestamp DESC, r.id DESC
+            """)
+    List<RenovationCard> findCardsByOwner(@Param("user") User user, Pageable pageable);
+
+    /**
+     * Counts the renovations owned by the given user.
+     *
+     * @param user the user who owns the renovations
+     * @return the number of renovations
+     */
+    @Query("SELECT COUNT(r) FROM Renovation r WHERE r.owner = :user")
+    long countCardsByOwner(@Param("user") User user);
+
+    /**
+     * Loads a page of the cards of the renovations where the given user is a member but not the owner, without
+     * their tags or rooms, and without counting them.
+     *
+     * @param user     the user who is a member of the renovations
+     * @param pageable pagination information
+     * @return the cards on the page, ordered by creation timestamp (most recent first)
+     */
+    @Query("""
+                SELECT new nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard(
+                    r.id, r.name, r.description, r.isPublic, r.createdTimestamp, r.owner.id, r.owner.fname,
+                    r.owner.lname, r.owner.image)
+                FROM Renovation r
+                WHERE r.owner != :user AND EXISTS (
+                SELECT 1 FROM RenovationMember rm WHERE rm.renovation = r AND rm.user = :user )
+                ORDER BY r.createdTimestamp DESC, r.id DESC
+            """)
+    List<RenovationCard> findCardsWhereUserIsMember(@Param("user") User user, Pageable pageable);
+
+    /**
+     * Counts the renovations where the given user is a member but not the owner.
+     *
+     * @param user the user who is a member of the renovations
+     * @return the number of renovations
+     */
+    @Query("""
+                SELECT COUNT(r)
+                FROM Renovation r
+                WHERE r.owner != :user AND EXISTS (
+                SELECT 1 FROM RenovationMember rm WHERE rm.renovation = r AND rm.user = :user )
+            """)
+    long countCardsWhereUserIsMember(@Param("user") User user);
 }
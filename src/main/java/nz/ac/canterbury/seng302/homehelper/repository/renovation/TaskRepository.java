@@ -3,7 +3,6 @@ package nz.ac.canterbury.seng302.homehelper.repository.renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Task;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
 import nz.ac.canterbury.seng302.homehelper.model.renovation.TaskState;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
@@ -30,23 +29,41 @@ public interface TaskRepository extends PagingAndSortingRepository<Task, Integer
     Optional<Task> findByNameAndRenovation(String name, Long renovationId);
 
     /**
-     * Retrieves a paginated list of Task entities associated with a given renovation id.
+     * Retrieves a page of the Task entities associated with a given renovation id, without counting them.
      *
      * @param renovationId the id of the renovation
      * @param pageable     the pagination and sorting information
-     * @return a Page containing the tasks associated with the specified renovation id.
+     * @return the tasks on the page
      */
-    Page<Task> findByRenovationId(Long renovationId, Pageable pageable);
+    List<Task> findByRenovationId(Long renovationId, Pageable pageable);
 
     /**
-     * Retrieves a paginated list of Task entities associated with a given renovation id and a list of task states.
+     * Counts the tasks associated with a given renovation id.
      *
-     * @param renovation_id
-     * @param state
-     * @param pageable
-     * @return
+     * @param renovationId the id of the renovation
+     * @return the number of tasks in the renovation
+     */
+    long countByRenovationId(Long renovationId);
+
+    /**
+     * Retrieves a page of the Task entities associated with a given renovation id and a list of task states, without
+     * counting them.
+     *
+     * @param renovation_id the id of the renovation
+     * @param state         the states of the tasks to include
+     * @param pageable      the pagination and sorting information
+     * @return the tasks on the page
+     */
+    List<Task> findByRenovationIdAndStateIn(long renovation_id, Collection<TaskState> state, Pageable pageable);
+
+    /**
+     * Counts the tasks associated with a given renovation id that are in one of the given states.
+     *
+     * @param renovation_id the id of the renovation
+     * @param state         the states of the tasks to count
+     * @return the number of matching tasks
      */
-    Page<Task> findByRenovationIdAndStateIn(long renovation_id, Collection<TaskState> state, Pageable pageable);
+    long countByRenovationIdAndStateIn(long renovation_id, Collection<TaskState> state);
 
 
     /**
@@ -4,6 +4,7 @@ import jakarta.mail.MessagingException;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import nz.ac.canterbury.seng302.homehelper.config.AppConfig;
+import nz.ac.canterbury.seng302.homehelper.config.AsyncConfig;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Invitation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.ForgottenPasswordToken;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
@@ -57,7 +58,7 @@ public class EmailService {
      * @param user  the user to send the email to.
      * @param token the password reset token associated with the user.
      */
-    @Async
+    @Async(AsyncConfig.MAIL_EXECUTOR)
     public CompletableFuture<Void> sendResetPasswordMail(User user, ForgottenPasswordToken token) {
         String resetLink = appConfig.getFullBaseUrl() + "/reset-password?token=" + token.getId();
         Map<String, Object> model = Map.of("resetLink", resetLink);
@@ -74,7 +75,7 @@ public class EmailService {
      * @param user  the user to send the email to.
      * @param token the verification token associated with the user.
      */
-    @Async
+    @Async(AsyncConfig.MAIL_EXECUTOR)
     public CompletableFuture<Void> sendRegistrationVerificationMail(User user, VerificationToken token) {
         String verifyLink = appConfig.getFullBaseUrl() + "/verification";
         Map<String, Object> model = Map.of(
@@ -92,7 +93,7 @@ public class EmailService {
      *
      * @param user the user to send the email to.
      */
-    @Async
+    @Async(AsyncConfig.MAIL_EXECUTOR)
     public CompletableFuture<Void> sendPasswordUpdatedMail(User user) {
         Map<String, Object> model = Map.of();
         sendHtmlTemplateEmail("email/passwordUpdatedMailTemplate.html",
@@ -108,7 +109,7 @@ public class EmailService {
      * @param invitation Invitation object
      * @return a {@link CompletableFuture} that completes when the email has been sent.
      */
-    @Async
+    @Async(AsyncConfig.MAIL_EXECUTOR)
     public CompletableFuture<Void> sendInvitationMail(Invitation invitation) {
         String invitationLink = appConfig.getFullBaseUrl() + "/invitation?token=" + invitation.getId();
         String declineLink = appConfig.getFullBaseUrl() + "/decline-invitation?token=" + invitation.getId();
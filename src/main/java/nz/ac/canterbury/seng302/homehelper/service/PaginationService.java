@@ -13,6 +13,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigInteger;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
 import java.util.function.Function;
 import java.util.function.IntFunction;
 
@@ -20,6 +23,10 @@ import static nz.ac.canterbury.seng302.homehelper.model.Pagination.DEFAULT_PAGE_
 
 /**
  * Service responsible for handling pagination logic.
+ * <p>
+ * The total number of items in each list is cached by the request's path, filters and user, so a page can be
+ * resolved without first loading the first page. The cached total is passed on to the {@link PageSupplier}, so each
+ * page view loads only the page it shows, without counting the list again.
  */
 @Service
 public class PaginationService {
@@ -27,14 +34,36 @@ public class PaginationService {
     public static final String INVALID_PAGE_MESSAGE = "The page number is invalid.";
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final AppConfig appConfig;
+    private final PaginationTotalCache paginationTotalCache;
 
     @Autowired
-    public PaginationService(AppConfig appConfig) {
+    public PaginationService(AppConfig appConfig, PaginationTotalCache paginationTotalCache) {
         this.appConfig = appConfig;
+        this.paginationTotalCache = paginationTotalCache;
     }
 
     /**
-     * Applies pagination to a data source and returns a Pagination object.
+     * Loads a page of a list being paginated.
+     *
+     * @param <T> the type of elements in the list
+     */
+    @FunctionalInterface
+    public interface PageSupplier<T> {
+
+        /**
+         * Loads a page of the list. When the total is known, the page should be loaded without counting the list,
+         * for example with a List query wrapped in a {@link org.springframework.data.domain.PageImpl} with the total.
+         *
+         * @param pageable   the page to load
+         * @param knownTotal the total number of items in the list if it is already known, otherwise empty
+         * @return the page
+         */
+        Page<T> getPage(Pageable pageable, OptionalLong knownTotal);
+    }
+
+    /**
+     * Applies pagination to a data source that isn't counted with a query of its own, such as search results, and
+     * returns a Pagination object.
      *
      * @param pageNumber   the page number from the request query parameter (1-based).
      * @param gotoPage     the page number from user input, may be null.
@@ -50,16 +79,54 @@ public class PaginationService {
             Function<Pageable, Page<T>> pageSupplier,
             HttpServletRequest request
     ) {
-        Page<T> firstPage = pageSupplier.apply(PageRequest.of(0, DEFAULT_PAGE_SIZE));
-        int totalPages = Math.max(1, firstPage.getTotalPages()); // when there are 0 pages, default to 1
-        logger.info("Found {} total pages with {} total items available for pagination",
-                totalPages,
-                firstPage.getTotalElements());
+        return paginate(pageNumber, gotoPage, (PageSupplier<T>) (pageable, knownTotal) -> pageSupplier.apply(pageable),
+                request);
+    }
+
+    /**
+     * Applies pagination to a data source and returns a Pagination object. The supplier is given the list's total
+     * whenever it is already known, so it only needs to count the list on the first view of it.
+     *
+     * @param pageNumber   the page number from the request query parameter (1-based).
+     * @param gotoPage     the page number from user input, may be null.
+     * @param pageSupplier supplies a Page of data given a Pageable and the list's total, if known.
+     * @param request      the current HTTP request, used to construct pagination URLs.
+     * @param <T>          the type of elements in the paginated result.
+     * @return a Pagination object containing the current page and URL metadata.
+     * @throws PaginationException if the resolved page number is invalid or out of bounds.
+     */
+    public <T> Pagination<T> paginate(
+            int pageNumber,
+            String gotoPage,
+            PageSupplier<T> pageSupplier,
+            HttpServletRequest request
+    ) {
+        String totalKey = getTotalKey(request);
+        long loadVersion = paginationTotalCache.getVersion();
+        OptionalLong cachedTotal = paginationTotalCache.getTotal(totalKey);
+        Page<T> firstPage = null;
+        long totalElements;
+        if (cachedTotal.isPresent()) {
+            totalElements = cachedTotal.getAsLong();
+        } else {
+            firstPage = pageSupplier.getPage(PageRequest.of(0, DEFAULT_PAGE_SIZE), OptionalLong.empty());
+            totalElements = firstPage.getTotalElements();
+            paginationTotalCache.putTotal(totalKey, totalElements, loadVersion);
+        }
+        // when there are 0 pages, default to 1
+        int totalPages = (int) Math.max(1, (totalElements + DEFAULT_PAGE_SIZE - 1) / DEFAULT_PAGE_SIZE);
+        logger.info("Found {} total pages with {} total items available for pagination", totalPages, totalElements);
 
         int resolvedPage = resolvePage(pageNumber, gotoPage, totalPages);
         logger.info("Resolved page {} to be used for pagination", resolvedPage);
         Pageable pageable = PageRequest.of(resolvedPage - 1, DEFAULT_PAGE_SIZE);
-        Page<T> page = (resolvedPage == 1) ? firstPage : pageSupplier.apply(pageable);
+        Page<T> page = (firstPage != null && resolvedPage == 1)
+                ? firstPage
+                : pageSupplier.getPage(pageable, OptionalLong.of(totalElements));
+        if (page.getTotalElements() != totalElements) {
+            // the list changed in a way the cache wasn't told about, so keep the fresher total
+            paginationTotalCache.putTotal(totalKey, page.getTotalElements(), loadVersion);
+        }
         IntFunction<String> pageUrlSupplier = i -> appConfig
                 .buildUriFromRequest(request)
                 .replaceQueryParam("gotoPage")
@@ -69,6 +136,25 @@ public class PaginationService {
         return new Pagination<>(page, pageUrlSupplier);
     }
 
+    /**
+     * Builds the key a list's total is cached under, from the request's path, its query parameters other than the
+     * page, and the user making it.
+     *
+     * @param request the current HTTP request
+     * @return the key of the list being paginated
+     */
+    private String getTotalKey(HttpServletRequest request) {
+        Map<String, String[]> filters = new TreeMap<>(request.getParameterMap());
+        filters.remove("page");
+        filters.remove("gotoPage");
+        StringBuilder key = new StringBuilder(String.valueOf(request.getRequestURI()));
+        filters.forEach((name, values) -> key.append('&').append(name).append('=').append(String.join(",", values)));
+        if (request.getUserPrincipal() != null) {
+            key.append('@').append(request.getUserPrincipal().getName());
+        }
+        return key.toString();
+    }
+
     /**
      * Resolves the target page number to use, based on input parameters.
      * Handles validation and throws exceptions for invalid or out-of-bounds pages.
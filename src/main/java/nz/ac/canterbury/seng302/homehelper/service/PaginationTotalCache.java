@@ -0,0 +1,110 @@
+package nz.ac.canterbury.seng302.homehelper.service;
+
+import nz.ac.canterbury.seng302.homehelper.utility.LruCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Caches the total number of items in each paginated list, so {@link PaginationService} can work out which page to
+ * show without counting the items on every page view. Every total is invalidated whenever a paginated entity is
+ * saved or deleted (see {@link nz.ac.canterbury.seng302.homehelper.entity.renovation.PaginationTotalListener}), and
+ * totals also expire after a while to pick up changes made elsewhere.
+ * <p>
+ * This has no dependencies so that the entity listener can use it while JPA is starting up.
+ */
+@Service
+public class PaginationTotalCache {
+
+    private final LruCache<String, CachedTotal> totals;
+    private final Duration timeToLive;
+    private final Object lock = new Object();
+    private long version;
+
+    /**
+     * Constructs the PaginationTotalCache.
+     *
+     * @param cacheSize         the number of lists to keep totals for
+     * @param timeToLiveSeconds how long a total is used before the items are counted again
+     */
+    @Autowired
+    public PaginationTotalCache(@Value("${pagination.total-cache-size:1000}") int cacheSize,
+                                @Value("${pagination.total-ttl-seconds:60}") long timeToLiveSeconds) {
+        this.totals = new LruCache<>(cacheSize);
+        this.timeToLive = Duration.ofSeconds(timeToLiveSeconds);
+    }
+
+    /**
+     * Gets the cached total of a list.
+     *
+     * @param key the key of the list
+     * @return the list's total, or empty if it isn't cached
+     */
+    public OptionalLong getTotal(String key) {
+        Optional<CachedTotal> cached = totals.get(key);
+        if (cached.isPresent() && cached.get().expiresAt().isAfter(Instant.now())) {
+            return OptionalLong.of(cached.get().total());
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Gets the current version of the cache, to pass to {@link #putTotal} once a total has been counted.
+     *
+     * @return the current version
+     */
+    public long getVersion() {
+        synchronized (lock) {
+            return version;
+        }
+    }
+
+    /**
+     * Caches the total of a list, unless the cache has been invalidated since the total started being counted.
+     *
+     * @param key         the key of the list
+     * @param total       the total number of items in the list
+     * @param loadVersion the version of the cache from before the items were counted
+     */
+    public void putTotal(String key, long total, long loadVersion) {
+        synchronized (lock) {
+            // an entity changed while counting may or may not be counted, so don't cache the total
+            if (version == loadVersion) {
+                totals.put(key, new CachedTotal(total, Instant.now().plus(timeToLive)));
+            }
+        }
+    }
+
+    /**
+     * Removes every cached total. When called inside a transaction, they are removed again once the transaction
+     * completes, so a total counted before the change was committed isn't kept.
+     */
+    public void invalidate() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        synchronized (lock) {
+            version++;
+            totals.clear();
+        }
+    }
+
+    private record CachedTotal(long total, Instant expiresAt) {
+    }
+}
@@ -4,8 +4,13 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import nz.ac.canterbury.seng302.homehelper.utility.AhoCorasickMatcher;
+import nz.ac.canterbury.seng302.homehelper.utility.LruCache;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
@@ -16,12 +21,18 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
-import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static java.util.Map.entry;
@@ -30,6 +41,9 @@ import static java.util.Map.entry;
  * Service responsible for detecting profanity in messages. Profanity is detected on a custom local filter based on
  * a word list then checked against ProfanityAPI (External API). The local implementation is modified from
  * https://gist.github.com/PimDeWitte/c04cc17bc5fa9d7e3aee6670d4105941
+ * <p>
+ * ProfanityAPI is called through one shared HTTP client with strict timeouts. Verdicts are cached by normalised text,
+ * and concurrent checks of the same text share a single in-flight request.
  */
 @Service
 public class ProfanityService {
@@ -60,13 +74,46 @@ public class ProfanityService {
 
 
     private static final String API_URL = "https://vector.profanity.dev";
+    private static final long DEFAULT_API_TIMEOUT_MILLIS = 2000;
+    private static final int DEFAULT_VERDICT_CACHE_SIZE = 1000;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final Pattern wordPattern = Pattern.compile("[^\\s\\p{Punct}]+");
-    private Set<String> badWords;
-    private int longestBadWord;
+    private final URI apiUri;
+    private final Duration apiTimeout;
+    private final HttpClient httpClient;
+    private final LruCache<String, Boolean> verdictCache;
+    private final Map<String, CompletableFuture<Boolean>> inFlightChecks = new ConcurrentHashMap<>();
+    private AhoCorasickMatcher badWordMatcher;
+
+    /**
+     * Constructs a ProfanityService that calls the public ProfanityAPI with default timeouts and cache size.
+     */
+    public ProfanityService() {
+        this(API_URL, DEFAULT_API_TIMEOUT_MILLIS, DEFAULT_VERDICT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs a ProfanityService.
+     *
+     * @param apiUrl           the URL of ProfanityAPI
+     * @param apiTimeoutMillis the connect and response timeout for ProfanityAPI requests, in milliseconds
+     * @param verdictCacheSize the maximum number of ProfanityAPI verdicts to cache
+     */
+    @Autowired
+    public ProfanityService(@Value("${profanity.api-url:" + API_URL + "}") String apiUrl,
+                            @Value("${profanity.api-timeout-millis:" + DEFAULT_API_TIMEOUT_MILLIS + "}") long apiTimeoutMillis,
+                            @Value("${profanity.verdict-cache-size:" + DEFAULT_VERDICT_CACHE_SIZE + "}") int verdictCacheSize) {
+        this.apiUri = URI.create(apiUrl);
+        this.apiTimeout = Duration.ofMillis(apiTimeoutMillis);
+        this.verdictCache = new LruCache<>(verdictCacheSize);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(apiTimeout)
+                .build();
+    }
 
     /**
-     * Initializes the profanity word list from a resource file.
+     * Initializes the profanity word list from a resource file and compiles it into a multi-pattern automaton so
+     * each message can be checked in a single pass.
      */
     @PostConstruct
     public void init() {
@@ -74,19 +121,24 @@ public class ProfanityService {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(
                 Objects.requireNonNull(getClass().getResourceAsStream("/profanity.txt")), StandardCharsets.UTF_8))) {
 
-            badWords = reader.lines()
+            Set<String> badWords = reader.lines()
                     .map(line -> line.trim().toLowerCase())
                     .filter(line -> !line.isBlank())
                     .collect(Collectors.toSet());
-            longestBadWord = badWords.stream()
-                    .mapToInt(String::length)
-                    .max()
-                    .orElse(0);
+            badWordMatcher = AhoCorasickMatcher.compile(badWords);
         } catch (Exception e) {
             throw new RuntimeException("Failed to load bad words", e);
         }
     }
 
+    /**
+     * Closes the shared HTTP client and its pooled connections.
+     */
+    @PreDestroy
+    public void close() {
+        httpClient.close();
+    }
+
     /**
      * Checks if a message contains profanity. It will first check via the custom implementation and then ProfanityAPI
      * if the custom implementation did not detect anything.
@@ -99,29 +151,65 @@ public class ProfanityService {
     }
 
     /**
-     * Checks a message against a locally loaded set of bad words. This method has been modified from
-     * https://gist.github.com/PimDeWitte/c04cc17bc5fa9d7e3aee6670d4105941
+     * Checks a message against a locally loaded set of bad words. The normalised message is scanned once by the
+     * compiled automaton, and each match is only reported if it is a standalone word. This method has been modified
+     * from https://gist.github.com/PimDeWitte/c04cc17bc5fa9d7e3aee6670d4105941
      *
      * @param message The message to be checked.
      * @return true if profanity is found, false otherwise.
      */
     public boolean checkProfanityLocal(String message) {
+        return checkProfanityLocalVerdict(message) == LocalVerdict.PROFANE;
+    }
+
+    /**
+     * Checks a message against the local word list like {@link #checkProfanityLocal(String)}, but also says whether
+     * a clean message is ambiguous enough to be worth checking with ProfanityAPI. A message is ambiguous if a bad word
+     * was found inside a longer word, or a word mixes letters with symbols that could be standing in for letters.
+     *
+     * @param message The message to be checked.
+     * @return PROFANE if profanity is found, AMBIGUOUS if not but the message could be hiding it, CLEAN otherwise.
+     */
+    public LocalVerdict checkProfanityLocalVerdict(String message) {
         String cleaned = normalizeMessage(message);
-        Matcher matcher = wordPattern.matcher(cleaned);
-        for (MatchResult match : matcher.results().toList()) {
-            String token = match.group();
-            int start = match.start();
-            for (int offset = 0; offset < token.length(); offset++) {
-                for (int length = 1; length <= token.length() - offset && length <= longestBadWord; length++) {
-                    String wordToCheck = token.substring(offset, offset + length);
-                    if (badWords.contains(wordToCheck)) {
-                        if (isStandaloneWord(cleaned, start + offset, start + offset + length)) {
-                            logger.info("Local Profanity check failed on word: '{}'", wordToCheck);
-                            return true;
-                        }
-                    }
+        AtomicReference<String> badWord = new AtomicReference<>();
+        AtomicBoolean partialMatch = new AtomicBoolean();
+        badWordMatcher.scan(cleaned, (start, end) -> {
+            if (isStandaloneWord(cleaned, start, end)) {
+                badWord.set(cleaned.substring(start, end));
+                return false;
+            }
+            partialMatch.set(true);
+            return true;
+        });
+        if (badWord.get() != null) {
+            logger.info("Local Profanity check failed on word: '{}'", badWord.get());
+            return LocalVerdict.PROFANE;
+        }
+        return partialMatch.get() || containsDisguisedWord(message) ? LocalVerdict.AMBIGUOUS : LocalVerdict.CLEAN;
+    }
+
+    /**
+     * Determines if any word in the message mixes letters with symbols that normalisation would replace, such as
+     * "sh!t". Plain numbers like "3 coats" are not counted.
+     *
+     * @param message The message to be checked.
+     * @return true if a word mixes letters and substituted symbols, false otherwise.
+     */
+    private boolean containsDisguisedWord(String message) {
+        for (String word : message.toLowerCase().split("\\s+")) {
+            boolean hasLetter = false;
+            boolean hasSubstitution = false;
+            for (char c : word.toCharArray()) {
+                if (Character.isLetter(c)) {
+                    hasLetter = true;
+                } else if (SYMBOL_SUBSTITUTIONS.containsKey(c)) {
+                    hasSubstitution = true;
                 }
             }
+            if (hasLetter && hasSubstitution) {
+                return true;
+            }
         }
         return false;
     }
@@ -142,41 +230,98 @@ public class ProfanityService {
     }
 
     /**
-     * Checks a message against ProfanityAPI (an external API). If the API requests fails, it is handled
-     * gracefully and returns false to indicate no profanity was detected.
+     * Checks a message against ProfanityAPI (an external API). Verdicts are cached by the normalised message, and if
+     * the same message is already being checked, this waits for that request instead of sending another one. If the
+     * API request fails or times out, it is handled gracefully and returns false to indicate no profanity was
+     * detected.
      *
      * @param message The message to be checked.
      * @return true if profanity is found, false otherwise.
      */
     public boolean checkProfanityAPI(String message) {
+        String key = normalizeMessage(message);
+        Optional<Boolean> cachedVerdict = verdictCache.get(key);
+        if (cachedVerdict.isPresent()) {
+            return cachedVerdict.get();
+        }
+
+        CompletableFuture<Boolean> check = new CompletableFuture<>();
+        CompletableFuture<Boolean> inFlightCheck = inFlightChecks.putIfAbsent(key, check);
+        if (inFlightCheck != null) {
+            return awaitInFlightCheck(inFlightCheck);
+        }
+
+        boolean isProfanity = false;
+        try {
+            Optional<Boolean> verdict = requestVerdict(message);
+            verdict.ifPresent(apiVerdict -> verdictCache.put(key, apiVerdict));
+            isProfanity = verdict.orElse(false);
+        } catch (RuntimeException e) {
+            logger.error("Failed to read ProfanityAPI's verdict", e);
+        } finally {
+            // always release threads waiting on this check, even if the response could not be read
+            check.complete(isProfanity);
+            inFlightChecks.remove(key, check);
+        }
+        return isProfanity;
+    }
+
+    /**
+     * Waits for a check of the same message that is already in progress on another thread.
+     *
+     * @param inFlightCheck the in-progress check
+     * @return the verdict of the in-progress check, or false if it does not finish in time
+     */
+    private boolean awaitInFlightCheck(CompletableFuture<Boolean> inFlightCheck) {
+        try {
+            return inFlightCheck.get(apiTimeout.toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Timed out waiting for an in-flight profanity check");
+            return false;
+        }
+    }
+
+    /**
+     * Sends a message to ProfanityAPI.
+     *
+     * @param message The message to be checked.
+     * @return an Optional containing the API verdict, or empty if the API could not give a verdict.
+     */
+    private Optional<Boolean> requestVerdict(String message) {
         try {
             ObjectNode jsonObject = objectMapper.createObjectNode();
             jsonObject.put("message", "My tag is " + message);
             String body = objectMapper.writer().writeValueAsString(jsonObject);
 
-            try (HttpClient client = HttpClient.newHttpClient()) {
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(API_URL))
-                        .POST(HttpRequest.BodyPublishers.ofString(body))
-                        .header("Content-Type", "application/json")
-                        .build();
-
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-                if (response.statusCode() == 200) {
-                    JsonNode jsonNode = objectMapper.readTree(response.body());
-                    boolean isProfanity = jsonNode.get("isProfanity").asBoolean();
-                    if (isProfanity) {
-                        logger.info("API Profanity check failed on message: '{}'", message);
-                    }
-                    return isProfanity;
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(apiUri)
+                    .timeout(apiTimeout)
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .header("Content-Type", "application/json")
+                    .build();
+
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                JsonNode jsonNode = objectMapper.readTree(response.body());
+                boolean isProfanity = jsonNode.get("isProfanity").asBoolean();
+                if (isProfanity) {
+                    logger.info("API Profanity check failed on message: '{}'", message);
                 }
-                logger.warn("Unable to detect profanity. Received response code {}: {}",
-                        response.statusCode(), response.body());
-                return false;
+                return Optional.of(isProfanity);
             }
-        } catch (IOException | InterruptedException e) {
+            logger.warn("Unable to detect profanity. Received response code {}: {}",
+                    response.statusCode(), response.body());
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while detecting profanity", e);
+            return Optional.empty();
+        } catch (IOException e) {
             logger.error("Failed to detect profanity", e);
-            return false;
+            return Optional.empty();
         }
     }
 
@@ -200,5 +345,24 @@ public class ProfanityService {
         }
         return cleaned.toString();
     }
-}
 
+    /**
+     * The result of checking a message against the local word list.
+     */
+    public enum LocalVerdict {
+        /**
+         * The message contains a bad word
+         */
+        PROFANE,
+
+        /**
+         * No bad word was found, but the message could be hiding one
+         */
+        AMBIGUOUS,
+
+        /**
+         * No bad word was found
+         */
+        CLEAN,
+    }
+}
@@ -0,0 +1,111 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingAiStreamFrame;
+import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragmentText;
+import nz.ac.canterbury.seng302.homehelper.model.user.ChatUserDetails;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Publishes BrickAI replies to a chat channel while they are being generated, as provisional frames that clients
+ * show until the saved message arrives.
+ */
+@Service
+public class AiReplyStreamService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long frameIntervalMillis;
+
+    /**
+     * Constructs the AiReplyStreamService.
+     *
+     * @param messagingTemplate   the messaging template used to publish frames
+     * @param frameIntervalMillis the minimum time between provisional frames of a reply, so a fast model doesn't send
+     *                            a frame for every token
+     */
+    @Autowired
+    public AiReplyStreamService(SimpMessagingTemplate messagingTemplate,
+                                @Value("${chat.ai.stream-frame-millis:100}") long frameIntervalMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.frameIntervalMillis = frameIntervalMillis;
+    }
+
+    /**
+     * Starts streaming a reply from BrickAI to a channel.
+     *
+     * @param channel the channel BrickAI is replying in
+     * @param aiUser  the BrickAI user
+     * @return the stream to publish the reply's frames to
+     */
+    public AiReplyStream start(ChatChannel channel, User aiUser) {
+        String destination = "/topic/renovation/" + channel.getRenovation().getId() + "/channel/" + channel.getId();
+        return new AiReplyStream(UUID.randomUUID().toString(), destination, new ChatUserDetails(aiUser), Instant.now());
+    }
+
+    /**
+     * Publishes the reply so far as a provisional frame. Frames are skipped if one was published within the frame
+     * interval, the next frame will carry the skipped content.
+     *
+     * @param stream  the reply's stream
+     * @param content the reply content so far
+     */
+    public void publishPartial(AiReplyStream stream, String content) {
+        long now = System.currentTimeMillis();
+        synchronized (stream) {
+            if (stream.sequence > 0 && now - stream.lastPublishedMillis < frameIntervalMillis) {
+                return;
+            }
+            stream.lastPublishedMillis = now;
+            stream.sequence++;
+            messagingTemplate.convertAndSend(stream.destination, new OutgoingAiStreamFrame(stream.streamId,
+                    stream.sequence, List.of(new ChatMessageFragmentText(content)), stream.startedAt, stream.aiUser,
+                    true, true, null));
+        }
+    }
+
+    /**
+     * Publishes the final frame of a reply, carrying the ID of the saved message that replaces the provisional one.
+     *
+     * @param stream    the reply's stream
+     * @param messageId the ID of the saved reply
+     */
+    public void publishComplete(AiReplyStream stream, long messageId) {
+        synchronized (stream) {
+            stream.sequence++;
+            messagingTemplate.convertAndSend(stream.destination, new OutgoingAiStreamFrame(stream.streamId,
+                    stream.sequence, List.of(), stream.startedAt, stream.aiUser, true, false, messageId));
+        }
+    }
+
+    /**
+     * A reply being streamed to a channel.
+     */
+    public static final class AiReplyStream {
+
+        private final String streamId;
+        private final String destination;
+        private final ChatUserDetails aiUser;
+        private final Instant startedAt;
+        private long sequence;
+        private long lastPublishedMillis;
+
+        private AiReplyStream(String streamId, String destination, ChatUserDetails aiUser, Instant startedAt) {
+            this.streamId = streamId;
+            this.destination = destination;
+            this.aiUser = aiUser;
+            this.startedAt = startedAt;
+        }
+
+        public String getStreamId() {
+            return streamId;
+        }
+    }
+}
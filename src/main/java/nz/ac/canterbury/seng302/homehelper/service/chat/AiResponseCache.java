@@ -0,0 +1,154 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.utility.LruCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Caches BrickAI's answers to questions asked in a renovation, so a question that is asked again, such as
+ * "what's the budget?", is answered without another request to the AI.
+ * <p>
+ * Answers are keyed by the channel the question was asked in and the question with its case, whitespace, trailing
+ * punctuation and BrickAI mention removed, so an answer is never shown outside the channel it was given in. A
+ * question about the asker ("what tasks are mine?") is also keyed by who asked it. Each answer is stored with the
+ * renovation context it was given, and is only used while the renovation's context is the same. A renovation's
+ * answers are evicted when its context is invalidated, and answers also expire after a while, since they can depend
+ * on the date and on the chat history.
+ */
+@Service
+public class AiResponseCache {
+
+    private static final Pattern AI_MENTION = Pattern.compile("@brickai\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s?!.]+$");
+    private static final Pattern ABOUT_ASKER = Pattern.compile("\\b(i|i'm|me|my|mine|myself)\\b");
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final LruCache<Long, RenovationResponses> renovations;
+    private final int responsesPerRenovation;
+    private final Duration timeToLive;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    /**
+     * Constructs the AiResponseCache.
+     *
+     * @param renovationAiContextCache the cache of renovation contexts, which evicts a renovation's answers when its
+     *                                 context is invalidated
+     * @param meterRegistry            the registry to publish the cache's hit and miss counts to
+     * @param cacheSize                the number of renovations to keep answers for
+     * @param responsesPerRenovation   the number of answers to keep for each renovation
+     * @param timeToLiveMinutes        how long an answer is used for
+     */
+    @Autowired
+    public AiResponseCache(RenovationAiContextCache renovationAiContextCache, MeterRegistry meterRegistry,
+                           @Value("${chat.ai.response-cache.size:200}") int cacheSize,
+                           @Value("${chat.ai.response-cache.responses-per-renovation:50}") int responsesPerRenovation,
+                           @Value("${chat.ai.response-cache.ttl-minutes:5}") long timeToLiveMinutes) {
+        this.renovations = new LruCache<>(cacheSize);
+        this.responsesPerRenovation = responsesPerRenovation;
+        this.timeToLive = Duration.ofMinutes(timeToLiveMinutes);
+        this.hitCounter = Counter.builder("chat.ai.response-cache")
+                .description("BrickAI questions looked up in the response cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("chat.ai.response-cache")
+                .description("BrickAI questions looked up in the response cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        renovationAiContextCache.addInvalidationListener(renovations::remove);
+    }
+
+    /**
+     * Gets the key a message's question is cached under.
+     *
+     * @param message the message asking BrickAI a question
+     * @return the question's cache key
+     */
+    public String getQuestionKey(ChatMessage message) {
+        String question = message.getContent().toLowerCase(Locale.ROOT);
+        question = AI_MENTION.matcher(question).replaceAll(" ");
+        question = TRAILING_PUNCTUATION.matcher(question.strip()).replaceAll("");
+        question = WHITESPACE.matcher(question).replaceAll(" ");
+        String channelKey = message.getChannel().getId() + ":";
+        if (isAboutAsker(question)) {
+            return channelKey + message.getSender().getId() + ":" + question;
+        }
+        return channelKey + question;
+    }
+
+    /**
+     * Checks whether a question is about the user asking it, such as "what tasks are mine?", so its answer depends
+     * on who asked.
+     *
+     * @param question the question, in lower case
+     * @return true if the question refers to the asker
+     */
+    public static boolean isAboutAsker(String question) {
+        return ABOUT_ASKER.matcher(question).find();
+    }
+
+    /**
+     * Gets a cached answer to a question, if it was answered with the same renovation context and hasn't expired.
+     *
+     * @param renovationId the ID of the renovation the question was asked in
+     * @param context      the renovation's current prompt context
+     * @param questionKey  the question's cache key
+     * @return the cached answer, or empty if there isn't one
+     */
+    public Optional<String> get(long renovationId, String context, String questionKey) {
+        Optional<String> response = renovations.get(renovationId)
+                .filter(responses -> responses.context().equals(context))
+                .flatMap(responses -> responses.answers().get(questionKey))
+                .filter(answer -> answer.expiresAt().isAfter(Instant.now()))
+                .map(CachedAnswer::content);
+        if (response.isPresent()) {
+            hitCounter.increment();
+            logger.debug("BrickAI response cache hit in renovation {}", renovationId);
+        } else {
+            missCounter.increment();
+        }
+        return response;
+    }
+
+    /**
+     * Caches the answer to a question. If the renovation's answers were cached with a different context, they are
+     * replaced.
+     *
+     * @param renovationId the ID of the renovation the question was asked in
+     * @param context      the renovation context the question was answered with
+     * @param questionKey  the question's cache key
+     * @param content      the answer
+     */
+    public void put(long renovationId, String context, String questionKey, String content) {
+        RenovationResponses responses;
+        synchronized (renovations) {
+            responses = renovations.get(renovationId)
+                    .filter(cached -> cached.context().equals(context))
+                    .orElseGet(() -> {
+                        RenovationResponses created = new RenovationResponses(context, new LruCache<>(responsesPerRenovation));
+                        renovations.put(renovationId, created);
+                        return created;
+                    });
+        }
+        responses.answers().put(questionKey, new CachedAnswer(content, Instant.now().plus(timeToLive)));
+    }
+
+    private record RenovationResponses(String context, LruCache<String, CachedAnswer> answers) {
+    }
+
+    private record CachedAnswer(String content, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,53 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+
+/**
+ * Passes the model's responses to the {@link AiUsageService.AiCall} a request was given, as the responses are
+ * otherwise only seen as the entity they are converted to. Requests without a call are left alone.
+ */
+public class AiUsageAdvisor implements CallAdvisor, StreamAdvisor {
+
+    /**
+     * The advisor parameter holding the request's call.
+     */
+    public static final String CALL = "brickai-usage-call";
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        ChatClientResponse response = callAdvisorChain.nextCall(chatClientRequest);
+        if (chatClientRequest.context().get(CALL) instanceof AiUsageService.AiCall call) {
+            call.onResponse(response.chatResponse());
+        }
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        Flux<ChatClientResponse> responses = streamAdvisorChain.nextStream(chatClientRequest);
+        if (chatClientRequest.context().get(CALL) instanceof AiUsageService.AiCall call) {
+            return responses.doOnNext(response -> call.onResponse(response.chatResponse()));
+        }
+        return responses;
+    }
+
+    @Override
+    public String getName() {
+        return this.getClass().getSimpleName();
+    }
+
+    /**
+     * Runs after the other advisors, closest to the model, so it sees each response as the model returned it.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1000;
+    }
+}
@@ -0,0 +1,243 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.AiUsageRollup;
+import nz.ac.canterbury.seng302.homehelper.entity.key.AiUsageRollupKey;
+import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponseType;
+import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiUsageSummary;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.AiUsageRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Accounts for every call BrickAI makes to the AI, including those summarising chat channels: the model that answered,
+ * whether it was a fallback, the prompt and completion tokens, how long it took and the type of response.
+ * <p>
+ * Each call is published as metrics, tagged by model and response type, and added to a rollup of its renovation's
+ * usage for the day. Rollups are kept in memory and added to the database periodically, so calls don't each write
+ * to it.
+ */
+@Service
+public class AiUsageService {
+
+    private static final String FAILED = "FAILED";
+    private static final String SUMMARY = "SUMMARY";
+    private static final String UNKNOWN_MODEL = "unknown";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final AiUsageRollupRepository aiUsageRollupRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<AiUsageRollupKey, AiUsageRollup> pendingRollups = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the AiUsageService.
+     *
+     * @param aiUsageRollupRepository the repository holding the daily rollups
+     * @param meterRegistry           the registry to publish each call's metrics to
+     */
+    @Autowired
+    public AiUsageService(AiUsageRollupRepository aiUsageRollupRepository, MeterRegistry meterRegistry) {
+        this.aiUsageRollupRepository = aiUsageRollupRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Starts timing a call to the AI. The call should be given to the request with {@link AiUsageAdvisor#CALL},
+     * so it is told about the response.
+     *
+     * @param renovationId the ID of the renovation the call is for
+     * @return the call
+     */
+    public AiCall startCall(long renovationId) {
+        return new AiCall(renovationId);
+    }
+
+    /**
+     * Records a call that got a response.
+     *
+     * @param call         the call
+     * @param responseType the type of response the AI gave
+     */
+    public void recordCall(AiCall call, AiResponseType responseType) {
+        recordAnsweredCall(call, responseType.name(), (rollup, millis) -> rollup.recordCall(responseType,
+                call.isFallback(), call.getPromptTokens(), call.getCompletionTokens(), millis));
+    }
+
+    /**
+     * Records a call that summarised a chat channel, counted separately from calls answering messages.
+     *
+     * @param call the call
+     */
+    public void recordSummaryCall(AiCall call) {
+        recordAnsweredCall(call, SUMMARY, (rollup, millis) -> rollup.recordSummaryCall(call.isFallback(),
+                call.getPromptTokens(), call.getCompletionTokens(), millis));
+    }
+
+    /**
+     * Records a call that failed.
+     *
+     * @param call the call
+     */
+    public void recordFailure(AiCall call) {
+        long millis = call.getElapsedMillis();
+        timer(call.getModel(), FAILED, call.isFallback()).record(millis, TimeUnit.MILLISECONDS);
+        pendingRollups.compute(call.getKey(), (key, rollup) -> {
+            AiUsageRollup updated = rollup == null ? new AiUsageRollup(key) : rollup;
+            updated.recordFailure(millis);
+            return updated;
+        });
+    }
+
+    /**
+     * Every minute, and when the app shuts down, add the usage recorded since the last flush to the database.
+     */
+    @Scheduled(fixedDelayString = "${chat.ai.usage.flush-millis:60000}")
+    @PreDestroy
+    public synchronized void flush() {
+        for (AiUsageRollupKey key : List.copyOf(pendingRollups.keySet())) {
+            AiUsageRollup pending = pendingRollups.remove(key);
+            if (pending == null) {
+                continue;
+            }
+            try {
+                AiUsageRollup rollup = aiUsageRollupRepository.findById(key)
+                        .map(existing -> {
+                            existing.add(pending);
+                            return existing;
+                        })
+                        .orElse(pending);
+                aiUsageRollupRepository.save(rollup);
+            } catch (DataAccessException e) {
+                // most likely the renovation was deleted
+                logger.warn("Failed to save the AI usage of renovation {}", key.getRenovationId(), e);
+            }
+        }
+    }
+
+    /**
+     * Summarises BrickAI's usage over the last few days, including calls that haven't been flushed yet.
+     *
+     * @param days        the number of days to summarise, including today
+     * @param renovations the number of renovations that used the most tokens to include
+     * @return the usage on each day, and of the renovations that used the most tokens
+     */
+    public AiUsageSummary getSummary(int days, int renovations) {
+        flush();
+        LocalDate since = LocalDate.now().minusDays(days - 1L);
+        return new AiUsageSummary(since, aiUsageRollupRepository.findTotalsByDay(since),
+                aiUsageRollupRepository.findTopRenovations(since, PageRequest.of(0, renovations)));
+    }
+
+    private void recordAnsweredCall(AiCall call, String type, ObjLongConsumer<AiUsageRollup> addToRollup) {
+        long millis = call.getElapsedMillis();
+        String model = call.getModel();
+        timer(model, type, call.isFallback()).record(millis, TimeUnit.MILLISECONDS);
+        tokenCounter(model, "prompt").increment(call.getPromptTokens());
+        tokenCounter(model, "completion").increment(call.getCompletionTokens());
+        pendingRollups.compute(call.getKey(), (key, rollup) -> {
+            AiUsageRollup updated = rollup == null ? new AiUsageRollup(key) : rollup;
+            addToRollup.accept(updated, millis);
+            return updated;
+        });
+        logger.debug("AI {} call for renovation {} answered by {} in {} ms, {} prompt and {} completion tokens", type,
+                call.getKey().getRenovationId(), model, millis, call.getPromptTokens(), call.getCompletionTokens());
+    }
+
+    private Timer timer(String model, String responseType, boolean fallback) {
+        return Timer.builder("chat.ai.call")
+                .description("Calls BrickAI made to the AI")
+                .tag("model", model)
+                .tag("type", responseType)
+                .tag("fallback", String.valueOf(fallback))
+                .register(meterRegistry);
+    }
+
+    private Counter tokenCounter(String model, String kind) {
+        return Counter.builder("chat.ai.tokens")
+                .description("Tokens used by BrickAI")
+                .tag("model", model)
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A call to the AI being timed. The model that answered and the tokens it used are taken from the responses
+     * the call is told about, for a streamed call the last chunk carries the token usage.
+     */
+    public static class AiCall {
+
+        private final AiUsageRollupKey key;
+        private final long startNanos = System.nanoTime();
+        private volatile String model = UNKNOWN_MODEL;
+        private volatile boolean fallback;
+        private volatile long promptTokens;
+        private volatile long completionTokens;
+
+        private AiCall(long renovationId) {
+            this.key = new AiUsageRollupKey(renovationId, LocalDate.now());
+        }
+
+        /**
+         * Updates the call with a response, or a chunk of a streamed response, from the AI.
+         *
+         * @param response the response
+         */
+        public void onResponse(ChatResponse response) {
+            if (response == null) {
+                return;
+            }
+            ChatResponseMetadata metadata = response.getMetadata();
+            if (metadata.containsKey(RoutingChatModel.ROUTED_MODEL)) {
+                model = metadata.get(RoutingChatModel.ROUTED_MODEL);
+                fallback = Boolean.TRUE.equals(metadata.get(RoutingChatModel.FALLBACK));
+            }
+            Usage usage = metadata.getUsage();
+            if (usage != null && usage.getTotalTokens() != null && usage.getTotalTokens() > 0) {
+                promptTokens = usage.getPromptTokens() == null ? 0 : usage.getPromptTokens();
+                completionTokens = usage.getCompletionTokens() == null ? 0 : usage.getCompletionTokens();
+            }
+        }
+
+        AiUsageRollupKey getKey() {
+            return key;
+        }
+
+        long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+
+        public String getModel() {
+            return model;
+        }
+
+        public boolean isFallback() {
+            return fallback;
+        }
+
+        public long getPromptTokens() {
+            return promptTokens;
+        }
+
+        public long getCompletionTokens() {
+            return completionTokens;
+        }
+    }
+}
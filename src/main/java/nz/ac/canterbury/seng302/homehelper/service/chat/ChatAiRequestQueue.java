@@ -0,0 +1,231 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues the messages BrickAI has to answer so each channel only has one AI request in flight at a time.
+ * <p>
+ * Every request in a channel shares the channel's chat memory, so concurrent requests would race on its message
+ * window. Instead, a channel's messages are answered one after another in the order they were sent. Each message
+ * waits at least {@code coalesceMillis} before being sent, and any duplicate sent within {@code coalesceMillis} of a
+ * message that is still waiting is merged into it, so a burst of members asking BrickAI the same thing only costs one
+ * request. A duplicate sent later is answered on its own, as the conversation may have moved on. A question about the
+ * asker ("what are my tasks?") is only merged with the same sender's duplicates, since its answer depends on who
+ * asked. The number of requests in flight across all channels is capped by the AI executor.
+ */
+@Service
+public class ChatAiRequestQueue {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ChatAiService chatAiService;
+    private final long coalesceNanos;
+    private final int maxQueuedPerChannel;
+    private final Counter mergedCounter;
+    // guarded by this
+    private final Map<Long, Deque<QueuedRequest>> channelQueues = new HashMap<>();
+
+    /**
+     * Constructs the ChatAiRequestQueue.
+     *
+     * @param chatAiService       the service that answers messages
+     * @param meterRegistry       the registry to publish the queue's metrics to
+     * @param coalesceMillis      the minimum time a message waits before being sent, and how soon after it a duplicate
+     *                            must be sent to be merged into it
+     * @param maxQueuedPerChannel the maximum number of messages waiting in a channel before BrickAI replies busy
+     */
+    @Autowired
+    public ChatAiRequestQueue(ChatAiService chatAiService, MeterRegistry meterRegistry,
+                              @Value("${chat.ai.queue.coalesce-millis:500}") long coalesceMillis,
+                              @Value("${chat.ai.queue.max-per-channel:5}") int maxQueuedPerChannel) {
+        this.chatAiService = chatAiService;
+        this.coalesceNanos = TimeUnit.MILLISECONDS.toNanos(coalesceMillis);
+        this.maxQueuedPerChannel = maxQueuedPerChannel;
+        this.mergedCounter = Counter.builder("chat.ai.queue.merged")
+                .description("Messages for BrickAI merged into a duplicate message that was already queued")
+                .register(meterRegistry);
+        Gauge.builder("chat.ai.queue.queued", this, ChatAiRequestQueue::getQueuedCount)
+                .description("Messages for BrickAI waiting for an earlier message in their channel")
+                .register(meterRegistry);
+        Gauge.builder("chat.ai.queue.channels", this, ChatAiRequestQueue::getActiveChannelCount)
+                .description("Channels with a BrickAI request in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a message to be answered by BrickAI. Messages not meant for BrickAI are not queued. If the channel's
+     * queue is full, or the AI executor rejects the request, BrickAI replies that it is busy.
+     *
+     * @param message the message that was sent
+     * @return a future holding BrickAI's reply, or empty if the message wasn't for BrickAI or was merged into a
+     * duplicate that is answered instead. A merged message's future fails if the duplicate's request does
+     */
+    public CompletableFuture<Optional<OutgoingMessage>> submit(ChatMessage message) {
+        if (!chatAiService.isMessageForAi(message)) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        long channelId = message.getChannel().getId();
+        String key = getDuplicateKey(message);
+        QueuedRequest request = new QueuedRequest(message, key, System.nanoTime());
+        boolean full;
+        boolean start;
+        synchronized (this) {
+            Deque<QueuedRequest> queue = channelQueues.get(channelId);
+            if (queue != null) {
+                for (QueuedRequest queued : queue) {
+                    if (queued.key.equals(key) && request.queuedAt - queued.queuedAt <= coalesceNanos) {
+                        mergedCounter.increment();
+                        logger.debug("Merged message {} into queued message {}", message.getId(), queued.message.getId());
+                        return queued.addDuplicate();
+                    }
+                }
+            }
+            full = queue != null && queue.size() >= maxQueuedPerChannel;
+            start = queue == null;
+            if (!full) {
+                channelQueues.computeIfAbsent(channelId, id -> new ArrayDeque<>()).add(request);
+            }
+        }
+        if (full) {
+            logger.warn("BrickAI queue of channel {} is full, not answering message {}", channelId, message.getId());
+            return CompletableFuture.completedFuture(Optional.of(chatAiService.createBusyResponse(message)));
+        }
+        if (start) {
+            scheduleNext(channelId);
+        }
+        return request.reply;
+    }
+
+    /**
+     * Sends the next message of a channel once it has waited for the coalescing window.
+     */
+    private void scheduleNext(long channelId) {
+        long delayNanos;
+        synchronized (this) {
+            QueuedRequest next = channelQueues.get(channelId).peek();
+            delayNanos = next == null ? 0 : Math.max(0, next.queuedAt + coalesceNanos - System.nanoTime());
+        }
+        CompletableFuture.runAsync(() -> sendNext(channelId),
+                CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Sends the next message of a channel to BrickAI, then schedules the one after it once it has been answered.
+     * The channel's queue is removed when there is nothing left to send.
+     */
+    private void sendNext(long channelId) {
+        QueuedRequest request;
+        synchronized (this) {
+            Deque<QueuedRequest> queue = channelQueues.get(channelId);
+            if (queue.isEmpty()) {
+                channelQueues.remove(channelId);
+                return;
+            }
+            request = queue.poll();
+        }
+
+        CompletableFuture<Optional<OutgoingMessage>> response;
+        try {
+            response = chatAiService.handleAiResponse(request.message);
+        } catch (TaskRejectedException e) {
+            logger.warn("BrickAI is busy, not answering message {}", request.message.getId());
+            response = createBusyResponse(request.message);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((reply, e) -> {
+            request.complete(reply, e);
+            scheduleNext(channelId);
+        });
+    }
+
+    /**
+     * Builds BrickAI's busy reply on the current thread, as a future so it is handled like any other reply.
+     */
+    private CompletableFuture<Optional<OutgoingMessage>> createBusyResponse(ChatMessage message) {
+        try {
+            return CompletableFuture.completedFuture(Optional.of(chatAiService.createBusyResponse(message)));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Gets the key that duplicates of a message share. Questions about the asker also include the sender.
+     */
+    private String getDuplicateKey(ChatMessage message) {
+        String content = message.getContent();
+        String question = content == null ? "" : content.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (AiResponseCache.isAboutAsker(question)) {
+            return message.getSender().getId() + ":" + question;
+        }
+        return question;
+    }
+
+    private synchronized int getQueuedCount() {
+        return channelQueues.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    private synchronized int getActiveChannelCount() {
+        return channelQueues.size();
+    }
+
+    /**
+     * A message waiting to be answered, and the futures of the duplicates merged into it.
+     */
+    private static class QueuedRequest {
+
+        private final ChatMessage message;
+        private final String key;
+        private final long queuedAt;
+        private final CompletableFuture<Optional<OutgoingMessage>> reply = new CompletableFuture<>();
+        private final List<CompletableFuture<Optional<OutgoingMessage>>> duplicates = new ArrayList<>();
+
+        QueuedRequest(ChatMessage message, String key, long queuedAt) {
+            this.message = message;
+            this.key = key;
+            this.queuedAt = queuedAt;
+        }
+
+        CompletableFuture<Optional<OutgoingMessage>> addDuplicate() {
+            CompletableFuture<Optional<OutgoingMessage>> duplicate = new CompletableFuture<>();
+            duplicates.add(duplicate);
+            return duplicate;
+        }
+
+        /**
+         * Completes the message's future with BrickAI's reply. The reply is only published once, so the merged
+         * duplicates complete empty. If the request failed, the duplicates fail with it.
+         */
+        void complete(Optional<OutgoingMessage> reply, Throwable error) {
+            if (error != null) {
+                this.reply.completeExceptionally(error);
+                duplicates.forEach(duplicate -> duplicate.completeExceptionally(error));
+            } else {
+                this.reply.complete(reply);
+                duplicates.forEach(duplicate -> duplicate.complete(Optional.empty()));
+            }
+        }
+    }
+}
@@ -1,20 +1,24 @@
 package nz.ac.canterbury.seng302.homehelper.service.chat;
 
 import nz.ac.canterbury.seng302.homehelper.config.AppConfig;
+import nz.ac.canterbury.seng302.homehelper.config.AsyncConfig;
 import nz.ac.canterbury.seng302.homehelper.config.chat.AiPromptConfig;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
-import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatLink;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.RenovationMember;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Task;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.RenovationMember;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
 import nz.ac.canterbury.seng302.homehelper.exceptions.renovation.TaskDetailsExceptions;
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatHistoryAiView;
 import nz.ac.canterbury.seng302.homehelper.model.ai.ChatMessageAiView;
+import nz.ac.canterbury.seng302.homehelper.model.ai.RelevantTasksAiView;
 import nz.ac.canterbury.seng302.homehelper.model.ai.RenovationAiView;
 import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingMessage;
 import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponse;
 import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponseMessage;
+import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponseStreamParser;
 import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponseTaskCreation;
 import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponseType;
 import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragment;
@@ -29,11 +33,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
-import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.converter.BeanOutputConverter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
@@ -41,6 +48,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service class responsible for handling AI-driven renovation chats using a ChatClient.
@@ -54,6 +62,7 @@ public class ChatAiService {
     public static final String TASK_CREATED_MESSAGE = "I have created the task ";
     public static final String TASK_CREATION_FAILED_MESSAGE = "Sorry, I can't create this task. Try again later.";
     public static final String TASK_INCORRECT_DATE_MESSAGE = "The date cannot be in the past.";
+    public static final String BUSY_MESSAGE = "BrickAI is busy right now. Try again in a minute.";
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final ChatClient chatClient;
@@ -64,9 +73,25 @@ public class ChatAiService {
     private final AppConfig appConfig;
     private final ChatMessageRepository chatMessageRepository;
     private final TaskService taskService;
+    private final AiReplyStreamService aiReplyStreamService;
+    private final RenovationAiContextCache renovationAiContextCache;
+    private final ChatHistoryTool chatHistoryTool;
+    private final ChatChannelSummaryService chatChannelSummaryService;
+    private final AiResponseCache aiResponseCache;
+    private final ChatMemory chatMemory;
+    private final TaskRelevanceIndex taskRelevanceIndex;
+    private final AiUsageService aiUsageService;
+
+    // Streams replies to the channel as they are generated when enabled
+    @Value("${chat.ai.streaming:false}")
+    private boolean streamingEnabled;
+
+    // Lets the AI fetch chat history with a tool call when enabled, otherwise it asks for it with REQUIRE_CHAT_CONTEXT
+    @Value("${chat.ai.history-tool:true}")
+    private boolean historyToolEnabled;
 
     @Autowired
-    public ChatAiService(ChatClient chatClient, AiPromptConfig aiPromptConfig, BrickAiService brickAiService, ChatMessageService chatMessageService, RenovationService renovationService, AppConfig appConfig, AppConfig appConfig1, ChatMessageRepository chatMessageRepository, TaskService taskService) {
+    public ChatAiService(ChatClient chatClient, AiPromptConfig aiPromptConfig, BrickAiService brickAiService, ChatMessageService chatMessageService, RenovationService renovationService, AppConfig appConfig, AppConfig appConfig1, ChatMessageRepository chatMessageRepository, TaskService taskService, AiReplyStreamService aiReplyStreamService, RenovationAiContextCache renovationAiContextCache, ChatHistoryTool chatHistoryTool, ChatChannelSummaryService chatChannelSummaryService, AiResponseCache aiResponseCache, ChatMemory chatMemory, TaskRelevanceIndex taskRelevanceIndex, AiUsageService aiUsageService) {
         this.chatClient = chatClient;
         this.aiPromptConfig = aiPromptConfig;
         this.brickAiService = brickAiService;
@@ -75,6 +100,14 @@ public class ChatAiService {
         this.appConfig = appConfig1;
         this.chatMessageRepository = chatMessageRepository;
         this.taskService = taskService;
+        this.aiReplyStreamService = aiReplyStreamService;
+        this.renovationAiContextCache = renovationAiContextCache;
+        this.chatHistoryTool = chatHistoryTool;
+        this.chatChannelSummaryService = chatChannelSummaryService;
+        this.aiResponseCache = aiResponseCache;
+        this.chatMemory = chatMemory;
+        this.taskRelevanceIndex = taskRelevanceIndex;
+        this.aiUsageService = aiUsageService;
     }
 
     /**
@@ -84,12 +117,9 @@ public class ChatAiService {
      * @param userMessage The incoming user message.
      * @return A CompletableFuture containing the AI's outgoing message, or empty if not directed at AI.
      */
-    @Async
+    @Async(AsyncConfig.AI_EXECUTOR)
     public CompletableFuture<Optional<OutgoingMessage>> handleAiResponse(ChatMessage userMessage) {
-        boolean isMessageForAi = userMessage.getMentions()
-                .stream()
-                .anyMatch(mention -> brickAiService.isAiUser(mention.getMentionedUser()));
-        if (!isMessageForAi && !Objects.equals(userMessage.getChannel().getName(), "brickAI")) {
+        if (!isMessageForAi(userMessage)) {
             return CompletableFuture.completedFuture(Optional.empty());
         }
 
@@ -101,36 +131,78 @@ public class ChatAiService {
         )));
     }
 
+    /**
+     * Checks whether a message should be answered by BrickAI, either because it mentions BrickAI or because it was
+     * sent in the BrickAI channel.
+     *
+     * @param userMessage The incoming user message.
+     * @return true if BrickAI should respond to the message.
+     */
+    public boolean isMessageForAi(ChatMessage userMessage) {
+        boolean mentionsAi = userMessage.getMentions()
+                .stream()
+                .anyMatch(mention -> brickAiService.isAiUser(mention.getMentionedUser()));
+        return mentionsAi || Objects.equals(userMessage.getChannel().getName(), "brickAI");
+    }
+
+    /**
+     * Replies to a message with a notice that BrickAI is busy, used when the AI executor is full and the request
+     * could not be queued.
+     *
+     * @param userMessage The incoming user message.
+     * @return The saved busy notice from BrickAI.
+     */
+    public OutgoingMessage createBusyResponse(ChatMessage userMessage) {
+        ChatMessageWithFragments busyMessage = savePlainAiMessage(userMessage.getChannel(), BUSY_MESSAGE);
+        return new OutgoingMessage(busyMessage.chatMessage, busyMessage.fragments, true);
+    }
+
     /**
      * Processes the AI request and handles exceptions gracefully.
+     * When streaming is enabled, the reply is published to the channel as it is generated and the stream is closed
+     * with the ID of the saved reply.
      *
      * @param userMessage The incoming user message.
      * @return The AI-generated response content.
      */
     private ChatMessageWithFragments processAiRequest(ChatMessage userMessage) {
+        AiReplyStreamService.AiReplyStream stream = streamingEnabled
+                ? aiReplyStreamService.start(userMessage.getChannel(), brickAiService.getAiUser())
+                : null;
+        ChatMessageWithFragments reply;
         try {
-            return handleInitialAiRequest(userMessage);
+            reply = handleInitialAiRequest(userMessage, stream);
         } catch (Exception e) {
             logger.error("Error while processing AI response", e);
-            return savePlainAiMessage(userMessage.getChannel(),  RESPONSE_FAILURE_MESSAGE);
+            reply = savePlainAiMessage(userMessage.getChannel(),  RESPONSE_FAILURE_MESSAGE);
         }
+        if (stream != null) {
+            aiReplyStreamService.publishComplete(stream, reply.chatMessage().getId());
+        }
+        return reply;
     }
 
     /**
      * Sends a prompt to the AI with the given content and context.
+     * The model that answered, the tokens used, the time taken and the type of response are recorded by the
+     * AiUsageService against the channel's renovation.
      *
      * @param content       The user's message content.
      * @param systemMessage The system prompt to use.
      * @param channel       The chat channel.
+     * @param stream        The stream to publish the reply to as it arrives, or null to wait for the whole reply.
+     * @param historyRead   Set once the AI reads the chat history with the history tool, or null if the AI can't
+     *                      call the tool.
      * @return The AI's structured response.
      */
     private AiResponse sendAiRequest(
             String content,
             Message systemMessage,
-            ChatChannel channel
+            ChatChannel channel,
+            AiReplyStreamService.AiReplyStream stream,
+            AtomicBoolean historyRead
     ) {
         Message userMessage = new UserMessage("Incoming message: " + content);
-        List<Message> messages = List.of(systemMessage, userMessage);
         Prompt prompt = new Prompt(List.of(systemMessage, userMessage));
 
         logger.debug("Messages sent to AI:");
@@ -138,72 +210,154 @@ public class ChatAiService {
             logger.debug(" - [{}] {}", m.getMessageType(), m.getText());
         });
 
+        AiUsageService.AiCall call = aiUsageService.startCall(channel.getRenovation().getId());
         try {
-            return chatClient
-                    .prompt(prompt)
-                    .advisors(a -> a.param(ChatMemory.CONVERSATION_ID, channel.getId()))
-                    .call()
-                    .entity(AiResponse.class);
-        } catch (Exception e) {
-            logger.warn("Primary AI model failed, falling back to secondary model.");
-            try {
-                Prompt fallbackPrompt = new Prompt(messages, ChatOptions.builder()
-                        .model("gemini-2.5-flash-lite")
-                        .build());
-                return chatClient
-                        .prompt(fallbackPrompt)
-                        .advisors(a -> a.param(ChatMemory.CONVERSATION_ID, channel.getId()))
-                        .call()
-                        .entity(AiResponse.class);
-            }  catch (Exception ex) {
-                logger.error("Fallback AI model also failed", ex);
-                throw ex;
-            }
+            // falling back to the secondary model is handled by the RoutingChatModel
+            AiResponse response = stream != null
+                    ? streamAiRequest(systemMessage, userMessage, channel, stream, historyRead, call)
+                    : prepareRequest(prompt, channel, historyRead, call).call().entity(AiResponse.class);
+            aiUsageService.recordCall(call, response.getType());
+            return response;
+        } catch (RuntimeException e) {
+            aiUsageService.recordFailure(call);
+            throw e;
         }
     }
 
+    /**
+     * Prepares a request to the AI for a channel, giving it the channel's chat memory and, if requested, the chat
+     * history tool.
+     *
+     * @param prompt      The prompt to send.
+     * @param channel     The chat channel.
+     * @param historyRead Set once the AI reads the chat history with the history tool, or null if the AI can't
+     *                    call the tool.
+     * @param call        The call the request's token usage and model are recorded on.
+     * @return The request, ready to be called or streamed.
+     */
+    private ChatClient.ChatClientRequestSpec prepareRequest(Prompt prompt, ChatChannel channel, AtomicBoolean historyRead,
+                                                            AiUsageService.AiCall call) {
+        ChatClient.ChatClientRequestSpec request = chatClient
+                .prompt(prompt)
+                .advisors(a -> a.param(ChatMemory.CONVERSATION_ID, channel.getId())
+                        .param(AiUsageAdvisor.CALL, call));
+        if (historyRead != null) {
+            request = request
+                    .tools(chatHistoryTool)
+                    .toolContext(ChatHistoryTool.toolContext(channel.getId(), historyRead));
+        }
+        return request;
+    }
+
+    /**
+     * Sends a prompt to the AI and streams the response, publishing the content of MESSAGE responses to the
+     * channel as it arrives. The whole response is parsed once the stream completes.
+     *
+     * @param systemMessage The system prompt to use.
+     * @param userMessage   The user's message.
+     * @param channel       The chat channel.
+     * @param stream        The stream to publish the reply to.
+     * @param historyRead   Set once the AI reads the chat history with the history tool, or null if the AI can't
+     *                      call the tool.
+     * @param call          The call the request's token usage and model are recorded on.
+     * @return The AI's structured response.
+     */
+    private AiResponse streamAiRequest(
+            Message systemMessage,
+            Message userMessage,
+            ChatChannel channel,
+            AiReplyStreamService.AiReplyStream stream,
+            AtomicBoolean historyRead,
+            AiUsageService.AiCall call
+    ) {
+        // the format instructions that entity() adds to the prompt, added by hand since streamed content is parsed here.
+        // They go in the system message because the chat memory advisor stores the user message for follow-ups
+        BeanOutputConverter<AiResponse> converter = new BeanOutputConverter<>(AiResponse.class);
+        Message formattedSystemMessage = new SystemMessage(systemMessage.getText() + System.lineSeparator() + converter.getFormat());
+        AiResponseStreamParser parser = new AiResponseStreamParser();
+
+        prepareRequest(new Prompt(List.of(formattedSystemMessage, userMessage)), channel, historyRead, call)
+                .stream()
+                .content()
+                .doOnNext(chunk -> parser.append(chunk)
+                        .ifPresent(content -> aiReplyStreamService.publishPartial(stream, content)))
+                .blockLast();
+        return converter.convert(parser.getText());
+    }
+
     /**
      * Handles the initial AI request and determines whether chat history is needed.
+     * When the history tool is enabled the AI fetches chat history itself within this request, but if it still asks
+     * for chat context the two-request flow is used. A question answered recently in the same channel with the same
+     * renovation context is answered from the response cache instead. Answers that drew on the chat history are not
+     * cached, since they depend on what had been said in the channel when they were asked. Only the renovation's
+     * tasks most relevant to the message are included in the prompt.
      *
      * @param userMessage The incoming user message.
+     * @param stream      The stream to publish the reply to, or null if streaming is disabled.
      * @return The AI's response content.
      */
-    private ChatMessageWithFragments handleInitialAiRequest(ChatMessage userMessage) {
+    private ChatMessageWithFragments handleInitialAiRequest(ChatMessage userMessage, AiReplyStreamService.AiReplyStream stream) {
         ChatChannel channel = userMessage.getChannel();
-        List<RenovationMember> renovationMembers = renovationService.getRenovationMembers(channel.getRenovation());
-        RenovationAiView renovationAiView = new RenovationAiView(channel.getRenovation(), renovationMembers);
+        Renovation renovation = channel.getRenovation();
+        String renovationContext = renovationAiContextCache.getContext(renovation.getId(), () -> {
+            List<RenovationMember> renovationMembers = renovationService.getRenovationMembers(renovation);
+            return new RenovationAiView(renovation, renovationMembers).toString();
+        });
         ChatMessageAiView chatMessageAiView = new ChatMessageAiView(userMessage);
-        Message systemPrompt = aiPromptConfig.getSystemPromptTemplateInitial(renovationAiView);
+        String questionKey = aiResponseCache.getQuestionKey(userMessage);
+        Optional<String> cachedResponse = aiResponseCache.get(renovation.getId(), renovationContext, questionKey);
+        if (cachedResponse.isPresent()) {
+            // keep the chat memory the same as if the AI had answered, for follow-up questions
+            chatMemory.add(String.valueOf(channel.getId()), List.of(
+                    new UserMessage("Incoming message: " + chatMessageAiView),
+                    new AssistantMessage(cachedResponse.get())));
+            return savePlainAiMessage(channel, cachedResponse.get());
+        }
+        String promptContext = renovationContext + System.lineSeparator()
+                + new RelevantTasksAiView(taskRelevanceIndex.findRelevantTasks(renovation, userMessage.getContent()));
+        Message systemPrompt = historyToolEnabled
+                ? aiPromptConfig.getSystemPromptInitialWithHistoryTool(promptContext)
+                : aiPromptConfig.getSystemPromptInitial(promptContext);
+        AtomicBoolean historyRead = historyToolEnabled ? new AtomicBoolean() : null;
         AiResponse response = sendAiRequest(
                 "Incoming message: " + chatMessageAiView,
                 systemPrompt,
-                channel
+                channel,
+                stream,
+                historyRead
         );
 
         return switch (response.getType()) {
-            case AiResponseType.MESSAGE -> savePlainAiMessage(channel, ((AiResponseMessage) response).getContent());
-            case AiResponseType.REQUIRE_CHAT_CONTEXT -> handleChatContextRequest(channel);
+            case AiResponseType.MESSAGE -> {
+                String content = ((AiResponseMessage) response).getContent();
+                if (historyRead == null || !historyRead.get()) {
+                    aiResponseCache.put(renovation.getId(), renovationContext, questionKey, content);
+                }
+                yield savePlainAiMessage(channel, content);
+            }
+            case AiResponseType.REQUIRE_CHAT_CONTEXT -> handleChatContextRequest(channel, stream);
             case AiResponseType.TASK_CREATION -> handleTaskCreation((AiResponseTaskCreation) response, channel);
         };
     }
 
     /**
      * Handles AI requests that require chat history context.
-     * Retrieves recent messages and sends them to the AI for follow-up.
+     * Retrieves the channel's conversation summary and recent messages and sends them to the AI for follow-up.
      *
      * @param channel The chat channel.
+     * @param stream  The stream to publish the reply to, or null if streaming is disabled.
      * @return The AI's response based on chat history, or fallback message.
      */
-    private ChatMessageWithFragments handleChatContextRequest(ChatChannel channel) {
-        List<ChatMessageAiView> messages = chatMessageService.getLatestMessagesExcludingUser(channel.getId(), brickAiService.getAiUser(), 20)
-                .stream()
-                .map(ChatMessageAiView::new)
-                .toList();
-        Message systemPrompt = aiPromptConfig.getSystemPromptTemplateWithChatContext(messages);
+    private ChatMessageWithFragments handleChatContextRequest(ChatChannel channel, AiReplyStreamService.AiReplyStream stream) {
+        ChatHistoryAiView chatHistory = chatChannelSummaryService.getHistory(channel.getId());
+        Message systemPrompt = aiPromptConfig.getSystemPromptTemplateWithChatContext(chatHistory);
         AiResponse contextResponse = sendAiRequest(
                 CHAT_CONTEXT_FOLLOWUP,
                 systemPrompt,
-                channel
+                channel,
+                stream,
+                null
         );
 
         // sometimes the AI bugs out and asks for chat context again
@@ -244,8 +398,7 @@ public class ChatAiService {
                     new ChatMessageFragmentText(content),
                     new ChatMessageFragmentLink(taskLink, aiResponse.getName()));
             ChatMessage chatMessage = saveAiMessage(channel, content + task.getName());
-            chatMessage.getLinks().add(new ChatLink(chatMessage, task.getName(), taskLink, content.length(), content.length() + task.getName().length() - 1));
-            chatMessageRepository.save(chatMessage);
+            chatMessageService.addLink(chatMessage.getId(), task.getName(), taskLink, content.length(), content.length() + task.getName().length() - 1);
             return new ChatMessageWithFragments(chatMessage, fragments);
         } catch (Exception e) {
             logger.error("Task creation failed", e);
@@ -0,0 +1,229 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import nz.ac.canterbury.seng302.homehelper.config.AsyncConfig;
+import nz.ac.canterbury.seng302.homehelper.config.chat.AiPromptConfig;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannelSummary;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatHistoryAiView;
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatMessageAiView;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatChannelSummaryRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatMessageRepository;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.BrickAiService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a rolling summary of the conversation in each chat channel, so BrickAI can be given a channel's history as
+ * the summary plus a short tail of recent messages, however long the channel gets.
+ * <p>
+ * Channels are marked when BrickAI reads their history and finds more messages than the recent tail outside the
+ * summary, so channels BrickAI is never asked about are never summarised. Marked channels are summarised on the
+ * summary executor rather than the scheduler's thread, as each takes a request to the model. Once a channel has a full
+ * batch of messages more than the recent tail that aren't in its summary, the oldest batch is folded into the summary
+ * with a single request to the model. The existing summary is carried forward, so each message is only summarised
+ * once. Each request is recorded by the AiUsageService against the channel's renovation as a summary call.
+ */
+@Service
+public class ChatChannelSummaryService {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ChatChannelSummaryRepository summaryRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final BrickAiService brickAiService;
+    private final AiPromptConfig aiPromptConfig;
+    private final ChatClient chatClient;
+    private final AiUsageService aiUsageService;
+    private final TaskExecutor summaryExecutor;
+    private final Set<Long> pendingChannels = ConcurrentHashMap.newKeySet();
+    private final Set<Long> summarisingChannels = ConcurrentHashMap.newKeySet();
+    private final int recentMessages;
+    private final int batchSize;
+    private final int maxSummaryLength;
+
+    /**
+     * Constructs the ChatChannelSummaryService.
+     *
+     * @param summaryRepository     the repository holding channel summaries
+     * @param chatMessageRepository the repository holding chat messages
+     * @param brickAiService        used to exclude BrickAI's own messages
+     * @param aiPromptConfig        provides the summarising prompt
+     * @param chatModel             the model used to summarise, called without BrickAI's chat memory
+     * @param aiUsageService        records each summarising request
+     * @param summaryExecutor       the executor channels are summarised on
+     * @param recentMessages        the number of latest messages given to BrickAI alongside the summary
+     * @param batchSize             the number of messages folded into the summary at a time
+     * @param maxSummaryLength      the maximum length of a summary, in characters
+     */
+    @Autowired
+    public ChatChannelSummaryService(ChatChannelSummaryRepository summaryRepository,
+                                     ChatMessageRepository chatMessageRepository,
+                                     BrickAiService brickAiService,
+                                     AiPromptConfig aiPromptConfig,
+                                     ChatModel chatModel,
+                                     AiUsageService aiUsageService,
+                                     @Qualifier(AsyncConfig.SUMMARY_EXECUTOR) TaskExecutor summaryExecutor,
+                                     @Value("${chat.ai.summary.recent-messages:10}") int recentMessages,
+                                     @Value("${chat.ai.summary.batch-size:10}") int batchSize,
+                                     @Value("${chat.ai.summary.max-length:2000}") int maxSummaryLength) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Summary batch size must be at least 1");
+        }
+        this.summaryRepository = summaryRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.brickAiService = brickAiService;
+        this.aiPromptConfig = aiPromptConfig;
+        this.chatClient = ChatClient.builder(chatModel).defaultAdvisors(new AiUsageAdvisor()).build();
+        this.aiUsageService = aiUsageService;
+        this.summaryExecutor = summaryExecutor;
+        this.recentMessages = recentMessages;
+        this.batchSize = batchSize;
+        this.maxSummaryLength = maxSummaryLength;
+    }
+
+    /**
+     * Gets the history of a channel to give to BrickAI: the channel's summary, if it has one, and the latest messages
+     * that aren't in it. At most a batch more than the recent tail is returned, as older messages will be in the
+     * summary once the channel has been summarised.
+     *
+     * @param channelId the ID of the channel
+     * @return the channel's history
+     */
+    public ChatHistoryAiView getHistory(long channelId) {
+        Optional<ChatChannelSummary> summary = summaryRepository.findById(channelId);
+        List<ChatMessage> latest = new ArrayList<>(chatMessageRepository.findLatestMessagesExcludingUser(
+                channelId, brickAiService.getAiUser(), recentMessages + batchSize));
+        if (summary.isPresent()) {
+            latest.removeIf(message -> !summary.get().isAfterSummary(message));
+        }
+        if (latest.size() > recentMessages) {
+            pendingChannels.add(channelId);
+        }
+        return new ChatHistoryAiView(
+                summary.map(ChatChannelSummary::getSummary).orElse(null),
+                latest.reversed().stream().map(ChatMessageAiView::new).toList());
+    }
+
+    /**
+     * Removes the summaries of every channel a user has sent messages in, used when the user stops BrickAI from
+     * reading their messages. The channels are summarised again from their latest messages.
+     *
+     * @param user the user whose messages must no longer be summarised
+     */
+    public void forgetMessagesFrom(User user) {
+        summaryRepository.deleteByMessagesFrom(user);
+    }
+
+    /**
+     * Removes a channel's summary, used when a message in it is redacted so its content is no longer given to
+     * BrickAI. The channel is summarised again from its latest messages.
+     *
+     * @param channelId the ID of the channel
+     */
+    public void forgetChannel(long channelId) {
+        summaryRepository.deleteById(channelId);
+    }
+
+    /**
+     * Every 30 seconds, hand the channels marked for summarising to the summary executor. A channel still being
+     * summarised from an earlier run stays marked until the next run, and a channel the executor has no room for is
+     * tried again next run.
+     */
+    @Scheduled(fixedDelayString = "${chat.ai.summary.interval-millis:30000}")
+    public void summarisePendingChannels() {
+        for (Long channelId : List.copyOf(pendingChannels)) {
+            if (!summarisingChannels.add(channelId)) {
+                continue;
+            }
+            pendingChannels.remove(channelId);
+            try {
+                summaryExecutor.execute(() -> {
+                    try {
+                        summariseChannel(channelId);
+                    } catch (Exception e) {
+                        logger.error("Failed to summarise chat channel {}", channelId, e);
+                    } finally {
+                        summarisingChannels.remove(channelId);
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                summarisingChannels.remove(channelId);
+                pendingChannels.add(channelId);
+                logger.warn("Summary executor is full, chat channel {} will be summarised later", channelId);
+            }
+        }
+    }
+
+    /**
+     * Folds the oldest batch of unsummarised messages in a channel into its summary, if there are enough messages
+     * beyond the recent tail. A channel without a summary starts from its latest messages rather than its first, so
+     * summarising an existing channel only takes one request.
+     *
+     * @param channelId the ID of the channel
+     */
+    public void summariseChannel(long channelId) {
+        User aiUser = brickAiService.getAiUser();
+        int limit = recentMessages + batchSize;
+        Optional<ChatChannelSummary> existing = summaryRepository.findById(channelId);
+        List<ChatMessage> unsummarised = existing
+                .map(summary -> chatMessageRepository.findNextMessagesExcludingUser(channelId, aiUser,
+                        summary.getLastMessageTimestamp(), summary.getLastMessageId(), PageRequest.of(0, limit)))
+                .orElseGet(() -> chatMessageRepository.findLatestMessagesExcludingUser(channelId, aiUser, limit).reversed());
+        if (unsummarised.size() < limit) {
+            return;
+        }
+
+        List<ChatMessage> batch = unsummarised.subList(0, batchSize);
+        String previousSummary = existing.map(ChatChannelSummary::getSummary).orElse(null);
+        long renovationId = batch.getLast().getChannel().getRenovation().getId();
+        String summary = summarise(previousSummary, batch, renovationId);
+        ChatChannelSummary channelSummary = existing.orElseGet(() -> new ChatChannelSummary(channelId));
+        channelSummary.update(summary, batch.getLast());
+        summaryRepository.save(channelSummary);
+        logger.debug("Folded {} messages into the summary of chat channel {}", batch.size(), channelId);
+
+        if (existing.isPresent()) {
+            // there may be more than one batch waiting
+            pendingChannels.add(channelId);
+        }
+    }
+
+    private String summarise(String previousSummary, List<ChatMessage> messages, long renovationId) {
+        Prompt prompt = new Prompt(List.of(
+                aiPromptConfig.getSystemPromptTemplateSummary(previousSummary,
+                        messages.stream().map(ChatMessageAiView::new).toList(), maxSummaryLength),
+                new UserMessage("Write the updated summary.")));
+        AiUsageService.AiCall call = aiUsageService.startCall(renovationId);
+        String summary;
+        try {
+            summary = chatClient.prompt(prompt).advisors(a -> a.param(AiUsageAdvisor.CALL, call)).call().content();
+        } catch (RuntimeException e) {
+            aiUsageService.recordFailure(call);
+            throw e;
+        }
+        aiUsageService.recordSummaryCall(call);
+        if (summary == null || summary.isBlank()) {
+            throw new IllegalStateException("Model returned an empty summary");
+        }
+        summary = summary.strip();
+        return summary.length() > maxSummaryLength ? summary.substring(0, maxSummaryLength) : summary;
+    }
+}
@@ -1,5 +1,9 @@
 package nz.ac.canterbury.seng302.homehelper.service.chat;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatLink;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMention;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
@@ -8,6 +12,8 @@ import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragme
 import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragmentLink;
 import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragmentMention;
 import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragmentText;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -17,6 +23,56 @@ import java.util.List;
 @Service
 public class ChatFragmentService {
 
+    /**
+     * Longest serialised fragment list that fits in the chat_message fragments column.
+     */
+    public static final int MAX_STORED_FRAGMENTS_LENGTH = 8192;
+
+    private static final TypeReference<List<ChatMessageFragment>> FRAGMENT_LIST_TYPE = new TypeReference<>() {};
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Gets the fragments of a chat message. Messages saved with pre-computed fragments are deserialised directly,
+     * otherwise the fragments are parsed from the message's content, mentions and links.
+     *
+     * @param message the chat message
+     * @return a list of chat message fragments representing the message
+     */
+    public List<ChatMessageFragment> extractFragmentsFromMessage(ChatMessage message) {
+        String storedFragments = message.getFragments();
+        if (storedFragments != null) {
+            try {
+                return objectMapper.readValue(storedFragments, FRAGMENT_LIST_TYPE);
+            } catch (JsonProcessingException e) {
+                logger.warn("Could not read stored fragments of chat message {}, parsing content instead", message.getId(), e);
+            }
+        }
+        return parseFragmentsFromMessage(message);
+    }
+
+    /**
+     * Parses the fragments of a chat message and stores them serialised on the message, so they do not need to be
+     * parsed again when the message is read. Must be called again whenever the message's mentions or links change.
+     * Fragments too long to store are left unset and are parsed on each read instead.
+     *
+     * @param message the chat message to store fragments on
+     * @return the parsed fragments
+     */
+    public List<ChatMessageFragment> storeFragments(ChatMessage message) {
+        List<ChatMessageFragment> fragments = parseFragmentsFromMessage(message);
+        String serialised = null;
+        try {
+            serialised = objectMapper.writerFor(FRAGMENT_LIST_TYPE).writeValueAsString(fragments);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialise fragments of chat message {}", message.getId(), e);
+        }
+        message.setFragments(serialised != null && serialised.length() <= MAX_STORED_FRAGMENTS_LENGTH ? serialised : null);
+        return fragments;
+    }
+
 
     // example docstring generated by GPT
     /**
@@ -41,9 +97,10 @@ public class ChatFragmentService {
      * @param message the chat message containing raw content and mentions
      * @return a list of chat message fragments representing the parsed message
      */
-    public List<ChatMessageFragment> extractFragmentsFromMessage(ChatMessage message) {
+    public List<ChatMessageFragment> parseFragmentsFromMessage(ChatMessage message) {
         String content = message.getContent();
-        List<ChatMention> mentions = message.getMentions();
+        // sort a copy so the message's own mention list is not reordered
+        List<ChatMention> mentions = new ArrayList<>(message.getMentions());
         List<ChatLink> links = message.getLinks();
         // ensure mentions are sorted by start index
         mentions.sort(Comparator.comparingInt(ChatMention::getStartPosition));
@@ -0,0 +1,210 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a size-bounded ring buffer of the latest outgoing messages for each active chat channel, so the first page of
+ * a channel's history can be served without querying the database or rebuilding message fragments.
+ * A channel's buffer is only used once it has been filled from the database, after which new messages are appended
+ * as they are sent. Channels that have not been read or written for a while are evicted.
+ */
+@Service
+public class ChatHistoryBufferService {
+
+    private static final Comparator<OutgoingMessage> MESSAGE_ORDER =
+            Comparator.comparing(OutgoingMessage::date).thenComparingLong(OutgoingMessage::id);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final Map<Long, ChannelBuffer> buffers = new ConcurrentHashMap<>();
+    private final int capacity;
+    private final Duration idleTimeout;
+
+    /**
+     * Constructs the ChatHistoryBufferService.
+     *
+     * @param capacity           the number of messages to keep per channel, matching the size of the first history page
+     * @param idleTimeoutMinutes how long a channel can go unused before its buffer is evicted
+     */
+    @Autowired
+    public ChatHistoryBufferService(@Value("${chat.history-buffer.size:25}") int capacity,
+                                    @Value("${chat.history-buffer.idle-minutes:30}") long idleTimeoutMinutes) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("History buffer size must be at least 1");
+        }
+        this.capacity = capacity;
+        this.idleTimeout = Duration.ofMinutes(idleTimeoutMinutes);
+    }
+
+    /**
+     * Gets the latest messages for a channel, newest first. If the channel's buffer has been filled it is served from
+     * memory, otherwise the messages are loaded with the given loader and used to fill the buffer.
+     *
+     * @param channelId the ID of the channel
+     * @param loader    loads the latest messages from the database, newest first
+     * @return the latest messages for the channel, newest first
+     */
+    public List<OutgoingMessage> getLatestMessages(long channelId, Supplier<List<OutgoingMessage>> loader) {
+        ChannelBuffer buffer = buffers.computeIfAbsent(channelId, id -> new ChannelBuffer(capacity));
+        long version;
+        synchronized (buffer) {
+            buffer.touch();
+            if (buffer.filled) {
+                return buffer.newestFirst();
+            }
+            version = buffer.version;
+        }
+
+        List<OutgoingMessage> messages = loader.get();
+        synchronized (buffer) {
+            // only fill the buffer if no message was sent to the channel while it was being loaded,
+            // as the loaded page may or may not contain that message
+            if (!buffer.filled && buffer.version == version) {
+                buffer.fill(messages);
+                logger.debug("Filled history buffer for channel {} with {} messages", channelId, messages.size());
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Appends a newly sent message to a channel's buffer. Nothing is stored for channels that have no buffer yet,
+     * since their history will be loaded from the database when they are first opened.
+     *
+     * @param channelId the ID of the channel the message was sent to
+     * @param message   the message that was sent
+     */
+    public void append(long channelId, OutgoingMessage message) {
+        ChannelBuffer buffer = buffers.get(channelId);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            buffer.touch();
+            buffer.version++;
+            if (buffer.filled && !buffer.append(message)) {
+                // the message arrived out of order, so reload the page from the database next time
+                buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * Removes a channel's buffer, so its history is next loaded from the database.
+     *
+     * @param channelId the ID of the channel
+     */
+    public void invalidate(long channelId) {
+        buffers.remove(channelId);
+    }
+
+    /**
+     * Every minute, evict the buffers of channels that have not been used within the idle timeout.
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictIdleChannels() {
+        evictChannelsIdleSince(Instant.now().minus(idleTimeout));
+    }
+
+    /**
+     * Evicts the buffers of channels that have not been used since the given time.
+     *
+     * @param cutoff the time a channel must have been used after to be kept
+     */
+    public void evictChannelsIdleSince(Instant cutoff) {
+        buffers.entrySet().removeIf(entry -> {
+            synchronized (entry.getValue()) {
+                return entry.getValue().lastUsed.isBefore(cutoff);
+            }
+        });
+    }
+
+    /**
+     * Fixed size ring buffer holding a channel's latest messages in the order they were sent.
+     */
+    private static final class ChannelBuffer {
+
+        private final OutgoingMessage[] ring;
+        private int head;
+        private int size;
+        private boolean filled;
+        private long version;
+        private Instant lastUsed = Instant.now();
+
+        private ChannelBuffer(int capacity) {
+            this.ring = new OutgoingMessage[capacity];
+        }
+
+        private void touch() {
+            lastUsed = Instant.now();
+        }
+
+        private void fill(List<OutgoingMessage> newestFirst) {
+            clear();
+            int count = Math.min(newestFirst.size(), ring.length);
+            for (int i = count - 1; i >= 0; i--) {
+                push(newestFirst.get(i));
+            }
+            filled = true;
+        }
+
+        /**
+         * Appends a message after the newest buffered message.
+         *
+         * @return false if the message is older than the newest buffered message and could not be appended
+         */
+        private boolean append(OutgoingMessage message) {
+            if (size > 0) {
+                OutgoingMessage newest = ring[(head + size - 1) % ring.length];
+                if (newest.id() == message.id()) {
+                    return true;
+                }
+                if (MESSAGE_ORDER.compare(message, newest) < 0) {
+                    return false;
+                }
+            }
+            push(message);
+            return true;
+        }
+
+        private void push(OutgoingMessage message) {
+            if (size < ring.length) {
+                ring[(head + size) % ring.length] = message;
+                size++;
+            } else {
+                ring[head] = message;
+                head = (head + 1) % ring.length;
+            }
+        }
+
+        private List<OutgoingMessage> newestFirst() {
+            List<OutgoingMessage> messages = new ArrayList<>(size);
+            for (int i = size - 1; i >= 0; i--) {
+                messages.add(ring[(head + i) % ring.length]);
+            }
+            return messages;
+        }
+
+        private void clear() {
+            Arrays.fill(ring, null);
+            head = 0;
+            size = 0;
+            filled = false;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatHistoryAiView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tool that BrickAI can call to read the recent history of the chat channel it is replying in, so questions about
+ * past conversation are answered within a single request to the model.
+ */
+@Component
+public class ChatHistoryTool {
+
+    /**
+     * Key of the tool context entry holding the ID of the channel BrickAI is replying in.
+     */
+    public static final String CHANNEL_ID = "channelId";
+
+    /**
+     * Key of the tool context entry holding the flag that is set once the chat history has been read.
+     */
+    public static final String HISTORY_READ = "historyRead";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ChatChannelSummaryService chatChannelSummaryService;
+
+    @Autowired
+    public ChatHistoryTool(ChatChannelSummaryService chatChannelSummaryService) {
+        this.chatChannelSummaryService = chatChannelSummaryService;
+    }
+
+    /**
+     * Creates the tool context for a request made from a channel.
+     *
+     * @param channelId   the ID of the channel BrickAI is replying in
+     * @param historyRead the flag to set if BrickAI reads the channel's history during the request
+     * @return the tool context to send with the request
+     */
+    public static Map<String, Object> toolContext(long channelId, AtomicBoolean historyRead) {
+        return Map.of(CHANNEL_ID, channelId, HISTORY_READ, historyRead);
+    }
+
+    /**
+     * Gets the history of the channel BrickAI is replying in.
+     *
+     * @param toolContext the tool context of the request, holding the channel ID and the flag to set
+     * @return a summary of the channel's earlier conversation and its latest messages, excluding BrickAI's own
+     */
+    @Tool(name = "getChatHistory", description = "Gets the history of the current chat channel: a summary of the "
+            + "earlier conversation, and the latest messages sent by users with who sent each message and when. "
+            + "Use this when a message asks about past conversation.")
+    public ChatHistoryAiView getChatHistory(ToolContext toolContext) {
+        long channelId = ((Number) toolContext.getContext().get(CHANNEL_ID)).longValue();
+        logger.debug("BrickAI requested chat history for channel {}", channelId);
+        if (toolContext.getContext().get(HISTORY_READ) instanceof AtomicBoolean historyRead) {
+            historyRead.set(true);
+        }
+        return chatChannelSummaryService.getHistory(channelId);
+    }
+}
@@ -1,10 +1,9 @@
 package nz.ac.canterbury.seng302.homehelper.service.chat;
 
-import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
-import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMention;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.chat.MentionSummary;
 import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingMention;
 import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragment;
 import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragmentMention;
@@ -33,23 +32,15 @@ public class ChatMentionService {
     private final ChatMentionRepository chatMentionRepository;
     private final RenovationService renovationService;
     private final ChatChannelService chatChannelService;
+    private final MentionSummaryService mentionSummaryService;
 
     @Autowired
     public ChatMentionService(ChatMentionRepository chatMentionRepository,  RenovationService renovationService,
-                              ChatChannelService chatChannelService) {
+                              ChatChannelService chatChannelService, MentionSummaryService mentionSummaryService) {
         this.chatMentionRepository = chatMentionRepository;
         this.renovationService = renovationService;
         this.chatChannelService = chatChannelService;
-    }
-
-    /**
-     * Gets all unseen mentions for a user, including the related message and channel.
-     *
-     * @param userId the ID of the user
-     * @return a list of unseen {@link ChatMention}, possibly empty
-     */
-    public List<ChatMention> getUnseenMentions(Long userId) {
-        return chatMentionRepository.findUnseenMentionsWithMessageAndChannel(userId);
+        this.mentionSummaryService = mentionSummaryService;
     }
 
     /**
@@ -60,6 +51,50 @@ public class ChatMentionService {
      */
     public void markMentionsAsSeen(Long userId, Long channelId) {
         chatMentionRepository.markMentionsAsSeenForUserInChannel(userId, channelId);
+        mentionSummaryService.markChannelSeen(userId, channelId);
+    }
+
+    /**
+     * Records that the given users were mentioned in a newly sent message, so their unseen mention summaries stay
+     * up to date.
+     *
+     * @param messageId the ID of the message the users were mentioned in
+     * @param userIds   the IDs of the mentioned users, without duplicates
+     * @param mention   the mention sent to the users
+     */
+    public void recordMention(long messageId, List<Long> userIds, OutgoingMention mention) {
+        mentionSummaryService.recordMention(messageId, userIds, mention);
+    }
+
+    /**
+     * Gets the users mentioned in a message.
+     *
+     * @param messageId the ID of the message
+     * @return the IDs of the mentioned users, without duplicates
+     */
+    public List<Long> getMentionedUserIds(long messageId) {
+        return chatMentionRepository.findMentionedUserIds(messageId);
+    }
+
+    /**
+     * Drops the mention summaries of users whose mentions in a message were removed, so the message is no longer
+     * previewed to them.
+     *
+     * @param userIds the IDs of the users who were mentioned in the message
+     */
+    public void evictMentionSummaries(List<Long> userIds) {
+        mentionSummaryService.evict(userIds);
+    }
+
+    /**
+     * Gets the summary of a user's unseen mentions: how many messages they have unseen mentions in, and previews of
+     * the latest few of those messages.
+     *
+     * @param userId the ID of the user
+     * @return the user's mention summary
+     */
+    public MentionSummary getMentionSummary(Long userId) {
+        return mentionSummaryService.getSummary(userId);
     }
 
 
@@ -79,15 +114,4 @@ public class ChatMentionService {
         String channelName = chatChannelService.getChannelById(channelId).orElseThrow().getName();
         return new OutgoingMention(renovationDto, channelId, channelName, senderDto, messageContent, timestamp);
     }
-
-    public List<OutgoingMention> getOutgoingMentions(Long userId) {
-        List<ChatMention> mentions = getUnseenMentions(userId);
-
-        return mentions.stream().map(mention -> {
-            Renovation renovation = mention.getChatMessage().getChannel().getRenovation();
-            ChatChannel channel = mention.getChatMessage().getChannel();
-            User sender = mention.getChatMessage().getSender();
-            return createOutgoingMention(renovation.getId(), channel.getId(), sender, mention.getMessage().getContent(), mention.getMessage().getTimestamp());
-        }).toList();
-    }
 }
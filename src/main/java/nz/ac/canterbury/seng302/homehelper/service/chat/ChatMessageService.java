@@ -1,12 +1,13 @@
 package nz.ac.canterbury.seng302.homehelper.service.chat;
 
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatLink;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMention;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
 import nz.ac.canterbury.seng302.homehelper.exceptions.chat.ChatChannelNotFoundException;
 import nz.ac.canterbury.seng302.homehelper.exceptions.chat.ChatChannelUnauthorisedException;
-import nz.ac.canterbury.seng302.homehelper.exceptions.user.UserNotFoundException;
+import nz.ac.canterbury.seng302.homehelper.exceptions.chat.ChatMessageNotFoundException;
 import nz.ac.canterbury.seng302.homehelper.model.chat.IncomingMention;
 import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatChannelRepository;
 import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatMessageRepository;
@@ -19,8 +20,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for managing renovation chat messages.
@@ -33,24 +38,29 @@ public class ChatMessageService {
     private final ChatMessageRepository messageRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final ChatFragmentService chatFragmentService;
 
     /**
      * Constructs the ChatMessageService with the required repositories for managing messages.
      *
-     * @param channelRepository Repository for chat channels
-     * @param messageRepository Repository for chat messages
-     * @param userRepository    Repository for users
+     * @param channelRepository   Repository for chat channels
+     * @param messageRepository   Repository for chat messages
+     * @param userRepository      Repository for users
+     * @param chatFragmentService Service for computing message fragments
      */
     @Autowired
-    public ChatMessageService(ChatChannelRepository channelRepository, ChatMessageRepository messageRepository, UserRepository userRepository, UserService userService) {
+    public ChatMessageService(ChatChannelRepository channelRepository, ChatMessageRepository messageRepository, UserRepository userRepository, UserService userService, ChatFragmentService chatFragmentService) {
         this.channelRepository = channelRepository;
         this.messageRepository = messageRepository;
         this.userRepository = userRepository;
         this.userService = userService;
+        this.chatFragmentService = chatFragmentService;
     }
 
     /**
      * Persists a chat message in a given channel from a specified sender, if sender is authorized.
+     * The channel and all of its members are loaded in one query, so the sender and every mentioned user are resolved
+     * and validated in memory. The message and its mentions are then written with batched inserts.
      *
      * @param channelId the ID of the chat channel
      * @param senderId  the ID of the user sending the message
@@ -58,21 +68,21 @@ public class ChatMessageService {
      * @return the saved ChatMessage object
      * @throws ChatChannelUnauthorisedException if the user is not part of the channel
      * @throws ChatChannelNotFoundException     if the channel was not found.
-     * @throws UserNotFoundException            if the user was not found.
      */
     @Transactional
     public ChatMessage saveMessage(long channelId, long senderId, String content, List<IncomingMention> mentions) {
         ChatValidation.validateChatMessage(content);
-        if (!channelRepository.isUserMemberOfChannel(channelId, senderId)) {
+        ChatChannel chatChannel = channelRepository.findByIdWithMembers(channelId)
+                .orElseThrow(() -> new ChatChannelNotFoundException("Channel with ID " + channelId + " not found"));
+        Map<Long, User> members = chatChannel.getMembers().stream()
+                .collect(Collectors.toMap(User::getId, Function.identity(), (first, second) -> first));
+
+        User sender = members.get(senderId);
+        if (sender == null) {
             throw new ChatChannelUnauthorisedException("User with ID " + senderId + " is not authorized to send messages in channel with ID channel " + channelId);
         }
-
-        ChatChannel chatChannel = channelRepository.findById(channelId)
-                .orElseThrow(() -> new ChatChannelNotFoundException("Channel with ID " + channelId + " not found"));
-        User sender = userRepository.findUserById(senderId).stream()
-                .findFirst()
-                .orElseThrow(UserNotFoundException::new);
-        ChatMessage chatMessage = new ChatMessage(content, Instant.now(), chatChannel, sender);
+        // truncate to the precision the database stores, so cursors built from the saved message match the stored row
+        ChatMessage chatMessage = new ChatMessage(content, Instant.now().truncatedTo(ChronoUnit.MICROS), chatChannel, sender);
 
         // add each valid mention to the chat message
         mentions.stream()
@@ -80,20 +90,75 @@ public class ChatMessageService {
                         mention.startPosition() < content.length() &&
                                 content.charAt(mention.startPosition()) == '@')
                 // Validate that the mention is authorised
-                .filter( mention -> validateMention(sender, mention.userId(), channelId))
+                .filter(mention -> members.containsKey(mention.userId()))
                 .forEach(mention -> {
-                    User mentionedUser = userRepository.findUserById(mention.userId()).getFirst();
                     ChatMention chatMention = new ChatMention(
                             chatMessage,
-                            mentionedUser,
+                            members.get(mention.userId()),
                             mention.startPosition(),
                             mention.endPosition());
                     chatMessage.getMentions().add(chatMention);
                 });
 
+        chatFragmentService.storeFragments(chatMessage);
+        return messageRepository.saveWithChildren(chatMessage);
+    }
+
+    /**
+     * Adds a link to a saved chat message and recomputes its stored fragments.
+     *
+     * @param messageId     the ID of the saved chat message
+     * @param text          the text displayed for the link
+     * @param link          the URL the link points to
+     * @param startPosition the index in the message content where the link starts
+     * @param endPosition   the index in the message content where the link ends
+     * @return the updated ChatMessage object
+     * @throws ChatMessageNotFoundException if the message was not found
+     */
+    @Transactional
+    public ChatMessage addLink(long messageId, String text, String link, int startPosition, int endPosition) {
+        ChatMessage chatMessage = messageRepository.findById(messageId)
+                .orElseThrow(() -> new ChatMessageNotFoundException("Message with ID " + messageId + " not found"));
+        chatMessage.getLinks().add(new ChatLink(chatMessage, text, link, startPosition, endPosition));
+        chatFragmentService.storeFragments(chatMessage);
         return messageRepository.save(chatMessage);
     }
 
+    /**
+     * Replaces the content of a saved chat message, used when moderation finds it contains profanity.
+     *
+     * @param messageId   the ID of the saved chat message
+     * @param replacement the content to show in place of the message
+     * @return the redacted ChatMessage object
+     * @throws ChatMessageNotFoundException if the message was not found
+     */
+    @Transactional
+    public ChatMessage redactMessage(long messageId, String replacement) {
+        ChatMessage chatMessage = messageRepository.findById(messageId)
+                .orElseThrow(() -> new ChatMessageNotFoundException("Message with ID " + messageId + " not found"));
+        chatMessage.redact(replacement);
+        chatFragmentService.storeFragments(chatMessage);
+        return messageRepository.save(chatMessage);
+    }
+
+    /**
+     * Computes and stores fragments for a batch of messages that were saved before fragments were stored.
+     *
+     * @param afterId   only messages with an ID greater than this are backfilled
+     * @param batchSize the maximum number of messages to backfill
+     * @return the ID of the last message in the batch, or -1 if there were no messages left to backfill
+     */
+    @Transactional
+    public long backfillFragments(long afterId, int batchSize) {
+        List<ChatMessage> messages = messageRepository.findByFragmentsIsNullAndIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, batchSize));
+        if (messages.isEmpty()) {
+            return -1;
+        }
+        messages.forEach(chatFragmentService::storeFragments);
+        messageRepository.saveAll(messages);
+        return messages.getLast().getId();
+    }
+
     /**
      * Retrieves the most recent messages for a given chat channel using the default batch size.
      *
@@ -191,22 +256,6 @@ public class ChatMessageService {
         return messages;
     }
 
-    /**
-     * Validates that a mention is authorised to be sent
-     * Checks if the receiver is a recognised user within the system and checks
-     * that both the sender and the receiver are part of the channel from which the mention
-     * was sent
-     *
-     * @param sender the user who sent the mention
-     * @param receiverId the user who will receive the mention
-     * @param channelId the channel where the mention was sent
-     */
-    private boolean validateMention(User sender, long receiverId, long channelId) {
-        return userRepository.findUserById(receiverId).stream().findFirst().isPresent() &&
-                channelRepository.isUserMemberOfChannel(channelId, sender.getId()) &&
-                channelRepository.isUserMemberOfChannel(channelId, receiverId);
-    }
-
     /**
      * Finds a list of latest messages up to a limit for a specific chat channel excluding a user
      * @param channelId the ID of the channel to find the messages from
@@ -0,0 +1,181 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.config.AsyncConfig;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.exceptions.chat.ChatMessageNotFoundException;
+import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingRedaction;
+import nz.ac.canterbury.seng302.homehelper.service.ProfanityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Checks chat messages for profanity after they have been sent, so moderation never holds up the sender.
+ * <p>
+ * Each message is checked against the local word list on the moderation executor. Messages with a bad word are
+ * redacted straight away, and messages the local check can't be sure about are queued for ProfanityAPI. The queue is
+ * checked in batches, with each batch's requests sent at once. A redacted message's content is replaced in the
+ * database, the channel's history buffer, the mentioned users' mention summaries and everything BrickAI remembers of
+ * the channel (its summary and chat memory) are dropped, and the channel is sent an {@link OutgoingRedaction} so
+ * clients replace the message they are showing.
+ */
+@Service
+public class ChatModerationService {
+
+    /**
+     * The content shown in place of a redacted message.
+     */
+    public static final String REDACTED_CONTENT = "This message was removed because it contained inappropriate language.";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ProfanityService profanityService;
+    private final ChatMessageService chatMessageService;
+    private final ChatFragmentService chatFragmentService;
+    private final ChatHistoryBufferService chatHistoryBufferService;
+    private final ChatMentionService chatMentionService;
+    private final ChatChannelSummaryService chatChannelSummaryService;
+    private final ChatMemory chatMemory;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Queue<PendingCheck> pendingChecks = new ConcurrentLinkedQueue<>();
+    private final int batchSize;
+
+    /**
+     * Constructs the ChatModerationService.
+     *
+     * @param profanityService          the service that detects profanity
+     * @param chatMessageService        the service used to redact messages
+     * @param chatFragmentService       the service that builds a redacted message's fragments
+     * @param chatHistoryBufferService  the buffer of each channel's latest messages, dropped when a message is redacted
+     * @param chatMentionService        the service holding mention summaries, dropped when a message is redacted
+     * @param chatChannelSummaryService the service holding channel summaries, dropped when a message is redacted
+     * @param chatMemory                BrickAI's memory of each channel, cleared when a message is redacted
+     * @param messagingTemplate         the messaging template used to tell channels about redactions
+     * @param meterRegistry             the registry to publish moderation metrics to
+     * @param batchSize                 the maximum number of messages checked with ProfanityAPI at once
+     */
+    @Autowired
+    public ChatModerationService(ProfanityService profanityService, ChatMessageService chatMessageService,
+                                 ChatFragmentService chatFragmentService,
+                                 ChatHistoryBufferService chatHistoryBufferService,
+                                 ChatMentionService chatMentionService,
+                                 ChatChannelSummaryService chatChannelSummaryService, ChatMemory chatMemory,
+                                 SimpMessagingTemplate messagingTemplate, MeterRegistry meterRegistry,
+                                 @Value("${chat.moderation.batch-size:20}") int batchSize) {
+        this.profanityService = profanityService;
+        this.chatMessageService = chatMessageService;
+        this.chatFragmentService = chatFragmentService;
+        this.chatHistoryBufferService = chatHistoryBufferService;
+        this.chatMentionService = chatMentionService;
+        this.chatChannelSummaryService = chatChannelSummaryService;
+        this.chatMemory = chatMemory;
+        this.messagingTemplate = messagingTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        Gauge.builder("chat.moderation.pending", this, ChatModerationService::getPendingCount)
+                .description("Chat messages waiting to be checked with ProfanityAPI")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks a message that has been sent against the local word list, redacting it if it contains profanity or
+     * queueing it for ProfanityAPI if the local check is unsure. Runs on the moderation executor, which rejects the
+     * message with a {@link org.springframework.core.task.TaskRejectedException} if it is full.
+     *
+     * @param renovationId the ID of the renovation the message was sent in
+     * @param channelId    the ID of the channel the message was sent to
+     * @param messageId    the ID of the saved message
+     * @param content      the content of the message
+     */
+    @Async(AsyncConfig.MODERATION_EXECUTOR)
+    public void moderate(long renovationId, long channelId, long messageId, String content) {
+        PendingCheck check = new PendingCheck(renovationId, channelId, messageId, content);
+        switch (profanityService.checkProfanityLocalVerdict(content)) {
+            case PROFANE -> redact(check, "local");
+            case AMBIGUOUS -> pendingChecks.add(check);
+            case CLEAN -> logger.trace("Message {} passed moderation", messageId);
+        }
+    }
+
+    /**
+     * Every second, check a batch of the messages the local check was unsure about with ProfanityAPI.
+     */
+    @Scheduled(fixedDelayString = "${chat.moderation.batch-millis:1000}")
+    public void checkPendingMessages() {
+        List<PendingCheck> batch = new ArrayList<>();
+        PendingCheck check;
+        while (batch.size() < batchSize && (check = pendingChecks.poll()) != null) {
+            batch.add(check);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // ProfanityService shares one request between checks of the same text, so repeated messages only cost one
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // a check that fails leaves its message unredacted rather than abandoning the rest of the batch
+            List<CompletableFuture<Boolean>> verdicts = batch.stream()
+                    .map(pending -> CompletableFuture.supplyAsync(
+                                    () -> profanityService.checkProfanityAPI(pending.content()), executor)
+                            .exceptionally(e -> {
+                                logger.error("Failed to check chat message {} with ProfanityAPI", pending.messageId(), e);
+                                return false;
+                            }))
+                    .toList();
+            for (int i = 0; i < batch.size(); i++) {
+                if (verdicts.get(i).join()) {
+                    redact(batch.get(i), "api");
+                }
+            }
+        }
+        logger.debug("Checked {} chat messages with ProfanityAPI", batch.size());
+    }
+
+    /**
+     * Gets the number of messages waiting to be checked with ProfanityAPI.
+     *
+     * @return the number of queued messages
+     */
+    public int getPendingCount() {
+        return pendingChecks.size();
+    }
+
+    private void redact(PendingCheck check, String detectedBy) {
+        try {
+            // redacting removes the message's mentions, so find who was mentioned first
+            List<Long> mentionedUserIds = chatMentionService.getMentionedUserIds(check.messageId());
+            ChatMessage redacted = chatMessageService.redactMessage(check.messageId(), REDACTED_CONTENT);
+            chatHistoryBufferService.invalidate(check.channelId());
+            chatMentionService.evictMentionSummaries(mentionedUserIds);
+            // BrickAI may have summarised or remembered the message before it was redacted
+            chatChannelSummaryService.forgetChannel(check.channelId());
+            chatMemory.clear(String.valueOf(check.channelId()));
+            messagingTemplate.convertAndSend(
+                    "/topic/renovation/" + check.renovationId() + "/channel/" + check.channelId(),
+                    new OutgoingRedaction(check.messageId(), chatFragmentService.extractFragmentsFromMessage(redacted)));
+            meterRegistry.counter("chat.moderation.redacted", "detected_by", detectedBy).increment();
+            logger.info("Redacted chat message {} in channel {}", check.messageId(), check.channelId());
+        } catch (ChatMessageNotFoundException e) {
+            logger.debug("Chat message {} was deleted before it could be redacted", check.messageId());
+        }
+    }
+
+    private record PendingCheck(long renovationId, long channelId, long messageId, String content) {
+    }
+}
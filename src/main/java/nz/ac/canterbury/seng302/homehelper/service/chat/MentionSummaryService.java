@@ -0,0 +1,187 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.model.chat.MentionSummary;
+import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingMention;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationDto;
+import nz.ac.canterbury.seng302.homehelper.model.user.PublicUserDetails;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatMentionRepository;
+import nz.ac.canterbury.seng302.homehelper.utility.LruCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Maintains a small per-user summary of unseen mentions (the number of unseen mentioned messages and previews of the
+ * latest few) so every page render can show mention notifications without walking the mention table.
+ * A user's summary is loaded from the database the first time it is needed, then kept up to date as they are
+ * mentioned and as they mark channels as seen.
+ */
+@Service
+public class MentionSummaryService {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ChatMentionRepository chatMentionRepository;
+    private final LruCache<Long, CachedSummary> summaries;
+    private final int previewCount;
+    private final Object lock = new Object();
+    private long version;
+
+    /**
+     * Constructs the MentionSummaryService.
+     *
+     * @param chatMentionRepository the repository used to load summaries that are not cached
+     * @param cacheSize             the number of users to keep summaries for
+     * @param previewCount          the number of latest mentions to keep previews of for each user
+     */
+    @Autowired
+    public MentionSummaryService(ChatMentionRepository chatMentionRepository,
+                                 @Value("${chat.mention-summary.cache-size:1000}") int cacheSize,
+                                 @Value("${chat.mention-summary.previews:10}") int previewCount) {
+        if (previewCount < 1) {
+            throw new IllegalArgumentException("Mention summary must keep at least 1 preview");
+        }
+        this.chatMentionRepository = chatMentionRepository;
+        this.summaries = new LruCache<>(cacheSize);
+        this.previewCount = previewCount;
+    }
+
+    /**
+     * Gets a user's unseen mention summary, loading it from the database if it is not cached.
+     *
+     * @param userId the ID of the user
+     * @return the user's mention summary
+     */
+    public MentionSummary getSummary(long userId) {
+        Optional<CachedSummary> cached = summaries.get(userId);
+        if (cached.isPresent()) {
+            return cached.get().toSummary();
+        }
+
+        long loadVersion;
+        synchronized (lock) {
+            loadVersion = version;
+        }
+        List<Preview> previews = chatMentionRepository
+                .findLatestUnseenMentionedMessages(userId, PageRequest.of(0, previewCount))
+                .stream()
+                .map(message -> new Preview(message.getId(), toOutgoingMention(message)))
+                .toList();
+        long unreadCount = chatMentionRepository.countUnseenMentionedMessages(userId);
+        CachedSummary summary = new CachedSummary(Math.max(unreadCount, previews.size()), previews);
+
+        synchronized (lock) {
+            // a mention recorded while loading may or may not be in the loaded summary, so only cache it if none were
+            if (version == loadVersion) {
+                summaries.put(userId, summary);
+                logger.debug("Loaded mention summary for user {} with {} unread", userId, summary.unreadCount());
+            }
+        }
+        return summary.toSummary();
+    }
+
+    /**
+     * Adds a newly sent message to the summaries of the users it mentions. Users without a cached summary are skipped,
+     * since their summary will include the message when it is next loaded.
+     *
+     * @param messageId the ID of the message
+     * @param userIds   the IDs of the mentioned users, without duplicates
+     * @param mention   the preview of the mention sent to the users
+     */
+    public void recordMention(long messageId, List<Long> userIds, OutgoingMention mention) {
+        synchronized (lock) {
+            version++;
+            for (long userId : userIds) {
+                summaries.get(userId).ifPresent(summary -> summaries.put(userId, summary.withMention(messageId, mention, previewCount)));
+            }
+        }
+    }
+
+    /**
+     * Removes a channel's mentions from a user's summary after they have been marked as seen. If the cached previews
+     * don't cover every unseen mention the remaining count isn't known, so the summary is dropped and reloaded.
+     *
+     * @param userId    the ID of the user
+     * @param channelId the ID of the channel
+     */
+    public void markChannelSeen(long userId, long channelId) {
+        synchronized (lock) {
+            version++;
+            Optional<CachedSummary> cached = summaries.get(userId);
+            if (cached.isEmpty()) {
+                return;
+            }
+            if (cached.get().isComplete()) {
+                summaries.put(userId, cached.get().withoutChannel(channelId));
+            } else {
+                summaries.remove(userId);
+            }
+        }
+    }
+
+    /**
+     * Drops the cached summaries of the given users, so they are reloaded the next time they are needed. Used when a
+     * message's mentions are removed, such as when it is redacted.
+     *
+     * @param userIds the IDs of the users
+     */
+    public void evict(List<Long> userIds) {
+        synchronized (lock) {
+            version++;
+            userIds.forEach(summaries::remove);
+        }
+    }
+
+    private OutgoingMention toOutgoingMention(ChatMessage message) {
+        ChatChannel channel = message.getChannel();
+        Renovation renovation = channel.getRenovation();
+        return new OutgoingMention(new RenovationDto(renovation.getId(), renovation.getName()), channel.getId(),
+                channel.getName(), new PublicUserDetails(message.getSender()), message.getContent(), message.getTimestamp());
+    }
+
+    /**
+     * A preview of a mention along with the message it came from, so a message is never previewed twice.
+     */
+    private record Preview(long messageId, OutgoingMention mention) {
+    }
+
+    /**
+     * An immutable cached summary, replaced whenever the user's mentions change.
+     */
+    private record CachedSummary(long unreadCount, List<Preview> previews) {
+
+        private boolean isComplete() {
+            return unreadCount == previews.size();
+        }
+
+        private CachedSummary withMention(long messageId, OutgoingMention mention, int previewCount) {
+            if (previews.stream().anyMatch(preview -> preview.messageId() == messageId)) {
+                return this;
+            }
+            List<Preview> updated = new ArrayList<>(previewCount);
+            updated.add(new Preview(messageId, mention));
+            updated.addAll(previews.subList(0, Math.min(previews.size(), previewCount - 1)));
+            return new CachedSummary(unreadCount + 1, List.copyOf(updated));
+        }
+
+        private CachedSummary withoutChannel(long channelId) {
+            List<Preview> remaining = previews.stream()
+                    .filter(preview -> preview.mention().channelId() != channelId)
+                    .toList();
+            return new CachedSummary(remaining.size(), remaining);
+        }
+
+        private MentionSummary toSummary() {
+            return new MentionSummary(unreadCount, previews.stream().map(Preview::mention).toList());
+        }
+    }
+}
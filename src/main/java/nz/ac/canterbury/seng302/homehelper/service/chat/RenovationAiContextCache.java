@@ -0,0 +1,117 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import nz.ac.canterbury.seng302.homehelper.utility.LruCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Caches the renovation details given to BrickAI in its system prompt, so a renovation with hundreds of tasks isn't
+ * turned into prompt text on every message. A renovation's entry is invalidated whenever its tasks, rooms, tags,
+ * budget or members change (see {@link nz.ac.canterbury.seng302.homehelper.entity.renovation.RenovationAiContextListener}),
+ * and entries also expire after a while to pick up changes made elsewhere, such as a member changing their name.
+ * <p>
+ * This has no dependencies so that the entity listener can use it while JPA is starting up.
+ */
+@Service
+public class RenovationAiContextCache {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final LruCache<Long, CachedContext> contexts;
+    private final Duration timeToLive;
+    private final Object lock = new Object();
+    private final List<LongConsumer> invalidationListeners = new CopyOnWriteArrayList<>();
+    private long version;
+
+    /**
+     * Constructs the RenovationAiContextCache.
+     *
+     * @param cacheSize         the number of renovations to keep prompt context for
+     * @param timeToLiveMinutes how long a renovation's prompt context is used before it is rebuilt
+     */
+    @Autowired
+    public RenovationAiContextCache(@Value("${chat.ai.context-cache-size:200}") int cacheSize,
+                                    @Value("${chat.ai.context-ttl-minutes:10}") long timeToLiveMinutes) {
+        this.contexts = new LruCache<>(cacheSize);
+        this.timeToLive = Duration.ofMinutes(timeToLiveMinutes);
+    }
+
+    /**
+     * Gets a renovation's prompt context, building it with the given loader if it isn't cached.
+     *
+     * @param renovationId the ID of the renovation
+     * @param loader       builds the renovation's prompt context
+     * @return the renovation's prompt context
+     */
+    public String getContext(long renovationId, Supplier<String> loader) {
+        Optional<CachedContext> cached = contexts.get(renovationId);
+        if (cached.isPresent() && cached.get().expiresAt().isAfter(Instant.now())) {
+            return cached.get().context();
+        }
+
+        long loadVersion;
+        synchronized (lock) {
+            loadVersion = version;
+        }
+        String context = loader.get();
+        synchronized (lock) {
+            // a renovation changed while loading may or may not be reflected in the context, so don't cache it
+            if (version == loadVersion) {
+                contexts.put(renovationId, new CachedContext(context, Instant.now().plus(timeToLive)));
+                logger.debug("Cached AI context for renovation {}", renovationId);
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Removes a renovation's prompt context. When called inside a transaction, it is removed again once the
+     * transaction completes, so a context loaded before the change was committed isn't kept.
+     *
+     * @param renovationId the ID of the renovation that changed
+     */
+    public void invalidate(long renovationId) {
+        remove(renovationId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(renovationId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds a listener that is called with a renovation's ID whenever its prompt context is invalidated, for caches
+     * of anything derived from the context.
+     *
+     * @param listener the listener to call
+     */
+    public void addInvalidationListener(LongConsumer listener) {
+        invalidationListeners.add(listener);
+    }
+
+    private void remove(long renovationId) {
+        synchronized (lock) {
+            version++;
+            contexts.remove(renovationId);
+        }
+        invalidationListeners.forEach(listener -> listener.accept(renovationId));
+    }
+
+    private record CachedContext(String context, Instant expiresAt) {
+    }
+}
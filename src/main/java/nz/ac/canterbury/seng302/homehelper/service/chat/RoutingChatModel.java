@@ -0,0 +1,312 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A ChatModel that routes BrickAI's requests between a primary and a secondary model of the same provider.
+ * <p>
+ * Each request goes to the primary model, or to the cheap model when the prompt is short. If that model hasn't
+ * responded by its 95th percentile latency, or it fails, the request is also sent to the secondary model and
+ * whichever responds first is used. For streamed requests the latency is the time to the first chunk.
+ * <p>
+ * A model that fails {@code failureThreshold} times in a row has its circuit opened, and gets no requests until
+ * {@code openDuration} has passed, after which a single request is let through to check whether it has recovered.
+ * <p>
+ * Each response's metadata records the model that answered it under {@link #ROUTED_MODEL}, and whether that was a
+ * fallback from the model the request would normally go to under {@link #FALLBACK}. A hedged request that is cancelled
+ * because the other model answered first isn't seen by the caller, so it is counted here by the model it was sent to.
+ */
+public class RoutingChatModel implements ChatModel {
+
+    public static final String ROUTED_MODEL = "brickai-routed-model";
+    public static final String FALLBACK = "brickai-fallback";
+
+    private static final int LATENCY_WINDOW = 100;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ChatModel delegate;
+    private final String primaryModel;
+    private final String secondaryModel;
+    private final String cheapModel;
+    private final int shortPromptLength;
+    private final Duration initialHedgeDelay;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ModelHealth> modelHealth = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the RoutingChatModel.
+     *
+     * @param delegate          the model that requests are sent to, with the chosen model name in their options
+     * @param primaryModel      the name of the model used for most requests
+     * @param secondaryModel    the name of the model used when the primary model is slow or failing
+     * @param cheapModel        the name of the model tried first for short prompts
+     * @param shortPromptLength the maximum length of a prompt, in characters, that is sent to the cheap model
+     * @param initialHedgeDelay how long to wait before hedging until a model has enough latency samples
+     * @param failureThreshold  the number of consecutive failures that opens a model's circuit
+     * @param openDuration      how long a model's circuit stays open
+     * @param meterRegistry     the registry to count hedged requests that lost in
+     */
+    public RoutingChatModel(ChatModel delegate, String primaryModel, String secondaryModel, String cheapModel,
+                            int shortPromptLength, Duration initialHedgeDelay, int failureThreshold,
+                            Duration openDuration, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.primaryModel = primaryModel;
+        this.secondaryModel = secondaryModel;
+        this.cheapModel = cheapModel;
+        this.shortPromptLength = shortPromptLength;
+        this.initialHedgeDelay = initialHedgeDelay;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return route(prompt, false).blockFirst();
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return route(prompt, true);
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+
+    /**
+     * Checks whether a model's circuit is closed, meaning it is currently being sent requests.
+     *
+     * @param model the name of the model
+     * @return true if the model is being sent requests
+     */
+    public boolean isAvailable(String model) {
+        return getHealth(model).isClosed();
+    }
+
+    private Flux<ChatResponse> route(Prompt prompt, boolean streaming) {
+        List<String> models = chooseModels(prompt);
+        if (models.isEmpty()) {
+            return Flux.error(new IllegalStateException("No AI model is available, all their circuits are open"));
+        }
+
+        String preferredModel = getPreferredModel(prompt);
+        String firstModel = models.getFirst();
+        Sinks.Empty<Void> firstFailed = Sinks.empty();
+        boolean hedged = models.size() > 1;
+        Flux<ChatResponse> first = send(prompt, firstModel, streaming, !firstModel.equals(preferredModel), hedged)
+                .doOnError(e -> {
+                    logger.warn("AI model {} failed: {}", firstModel, e.getMessage());
+                    firstFailed.tryEmitEmpty();
+                });
+        if (!hedged) {
+            return first;
+        }
+
+        String secondModel = models.get(1);
+        Duration hedgeDelay = getHealth(firstModel).getHedgeDelay(streaming);
+        Flux<ChatResponse> hedge = send(prompt, secondModel, streaming, true, true)
+                .delaySubscription(Mono.firstWithSignal(Mono.delay(hedgeDelay).then(), firstFailed.asMono()))
+                .doOnSubscribe(subscription -> logger.info("Sending AI request to {} as {} is slow or failed",
+                        secondModel, firstModel));
+        // the first model to respond wins, and the other request is cancelled
+        return Flux.firstWithValue(first, hedge);
+    }
+
+    /**
+     * Chooses which models a prompt is sent to, in order, skipping models whose circuits are open.
+     *
+     * @param prompt the prompt
+     * @return the model to send the prompt to first, and the model to hedge with if there is one
+     */
+    private List<String> chooseModels(Prompt prompt) {
+        List<String> candidates = new ArrayList<>();
+        candidates.add(getPreferredModel(prompt));
+        candidates.addAll(Arrays.asList(primaryModel, secondaryModel));
+        return candidates.stream()
+                .distinct()
+                .filter(model -> getHealth(model).tryAcquire())
+                .limit(2)
+                .toList();
+    }
+
+    /**
+     * Gets the model a prompt goes to when every model's circuit is closed.
+     *
+     * @param prompt the prompt
+     * @return the cheap model for short prompts, otherwise the primary model
+     */
+    private String getPreferredModel(Prompt prompt) {
+        return prompt.getContents().length() <= shortPromptLength ? cheapModel : primaryModel;
+    }
+
+    private Flux<ChatResponse> send(Prompt prompt, String model, boolean streaming, boolean fallback, boolean hedged) {
+        ModelHealth health = getHealth(model);
+        Prompt routedPrompt = withModel(prompt, model);
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean responded = new AtomicBoolean();
+            Flux<ChatResponse> responses = streaming
+                    ? delegate.stream(routedPrompt)
+                    : Mono.fromCallable(() -> delegate.call(routedPrompt)).subscribeOn(Schedulers.boundedElastic()).flux();
+            return responses
+                    .doOnNext(response -> {
+                        if (responded.compareAndSet(false, true)) {
+                            health.recordSuccess(streaming, System.nanoTime() - start);
+                        }
+                    })
+                    .map(response -> ChatResponse.builder()
+                            .from(response)
+                            .metadata(ROUTED_MODEL, model)
+                            .metadata(FALLBACK, fallback)
+                            .build())
+                    .doOnError(e -> health.recordFailure())
+                    // a request that lost to a hedge still counts, as a latency of at least how long it ran for
+                    .doOnCancel(() -> {
+                        if (responded.compareAndSet(false, true)) {
+                            health.recordLatency(streaming, System.nanoTime() - start);
+                            if (hedged) {
+                                lostHedgeCounter(model).increment();
+                            }
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Copies a prompt with its options set to use the given model, keeping any tools it was given.
+     *
+     * @param prompt the prompt
+     * @param model  the name of the model
+     * @return the prompt for the model
+     */
+    private Prompt withModel(Prompt prompt, String model) {
+        OpenAiChatOptions options;
+        if (prompt.getOptions() instanceof OpenAiChatOptions openAiOptions) {
+            options = openAiOptions.copy();
+        } else {
+            options = OpenAiChatOptions.builder().build();
+            if (prompt.getOptions() instanceof ToolCallingChatOptions toolOptions) {
+                options.setToolCallbacks(toolOptions.getToolCallbacks());
+                options.setToolNames(toolOptions.getToolNames());
+                options.setToolContext(toolOptions.getToolContext());
+                options.setInternalToolExecutionEnabled(toolOptions.getInternalToolExecutionEnabled());
+            }
+        }
+        options.setModel(model);
+        return new Prompt(prompt.getInstructions(), options);
+    }
+
+    private Counter lostHedgeCounter(String model) {
+        return Counter.builder("chat.ai.hedge.lost")
+                .description("Hedged requests to the AI cancelled because the other model answered first")
+                .tag("model", model)
+                .register(meterRegistry);
+    }
+
+    private ModelHealth getHealth(String model) {
+        return modelHealth.computeIfAbsent(model, ModelHealth::new);
+    }
+
+    /**
+     * The recent latencies and failures of a model, and the state of its circuit.
+     */
+    private class ModelHealth {
+
+        private final String model;
+        private final long[] callLatencies = new long[LATENCY_WINDOW];
+        private final long[] streamLatencies = new long[LATENCY_WINDOW];
+        private int callSamples;
+        private int streamSamples;
+        private int consecutiveFailures;
+        private long openUntil;
+
+        ModelHealth(String model) {
+            this.model = model;
+        }
+
+        synchronized boolean isClosed() {
+            return consecutiveFailures < failureThreshold;
+        }
+
+        /**
+         * Checks whether a request can be sent to the model. Once an open circuit's duration has passed, one request
+         * is let through and the circuit stays open for another duration unless that request succeeds.
+         *
+         * @return true if a request can be sent to the model
+         */
+        synchronized boolean tryAcquire() {
+            if (consecutiveFailures < failureThreshold) {
+                return true;
+            }
+            long now = System.nanoTime();
+            if (now - openUntil < 0) {
+                return false;
+            }
+            openUntil = now + openDuration.toNanos();
+            return true;
+        }
+
+        synchronized void recordSuccess(boolean streaming, long latencyNanos) {
+            consecutiveFailures = 0;
+            recordLatency(streaming, latencyNanos);
+        }
+
+        synchronized void recordLatency(boolean streaming, long latencyNanos) {
+            if (streaming) {
+                streamLatencies[streamSamples++ % LATENCY_WINDOW] = latencyNanos;
+            } else {
+                callLatencies[callSamples++ % LATENCY_WINDOW] = latencyNanos;
+            }
+        }
+
+        synchronized void recordFailure() {
+            consecutiveFailures++;
+            if (consecutiveFailures == failureThreshold) {
+                logger.warn("Opening the circuit of AI model {} after {} consecutive failures", model, consecutiveFailures);
+                openUntil = System.nanoTime() + openDuration.toNanos();
+            }
+        }
+
+        /**
+         * Gets how long to wait for the model before hedging, which is its 95th percentile latency.
+         *
+         * @param streaming whether the request is streamed
+         * @return the delay before hedging
+         */
+        synchronized Duration getHedgeDelay(boolean streaming) {
+            int samples = streaming ? streamSamples : callSamples;
+            if (samples < MIN_LATENCY_SAMPLES) {
+                return initialHedgeDelay;
+            }
+            long[] sorted = Arrays.copyOf(streaming ? streamLatencies : callLatencies, Math.min(samples, LATENCY_WINDOW));
+            Arrays.sort(sorted);
+            return Duration.ofNanos(sorted[(int) Math.ceil(sorted.length * 0.95) - 1]);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package nz.ac.canterbury.seng302.homehelper.service.chat;
+
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Room;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Task;
+import nz.ac.canterbury.seng302.homehelper.model.ai.TaskAiView;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.TaskState;
+import nz.ac.canterbury.seng302.homehelper.utility.LruCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Picks the tasks of a renovation that are most relevant to a message, so BrickAI's prompt only includes a fixed
+ * number of tasks however large the renovation is.
+ * <p>
+ * Each renovation's tasks are indexed by the words in their names, descriptions and rooms, and ranked against the
+ * message with BM25. Task names count twice, as they are the most descriptive part of a task. When fewer tasks than
+ * the limit match the message, the rest are unmatched tasks that are still open, upcoming tasks due soonest first and
+ * then overdue tasks most recently due first, which suits questions like "what's due this week?". Completed and
+ * cancelled tasks are only included when they match the message. An index is built the first time it is needed and
+ * dropped whenever the renovation's prompt context is invalidated, which happens whenever its tasks, rooms or
+ * expenses change.
+ */
+@Service
+public class TaskRelevanceIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "brickai", "by", "can", "do", "does", "for", "from", "how", "in",
+            "is", "it", "of", "on", "or", "our", "should", "that", "the", "there", "this", "to", "was", "we", "what",
+            "when", "where", "which", "who", "will", "with", "you");
+    private static final long OVERDUE_RANK = Long.MAX_VALUE / 2;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final LruCache<Long, RenovationIndex> indexes;
+    private final int limit;
+    private final Object lock = new Object();
+    private long version;
+
+    /**
+     * Constructs the TaskRelevanceIndex.
+     *
+     * @param renovationAiContextCache the cache of renovation contexts, which drops a renovation's index when its
+     *                                 context is invalidated
+     * @param cacheSize                the number of renovations to keep indexes for
+     * @param limit                    the maximum number of tasks picked for a message
+     */
+    @Autowired
+    public TaskRelevanceIndex(RenovationAiContextCache renovationAiContextCache,
+                              @Value("${chat.ai.context-cache-size:200}") int cacheSize,
+                              @Value("${chat.ai.relevant-tasks:15}") int limit) {
+        this.indexes = new LruCache<>(cacheSize);
+        this.limit = limit;
+        renovationAiContextCache.addInvalidationListener(this::invalidate);
+    }
+
+    /**
+     * Gets the tasks of a renovation most relevant to a message, most relevant first. If the renovation has no more
+     * tasks than the limit, all of them are returned in their usual order.
+     *
+     * @param renovation the renovation
+     * @param message    the content of the message
+     * @return at most the limit of the renovation's tasks
+     */
+    public List<TaskAiView> findRelevantTasks(Renovation renovation, String message) {
+        RenovationIndex index = getIndex(renovation);
+        if (index.tasks.size() <= limit) {
+            return index.tasks.stream().map(IndexedTask::view).toList();
+        }
+
+        Map<Integer, Double> scores = index.score(tokenise(message));
+        LocalDate today = LocalDate.now();
+        Comparator<Integer> byDueDate =
+                Comparator.comparingLong(task -> dueDateRank(index.tasks.get(task).dueDate(), today));
+        return IntStream.range(0, index.tasks.size())
+                .boxed()
+                .filter(task -> scores.containsKey(task) || index.tasks.get(task).open())
+                .sorted(Comparator.<Integer>comparingDouble(task -> -scores.getOrDefault(task, 0.0)).thenComparing(byDueDate))
+                .limit(limit)
+                .map(task -> index.tasks.get(task).view())
+                .toList();
+    }
+
+    /**
+     * Ranks a due date for filling the prompt with unmatched tasks, lowest first: upcoming tasks by how soon they are
+     * due, then overdue tasks by how long ago they were due, then tasks without a due date.
+     */
+    private static long dueDateRank(LocalDate dueDate, LocalDate today) {
+        if (dueDate == null) {
+            return Long.MAX_VALUE;
+        }
+        long daysUntilDue = ChronoUnit.DAYS.between(today, dueDate);
+        return daysUntilDue >= 0 ? daysUntilDue : OVERDUE_RANK - daysUntilDue;
+    }
+
+    private RenovationIndex getIndex(Renovation renovation) {
+        long renovationId = renovation.getId();
+        return indexes.get(renovationId).orElseGet(() -> {
+            long buildVersion;
+            synchronized (lock) {
+                buildVersion = version;
+            }
+            RenovationIndex index = new RenovationIndex(renovation.getTasks());
+            synchronized (lock) {
+                // a renovation changed while indexing may or may not be reflected in the index, so don't cache it
+                if (version == buildVersion) {
+                    indexes.put(renovationId, index);
+                    logger.debug("Indexed {} tasks of renovation {}", index.tasks.size(), renovationId);
+                }
+            }
+            return index;
+        });
+    }
+
+    private void invalidate(long renovationId) {
+        synchronized (lock) {
+            version++;
+            indexes.remove(renovationId);
+        }
+    }
+
+    /**
+     * Splits text into lowercase words, ignoring common words and trimming plurals, so "Paint the walls" and
+     * "painted wall" share the word "wall".
+     */
+    private static List<String> tokenise(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() < 2 || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+                word = word.substring(0, word.length() - 1);
+            }
+            tokens.add(word);
+        }
+        return tokens;
+    }
+
+    private record IndexedTask(TaskAiView view, LocalDate dueDate, boolean open, Map<String, Integer> termCounts,
+                               int length) {
+    }
+
+    /**
+     * The BM25 index of a renovation's tasks.
+     */
+    private static class RenovationIndex {
+
+        private final List<IndexedTask> tasks = new ArrayList<>();
+        private final Map<String, List<Integer>> postings = new HashMap<>();
+        private final double averageLength;
+
+        RenovationIndex(List<Task> renovationTasks) {
+            long totalLength = 0;
+            for (Task task : renovationTasks) {
+                List<String> tokens = new ArrayList<>(tokenise(task.getName()));
+                tokens.addAll(tokenise(task.getName()));
+                tokens.addAll(tokenise(task.getDescription()));
+                task.getRooms().stream().map(Room::getName).forEach(room -> tokens.addAll(tokenise(room)));
+
+                Map<String, Integer> termCounts = new HashMap<>();
+                tokens.forEach(token -> termCounts.merge(token, 1, Integer::sum));
+                int taskIndex = tasks.size();
+                termCounts.keySet().forEach(term -> postings.computeIfAbsent(term, t -> new ArrayList<>()).add(taskIndex));
+                boolean open = task.getState() != TaskState.COMPLETED && task.getState() != TaskState.CANCELLED;
+                tasks.add(new IndexedTask(new TaskAiView(task), task.getDueDate(), open, termCounts, tokens.size()));
+                totalLength += tokens.size();
+            }
+            averageLength = tasks.isEmpty() ? 0 : (double) totalLength / tasks.size();
+        }
+
+        /**
+         * Scores the tasks containing any of the query's words.
+         *
+         * @param query the words of the query
+         * @return the BM25 score of each matching task, by its position in the index
+         */
+        Map<Integer, Double> score(List<String> query) {
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : Set.copyOf(query)) {
+                List<Integer> matches = postings.getOrDefault(term, List.of());
+                if (matches.isEmpty()) {
+                    continue;
+                }
+                double idf = Math.log(1 + (tasks.size() - matches.size() + 0.5) / (matches.size() + 0.5));
+                for (int taskIndex : matches) {
+                    IndexedTask task = tasks.get(taskIndex);
+                    int count = task.termCounts().get(term);
+                    double lengthNorm = 1 - B + B * task.length() / averageLength;
+                    scores.merge(taskIndex, idf * count * (K1 + 1) / (count + K1 * lengthNorm), Double::sum);
+                }
+            }
+            return scores;
+        }
+    }
+}
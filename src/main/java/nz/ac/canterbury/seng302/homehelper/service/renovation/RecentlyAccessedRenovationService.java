@@ -3,8 +3,10 @@ package nz.ac.canterbury.seng302.homehelper.service.renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.RecentlyAccessedRenovation;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RecentRenovationCard;
 import nz.ac.canterbury.seng302.homehelper.repository.renovation.RecentlyAccessedRenovationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,6 +17,8 @@ import java.util.List;
 @Service
 public class RecentlyAccessedRenovationService {
 
+    private static final int RECENT_RENOVATION_COUNT = 3;
+
     private final RecentlyAccessedRenovationRepository recentlyAccessedRenovationRepository;
 
     /**
@@ -69,12 +73,12 @@ public class RecentlyAccessedRenovationService {
     }
 
     /**
-     * Gets last three accessed renovation of a user
+     * Gets the dashboard cards of the last three renovations a user accessed, loaded with a single query
      *
      * @param user to get accessed renovation of
-     * @return List of RecentlyAccessedRenovation objects
+     * @return List of RecentRenovationCard objects, most recently accessed first
      */
-    public List<RecentlyAccessedRenovation> getRecentlyAccessedRenovationsForUser(User user){
-        return recentlyAccessedRenovationRepository.findTop3ByUserOrderByTimeAccessedDesc(user);
+    public List<RecentRenovationCard> getRecentRenovationCardsForUser(User user) {
+        return recentlyAccessedRenovationRepository.findRecentCards(user.getId(), Limit.of(RECENT_RENOVATION_COUNT));
     }
 }
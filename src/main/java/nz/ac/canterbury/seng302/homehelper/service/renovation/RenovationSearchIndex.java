@@ -0,0 +1,428 @@
+package nz.ac.canterbury.seng302.homehelper.service.renovation;
+
+import jakarta.persistence.EntityManager;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCursor;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchDocument;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchOrder;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchText;
+import nz.ac.canterbury.seng302.homehelper.repository.renovation.RenovationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over the name, description, tags and room names of every renovation, so browse searches
+ * don't scan the renovation table with {@code LIKE '%query%'}.
+ * <p>
+ * The index is built when the app starts, and a renovation's entry is replaced whenever the renovation, or one of
+ * its tags or rooms, is saved or deleted (see {@link nz.ac.canterbury.seng302.homehelper.entity.renovation.RenovationSearchListener}).
+ * Changes are indexed straight away so a transaction can find what it has written; if the transaction is rolled
+ * back, the renovation's entry is reloaded from the database before the next search.
+ * <p>
+ * Every word of a search has to match the start of a word in a renovation. Matches are scored by which field they
+ * are in, how rare the matched word is and whether the whole word matched, for ordering results by relevance.
+ * <p>
+ * Each indexed renovation is given a small position number, and every tag keeps a bitmap of the positions of the
+ * renovations that have it, as does the set of public renovations. Filtering by tags and visibility is done by
+ * intersecting these bitmaps before any search words are scored.
+ */
+@Service
+public class RenovationSearchIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float TAG_WEIGHT = 2f;
+    private static final float ROOM_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<IndexedRenovation> NEWEST_FIRST = Comparator
+            .comparing((IndexedRenovation indexed) -> indexed.document().createdTimestamp(),
+                    Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparingLong(indexed -> indexed.document().id())
+            .reversed();
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final RenovationRepository renovationRepository;
+    private final EntityManager entityManager;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // guarded by lock
+    private final Map<Long, IndexedRenovation> renovations = new HashMap<>();
+    // guarded by lock, the renovation at each position, or null if the position is free
+    private final List<IndexedRenovation> renovationsByPosition = new ArrayList<>();
+    // guarded by lock
+    private final Deque<Integer> freePositions = new ArrayDeque<>();
+    // guarded by lock, maps each word to the weight it has in each renovation containing it
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // guarded by lock, maps each lowercase tag to the positions of the renovations that have it
+    private final Map<String, BitSet> tagBitmaps = new HashMap<>();
+    // guarded by lock, the positions of public renovations
+    private final BitSet publicRenovations = new BitSet();
+    // guarded by lock, changes made while the index is being rebuilt, to apply on top of the rebuilt index
+    private Map<Long, Optional<RenovationSearchDocument>> changesDuringRebuild;
+    private final Set<Long> staleRenovations = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs the RenovationSearchIndex.
+     *
+     * @param renovationRepository the repository the index is loaded from
+     * @param entityManager        used to flush the current transaction's changes before searching
+     */
+    @Autowired
+    public RenovationSearchIndex(RenovationRepository renovationRepository, EntityManager entityManager) {
+        this.renovationRepository = renovationRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Builds the index from every renovation in the database, once the app has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<RenovationSearchDocument> documents = withTagsAndRooms(renovationRepository.findAllSearchDocuments(),
+                renovationRepository.findAllSearchTags(), renovationRepository.findAllSearchRooms());
+
+        lock.writeLock().lock();
+        try {
+            renovations.clear();
+            renovationsByPosition.clear();
+            freePositions.clear();
+            postings.clear();
+            tagBitmaps.clear();
+            publicRenovations.clear();
+            documents.forEach(this::put);
+            changesDuringRebuild.forEach((id, document) -> document.ifPresentOrElse(this::put, () -> delete(id)));
+            changesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} renovations for search", documents.size());
+    }
+
+    /**
+     * Indexes the current state of a renovation, replacing its previous entry.
+     *
+     * @param document the renovation's searchable fields
+     */
+    public void update(RenovationSearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            put(document);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(document.id(), Optional.of(document));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        reloadIfRolledBack(document.id());
+    }
+
+    /**
+     * Removes a deleted renovation from the index.
+     *
+     * @param renovationId the ID of the renovation
+     */
+    public void remove(long renovationId) {
+        lock.writeLock().lock();
+        try {
+            delete(renovationId);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(renovationId, Optional.empty());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        reloadIfRolledBack(renovationId);
+    }
+
+    /**
+     * Searches the index for public renovations matching every word of a query.
+     *
+     * @param query the words to search for, or blank to match every renovation
+     * @param tags  tags the renovations must all have, lowercase
+     * @param order the order to return the matching renovations in
+     * @return the IDs of the matching renovations, in order
+     */
+    public List<Long> searchPublic(String query, Collection<String> tags, RenovationSearchOrder order) {
+        return search(query, tags, null, order).stream().map(RenovationSearchDocument::id).toList();
+    }
+
+    /**
+     * Searches the given renovations for those matching every word of a query.
+     *
+     * @param renovationIds the IDs of the renovations to search
+     * @param query         the words to search for, or blank to match every renovation
+     * @param tags          tags the renovations must all have, lowercase
+     * @param order         the order to return the matching renovations in
+     * @return the IDs of the matching renovations, in order
+     */
+    public List<Long> searchWithin(Collection<Long> renovationIds, String query, Collection<String> tags,
+                                   RenovationSearchOrder order) {
+        return search(query, tags, renovationIds, order).stream().map(RenovationSearchDocument::id).toList();
+    }
+
+    /**
+     * Gets the next page of public renovations matching every word of a query, newest first.
+     *
+     * @param query the words to search for, or blank to match every renovation
+     * @param tags  tags the renovations must all have, lowercase
+     * @param after the last renovation of the previous page, or null for the first page
+     * @param limit the maximum number of renovations to return
+     * @return the matching renovations after the cursor, newest first
+     */
+    public List<RenovationSearchDocument> searchPublicPage(String query, Collection<String> tags,
+                                                           RenovationCursor after, int limit) {
+        return page(search(query, tags, null, RenovationSearchOrder.NEWEST), after, limit);
+    }
+
+    /**
+     * Gets the next page of the given renovations matching every word of a query, newest first.
+     *
+     * @param renovationIds the IDs of the renovations to search
+     * @param query         the words to search for, or blank to match every renovation
+     * @param tags          tags the renovations must all have, lowercase
+     * @param after         the last renovation of the previous page, or null for the first page
+     * @param limit         the maximum number of renovations to return
+     * @return the matching renovations after the cursor, newest first
+     */
+    public List<RenovationSearchDocument> searchWithinPage(Collection<Long> renovationIds, String query,
+                                                           Collection<String> tags, RenovationCursor after,
+                                                           int limit) {
+        return page(search(query, tags, renovationIds, RenovationSearchOrder.NEWEST), after, limit);
+    }
+
+    private static List<RenovationSearchDocument> page(List<RenovationSearchDocument> matches, RenovationCursor after,
+                                                       int limit) {
+        return matches.stream()
+                .filter(document -> after == null || after.isBefore(
+                        Objects.requireNonNullElse(document.createdTimestamp(), LocalDateTime.MIN), document.id()))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Searches either the public renovations, if {@code renovationIds} is null, or the given renovations.
+     */
+    private List<RenovationSearchDocument> search(String query, Collection<String> tags,
+                                                  Collection<Long> renovationIds, RenovationSearchOrder order) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // index anything this transaction has changed but not yet written
+            entityManager.flush();
+        }
+        reloadStaleRenovations();
+
+        List<String> words = tokenize(query).distinct().toList();
+        lock.readLock().lock();
+        try {
+            BitSet candidates = renovationIds == null ? (BitSet) publicRenovations.clone() : positionsOf(renovationIds);
+            for (String tag : tags) {
+                BitSet tagged = tagBitmaps.get(tag);
+                if (tagged == null) {
+                    return List.of();
+                }
+                candidates.and(tagged);
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+
+            Map<Long, Float> scores = words.isEmpty() ? null : score(words, candidates);
+            Stream<IndexedRenovation> matches = scores == null
+                    ? candidates.stream().mapToObj(renovationsByPosition::get)
+                    : scores.keySet().stream().map(renovations::get);
+            Comparator<IndexedRenovation> comparator = order == RenovationSearchOrder.RELEVANCE && scores != null
+                    ? Comparator.comparing((IndexedRenovation indexed) -> scores.get(indexed.document().id()))
+                    .reversed()
+                    .thenComparing(NEWEST_FIRST)
+                    : NEWEST_FIRST;
+            return matches
+                    .sorted(comparator)
+                    .map(IndexedRenovation::document)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet positionsOf(Collection<Long> renovationIds) {
+        BitSet positions = new BitSet(renovationsByPosition.size());
+        for (Long id : renovationIds) {
+            IndexedRenovation indexed = renovations.get(id);
+            if (indexed != null) {
+                positions.set(indexed.position());
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Scores the candidate renovations that match every word. A word matches a renovation if the start of any of its
+     * words matches, full-word matches scoring higher.
+     */
+    private Map<Long, Float> score(List<String> words, BitSet candidates) {
+        Map<Long, Float> scores = null;
+        for (String word : words) {
+            Map<Long, Float> wordScores = new HashMap<>();
+            for (Map.Entry<String, Map<Long, Float>> entry :
+                    postings.subMap(word, true, word + Character.MAX_VALUE, true).entrySet()) {
+                float inverseFrequency = (float) Math.log(1 + (double) renovations.size() / entry.getValue().size());
+                float factor = entry.getKey().equals(word) ? 1f : PREFIX_MATCH_FACTOR;
+                entry.getValue().forEach((id, weight) -> {
+                    if (candidates.get(renovations.get(id).position())) {
+                        wordScores.merge(id, weight * inverseFrequency * factor, Math::max);
+                    }
+                });
+            }
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                scores.keySet().retainAll(wordScores.keySet());
+                scores.replaceAll((id, score) -> score + wordScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private void put(RenovationSearchDocument document) {
+        delete(document.id());
+        Map<String, Float> weights = new HashMap<>();
+        addWords(weights, document.name(), NAME_WEIGHT);
+        addWords(weights, document.description(), DESCRIPTION_WEIGHT);
+        document.tags().forEach(tag -> addWords(weights, tag, TAG_WEIGHT));
+        document.rooms().forEach(room -> addWords(weights, room, ROOM_WEIGHT));
+        Set<String> tags = document.tags().stream()
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+
+        int position;
+        if (freePositions.isEmpty()) {
+            position = renovationsByPosition.size();
+            renovationsByPosition.add(null);
+        } else {
+            position = freePositions.pop();
+        }
+        IndexedRenovation indexed = new IndexedRenovation(document, position, weights.keySet(), tags);
+        renovations.put(document.id(), indexed);
+        renovationsByPosition.set(position, indexed);
+        weights.forEach((word, weight) -> postings.computeIfAbsent(word, w -> new HashMap<>()).put(document.id(), weight));
+        tags.forEach(tag -> tagBitmaps.computeIfAbsent(tag, t -> new BitSet()).set(position));
+        publicRenovations.set(position, document.isPublic());
+    }
+
+    private void delete(long renovationId) {
+        IndexedRenovation previous = renovations.remove(renovationId);
+        if (previous == null) {
+            return;
+        }
+        for (String word : previous.words()) {
+            Map<Long, Float> posting = postings.get(word);
+            posting.remove(renovationId);
+            if (posting.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+        for (String tag : previous.tags()) {
+            BitSet tagged = tagBitmaps.get(tag);
+            tagged.clear(previous.position());
+            if (tagged.isEmpty()) {
+                tagBitmaps.remove(tag);
+            }
+        }
+        publicRenovations.clear(previous.position());
+        renovationsByPosition.set(previous.position(), null);
+        freePositions.push(previous.position());
+    }
+
+    private static void addWords(Map<String, Float> weights, String text, float weight) {
+        tokenize(text).forEach(word -> weights.merge(word, weight, Float::sum));
+    }
+
+    private static Stream<String> tokenize(String text) {
+        if (text == null) {
+            return Stream.empty();
+        }
+        return WORD_SEPARATOR.splitAsStream(text.toLowerCase(Locale.ROOT)).filter(word -> !word.isEmpty());
+    }
+
+    /**
+     * Marks a renovation to be reloaded from the database if the current transaction is rolled back, as the change
+     * that was indexed never happened.
+     */
+    private void reloadIfRolledBack(long renovationId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    staleRenovations.add(renovationId);
+                }
+            }
+        });
+    }
+
+    private void reloadStaleRenovations() {
+        if (staleRenovations.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>(staleRenovations);
+        staleRenovations.removeAll(ids);
+        List<RenovationSearchDocument> documents = withTagsAndRooms(renovationRepository.findSearchDocuments(ids),
+                renovationRepository.findSearchTags(ids), renovationRepository.findSearchRooms(ids));
+
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::delete);
+            documents.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Reloaded {} renovations in the search index after a rollback", ids.size());
+    }
+
+    private static List<RenovationSearchDocument> withTagsAndRooms(List<RenovationSearchDocument> documents,
+                                                                   List<RenovationSearchText> tags,
+                                                                   List<RenovationSearchText> rooms) {
+        Map<Long, List<String>> tagsById = tags.stream().collect(Collectors.groupingBy(
+                RenovationSearchText::renovationId, Collectors.mapping(RenovationSearchText::text, Collectors.toList())));
+        Map<Long, List<String>> roomsById = rooms.stream().collect(Collectors.groupingBy(
+                RenovationSearchText::renovationId, Collectors.mapping(RenovationSearchText::text, Collectors.toList())));
+        return documents.stream()
+                .map(document -> document.withTagsAndRooms(
+                        tagsById.getOrDefault(document.id(), List.of()),
+                        roomsById.getOrDefault(document.id(), List.of())))
+                .toList();
+    }
+
+    /**
+     * A renovation in the index, with its position in the bitmaps, the words it was indexed under and its lowercase
+     * tags.
+     */
+    private record IndexedRenovation(RenovationSearchDocument document, int position, Set<String> words,
+                                     Set<String> tags) {
+    }
+}
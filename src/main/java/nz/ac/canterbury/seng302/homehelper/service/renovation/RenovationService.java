@@ -9,6 +9,12 @@ import nz.ac.canterbury.seng302.homehelper.exceptions.renovation.RenovationDetai
 import nz.ac.canterbury.seng302.homehelper.exceptions.renovation.TaskDetailsExceptions;
 import nz.ac.canterbury.seng302.homehelper.model.renovation.ExpenseCategory;
 import nz.ac.canterbury.seng302.homehelper.model.renovation.OwnershipFilter;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCardPage;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCursor;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchDocument;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchOrder;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchText;
 import nz.ac.canterbury.seng302.homehelper.model.renovation.TaskState;
 import nz.ac.canterbury.seng302.homehelper.repository.renovation.*;
 import nz.ac.canterbury.seng302.homehelper.service.LocationService;
@@ -16,17 +22,26 @@ import nz.ac.canterbury.seng302.homehelper.service.chat.ChatChannelService;
 import nz.ac.canterbury.seng302.homehelper.service.user.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static nz.ac.canterbury.seng302.homehelper.validation.renovation.RenovationValidation.*;
 
@@ -47,8 +62,9 @@ public class RenovationService {
     private final ChatChannelService chatChannelService;
     private final BrickAiService brickAiService;
     private final UserService userService;
+    private final RenovationSearchIndex renovationSearchIndex;
 
-    public RenovationService(RenovationRepository renovationRepository, RenovationMemberRepository renovationMemberRepository, RoomRepository roomRepository, TaskRepository taskRepository, LocationService locationService, ExpenseRepository expenseRepository, ChatChannelService chatChannelService, BrickAiService brickAiService, UserService userService) {
+    public RenovationService(RenovationRepository renovationRepository, RenovationMemberRepository renovationMemberRepository, RoomRepository roomRepository, TaskRepository taskRepository, LocationService locationService, ExpenseRepository expenseRepository, ChatChannelService chatChannelService, BrickAiService brickAiService, UserService userService, RenovationSearchIndex renovationSearchIndex) {
         this.renovationRepository = renovationRepository;
         this.renovationMemberRepository = renovationMemberRepository;
         this.roomRepository = roomRepository;
@@ -58,6 +74,7 @@ public class RenovationService {
         this.chatChannelService = chatChannelService;
         this.brickAiService = brickAiService;
         this.userService = userService;
+        this.renovationSearchIndex = renovationSearchIndex;
     }
 
 
@@ -318,15 +335,24 @@ public class RenovationService {
     }
 
     /**
-     * @param renoId   the id of the renovation
-     * @param pageable the amount you want on a page
+     * Gets a page of a renovation's tasks. The tasks are only counted when the total isn't known and can't be worked
+     * out from the page itself.
+     *
+     * @param renoId     the id of the renovation
+     * @param states     the states of the tasks to include, or null or empty for every task
+     * @param pageable   the amount you want on a page
+     * @param knownTotal the number of matching tasks, if it is already known
      * @return the tasks which will fit on the page
      */
-    public Page<Task> getTaskListFiltered(long renoId, List<TaskState> states, Pageable pageable) {
+    public Page<Task> getTaskListFiltered(long renoId, List<TaskState> states, Pageable pageable,
+                                          OptionalLong knownTotal) {
         if (states == null || states.isEmpty()) {
-            return taskRepository.findByRenovationId(renoId, pageable);
+            return PageableExecutionUtils.getPage(taskRepository.findByRenovationId(renoId, pageable), pageable,
+                    () -> knownTotal.orElseGet(() -> taskRepository.countByRenovationId(renoId)));
         } else {
-            return taskRepository.findByRenovationIdAndStateIn(renoId, states, pageable);
+            return PageableExecutionUtils.getPage(taskRepository.findByRenovationIdAndStateIn(renoId, states, pageable),
+                    pageable,
+                    () -> knownTotal.orElseGet(() -> taskRepository.countByRenovationIdAndStateIn(renoId, states)));
         }
     }
 
@@ -374,61 +400,226 @@ public class RenovationService {
     }
 
     /**
-     * Retrieves a paginated list of public Renovation entities that match the given search query and tags.
-     * The query and tags are normalised (trimmed and lowercased) before being passed to the repository
+     * Retrieves a paginated list of the cards of public renovations that match the given search query and tags,
+     * newest first.
      *
-     * @param query    the search string to match against renovation names or descriptions.
+     * @param query    the search string to match against renovation names, descriptions, tags or rooms.
      * @param tags     a list of tag names to filter renovations by.
-     * @param pageable pagination and sorting information.
-     * @return a Page of public Renovation entities matching the criteria.
+     * @param pageable pagination information.
+     * @return a Page of the cards of public renovations matching the criteria.
      */
-    public Page<Renovation> findPublicRenovations(String query, List<String> tags, Pageable pageable) {
-        String normalisedQuery = normaliseQuery(query);
-        List<String> normalisedSearchTags = normaliseTags(tags);
-        Page<Renovation> renovations = renovationRepository.findPublic(normalisedQuery, normalisedSearchTags, pageable);
+    public Page<RenovationCard> findPublicRenovationCards(String query, List<String> tags, Pageable pageable) {
+        return findPublicRenovationCards(query, tags, RenovationSearchOrder.NEWEST, pageable);
+    }
+
+    /**
+     * Retrieves a paginated list of the cards of public renovations that match the given search query and tags.
+     * The search index finds and orders the matching renovations, and only the cards on the requested page are
+     * loaded.
+     *
+     * @param query    the search string to match against renovation names, descriptions, tags or rooms.
+     * @param tags     a list of tag names to filter renovations by.
+     * @param order    the order to return the renovations in.
+     * @param pageable pagination information.
+     * @return a Page of the cards of public renovations matching the criteria.
+     */
+    public Page<RenovationCard> findPublicRenovationCards(String query, List<String> tags,
+                                                          RenovationSearchOrder order, Pageable pageable) {
+        List<Long> ids = renovationSearchIndex.searchPublic(normaliseQuery(query), normaliseTags(tags), order);
+        Page<RenovationCard> renovations = loadCards(ids, pageable);
         logger.info("Found {} matching public renovations", renovations.getNumberOfElements());
         return renovations;
     }
 
     /**
-     * Retrieves a paginated list of Renovation entities owned by a specific user that match the given search query
-     * and tags.
-     * The query and tags are normalised (trimmed and lowercased) before being passed to the repository
+     * Retrieves a paginated list of the cards of renovations owned by, or shared with, a specific user that match
+     * the given search query and tags, newest first.
      *
-     * @param user     the User who owns the renovations.
-     * @param query    the search string to match against renovation names or descriptions.
+     * @param user     the User whose renovations to search.
+     * @param query    the search string to match against renovation names, descriptions, tags or rooms.
      * @param tags     a list of tag names to filter renovations by.
-     * @param pageable pagination and sorting information.
-     * @return a Page of Renovation entities owned by the user and matching the criteria.
+     * @param pageable pagination information.
+     * @return a Page of the cards of the user's renovations matching the criteria.
      */
-    public Page<Renovation> findUsersRenovations(User user, String query, List<String> tags, Pageable pageable) {
-        String normalisedQuery = normaliseQuery(query);
-        List<String> normalisedSearchTags = normaliseTags(tags);
-        Page<Renovation> renovations = renovationRepository.findByUser(user, normalisedQuery, normalisedSearchTags, pageable);
+    public Page<RenovationCard> findUsersRenovationCards(User user, String query, List<String> tags,
+                                                         Pageable pageable) {
+        return findUsersRenovationCards(user, query, tags, RenovationSearchOrder.NEWEST, pageable);
+    }
+
+    /**
+     * Retrieves a paginated list of the cards of renovations owned by, or shared with, a specific user that match
+     * the given search query and tags.
+     * The search index finds and orders the matching renovations, and only the cards on the requested page are
+     * loaded.
+     *
+     * @param user     the User whose renovations to search.
+     * @param query    the search string to match against renovation names, descriptions, tags or rooms.
+     * @param tags     a list of tag names to filter renovations by.
+     * @param order    the order to return the renovations in.
+     * @param pageable pagination information.
+     * @return a Page of the cards of the user's renovations matching the criteria.
+     */
+    public Page<RenovationCard> findUsersRenovationCards(User user, String query, List<String> tags,
+                                                         RenovationSearchOrder order, Pageable pageable) {
+        Set<Long> usersRenovationIds = renovationRepository.findIdsByUserOrMembership(user);
+        List<Long> ids = renovationSearchIndex.searchWithin(usersRenovationIds, normaliseQuery(query),
+                normaliseTags(tags), order);
+        Page<RenovationCard> renovations = loadCards(ids, pageable);
         logger.info("Found {} matching public renovations for specific user:", renovations.getNumberOfElements());
         return renovations;
     }
 
     /**
-     * Retrieves a paginated list of Renovation entities that a user has access to
-     * The query and tags are normalised (trimmed and lowercased) before being passed to the repository
+     * Gets the next page of public renovation cards matching the given search query and tags, newest first.
+     * Without a query or tags, the page is loaded straight from the database by seeking to the cursor; otherwise
+     * the search index finds the page, and only its cards are loaded. Either way, renovations without a created
+     * timestamp come last, and their cursors hold {@link LocalDateTime#MIN}.
+     *
+     * @param query the search string to match against renovation names, descriptions, tags or rooms.
+     * @param tags  a list of tag names to filter renovations by.
+     * @param after the last renovation of the previous page, or null for the first page.
+     * @param limit the maximum number of cards to return.
+     * @return the page of cards, with the cursor of the next page if there is one.
+     */
+    public RenovationCardPage findPublicRenovationCards(String query, List<String> tags, RenovationCursor after,
+                                                        int limit) {
+        String normalisedQuery = normaliseQuery(query);
+        List<String> normalisedTags = normaliseTags(tags);
+        if (!normalisedQuery.isEmpty() || !normalisedTags.isEmpty()) {
+            return loadCardPage(renovationSearchIndex.searchPublicPage(normalisedQuery, normalisedTags, after,
+                    limit + 1), limit);
+        }
+
+        List<RenovationCard> cards;
+        if (after == null) {
+            cards = renovationRepository.findPublicCards(Limit.of(limit + 1));
+        } else if (after.createdTimestamp().equals(LocalDateTime.MIN)) {
+            cards = renovationRepository.findUndatedPublicCardsBefore(after.renovationId(), Limit.of(limit + 1));
+        } else {
+            cards = renovationRepository.findPublicCardsBefore(after.createdTimestamp(), after.renovationId(),
+                    Limit.of(limit + 1));
+        }
+        boolean hasNextPage = cards.size() > limit;
+        cards = withTagsAndRooms(cards.subList(0, Math.min(limit, cards.size())));
+        RenovationCard last = cards.isEmpty() ? null : cards.getLast();
+        return new RenovationCardPage(cards, hasNextPage
+                ? new RenovationCursor(Objects.requireNonNullElse(last.createdTimestamp(), LocalDateTime.MIN),
+                last.id()).encode()
+                : null);
+    }
+
+    /**
+     * Gets the next page of cards of renovations owned by, or shared with, a specific user that match the given
+     * search query and tags, newest first.
+     *
+     * @param user  the User whose renovations to search.
+     * @param query the search string to match against renovation names, descriptions, tags or rooms.
+     * @param tags  a list of tag names to filter renovations by.
+     * @param after the last renovation of the previous page, or null for the first page.
+     * @param limit the maximum number of cards to return.
+     * @return the page of cards, with the cursor of the next page if there is one.
+     */
+    public RenovationCardPage findUsersRenovationCards(User user, String query, List<String> tags,
+                                                       RenovationCursor after, int limit) {
+        Set<Long> usersRenovationIds = renovationRepository.findIdsByUserOrMembership(user);
+        return loadCardPage(renovationSearchIndex.searchWithinPage(usersRenovationIds, normaliseQuery(query),
+                normaliseTags(tags), after, limit + 1), limit);
+    }
+
+    /**
+     * Loads the cards of a page of search results, which may include the first renovation of the next page.
+     */
+    private RenovationCardPage loadCardPage(List<RenovationSearchDocument> documents, int limit) {
+        List<RenovationSearchDocument> page = documents.subList(0, Math.min(limit, documents.size()));
+        if (page.isEmpty()) {
+            return new RenovationCardPage(List.of(), null);
+        }
+        Map<Long, RenovationCard> cardsById = renovationRepository.findCards(
+                        page.stream().map(RenovationSearchDocument::id).toList())
+                .stream()
+                .collect(Collectors.toMap(RenovationCard::id, card -> card));
+        List<RenovationCard> cards = withTagsAndRooms(page.stream()
+                .map(document -> cardsById.get(document.id()))
+                .filter(Objects::nonNull)
+                .toList());
+
+        String nextCursor = null;
+        if (documents.size() > limit) {
+            // the cursor is taken from the index, so the next page starts exactly where the index left off
+            RenovationSearchDocument last = page.getLast();
+            nextCursor = new RenovationCursor(Objects.requireNonNullElse(last.createdTimestamp(), LocalDateTime.MIN),
+                    last.id()).encode();
+        }
+        return new RenovationCardPage(cards, nextCursor);
+    }
+
+    /**
+     * Adds the tags and room names of each renovation to its card.
+     */
+    private List<RenovationCard> withTagsAndRooms(List<RenovationCard> cards) {
+        if (cards.isEmpty()) {
+            return cards;
+        }
+        List<Long> ids = cards.stream().map(RenovationCard::id).toList();
+        Map<Long, List<String>> tagsById = renovationRepository.findSearchTags(ids).stream()
+                .collect(Collectors.groupingBy(RenovationSearchText::renovationId,
+                        Collectors.mapping(RenovationSearchText::text, Collectors.toList())));
+        Map<Long, List<String>> roomsById = renovationRepository.findSearchRooms(ids).stream()
+                .collect(Collectors.groupingBy(RenovationSearchText::renovationId,
+                        Collectors.mapping(RenovationSearchText::text, Collectors.toList())));
+        return cards.stream()
+                .map(card -> card.withTagsAndRooms(tagsById.getOrDefault(card.id(), List.of()),
+                        roomsById.getOrDefault(card.id(), List.of())))
+                .toList();
+    }
+
+    /**
+     * Loads the cards on the requested page of search results, in the order of the results.
+     */
+    private Page<RenovationCard> loadCards(List<Long> ids, Pageable pageable) {
+        List<Long> pageIds = ids;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), ids.size());
+            pageIds = ids.subList(from, Math.min(from + pageable.getPageSize(), ids.size()));
+        }
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.size());
+        }
+        Map<Long, RenovationCard> cardsById = renovationRepository.findCards(pageIds).stream()
+                .collect(Collectors.toMap(RenovationCard::id, card -> card));
+        List<RenovationCard> cards = withTagsAndRooms(pageIds.stream()
+                .map(cardsById::get)
+                .filter(Objects::nonNull)
+                .toList());
+        return new PageImpl<>(cards, pageable, ids.size());
+    }
+
+    /**
+     * Retrieves a paginated list of the cards of renovations that a user has access to, loading each page's cards
+     * with one query and their tags and rooms with one query each, however many renovations are on the page. The
+     * renovations are only counted when the total isn't known and can't be worked out from the page itself.
      *
      * @param user            the User who owns the renovations.
      * @param ownershipFilter the filter of who owns the renovations
      * @param pageable        pagination and sorting information.
-     * @return a Page of Renovation entities owned by the user and matching the criteria.
-     */
-    public Page<Renovation> findUsersAccessibleRenovations(User user, OwnershipFilter ownershipFilter, Pageable pageable) {
-        Page<Renovation> renovations = null;
-        switch (ownershipFilter) {
-            case ALL -> renovations = renovationRepository.findByUserOrMembership(user, pageable);
-            case OWNED_BY_ME -> renovations = renovationRepository.findUserRenovations(user, pageable);
-            case SHARED_WITH_ME -> renovations = renovationRepository.findByUserWhereUserIsMember(user, pageable);
-        }
-        return renovations;
+     * @param knownTotal      the number of renovations matching the filter, if it is already known
+     * @return a Page of the cards of renovations the user has access to matching the filter.
+     */
+    public Page<RenovationCard> findUsersAccessibleRenovationCards(User user, OwnershipFilter ownershipFilter,
+                                                                   Pageable pageable, OptionalLong knownTotal) {
+        List<RenovationCard> cards = switch (ownershipFilter) {
+            case ALL -> renovationRepository.findCardsByUserOrMembership(user, pageable);
+            case OWNED_BY_ME -> renovationRepository.findCardsByOwner(user, pageable);
+            case SHARED_WITH_ME -> renovationRepository.findCardsWhereUserIsMember(user, pageable);
+        };
+        return PageableExecutionUtils.getPage(withTagsAndRooms(cards), pageable, () -> knownTotal.orElseGet(() ->
+                switch (ownershipFilter) {
+                    case ALL -> renovationRepository.countCardsByUserOrMembership(user);
+                    case OWNED_BY_ME -> renovationRepository.countCardsByOwner(user);
+                    case SHARED_WITH_ME -> renovationRepository.countCardsWhereUserIsMember(user);
+                }));
     }
 
-
     /**
      * Normalizes a search query string by trimming whitespace and converting it to lowercase.
      *
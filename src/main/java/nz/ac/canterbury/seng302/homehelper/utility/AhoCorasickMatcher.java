@@ -0,0 +1,193 @@
+package nz.ac.canterbury.seng302.homehelper.utility;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Multi-pattern string matcher based on the Aho-Corasick automaton. The automaton is compiled once from a
+ * collection of words and can then scan any text for all occurrences of those words in a single linear pass,
+ * without allocating a substring for each candidate.
+ * See https://en.wikipedia.org/wiki/Aho%E2%80%93Corasick_algorithm
+ */
+public final class AhoCorasickMatcher {
+
+    private static final int ROOT = 0;
+    private static final int NO_STATE = -1;
+
+    /**
+     * Sorted transition characters for each state, searched with a binary search.
+     */
+    private final char[][] transitionChars;
+
+    /**
+     * Target states for each state, parallel to {@link #transitionChars}.
+     */
+    private final int[][] transitionTargets;
+
+    /**
+     * Failure link for each state, pointing at the state for the longest proper suffix that is also in the trie.
+     */
+    private final int[] failure;
+
+    /**
+     * Lengths of every word that ends at each state, including words reachable through failure links.
+     */
+    private final int[][] matchLengths;
+
+    private final int longestWord;
+
+    /**
+     * Listener invoked for each word found while scanning.
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+
+        /**
+         * Called when a word is found in the scanned text.
+         *
+         * @param start the start index of the word in the text (inclusive)
+         * @param end   the end index of the word in the text (exclusive)
+         * @return true to keep scanning, false to stop the scan
+         */
+        boolean onMatch(int start, int end);
+    }
+
+    private AhoCorasickMatcher(char[][] transitionChars, int[][] transitionTargets, int[] failure,
+                               int[][] matchLengths, int longestWord) {
+        this.transitionChars = transitionChars;
+        this.transitionTargets = transitionTargets;
+        this.failure = failure;
+        this.matchLengths = matchLengths;
+        this.longestWord = longestWord;
+    }
+
+    /**
+     * Compiles a matcher for the given words. Blank words are ignored.
+     *
+     * @param words the words to search for
+     * @return a compiled matcher
+     */
+    public static AhoCorasickMatcher compile(Collection<String> words) {
+        // build the trie using sorted maps so transitions can be flattened into sorted arrays
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> lengths = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        lengths.add(new ArrayList<>());
+        int longestWord = 0;
+
+        for (String word : words) {
+            if (word == null || word.isBlank()) {
+                continue;
+            }
+            int state = ROOT;
+            for (int i = 0; i < word.length(); i++) {
+                Integer next = trie.get(state).get(word.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(state).put(word.charAt(i), next);
+                    trie.add(new TreeMap<>());
+                    lengths.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            if (!lengths.get(state).contains(word.length())) {
+                lengths.get(state).add(word.length());
+            }
+            longestWord = Math.max(longestWord, word.length());
+        }
+
+        int stateCount = trie.size();
+        char[][] transitionChars = new char[stateCount][];
+        int[][] transitionTargets = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            Map<Character, Integer> edges = trie.get(state);
+            transitionChars[state] = new char[edges.size()];
+            transitionTargets[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                transitionChars[state][i] = edge.getKey();
+                transitionTargets[state][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // breadth first traversal to compute failure links and merge outputs along them
+        int[] failure = new int[stateCount];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : transitionTargets[ROOT]) {
+            failure[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < transitionChars[state].length; i++) {
+                char c = transitionChars[state][i];
+                int child = transitionTargets[state][i];
+                int fallback = failure[state];
+                while (fallback != ROOT && step(transitionChars, transitionTargets, fallback, c) == NO_STATE) {
+                    fallback = failure[fallback];
+                }
+                int target = step(transitionChars, transitionTargets, fallback, c);
+                failure[child] = (target == NO_STATE || target == child) ? ROOT : target;
+                for (int length : lengths.get(failure[child])) {
+                    if (!lengths.get(child).contains(length)) {
+                        lengths.get(child).add(length);
+                    }
+                }
+                queue.add(child);
+            }
+        }
+
+        int[][] matchLengths = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            matchLengths[state] = lengths.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new AhoCorasickMatcher(transitionChars, transitionTargets, failure, matchLengths, longestWord);
+    }
+
+    /**
+     * Scans the text once, reporting every occurrence of a compiled word to the listener in order of end position.
+     *
+     * @param text     the text to scan
+     * @param listener the listener to report matches to
+     * @return true if the listener stopped the scan early, false if the whole text was scanned
+     */
+    public boolean scan(CharSequence text, MatchListener listener) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next = step(transitionChars, transitionTargets, state, c);
+            while (next == NO_STATE && state != ROOT) {
+                state = failure[state];
+                next = step(transitionChars, transitionTargets, state, c);
+            }
+            state = next == NO_STATE ? ROOT : next;
+            for (int length : matchLengths[state]) {
+                if (!listener.onMatch(i + 1 - length, i + 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the length of the longest compiled word.
+     *
+     * @return the longest word length, or 0 if no words were compiled
+     */
+    public int getLongestWord() {
+        return longestWord;
+    }
+
+    private static int step(char[][] transitionChars, int[][] transitionTargets, int state, char c) {
+        int index = Arrays.binarySearch(transitionChars[state], c);
+        return index < 0 ? NO_STATE : transitionTargets[state][index];
+    }
+}
@@ -6,6 +6,7 @@ import nz.ac.canterbury.seng302.homehelper.exceptions.auth.UnauthenticatedExcept
 import nz.ac.canterbury.seng302.homehelper.service.user.UserService;
 
 import java.security.Principal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -81,4 +82,21 @@ public class UserUtil {
         DateTimeFormatter shortFormatter = DateTimeFormatter.ofPattern("dd MMMM");
         return shortFormatter.format(date);
     }
+
+    /**
+     * Formats how long ago a time was, e.g. 5 minutes ago, 3 hours ago or 2 days ago
+     *
+     * @param time LocalDateTime in the past
+     * @return String with how long ago the time was
+     */
+    public static String formatTimeSince(LocalDateTime time) {
+        Duration duration = Duration.between(time, LocalDateTime.now());
+        if (duration.toMinutes() < 60) {
+            return duration.toMinutes() + " minutes ago";
+        } else if (duration.toHours() < 24) {
+            return duration.toHours() + " hours ago";
+        } else {
+            return duration.toDays() + " days ago";
+        }
+    }
 }
@@ -0,0 +1,22 @@
+-- BrickAI's calls, tokens and latency, rolled up per renovation and per day
+CREATE TABLE ai_usage_rollup
+(
+    renovation_id              BIGINT NOT NULL,
+    usage_date                 DATE   NOT NULL,
+    call_count                 BIGINT NOT NULL,
+    failure_count              BIGINT NOT NULL,
+    fallback_count             BIGINT NOT NULL,
+    message_count              BIGINT NOT NULL,
+    task_creation_count        BIGINT NOT NULL,
+    require_chat_context_count BIGINT NOT NULL,
+    prompt_tokens              BIGINT NOT NULL,
+    completion_tokens          BIGINT NOT NULL,
+    total_millis               BIGINT NOT NULL,
+    max_millis                 BIGINT NOT NULL,
+    CONSTRAINT pk_aiusagerollup PRIMARY KEY (renovation_id, usage_date)
+);
+
+ALTER TABLE ai_usage_rollup
+    ADD CONSTRAINT FK_AIUSAGEROLLUP_ON_RENOVATION FOREIGN KEY (renovation_id) REFERENCES renovation (id) ON DELETE CASCADE;
+
+CREATE INDEX AI_USAGE_ROLLUP_USAGE_DATE_IDX ON ai_usage_rollup (usage_date);
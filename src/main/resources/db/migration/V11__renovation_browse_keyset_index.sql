@@ -0,0 +1,2 @@
+-- lets browse paging seek straight to the cursor renovation instead of sorting and skipping every public renovation
+CREATE INDEX idx_renovation_public_created_id ON renovation (is_public, created_timestamp, id);
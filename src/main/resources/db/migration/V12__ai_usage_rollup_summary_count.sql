@@ -0,0 +1,3 @@
+-- calls summarising chat channels are counted apart from calls answering messages
+ALTER TABLE ai_usage_rollup
+    ADD COLUMN summary_count BIGINT NOT NULL DEFAULT 0;
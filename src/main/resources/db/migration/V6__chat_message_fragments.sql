@@ -0,0 +1,21 @@
+-- chat_link is not created by an earlier migration, create it here so the backfill below can reference it
+CREATE TABLE IF NOT EXISTS chat_link
+(
+    id             BIGINT AUTO_INCREMENT NOT NULL,
+    message_id     BIGINT NULL,
+    text           VARCHAR(255) NULL,
+    link           VARCHAR(255) NULL,
+    start_position INT NOT NULL,
+    end_position   INT NOT NULL,
+    CONSTRAINT pk_chatlink PRIMARY KEY (id)
+);
+
+ALTER TABLE chat_message
+    ADD fragments TEXT NULL;
+
+-- messages without mentions or links are a single text fragment,
+-- the rest are backfilled by ChatFragmentBackfill on startup
+UPDATE chat_message m
+SET m.fragments = CONCAT('[{"type":"TEXT","text":', JSON_QUOTE(m.content), '}]')
+WHERE NOT EXISTS (SELECT 1 FROM chat_mention cm WHERE cm.message_id = m.id)
+  AND NOT EXISTS (SELECT 1 FROM chat_link cl WHERE cl.message_id = m.id);
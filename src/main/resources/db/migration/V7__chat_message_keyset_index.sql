@@ -0,0 +1,6 @@
+-- keep sub-second precision so messages sent within the same second page in a stable order
+ALTER TABLE chat_message
+    MODIFY timestamp DATETIME(6) NOT NULL;
+
+-- lets chat history paging seek straight to the cursor message instead of scanning the channel
+CREATE INDEX idx_chat_message_channel_timestamp_id ON chat_message (channel_id, timestamp, id);
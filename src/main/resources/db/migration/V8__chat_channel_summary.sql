@@ -0,0 +1,13 @@
+-- one rolling conversation summary per chat channel, given to BrickAI in place of the channel's older messages
+CREATE TABLE chat_channel_summary
+(
+    channel_id             BIGINT      NOT NULL,
+    summary                TEXT        NOT NULL,
+    last_message_id        BIGINT      NOT NULL,
+    last_message_timestamp DATETIME(6) NOT NULL,
+    updated_at             DATETIME(6) NOT NULL,
+    CONSTRAINT pk_chatchannelsummary PRIMARY KEY (channel_id)
+);
+
+ALTER TABLE chat_channel_summary
+    ADD CONSTRAINT FK_CHATCHANNELSUMMARY_ON_CHANNEL FOREIGN KEY (channel_id) REFERENCES chat_channel (id) ON DELETE CASCADE;
@@ -0,0 +1,6 @@
+-- chat memory is now appended to rather than rewritten, so rows need an ID that orders them within a conversation,
+-- the timestamp only has second precision. Existing rows are numbered in the order they were inserted.
+ALTER TABLE SPRING_AI_CHAT_MEMORY
+    ADD COLUMN id BIGINT AUTO_INCREMENT NOT NULL PRIMARY KEY FIRST;
+
+CREATE INDEX SPRING_AI_CHAT_MEMORY_CONVERSATION_ID_ID_IDX ON SPRING_AI_CHAT_MEMORY (conversation_id, id);
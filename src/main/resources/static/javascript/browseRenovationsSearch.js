@@ -1,7 +1,10 @@
 const ONLY_MINE_PARAM_NAME = "onlyMine"
+const BROWSE_SCROLL_PAGE_SIZE = 10;
 let searchSelectedTagsInputContainer
 let searchSelectedTagsContainer;
 const selectedTags = [];
+let nextCursor = null;
+let loadingMoreRenovations = false;
 
 document.addEventListener('DOMContentLoaded', () => {
     searchSelectedTagsInputContainer = document.getElementById("search-selected-tags-input");
@@ -24,8 +27,114 @@ document.addEventListener('DOMContentLoaded', () => {
     thTags.forEach((tag) => {
         addTagToSearch(tag);
     })
+
+    setupInfiniteScroll(thNextCursor);
 })
 
+/**
+ * Replaces the pagination bar with loading the next renovations as the user scrolls to the end of the results.
+ * Only set up on the first page of newest-first results, when there are more results to load.
+ * @param cursor Cursor of the last renovation on the page, or null if there is nothing more to load
+ */
+const setupInfiniteScroll = (cursor) => {
+    const end = document.getElementById("browse-results-end");
+    if (!cursor || !end || !("IntersectionObserver" in window)) {
+        return;
+    }
+    nextCursor = cursor;
+    document.getElementById("browse-pagination")?.classList.add("d-none");
+    end.classList.remove("d-none");
+
+    const observer = new IntersectionObserver(async (entries) => {
+        if (!entries.some(entry => entry.isIntersecting)) {
+            return;
+        }
+        await loadMoreRenovations();
+        if (!nextCursor) {
+            observer.disconnect();
+            end.classList.add("d-none");
+        }
+    });
+    observer.observe(end);
+}
+
+/**
+ * Fetches the renovations after the current cursor with the same search, tags and filters as the page,
+ * and appends them to the results
+ */
+const loadMoreRenovations = async () => {
+    if (loadingMoreRenovations || !nextCursor) {
+        return;
+    }
+    loadingMoreRenovations = true;
+    try {
+        const params = new URLSearchParams(window.location.search);
+        params.delete("page");
+        params.delete("gotoPage");
+        params.delete("sort");
+        params.set("cursor", nextCursor);
+        params.set("limit", BROWSE_SCROLL_PAGE_SIZE);
+        const response = await fetch(`${baseUrl}browse/renovations?${params.toString()}`);
+        if (!response.ok) {
+            console.error("Failed to load more renovations");
+            nextCursor = null;
+            return;
+        }
+        const page = await response.json();
+        const results = document.getElementById("browse-results");
+        page.renovations.forEach(renovation => results.appendChild(renderRenovationCard(renovation)));
+        nextCursor = page.nextCursor;
+    } catch (error) {
+        console.error("Failed to load more renovations", error);
+        nextCursor = null;
+    } finally {
+        loadingMoreRenovations = false;
+    }
+}
+
+/**
+ * Renders a renovation card from the browse API, matching the cards rendered by the server
+ * @param renovation Renovation card returned by the browse API
+ * @returns The card element
+ */
+const renderRenovationCard = (renovation) => {
+    const clone = document.getElementById("renovation-card-template").content.cloneNode(true);
+    const card = clone.querySelector(".renovation-card");
+    card.querySelector(".renovation-card-name").textContent = renovation.name;
+    card.querySelector(".renovation-card-description").textContent = renovation.description;
+    card.querySelector(".renovation-date").textContent = `Created on ${renovation.createdDate} by `;
+    card.querySelector(".renovation-card-owner-image").src = `${baseUrl}${renovation.ownerImage}`;
+    card.querySelector(".renovation-card-owner-name").textContent = renovation.ownerName;
+    card.querySelector(".renovation-card-link").href = `${baseUrl}renovation/${renovation.id}`;
+    renderCardBadges(card.querySelector(".renovation-card-rooms"), "room-badge",
+        renovation.rooms);
+    renderCardBadges(card.querySelector(".renovation-card-tags"), "tag-badge",
+        renovation.tags.map(tag => `#${tag}`));
+    return card;
+}
+
+/**
+ * Fills a card's list of badges, removing the list if there is nothing to show
+ * @param section The section of the card holding the badges
+ * @param badgeClass The class of each badge
+ * @param labels The text of each badge
+ */
+const renderCardBadges = (section, badgeClass, labels) => {
+    if (labels.length === 0) {
+        section.remove();
+        return;
+    }
+    const container = section.querySelector(".renovation-rooms");
+    labels.forEach(label => {
+        const badge = document.createElement("span");
+        badge.className = badgeClass;
+        const text = document.createElement("span");
+        text.textContent = label;
+        badge.appendChild(text);
+        container.appendChild(badge);
+    })
+}
+
 /**
  * Updates the URL query parameter to toggle showing only the users renovations
  * @param onlyMine Whether to filter results to only the user's renovations
@@ -18,6 +18,7 @@ export class ChatController {
 		this.isLoadingNewerMessages = false;
 		this.loadedAllNewerMessages = false;
 		this.bottomMessage = null; // Track the last (newest) message loaded
+		this.streamedReplies = new Map(); // BrickAI replies being streamed, by stream id
 
 	}
 
@@ -77,15 +78,46 @@ export class ChatController {
 
 	/**
 	 * Handles a raw message received from the WebSocket. Parses then forwards to
-	 * the incoming message handler.
+	 * the incoming message handler. Redactions of messages already shown are passed straight to the UI.
 	 * @param message - The raw incoming message object.
 	 * @private
 	 */
 	#handleIncomingRawMessage(message) {
+		if (message.redactedMessageId) {
+			this.ui.redactMessage(message.redactedMessageId, message.fragments);
+			return;
+		}
 		message = this.#parseMessage(message);
+		if (message.streamId) {
+			this.#handleStreamFrame(message);
+			return;
+		}
 		this.#handleIncomingMessage(message);
 	}
 
+	/**
+	 * Handles a frame of a BrickAI reply that is still being generated. Provisional frames update the reply shown so
+	 * far, and the final frame removes it since the saved reply is sent as a normal message.
+	 * Frames that arrive after a newer frame of the same reply are ignored.
+	 * @param frame - The parsed stream frame.
+	 * @private
+	 */
+	#handleStreamFrame(frame) {
+		const reply = this.streamedReplies.get(frame.streamId) ?? { sequence: 0, element: null, done: false };
+		if (reply.done || frame.sequence <= reply.sequence) {
+			return;
+		}
+		reply.sequence = frame.sequence;
+		if (frame.provisional) {
+			reply.element = this.ui.showProvisionalMessage(reply.element, frame);
+		} else {
+			reply.done = true;
+			reply.element?.remove();
+			reply.element = null;
+		}
+		this.streamedReplies.set(frame.streamId, reply);
+	}
+
 	/**
 	 * Handles messages received from the WebSocket and forwards them to the UI.
 	 * @param message - The incoming message object.
@@ -260,13 +292,7 @@ export class ChatController {
 
 		try {
 			const params = new URLSearchParams();
-			if (isPrevious) {
-				params.append("lastMessageId", edgeMessage.id);
-				params.append("lastMessageTimestamp", edgeMessage.date.toISOString());
-			} else {
-				params.append("recentMessageId", edgeMessage.id);
-				params.append("recentMessageTimestamp", edgeMessage.date.toISOString());
-			}
+			params.append("cursor", edgeMessage.cursor);
 
 			const url = `${window.fullBaseUrl}/chat/${channelId}/${direction}?${params.toString()}`;
 			const response = await fetch(url);
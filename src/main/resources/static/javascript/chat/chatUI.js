@@ -178,6 +178,39 @@ export class UI {
 
 	}
 
+	/**
+	 * Shows a message that is still being generated, replacing the element previously shown for it.
+	 *
+	 * @param {Element|null} existingElement - The element previously shown for the message, if any.
+	 * @param {Object} message - The message so far.
+	 * @returns {Element|null} - The element now showing the message.
+	 */
+	showProvisionalMessage(existingElement, message) {
+		const clone = this.createMessageElement(message);
+		if (!clone) {
+			return existingElement;
+		}
+		const element = clone.firstElementChild;
+		element.classList.add("provisional-message");
+
+		if (existingElement && existingElement.isConnected) {
+			existingElement.replaceWith(element);
+			return element;
+		}
+
+		const atBottom =
+			Math.abs(
+				this.chatAreaContainer.scrollHeight -
+					this.chatAreaContainer.scrollTop -
+					this.chatAreaContainer.clientHeight
+			) < 2;
+		this.messagesContainer.appendChild(element);
+		if (atBottom) {
+			this.chatAreaContainer.scrollTop = this.chatAreaContainer.scrollHeight;
+		}
+		return element;
+	}
+
 	/**
 	 * Clears all of the messages inside the message container.
 	 */
@@ -203,6 +236,9 @@ export class UI {
 		}
 
 		const clone = template.content.cloneNode(true);
+		if (message.id && clone.firstElementChild) {
+			clone.firstElementChild.dataset.messageId = message.id;
+		}
 		const contentElement = clone.querySelector(".message-content");
 		const nameElement = clone.querySelector(".user-name");
 		const imageElement = clone.querySelector(".user-img");
@@ -210,7 +246,29 @@ export class UI {
         const aiBadgeElement = clone.querySelector(".ai-badge");
 
 		if (contentElement) {
-            message.fragments.forEach((fragment) => {
+            this.#appendFragments(contentElement, message.fragments);
+		}
+
+		// if (contentElement) contentElement.textContent = message.content;
+		if (nameElement)
+		if (nameElement)
+			nameElement.textContent =
+				message.user.firstName + " " + message.user.lastName;
+		if (imageElement) imageElement.src = window.fullBaseUrl + "/" + message.user.image;
+		if (dateElement) dateElement.innerText = message.formattedDate;
+        if (!message.ai) aiBadgeElement.remove();
+
+		return clone;
+	}
+
+	/**
+	 * Appends a message's fragments to the element showing its content.
+	 *
+	 * @param {Element} contentElement - The element showing the message's content.
+	 * @param {Array} fragments - The message's fragments.
+	 */
+	#appendFragments(contentElement, fragments) {
+            fragments.forEach((fragment) => {
                 if (fragment.type === "TEXT") {
                     const parts = fragment.text.split("\n");
                     parts.forEach((part, index) => {
@@ -237,18 +295,23 @@ export class UI {
 					contentElement.appendChild(linkElement);
 				}
             });
-		}
-
-		// if (contentElement) contentElement.textContent = message.content;
-		if (nameElement)
-		if (nameElement)
-			nameElement.textContent =
-				message.user.firstName + " " + message.user.lastName;
-		if (imageElement) imageElement.src = window.fullBaseUrl + "/" + message.user.image;
-		if (dateElement) dateElement.innerText = message.formattedDate;
-        if (!message.ai) aiBadgeElement.remove();
+	}
 
-		return clone;
+	/**
+	 * Replaces the content of a message that has been redacted, if it is being shown.
+	 *
+	 * @param {number} messageId - The ID of the redacted message.
+	 * @param {Array} fragments - The content to show in place of the message.
+	 */
+	redactMessage(messageId, fragments) {
+		const element = this.messagesContainer?.querySelector(`[data-message-id="${messageId}"]`);
+		const contentElement = element?.querySelector(".message-content");
+		if (!contentElement) {
+			return;
+		}
+		contentElement.replaceChildren();
+		this.#appendFragments(contentElement, fragments);
+		element.classList.add("redacted-message");
 	}
 
 	/**
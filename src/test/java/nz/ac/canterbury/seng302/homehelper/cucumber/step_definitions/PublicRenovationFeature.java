@@ -11,6 +11,7 @@ import nz.ac.canterbury.seng302.homehelper.cucumber.context.TestContext;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
 import nz.ac.canterbury.seng302.homehelper.model.Pagination;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -156,8 +157,8 @@ public class PublicRenovationFeature {
         User user = testContext.userRepository.findByEmail(email).stream().findFirst().orElseThrow();
         Renovation renovation = testContext.renovationRepository.findByNameAndUser(renovationTitle, user).stream().findFirst().orElseThrow();
         Map<String, Object> model = Objects.requireNonNull(testContext.getResult().getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
-        assertTrue(pagination.getItems().contains(renovation));
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
+        assertTrue(pagination.getItems().stream().anyMatch(card -> card.id() == renovation.getId()));
     }
 
     @Then("they should not see a private renovation created by {string}, titled {string}")
@@ -165,16 +166,16 @@ public class PublicRenovationFeature {
         User user = testContext.userRepository.findByEmail(email).stream().findFirst().orElseThrow();
         Renovation renovation = testContext.renovationRepository.findByNameAndUser(renovationTitle, user).stream().findFirst().orElseThrow();
         Map<String, Object> model = Objects.requireNonNull(testContext.getResult().getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
-        assertFalse(pagination.getItems().contains(renovation));
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
+        assertTrue(pagination.getItems().stream().noneMatch(card -> card.id() == renovation.getId()));
     }
 
     @Then("the renovations are displayed in descending order by timestamp")
     public void the_renovations_should_be_displayed_in_descending_order_by_timestamp() {
         Map<String, Object> model = Objects.requireNonNull(testContext.getResult().getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
-        List<Renovation> sortedRenovations = pagination.getItems().stream()
-                .sorted(Comparator.comparing(Renovation::getCreatedTimestamp).reversed())
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
+        List<RenovationCard> sortedRenovations = pagination.getItems().stream()
+                .sorted(Comparator.comparing(RenovationCard::createdTimestamp).reversed())
                 .toList();
 
         assertEquals(sortedRenovations, pagination.getItems());
@@ -183,7 +184,7 @@ public class PublicRenovationFeature {
     @Then("There are {int} renovations on page {int}")
     public void there_are_renovations_on_page(int expectedNumRenovations, int pageNumber) {
         Map<String, Object> model = Objects.requireNonNull(testContext.getResult().getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertEquals(expectedNumRenovations, pagination.getItems().size());
         assertEquals(pageNumber, pagination.getCurrentPage());
     }
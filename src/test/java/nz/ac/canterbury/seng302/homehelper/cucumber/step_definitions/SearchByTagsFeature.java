@@ -9,6 +9,7 @@ import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Tag;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
 import nz.ac.canterbury.seng302.homehelper.model.Pagination;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -76,14 +77,14 @@ public class SearchByTagsFeature {
         List<Tag> tagsForRenovations = testContext.tagRepository.findByRenovation(renovation.getId());
         assertTrue(tagsForRenovations.stream().anyMatch(tag -> tag.getTag().equals(tagName)));
         Map<String, Object> model = Objects.requireNonNull(testContext.getResult().getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
-        assertTrue(pagination.getItems().contains(renovation));
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
+        assertTrue(pagination.getItems().stream().anyMatch(card -> card.id() == renovation.getId()));
     }
 
     @Then("there is a total of {int} results")
     public void there_is_a_total_of_results_on_page(Integer numResults) {
         Map<String, Object> model = Objects.requireNonNull(testContext.getResult().getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertEquals((long) numResults, pagination.getTotalItems());
     }
 
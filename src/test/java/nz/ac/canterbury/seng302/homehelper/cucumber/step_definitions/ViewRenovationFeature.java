@@ -7,6 +7,7 @@ import nz.ac.canterbury.seng302.homehelper.cucumber.context.TestContext;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
 import nz.ac.canterbury.seng302.homehelper.model.Pagination;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -78,11 +79,11 @@ public class ViewRenovationFeature {
     public void canSeeAListOfRenovationRecords() throws Exception {
         ModelMap model = requireNonNull(testContext.getResult().getModelAndView()).getModelMap();
         @SuppressWarnings("unchecked")
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.getAttribute("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.getAttribute("pagination");
         assertNotNull(pagination, "Pagination should not be null");
-        List<Renovation> renovations = pagination.getItems();
+        List<RenovationCard> renovations = pagination.getItems();
         assertFalse(renovations.isEmpty(), "Renovation list should not be empty");
-        assertEquals(renovations.getFirst(), testContext.getRenovation());
+        assertEquals(testContext.getRenovation().getId(), renovations.getFirst().id());
     }
 
     @Given("user {string} has a renovation with name {string} and description {string}")
@@ -0,0 +1,276 @@
+package nz.ac.canterbury.seng302.homehelper.fake;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A local server implementing the OpenAI-compatible {@code /chat/completions} API that BrickAI calls through
+ * {@code spring.ai.openai.base-url}, so the AI path can be tested without calling Gemini.
+ * <p>
+ * Replies are scripted by a responder, which is given each request and returns the reply to send. The server can also
+ * wait before replying, to model the latency of a real model, and fail a share of requests with an error status.
+ * Requests asking for a stream are answered with server-sent events, one per reply chunk, and other requests with a
+ * single completion that includes token usage.
+ */
+public class FakeOpenAiServer implements AutoCloseable {
+
+    private static final Pattern MODEL = Pattern.compile("\"model\"\\s*:\\s*\"([^\"]*)\"");
+    private static final Pattern STREAM = Pattern.compile("\"stream\"\\s*:\\s*true");
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final Random random = new Random(302);
+    private volatile Function<Request, Reply> responder = request -> Reply.message("Sounds good.");
+    private volatile LongSupplier latencyMillis = () -> 0;
+    private volatile long chunkDelayMillis;
+    private volatile double failureRate;
+    private volatile int failureStatus = 503;
+
+    /**
+     * A request received by the server.
+     *
+     * @param model  the model the request was sent to
+     * @param stream whether the reply was requested as a stream
+     * @param body   the JSON body of the request
+     */
+    public record Request(String model, boolean stream, String body) {
+
+        /**
+         * Checks whether the request includes the result of a tool call, i.e. it is the follow-up request after the
+         * model called a tool.
+         *
+         * @return true if the request has a tool message
+         */
+        public boolean hasToolResult() {
+            return body.contains("\"role\":\"tool\"");
+        }
+    }
+
+    /**
+     * A scripted reply. Either the content chunks of an assistant message, or a call to a tool.
+     *
+     * @param chunks        the content of the reply, split into the chunks it is streamed in
+     * @param toolName      the name of the tool called, or null if the reply is a message
+     * @param toolArguments the JSON arguments of the tool call
+     */
+    public record Reply(List<String> chunks, String toolName, String toolArguments) {
+
+        /**
+         * Creates a reply with the given raw content chunks.
+         *
+         * @param chunks the chunks of content, streamed in order
+         * @return the reply
+         */
+        public static Reply content(List<String> chunks) {
+            return new Reply(chunks, null, null);
+        }
+
+        /**
+         * Creates a reply in the structured format BrickAI asks for, answering with a message.
+         *
+         * @param content the content of BrickAI's message
+         * @return the reply
+         */
+        public static Reply message(String content) {
+            return content(List.of("{\"type\": \"MESSAGE\", \"content\": " + jsonString(content) + "}"));
+        }
+
+        /**
+         * Creates a reply calling a tool.
+         *
+         * @param toolName      the name of the tool
+         * @param toolArguments the JSON arguments to call the tool with
+         * @return the reply
+         */
+        public static Reply toolCall(String toolName, String toolArguments) {
+            return new Reply(List.of(), toolName, toolArguments);
+        }
+
+        private String content() {
+            return String.join("", chunks);
+        }
+    }
+
+    private FakeOpenAiServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts a server on a free local port.
+     *
+     * @return the started server
+     * @throws IOException if the server could not be started
+     */
+    public static FakeOpenAiServer start() throws IOException {
+        FakeOpenAiServer fakeServer = new FakeOpenAiServer();
+        fakeServer.server.start();
+        return fakeServer;
+    }
+
+    /**
+     * Creates a latency distribution that is log-normal, like the response times of real models, which are usually
+     * close to the median with a long tail of slow responses.
+     *
+     * @param medianMillis the median latency
+     * @param sigma        the spread of the distribution, where 0.5 gives a p95 of about 2.3 times the median
+     * @param seed         the seed, so runs are repeatable
+     * @return the latency distribution, in milliseconds
+     */
+    public static LongSupplier logNormalLatency(long medianMillis, double sigma, long seed) {
+        Random latencyRandom = new Random(seed);
+        return () -> Math.round(medianMillis * Math.exp(sigma * latencyRandom.nextGaussian()));
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void setResponder(Function<Request, Reply> responder) {
+        this.responder = responder;
+    }
+
+    /**
+     * Sets how long the server waits before replying to each request.
+     *
+     * @param latencyMillis the distribution of the wait, in milliseconds
+     */
+    public void setLatency(LongSupplier latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Sets how long the server waits between the chunks of a streamed reply.
+     *
+     * @param chunkDelayMillis the wait between chunks, in milliseconds
+     */
+    public void setChunkDelay(long chunkDelayMillis) {
+        this.chunkDelayMillis = chunkDelayMillis;
+    }
+
+    /**
+     * Makes a share of requests fail, after their latency, with an error status instead of a reply.
+     *
+     * @param failureRate   the share of requests to fail, from 0 to 1
+     * @param failureStatus the HTTP status failed requests are answered with, e.g. 503 or 429
+     */
+    public void setFailures(double failureRate, int failureStatus) {
+        this.failureRate = failureRate;
+        this.failureStatus = failureStatus;
+    }
+
+    public List<Request> getRequests() {
+        return List.copyOf(requests);
+    }
+
+    public int getFailureCount() {
+        return failures.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Matcher model = MODEL.matcher(body);
+        Request request = new Request(model.find() ? model.group(1) : null, STREAM.matcher(body).find(), body);
+        requests.add(request);
+        try (exchange) {
+            Thread.sleep(Math.max(0, latencyMillis.getAsLong()));
+            if (random.nextDouble() < failureRate) {
+                failures.incrementAndGet();
+                sendJson(exchange, failureStatus, "{\"error\": {\"message\": \"Injected failure\", \"code\": "
+                        + failureStatus + "}}");
+                return;
+            }
+            Reply reply = responder.apply(request);
+            if (request.stream()) {
+                stream(exchange, request, reply);
+            } else {
+                sendJson(exchange, 200, completion(request, reply));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void stream(HttpExchange exchange, Request request, Reply reply) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        if (reply.toolName() != null) {
+            writeEvent(out, completionChunk(request, "{\"role\": \"assistant\", \"tool_calls\": [{\"index\": 0, "
+                    + "\"id\": \"call_1\", \"type\": \"function\", \"function\": {\"name\": "
+                    + jsonString(reply.toolName()) + ", \"arguments\": " + jsonString(reply.toolArguments()) + "}}]}",
+                    "null"));
+            writeEvent(out, completionChunk(request, "{}", "\"tool_calls\""));
+        } else {
+            for (String chunk : reply.chunks()) {
+                writeEvent(out, completionChunk(request, "{\"role\": \"assistant\", \"content\": " + jsonString(chunk) + "}", "null"));
+                Thread.sleep(chunkDelayMillis);
+            }
+            writeEvent(out, completionChunk(request, "{}", "\"stop\""));
+        }
+        writeEvent(out, "[DONE]");
+    }
+
+    private static String completion(Request request, Reply reply) {
+        String message = reply.toolName() != null
+                ? "{\"role\": \"assistant\", \"content\": null, \"tool_calls\": [{\"id\": \"call_1\", \"type\": \"function\", "
+                        + "\"function\": {\"name\": " + jsonString(reply.toolName()) + ", \"arguments\": "
+                        + jsonString(reply.toolArguments()) + "}}]}"
+                : "{\"role\": \"assistant\", \"content\": " + jsonString(reply.content()) + "}";
+        String finishReason = reply.toolName() != null ? "tool_calls" : "stop";
+        // roughly four characters to a token, close enough for sizing
+        int promptTokens = request.body().length() / 4;
+        int completionTokens = reply.content().length() / 4 + 1;
+        return "{\"id\": \"chatcmpl-1\", \"object\": \"chat.completion\", \"created\": 1, \"model\": "
+                + jsonString(String.valueOf(request.model())) + ", \"choices\": [{\"index\": 0, \"message\": " + message
+                + ", \"finish_reason\": \"" + finishReason + "\"}], \"usage\": {\"prompt_tokens\": " + promptTokens
+                + ", \"completion_tokens\": " + completionTokens + ", \"total_tokens\": "
+                + (promptTokens + completionTokens) + "}}";
+    }
+
+    private static String completionChunk(Request request, String delta, String finishReason) {
+        return "{\"id\": \"chatcmpl-1\", \"object\": \"chat.completion.chunk\", \"created\": 1, \"model\": "
+                + jsonString(String.valueOf(request.model())) + ", \"choices\": [{\"index\": 0, \"delta\": " + delta
+                + ", \"finish_reason\": " + finishReason + "}]}";
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void writeEvent(OutputStream out, String data) throws IOException {
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static String jsonString(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+}
@@ -0,0 +1,39 @@
+package nz.ac.canterbury.seng302.homehelper.integration.controller.chat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,brickai")
+@AutoConfigureMockMvc
+public class AiUsageEndpointIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testUsage_WhenNotLoggedIn_ThenRedirectsToLogin() throws Exception {
+        mockMvc.perform(get("/actuator/brickai"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    @WithMockUser(username = "1")
+    void testUsage_WhenLoggedInAsUser_ThenForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/brickai"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "1", roles = "ADMIN")
+    void testUsage_WhenLoggedInAsAdmin_ThenReturnsSummary() throws Exception {
+        mockMvc.perform(get("/actuator/brickai"))
+                .andExpect(status().isOk());
+    }
+}
@@ -5,6 +5,7 @@ import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Tag;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
 import nz.ac.canterbury.seng302.homehelper.model.Pagination;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard;
 import nz.ac.canterbury.seng302.homehelper.repository.renovation.RenovationRepository;
 import nz.ac.canterbury.seng302.homehelper.repository.user.UserRepository;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationService;
@@ -70,7 +71,7 @@ public class BrowseRenovationsIntegrationTests {
                 .andReturn();
 
         Map<String, Object> model = Objects.requireNonNull(result.getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertTrue(pagination.getItems().isEmpty());
         assertEquals(1, pagination.getTotalPages());
     }
@@ -96,18 +97,18 @@ public class BrowseRenovationsIntegrationTests {
                 .andReturn();
 
         Map<String, Object> model = Objects.requireNonNull(result.getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertEquals(1, pagination.getTotalPages()); // make sure there is 1 page
         assertEquals(1, pagination.getCurrentPage()); // make sure we are on first page
         assertEquals(3, pagination.getItems().size()); // make sure there are 3 items
-        assertTrue(pagination.getItems().containsAll(publicRenovations));
+        assertTrue(cardIds(pagination).containsAll(ids(publicRenovations)));
 
         // check they are ordered properly
         LocalDateTime lastDate = LocalDateTime.MAX;
-        for (Renovation renovation : pagination.getItems()) {
-            assertTrue(renovation.getIsPublic());
-            assertTrue(lastDate.isAfter(renovation.getCreatedTimestamp()));
-            lastDate = renovation.getCreatedTimestamp();
+        for (RenovationCard renovation : pagination.getItems()) {
+            assertTrue(renovation.isPublic());
+            assertTrue(lastDate.isAfter(renovation.createdTimestamp()));
+            lastDate = renovation.createdTimestamp();
         }
     }
 
@@ -125,11 +126,11 @@ public class BrowseRenovationsIntegrationTests {
                 .andReturn();
 
         Map<String, Object> model = Objects.requireNonNull(result.getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertEquals(1, pagination.getTotalPages()); // make sure there is 1 page
         assertEquals(1, pagination.getCurrentPage()); // make sure we are on first page
         assertEquals(numItems, pagination.getItems().size()); // make sure there are 3 items
-        assertTrue(pagination.getItems().containsAll(renovations)); // make sure items are correct
+        assertTrue(cardIds(pagination).containsAll(ids(renovations))); // make sure items are correct
     }
 
     @ParameterizedTest
@@ -151,12 +152,20 @@ public class BrowseRenovationsIntegrationTests {
                 .andReturn();
 
         Map<String, Object> model = Objects.requireNonNull(result.getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertEquals(expectedNumPages, pagination.getTotalPages()); // make sure there is "expectedNumPages" pages
         assertEquals(1, pagination.getCurrentPage()); // make sure we are on first page
         assertEquals(3, pagination.getItems().size()); // make sure there are 3 items
     }
 
+    private static List<Long> cardIds(Pagination<RenovationCard> pagination) {
+        return pagination.getItems().stream().map(RenovationCard::id).toList();
+    }
+
+    private static List<Long> ids(List<Renovation> renovations) {
+        return renovations.stream().map(Renovation::getId).toList();
+    }
+
     private Renovation createRenovation(User user, String name, String description, boolean isPublic, LocalDateTime date) {
         Renovation renovation = new Renovation(name, description);
         renovation.setOwner(user);
@@ -202,16 +211,16 @@ public class BrowseRenovationsIntegrationTests {
                 .andReturn();
 
         Map<String, Object> model = Objects.requireNonNull(result.getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertEquals(1, pagination.getTotalPages());
         assertEquals(1, pagination.getCurrentPage());
         assertEquals(3, pagination.getItems().size());
 
         LocalDateTime lastDate = LocalDateTime.MAX;
-        for (Renovation renovation : pagination.getItems()) {
-            assertTrue(renovation.getIsPublic());
-            assertTrue(lastDate.isAfter(renovation.getCreatedTimestamp()));
-            lastDate = renovation.getCreatedTimestamp();
+        for (RenovationCard renovation : pagination.getItems()) {
+            assertTrue(renovation.isPublic());
+            assertTrue(lastDate.isAfter(renovation.createdTimestamp()));
+            lastDate = renovation.createdTimestamp();
         }
     }
 
@@ -237,16 +246,16 @@ public class BrowseRenovationsIntegrationTests {
                 .andReturn();
 
         Map<String, Object> model = Objects.requireNonNull(result.getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertEquals(1, pagination.getTotalPages());
         assertEquals(1, pagination.getCurrentPage());
         assertEquals(2, pagination.getItems().size());
 
         LocalDateTime lastDate = LocalDateTime.MAX;
-        for (Renovation renovation : pagination.getItems()) {
-            assertTrue(renovation.getIsPublic());
-            assertTrue(lastDate.isAfter(renovation.getCreatedTimestamp()));
-            lastDate = renovation.getCreatedTimestamp();
+        for (RenovationCard renovation : pagination.getItems()) {
+            assertTrue(renovation.isPublic());
+            assertTrue(lastDate.isAfter(renovation.createdTimestamp()));
+            lastDate = renovation.createdTimestamp();
         }
     }
 
@@ -273,16 +282,16 @@ public class BrowseRenovationsIntegrationTests {
                 .andReturn();
 
         Map<String, Object> model = Objects.requireNonNull(result.getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertEquals(1, pagination.getItems().size());
         assertEquals(1, pagination.getTotalPages());
         assertEquals(1, pagination.getCurrentPage());
 
         LocalDateTime lastDate = LocalDateTime.MAX;
-        for (Renovation renovation : pagination.getItems()) {
-            assertTrue(renovation.getIsPublic());
-            assertTrue(lastDate.isAfter(renovation.getCreatedTimestamp()));
-            lastDate = renovation.getCreatedTimestamp();
+        for (RenovationCard renovation : pagination.getItems()) {
+            assertTrue(renovation.isPublic());
+            assertTrue(lastDate.isAfter(renovation.createdTimestamp()));
+            lastDate = renovation.createdTimestamp();
         }
     }
 
@@ -308,16 +317,16 @@ public class BrowseRenovationsIntegrationTests {
                 .andReturn();
 
         Map<String, Object> model = Objects.requireNonNull(result.getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertEquals(1, pagination.getItems().size());
         assertEquals(1, pagination.getTotalPages());
         assertEquals(1, pagination.getCurrentPage());
 
         LocalDateTime lastDate = LocalDateTime.MAX;
-        for (Renovation renovation : pagination.getItems()) {
-            assertTrue(renovation.getIsPublic());
-            assertTrue(lastDate.isAfter(renovation.getCreatedTimestamp()));
-            lastDate = renovation.getCreatedTimestamp();
+        for (RenovationCard renovation : pagination.getItems()) {
+            assertTrue(renovation.isPublic());
+            assertTrue(lastDate.isAfter(renovation.createdTimestamp()));
+            lastDate = renovation.createdTimestamp();
         }
     }
 
@@ -345,16 +354,16 @@ public class BrowseRenovationsIntegrationTests {
                 .andReturn();
 
         Map<String, Object> model = Objects.requireNonNull(result.getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertEquals(1, pagination.getTotalPages());
         assertEquals(1, pagination.getCurrentPage());
         assertEquals(2, pagination.getItems().size());
 
         LocalDateTime lastDate = LocalDateTime.MAX;
-        for (Renovation renovation : pagination.getItems()) {
-            assertTrue(renovation.getIsPublic());
-            assertTrue(lastDate.isAfter(renovation.getCreatedTimestamp()));
-            lastDate = renovation.getCreatedTimestamp();
+        for (RenovationCard renovation : pagination.getItems()) {
+            assertTrue(renovation.isPublic());
+            assertTrue(lastDate.isAfter(renovation.createdTimestamp()));
+            lastDate = renovation.createdTimestamp();
         }
     }
 
@@ -384,16 +393,16 @@ public class BrowseRenovationsIntegrationTests {
                 .andReturn();
 
         Map<String, Object> model = Objects.requireNonNull(result.getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertEquals(1, pagination.getTotalPages());
         assertEquals(1, pagination.getCurrentPage());
         assertEquals(1, pagination.getItems().size());
 
         LocalDateTime lastDate = LocalDateTime.MAX;
-        for (Renovation renovation : pagination.getItems()) {
-            assertTrue(renovation.getIsPublic());
-            assertTrue(lastDate.isAfter(renovation.getCreatedTimestamp()));
-            lastDate = renovation.getCreatedTimestamp();
+        for (RenovationCard renovation : pagination.getItems()) {
+            assertTrue(renovation.isPublic());
+            assertTrue(lastDate.isAfter(renovation.createdTimestamp()));
+            lastDate = renovation.createdTimestamp();
         }
     }
 
@@ -421,16 +430,16 @@ public class BrowseRenovationsIntegrationTests {
                 .andReturn();
 
         Map<String, Object> model = Objects.requireNonNull(result.getModelAndView()).getModel();
-        Pagination<Renovation> pagination = (Pagination<Renovation>) model.get("pagination");
+        Pagination<RenovationCard> pagination = (Pagination<RenovationCard>) model.get("pagination");
         assertEquals(1, pagination.getTotalPages());
         assertEquals(1, pagination.getCurrentPage());
         assertEquals(1, pagination.getItems().size());
 
         LocalDateTime lastDate = LocalDateTime.MAX;
-        for (Renovation renovation : pagination.getItems()) {
-            assertTrue(renovation.getIsPublic());
-            assertTrue(lastDate.isAfter(renovation.getCreatedTimestamp()));
-            lastDate = renovation.getCreatedTimestamp();
+        for (RenovationCard renovation : pagination.getItems()) {
+            assertTrue(renovation.isPublic());
+            assertTrue(lastDate.isAfter(renovation.createdTimestamp()));
+            lastDate = renovation.createdTimestamp();
         }
     }
 
@@ -0,0 +1,233 @@
+package nz.ac.canterbury.seng302.homehelper.integration.controller.renovation;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Room;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Tag;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Task;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.repository.renovation.RenovationRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.user.UserRepository;
+import nz.ac.canterbury.seng302.homehelper.service.PaginationTotalCache;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.RecentlyAccessedRenovationService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements run to render each page that lists renovations, so a list that starts loading every
+ * renovation's rooms, tasks or members again fails here instead of slowing down in production.
+ * The persistence context is cleared before each render, so nothing is served from entities the test created.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@Transactional
+public class RenovationListStatementCountTests {
+
+    /**
+     * One query for the page's cards, one for their tags and one for their rooms.
+     */
+    private static final long BROWSE_PAGE_STATEMENTS = 3;
+
+    /**
+     * Two to load the signed in user and their roles for the page, one more as the controller looks the user up
+     * again, then one for the page's cards, one for their tags and one for their rooms.
+     */
+    private static final long MY_RENOVATIONS_PAGE_STATEMENTS = 6;
+
+    /**
+     * The statements of a My Renovations page, plus one to count the renovations when the total isn't cached and the
+     * first page is full, so the total can't be worked out from the page.
+     */
+    private static final long MY_RENOVATIONS_COUNTED_PAGE_STATEMENTS = 7;
+
+    /**
+     * Three to load the signed in user as for My Renovations, then one each for their activity, upcoming tasks,
+     * renovation count, completed task count and recently opened renovation cards.
+     */
+    private static final long DASHBOARD_STATEMENTS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RenovationRepository renovationRepository;
+
+    @Autowired
+    private RecentlyAccessedRenovationService recentlyAccessedRenovationService;
+
+    @Autowired
+    private PaginationTotalCache paginationTotalCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private long ownerId;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ownerId = userRepository.save(new User("John", "Smith", "john.smith@gmail.com", "password", "password"))
+                .getId();
+    }
+
+    @Test
+    void testBrowse_GivenFullPageOfRenovations_ThenSameStatementsAsSingleRenovation() throws Exception {
+        createRenovation("Kitchen", LocalDateTime.of(2025, 1, 1, 9, 0));
+        long singleRenovation = countStatements(get("/browse"));
+
+        createRenovation("Bathroom", LocalDateTime.of(2025, 2, 1, 9, 0));
+        createRenovation("Deck", LocalDateTime.of(2025, 3, 1, 9, 0));
+        long fullPage = countStatements(get("/browse"));
+
+        assertEquals(BROWSE_PAGE_STATEMENTS, singleRenovation);
+        assertEquals(BROWSE_PAGE_STATEMENTS, fullPage);
+    }
+
+    @Test
+    void testBrowse_GivenSearch_ThenSameStatementsAsBrowsingEverything() throws Exception {
+        createRenovation("Kitchen", LocalDateTime.of(2025, 1, 1, 9, 0));
+        createRenovation("Kitchen Island", LocalDateTime.of(2025, 2, 1, 9, 0));
+        createRenovation("Kitchen Pantry", LocalDateTime.of(2025, 3, 1, 9, 0));
+
+        assertEquals(BROWSE_PAGE_STATEMENTS, countStatements(get("/browse").param("search", "kitchen")));
+        assertEquals(BROWSE_PAGE_STATEMENTS, countStatements(get("/browse").param("tags", "diy")));
+    }
+
+    @Test
+    void testMyRenovations_GivenMoreRenovations_ThenStatementCountUnchanged() throws Exception {
+        // both pages are smaller than a full page, so neither needs a separate count query
+        createRenovation("Kitchen", LocalDateTime.of(2025, 1, 1, 9, 0));
+        long singleRenovation = countStatements(asOwner(get("/myRenovations")));
+
+        createRenovation("Bathroom", LocalDateTime.of(2025, 2, 1, 9, 0));
+        long twoRenovations = countStatements(asOwner(get("/myRenovations")));
+
+        assertEquals(MY_RENOVATIONS_PAGE_STATEMENTS, singleRenovation);
+        assertEquals(MY_RENOVATIONS_PAGE_STATEMENTS, twoRenovations);
+    }
+
+    @Test
+    void testMyRenovations_GivenFullPageAndTotalNotCached_ThenCountedOnce() throws Exception {
+        createRenovation("Kitchen", LocalDateTime.of(2025, 1, 1, 9, 0));
+        createRenovation("Bathroom", LocalDateTime.of(2025, 2, 1, 9, 0));
+        createRenovation("Deck", LocalDateTime.of(2025, 3, 1, 9, 0));
+
+        assertEquals(MY_RENOVATIONS_COUNTED_PAGE_STATEMENTS, countStatements(asOwner(get("/myRenovations"))));
+    }
+
+    @Test
+    void testMyRenovations_GivenFullPageAndTotalCached_ThenNotCounted() throws Exception {
+        createRenovation("Kitchen", LocalDateTime.of(2025, 1, 1, 9, 0));
+        createRenovation("Bathroom", LocalDateTime.of(2025, 2, 1, 9, 0));
+        createRenovation("Deck", LocalDateTime.of(2025, 3, 1, 9, 0));
+
+        assertEquals(MY_RENOVATIONS_PAGE_STATEMENTS, countStatementsWithCachedTotal(asOwner(get("/myRenovations"))));
+    }
+
+    @Test
+    void testMyRenovations_GivenTotalCached_ThenLaterPageLoadedWithoutCounting() throws Exception {
+        createRenovation("Kitchen", LocalDateTime.of(2025, 1, 1, 9, 0));
+        createRenovation("Bathroom", LocalDateTime.of(2025, 2, 1, 9, 0));
+        createRenovation("Deck", LocalDateTime.of(2025, 3, 1, 9, 0));
+        createRenovation("Garage", LocalDateTime.of(2025, 4, 1, 9, 0));
+
+        long secondPage = countStatementsWithCachedTotal(asOwner(get("/myRenovations").param("page", "2")));
+
+        assertEquals(MY_RENOVATIONS_PAGE_STATEMENTS, secondPage);
+    }
+
+    @Test
+    void testDashboard_GivenMoreRecentlyAccessedRenovations_ThenStatementCountUnchanged() throws Exception {
+        openRenovation(createRenovation("Kitchen", LocalDateTime.of(2025, 1, 1, 9, 0)));
+        long singleRenovation = countStatements(asOwner(get("/")));
+
+        // the dashboard shows at most three recently opened renovations, so this fills it
+        openRenovation(createRenovation("Bathroom", LocalDateTime.of(2025, 2, 1, 9, 0)));
+        openRenovation(createRenovation("Deck", LocalDateTime.of(2025, 3, 1, 9, 0)));
+        long threeRenovations = countStatements(asOwner(get("/")));
+
+        assertEquals(DASHBOARD_STATEMENTS, singleRenovation);
+        assertEquals(DASHBOARD_STATEMENTS, threeRenovations);
+    }
+
+    /**
+     * Renders a page once to warm any caches, then again with an empty persistence context, counting the statements
+     * the second render prepares.
+     */
+    private long countStatements(RequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk());
+        entityManager.flush();
+        entityManager.clear();
+        paginationTotalCache.invalidate();
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Renders a page once to cache its total, then again with an empty persistence context, counting the statements
+     * the second render prepares.
+     */
+    private long countStatementsWithCachedTotal(RequestBuilder request) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        entityManager.clear();
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private RequestBuilder asOwner(MockHttpServletRequestBuilder request) {
+        User owner = owner();
+        return request.with(user(String.valueOf(owner.getId())).password(owner.getPassword()).roles("USER"));
+    }
+
+    private User owner() {
+        return userRepository.findUserById(ownerId).getFirst();
+    }
+
+    private Renovation createRenovation(String name, LocalDateTime createdTimestamp) {
+        Renovation renovation = new Renovation(name, "A public renovation with rooms, tags and a task");
+        renovation.setOwner(owner());
+        renovation.setPublic(true);
+        renovation.setCreatedTimestamp(createdTimestamp);
+        renovation.addRoom(new Room(renovation, "Living Room"));
+        renovation.addRoom(new Room(renovation, "Garage"));
+        renovation.addTag(new Tag("DIY", renovation));
+        renovation.addTag(new Tag("Budget", renovation));
+        renovation.addTask(new Task(renovation, "Paint", "Paint the walls", "icon.png"));
+        return renovationRepository.save(renovation);
+    }
+
+    private void openRenovation(Renovation renovation) {
+        recentlyAccessedRenovationService.createOrUpdateRecentlyAccessedRenovation(renovation, owner());
+    }
+}
@@ -4,8 +4,10 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.chat.ChatCursor;
 import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingMessage;
 import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationMemberRole;
 import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatChannelRepository;
@@ -24,6 +26,7 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -96,6 +99,36 @@ public class ChatHistoryRestControllerTests {
 //        assertEquals(messageBody, messages.getFirst().content());
     }
 
+    @Test
+    public void testPreviousChatHistory_GivenCursorOfNewestMessage_ReturnsOlderMessages() throws Exception {
+        ChatMessage older = chatMessageService.saveMessage(chatChannel.getId(), user.getId(), "Older", List.of());
+        ChatMessage newest = chatMessageService.saveMessage(chatChannel.getId(), user.getId(), "Newest", List.of());
+        String cursor = new ChatCursor(newest.getTimestamp(), newest.getId()).encode();
+
+        MvcResult result = mockMvc.perform(get("/chat/" + chatChannel.getId() + "/previous")
+                        .param("cursor", cursor)
+                        .with(csrf())
+                        .with(user(String.valueOf(user.getId())).password(user.getPassword()).roles("USER")))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<OutgoingMessage> messages = mapper.readValue(
+                result.getResponse().getContentAsString(),
+                new TypeReference<List<OutgoingMessage>>() {
+                }
+        );
+        assertEquals(List.of(older.getId()), messages.stream().map(OutgoingMessage::id).toList());
+    }
+
+    @Test
+    public void testPreviousChatHistory_GivenInvalidCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/chat/" + chatChannel.getId() + "/previous")
+                        .param("cursor", "not a cursor")
+                        .with(csrf())
+                        .with(user(String.valueOf(user.getId())).password(user.getPassword()).roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void getChatHistoryNoMessages() throws Exception {
         MvcResult result = mockMvc.perform(get("/chat/" + chatChannel.getId() + "/history")
@@ -0,0 +1,114 @@
+package nz.ac.canterbury.seng302.homehelper.integration.repository.chat;
+
+import jakarta.persistence.EntityManager;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatChannelRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatMessageRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.renovation.RenovationRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds a single channel with a million messages and checks that loading a page of older messages takes about as long
+ * deep in the history as it does near the newest message.
+ * Only runs when the chat.benchmark system property is true, e.g. {@code ./gradlew integration -Dchat.benchmark=true}
+ */
+@DataJpaTest
+@EnabledIfSystemProperty(named = "chat.benchmark", matches = "true")
+public class ChatMessagePaginationBenchmarkTests {
+
+    private static final int MESSAGE_COUNT = 1_000_000;
+    private static final int PAGE_SIZE = 25;
+    private static final int RUNS = 50;
+    private static final Instant BASE_TIME = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Autowired
+    private ChatMessageRepository messageRepository;
+
+    @Autowired
+    private ChatChannelRepository channelRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RenovationRepository renovationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private ChatChannel channel;
+
+    @BeforeEach
+    void setup() {
+        User user = userRepository.save(new User("John", "Smith", "john@gmail.com", "pass", "pass"));
+        Renovation renovation = new Renovation("Reno", "Desc");
+        renovation.setOwner(user);
+        renovation = renovationRepository.save(renovation);
+        channel = channelRepository.save(new ChatChannel("general", renovation));
+        entityManager.flush();
+
+        // message x is sent x seconds after the base time
+        jdbcTemplate.update("""
+                INSERT INTO chat_message (content, timestamp, channel_id, sender_id)
+                SELECT 'Message ' || X, DATEADD(SECOND, X, CAST(? AS TIMESTAMP WITH TIME ZONE)), ?, ?
+                FROM SYSTEM_RANGE(1, ?)
+                """, BASE_TIME.atOffset(ZoneOffset.UTC), channel.getId(), user.getId(), MESSAGE_COUNT);
+    }
+
+    @Test
+    void testFindPreviousMessages_GivenMillionMessages_LatencyStaysFlatWithDepth() {
+        long shallow = medianPageNanos(100);
+        long middle = medianPageNanos(MESSAGE_COUNT / 2);
+        long deep = medianPageNanos(MESSAGE_COUNT - 100);
+
+        System.out.printf("Previous page latency (median of %d): shallow %d us, middle %d us, deep %d us%n",
+                RUNS, shallow / 1000, middle / 1000, deep / 1000);
+        // generous bound so the test is not flaky, a scan over the channel would be orders of magnitude slower
+        long limit = Math.max(shallow * 5, 5_000_000);
+        assertTrue(middle <= limit, "Middle of history page took " + middle / 1000 + " us");
+        assertTrue(deep <= limit, "Deep history page took " + deep / 1000 + " us");
+    }
+
+    /**
+     * Loads the page of messages before the message at the given depth several times and returns the median time.
+     *
+     * @param depth how many messages back from the newest message the cursor is
+     * @return the median time to load a page in nanoseconds
+     */
+    private long medianPageNanos(int depth) {
+        Instant cursorTimestamp = BASE_TIME.plusSeconds(MESSAGE_COUNT - depth);
+        long[] timings = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            entityManager.clear();
+            long start = System.nanoTime();
+            List<ChatMessage> page = messageRepository.findPreviousMessages(
+                    channel.getId(), cursorTimestamp, Long.MAX_VALUE, PageRequest.of(0, PAGE_SIZE));
+            timings[i] = System.nanoTime() - start;
+            assertEquals(PAGE_SIZE, page.size());
+            assertEquals("Message " + (MESSAGE_COUNT - depth), page.getFirst().getContent());
+        }
+        Arrays.sort(timings);
+        return timings[RUNS / 2];
+    }
+}
@@ -0,0 +1,117 @@
+package nz.ac.canterbury.seng302.homehelper.integration.repository.chat;
+
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatLink;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMention;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatChannelRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatMessageRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.renovation.RenovationRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+public class ChatMessageWriteRepositoryTests {
+
+    @Autowired
+    private ChatMessageRepository messageRepository;
+
+    @Autowired
+    private ChatChannelRepository channelRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RenovationRepository renovationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User sender;
+    private User mentionedUser;
+    private ChatChannel channel;
+
+    @BeforeEach
+    void setup() {
+        sender = userRepository.save(new User("John", "Smith", "john@gmail.com", "pass", "pass"));
+        mentionedUser = userRepository.save(new User("Jane", "Doe", "jane@gmail.com", "pass", "pass"));
+
+        Renovation renovation = new Renovation("Reno", "Desc");
+        renovation.setOwner(sender);
+        renovation = renovationRepository.save(renovation);
+
+        channel = channelRepository.save(new ChatChannel("general", renovation));
+    }
+
+    @Test
+    void testSaveWithChildren_GivenMentionsAndLinks_ThenReadBackFromDatabase() {
+        ChatMessage message = new ChatMessage("@Jane see https://example.com and docs", Instant.now(), channel, sender);
+        message.getMentions().add(new ChatMention(message, mentionedUser, 0, 4));
+        message.getLinks().add(new ChatLink(message, "https://example.com", "https://example.com", 10, 28));
+        message.getLinks().add(new ChatLink(message, "docs", "https://example.com/docs", 34, 37));
+
+        long messageId = messageRepository.saveWithChildren(message).getId();
+        entityManager.clear();
+
+        ChatMessage saved = entityManager.find(ChatMessage.class, messageId);
+        assertEquals(1, saved.getMentions().size());
+        ChatMention mention = saved.getMentions().getFirst();
+        assertEquals(mentionedUser.getId(), mention.getMentionedUser().getId());
+        assertEquals(0, mention.getStartPosition());
+        assertEquals(4, mention.getEndPosition());
+        assertFalse(mention.isSeen());
+        assertNotEquals(0, mention.getId());
+
+        List<ChatLink> links = saved.getLinks().stream()
+                .sorted(Comparator.comparingInt(ChatLink::getStartPosition))
+                .toList();
+        assertEquals(List.of("https://example.com", "docs"), links.stream().map(ChatLink::getText).toList());
+        assertEquals(List.of("https://example.com", "https://example.com/docs"),
+                links.stream().map(ChatLink::getLink).toList());
+        assertEquals(List.of(10, 34), links.stream().map(ChatLink::getStartPosition).toList());
+        assertEquals(List.of(28, 37), links.stream().map(ChatLink::getEndPosition).toList());
+        assertTrue(links.stream().allMatch(link -> link.getId() != 0));
+    }
+
+    @Test
+    void testSaveWithChildren_GivenMentionsAndLinks_ThenReturnedMessageKeepsChildren() {
+        ChatMessage message = new ChatMessage("@Jane https://example.com", Instant.now(), channel, sender);
+        message.getMentions().add(new ChatMention(message, mentionedUser, 0, 4));
+        message.getLinks().add(new ChatLink(message, "https://example.com", "https://example.com", 6, 24));
+
+        ChatMessage result = messageRepository.saveWithChildren(message);
+
+        assertNotEquals(0, result.getId());
+        assertEquals(1, result.getMentions().size());
+        assertEquals(1, result.getLinks().size());
+    }
+
+    @Test
+    void testSaveWithChildren_GivenNoMentionsOrLinks_ThenSavesMessageOnly() {
+        ChatMessage message = new ChatMessage("Hello", Instant.now(), channel, sender);
+
+        long messageId = messageRepository.saveWithChildren(message).getId();
+        entityManager.clear();
+
+        ChatMessage saved = entityManager.find(ChatMessage.class, messageId);
+        assertEquals("Hello", saved.getContent());
+        assertTrue(saved.getMentions().isEmpty());
+        assertTrue(saved.getLinks().isEmpty());
+    }
+}
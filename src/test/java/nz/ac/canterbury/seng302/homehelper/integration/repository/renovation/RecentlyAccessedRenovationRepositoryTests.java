@@ -2,14 +2,19 @@ package nz.ac.canterbury.seng302.homehelper.integration.repository.renovation;
 
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.RecentlyAccessedRenovation;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.RenovationMember;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RecentRenovationCard;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationMemberRole;
 import nz.ac.canterbury.seng302.homehelper.repository.renovation.RecentlyAccessedRenovationRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.renovation.RenovationMemberRepository;
 import nz.ac.canterbury.seng302.homehelper.repository.renovation.RenovationRepository;
 import nz.ac.canterbury.seng302.homehelper.repository.user.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,6 +31,9 @@ class RecentlyAccessedRenovationRepositoryTests {
     @Autowired
     private RenovationRepository renovationRepo;
 
+    @Autowired
+    private RenovationMemberRepository renovationMemberRepo;
+
     @Autowired
     private UserRepository userRepo;
 
@@ -38,15 +46,14 @@ class RecentlyAccessedRenovationRepositoryTests {
     }
 
     @Test
-    void testFindTop3ByUserOrderByTimeAccessedDesc_GivenNoRenovations_ReturnsEmptyList() {
-        List<RecentlyAccessedRenovation> results =
-                recentlyAccessedRepo.findTop3ByUserOrderByTimeAccessedDesc(user);
+    void testFindRecentCards_GivenNoRenovations_ReturnsEmptyList() {
+        List<RecentRenovationCard> results = recentlyAccessedRepo.findRecentCards(user.getId(), Limit.of(3));
 
         assertTrue(results.isEmpty());
     }
 
     @Test
-    void testFindTop3ByUserOrderByTimeAccessedDesc_GivenLessThan3_ReturnsAll() {
+    void testFindRecentCards_GivenLessThan3_ReturnsAll() {
         Renovation reno1 = new Renovation("Kitchen", "Desc1");
         reno1.setOwner(user);
         reno1 = renovationRepo.save(reno1);
@@ -64,15 +71,15 @@ class RecentlyAccessedRenovationRepositoryTests {
         recentlyAccessedRepo.save(r1);
         recentlyAccessedRepo.save(r2);
 
-        List<RecentlyAccessedRenovation> results =
-                recentlyAccessedRepo.findTop3ByUserOrderByTimeAccessedDesc(user);
+        List<RecentRenovationCard> results = recentlyAccessedRepo.findRecentCards(user.getId(), Limit.of(3));
 
         assertEquals(2, results.size());
-        assertEquals("Bathroom", results.get(0).getRenovation().getName()); // most recent first
+        assertEquals("Bathroom", results.get(0).name()); // most recent first
+        assertEquals("Kitchen", results.get(1).name());
     }
 
     @Test
-    void testFindTop3ByUserOrderByTimeAccessedDesc_GivenMoreThan3_ReturnsLatest3() {
+    void testFindRecentCards_GivenMoreThan3_ReturnsLatest3() {
         Renovation reno1 = new Renovation("R1", "Desc1");
         reno1.setOwner(user);
         Renovation reno2 = new Renovation("R2", "Desc2");
@@ -101,12 +108,46 @@ class RecentlyAccessedRenovationRepositoryTests {
 
         recentlyAccessedRepo.saveAll(List.of(r1, r2, r3, r4));
 
-        List<RecentlyAccessedRenovation> results =
-                recentlyAccessedRepo.findTop3ByUserOrderByTimeAccessedDesc(user);
+        List<RecentRenovationCard> results = recentlyAccessedRepo.findRecentCards(user.getId(), Limit.of(3));
 
         assertEquals(3, results.size());
-        assertEquals("R4", results.get(0).getRenovation().getName());
-        assertEquals("R3", results.get(1).getRenovation().getName());
-        assertEquals("R2", results.get(2).getRenovation().getName());
+        assertEquals("R4", results.get(0).name());
+        assertEquals("R3", results.get(1).name());
+        assertEquals("R2", results.get(2).name());
+    }
+
+    @Test
+    void testFindRecentCards_GivenRenovationsWithMembers_ThenCountsEachRenovationsMembers() {
+        User owner = userRepo.save(new User("John", "Smith", "john@gmail.com", "password", "password"));
+        User member = userRepo.save(new User("Sam", "Lee", "sam@gmail.com", "password", "password"));
+
+        Renovation shared = new Renovation("Shared", "Desc1");
+        shared.setOwner(owner);
+        shared = renovationRepo.save(shared);
+        Renovation solo = new Renovation("Solo", "Desc2");
+        solo.setOwner(owner);
+        solo = renovationRepo.save(solo);
+
+        renovationMemberRepo.save(new RenovationMember(shared, owner, RenovationMemberRole.OWNER));
+        renovationMemberRepo.save(new RenovationMember(shared, member, RenovationMemberRole.MEMBER));
+        renovationMemberRepo.save(new RenovationMember(shared, user, RenovationMemberRole.MEMBER));
+        renovationMemberRepo.save(new RenovationMember(solo, owner, RenovationMemberRole.OWNER));
+
+        RecentlyAccessedRenovation sharedAccess = new RecentlyAccessedRenovation(user, shared);
+        sharedAccess.setTimeAccessed(LocalDateTime.now());
+        RecentlyAccessedRenovation soloAccess = new RecentlyAccessedRenovation(user, solo);
+        soloAccess.setTimeAccessed(LocalDateTime.now().minusMinutes(10));
+        recentlyAccessedRepo.saveAll(List.of(sharedAccess, soloAccess));
+
+        List<RecentRenovationCard> results = recentlyAccessedRepo.findRecentCards(user.getId(), Limit.of(3));
+
+        assertEquals(2, results.size());
+        assertEquals(shared.getId(), results.get(0).renovationId());
+        assertEquals(3, results.get(0).memberCount());
+        assertEquals((long) owner.getId(), results.get(0).ownerId());
+        assertEquals("John", results.get(0).ownerFirstName());
+        assertEquals("Smith", results.get(0).ownerLastName());
+        assertEquals(solo.getId(), results.get(1).renovationId());
+        assertEquals(1, results.get(1).memberCount());
     }
 }
@@ -0,0 +1,111 @@
+package nz.ac.canterbury.seng302.homehelper.integration.repository.renovation;
+
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard;
+import nz.ac.canterbury.seng302.homehelper.repository.renovation.RenovationRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class RenovationCardRepositoryTests {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 5, 1, 12, 0);
+
+    @Autowired
+    private RenovationRepository renovationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+
+    @BeforeEach
+    void setup() {
+        owner = userRepository.save(new User("Jane", "Doe", "jane@gmail.com", "password", "password"));
+    }
+
+    @Test
+    void testFindPublicCardsBefore_GivenTiedTimestamps_ThenPagesThroughEachRenovationOnce() {
+        long older = createRenovation(true, CREATED.minusDays(1));
+        long tiedFirst = createRenovation(true, CREATED);
+        long tiedSecond = createRenovation(true, CREATED);
+        long tiedThird = createRenovation(true, CREATED);
+        createRenovation(false, CREATED);
+
+        List<Long> seen = pageThroughPublicCards(2);
+
+        assertEquals(List.of(tiedThird, tiedSecond, tiedFirst, older), seen);
+    }
+
+    @Test
+    void testFindPublicCardsBefore_GivenRenovationsWithoutTimestamp_ThenTheyComeLast() {
+        long undatedFirst = createRenovation(true, null);
+        long dated = createRenovation(true, CREATED);
+        long undatedSecond = createRenovation(true, null);
+        long undatedThird = createRenovation(true, null);
+
+        List<Long> seen = pageThroughPublicCards(2);
+
+        assertEquals(List.of(dated, undatedThird, undatedSecond, undatedFirst), seen);
+    }
+
+    @Test
+    void testFindPublicCardsBefore_GivenCursorAtLastDatedRenovation_ThenReturnsUndatedRenovations() {
+        long dated = createRenovation(true, CREATED);
+        long undated = createRenovation(true, null);
+
+        List<RenovationCard> cards = renovationRepository.findPublicCardsBefore(CREATED, dated, Limit.of(10));
+
+        assertEquals(List.of(undated), cards.stream().map(RenovationCard::id).toList());
+    }
+
+    /**
+     * Follows the cursors of the public browse pages the same way RenovationService does, collecting every card ID.
+     */
+    private List<Long> pageThroughPublicCards(int pageSize) {
+        List<Long> seen = new ArrayList<>();
+        List<RenovationCard> page = renovationRepository.findPublicCards(Limit.of(pageSize));
+        while (!page.isEmpty()) {
+            page.forEach(card -> seen.add(card.id()));
+            RenovationCard last = page.getLast();
+            page = last.createdTimestamp() == null
+                    ? renovationRepository.findUndatedPublicCardsBefore(last.id(), Limit.of(pageSize))
+                    : renovationRepository.findPublicCardsBefore(last.createdTimestamp(), last.id(),
+                    Limit.of(pageSize));
+        }
+        return seen;
+    }
+
+    /**
+     * Saves a renovation, then sets its created timestamp directly, since the entity's own is set when it is saved.
+     */
+    private long createRenovation(boolean isPublic, LocalDateTime createdTimestamp) {
+        Renovation renovation = new Renovation("Renovation", "Description");
+        renovation.setOwner(owner);
+        renovation.setPublic(isPublic);
+        long id = renovationRepository.save(renovation).getId();
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Renovation r SET r.createdTimestamp = :createdTimestamp WHERE r.id = :id")
+                .setParameter("createdTimestamp", createdTimestamp)
+                .setParameter("id", id)
+                .executeUpdate();
+        entityManager.clear();
+        return id;
+    }
+}
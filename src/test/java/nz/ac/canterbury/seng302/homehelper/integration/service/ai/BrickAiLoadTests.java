@@ -0,0 +1,273 @@
+package nz.ac.canterbury.seng302.homehelper.integration.service.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.fake.FakeOpenAiServer;
+import nz.ac.canterbury.seng302.homehelper.model.chat.IncomingMention;
+import nz.ac.canterbury.seng302.homehelper.model.chat.IncomingMessage;
+import nz.ac.canterbury.seng302.homehelper.repository.user.UserRepository;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatAiService;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.BrickAiService;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test for the BrickAI path. Concurrent clients send STOMP frames mentioning BrickAI to {@code /app/chat}, which
+ * are handled by ChatController.sendMessage as if they came from a browser, and each client waits for BrickAI's reply
+ * to be published before sending its next message. Requests to the AI go to a {@link FakeOpenAiServer} with a
+ * log-normal latency and injected failures, so nothing is sent to Gemini.
+ * Reports end-to-end latency percentiles, how saturated the AI executor got and how many SQL statements each message
+ * took. Only runs when the brickai.loadtest system property is true, e.g.
+ * {@code ./gradlew integration -Dbrickai.loadtest=true -Dbrickai.loadtest.clients=50}
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "brickai.loadtest", matches = "true")
+public class BrickAiLoadTests {
+
+    private static final int CLIENTS = Integer.getInteger("brickai.loadtest.clients", 20);
+    private static final int MESSAGES_PER_CLIENT = Integer.getInteger("brickai.loadtest.messages", 5);
+    private static final long MEDIAN_LATENCY_MILLIS = Long.getLong("brickai.loadtest.latency-millis", 800);
+    private static final double FAILURE_RATE = 0.02;
+    private static final long REPLY_TIMEOUT_SECONDS = 120;
+    private static final long SAMPLE_MILLIS = 20;
+    private static final String AI_EXECUTOR_TAG = "brickai";
+
+    private static FakeOpenAiServer server;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RenovationService renovationService;
+
+    @Autowired
+    private BrickAiService brickAiService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("clientInboundChannel")
+    private AbstractSubscribableChannel clientInboundChannel;
+
+    @Autowired
+    @Qualifier("brokerChannel")
+    private AbstractSubscribableChannel brokerChannel;
+
+    private final Map<String, CompletableFuture<JsonNode>> pendingReplies = new ConcurrentHashMap<>();
+    private final List<Client> clients = new ArrayList<>();
+    private User aiUser;
+
+    private record Client(User user, Renovation renovation, ChatChannel channel) {
+
+        String destination() {
+            return "/topic/renovation/" + renovation.getId() + "/channel/" + channel.getId();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        server = FakeOpenAiServer.start();
+        registry.add("spring.ai.openai.base-url", server::getBaseUrl);
+        // a separate database, so the load test's users don't clash with other tests sharing the in-memory database
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:brickai-load-test");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        // failures go straight to the model router, as retrying with a backoff would dominate the latencies
+        registry.add("spring.ai.retry.max-attempts", () -> "1");
+    }
+
+    @AfterAll
+    static void teardown() {
+        server.close();
+    }
+
+    @BeforeEach
+    void setup() {
+        brickAiService.createAiUser();
+        aiUser = brickAiService.getAiUser();
+        for (int i = 0; i < CLIENTS; i++) {
+            User user = userRepository.save(new User("Load", "Tester" + i, "load" + i + "@test.com", "Abc123!!", "Abc123!!"));
+            Renovation renovation = new Renovation("Load Test Reno " + i, "Test Description");
+            renovationService.createRenovation(renovation, Collections.emptyList(), user);
+            ChatChannel channel = brickAiService.getAiChannel(renovation, user).orElseThrow();
+            clients.add(new Client(user, renovation, channel));
+        }
+
+        server.setLatency(FakeOpenAiServer.logNormalLatency(MEDIAN_LATENCY_MILLIS, 0.5, 302));
+        server.setFailures(FAILURE_RATE, 503);
+        server.setResponder(request -> FakeOpenAiServer.Reply.message("You should paint the deck before winter."));
+
+        // the broker channel carries everything the server publishes to subscribers, including BrickAI's replies
+        brokerChannel.subscribe(replyListener());
+    }
+
+    private MessageHandler replyListener() {
+        return message -> {
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            CompletableFuture<JsonNode> pending = destination == null ? null : pendingReplies.get(destination);
+            if (pending == null || !(message.getPayload() instanceof byte[] payload)) {
+                return;
+            }
+            try {
+                JsonNode outgoing = objectMapper.readTree(payload);
+                if (outgoing.path("ai").asBoolean() && outgoing.has("fragments")) {
+                    pending.complete(outgoing);
+                }
+            } catch (IOException e) {
+                pending.completeExceptionally(e);
+            }
+        };
+    }
+
+    @Test
+    void testSendMessage_GivenConcurrentClientsMentioningBrickAi_ThenEveryMessageAnswered() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        Map<String, AtomicInteger> replies = new ConcurrentHashMap<>();
+        AtomicInteger maxActive = new AtomicInteger();
+        AtomicInteger maxQueued = new AtomicInteger();
+        double rejectedBefore = executorRejections();
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            maxActive.accumulateAndGet((int) executorGauge("async.executor.active"), Math::max);
+            maxQueued.accumulateAndGet((int) executorGauge("async.executor.queued"), Math::max);
+        }, 0, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients.size(); i++) {
+                Client client = clients.get(i);
+                int clientNumber = i;
+                clientThreads.submit(() -> {
+                    for (int m = 0; m < MESSAGES_PER_CLIENT; m++) {
+                        CompletableFuture<JsonNode> reply = new CompletableFuture<>();
+                        pendingReplies.put(client.destination(), reply);
+                        long sentAt = System.nanoTime();
+                        send(client, "@BrickAI question " + m + " from client " + clientNumber + ", what should I do next?");
+                        JsonNode outgoing = reply.get(REPLY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                        latencies.add(System.nanoTime() - sentAt);
+                        replies.computeIfAbsent(replyKind(outgoing), kind -> new AtomicInteger()).incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        sampler.shutdownNow();
+
+        int messages = CLIENTS * MESSAGES_PER_CLIENT;
+        List<Long> sorted = latencies.stream().sorted().toList();
+        Map<String, Long> requestsByModel = server.getRequests().stream()
+                .collect(Collectors.groupingBy(request -> String.valueOf(request.model()), Collectors.counting()));
+        System.out.printf("BrickAI load test: %d clients x %d messages in %.1f s (%.1f messages/s)%n",
+                CLIENTS, MESSAGES_PER_CLIENT, elapsed / 1e9, messages / (elapsed / 1e9));
+        System.out.printf("  End-to-end latency: p50 %d ms, p90 %d ms, p95 %d ms, p99 %d ms, max %d ms%n",
+                percentileMillis(sorted, 50), percentileMillis(sorted, 90), percentileMillis(sorted, 95),
+                percentileMillis(sorted, 99), sorted.getLast() / 1_000_000);
+        System.out.printf("  Replies: %s%n", replies);
+        System.out.printf("  AI requests: %d by model %s, %d failures injected%n",
+                server.getRequests().size(), requestsByModel, server.getFailureCount());
+        System.out.printf("  AI executor: max %d active, max %d queued, %d rejected%n",
+                maxActive.get(), maxQueued.get(), (long) (executorRejections() - rejectedBefore));
+        System.out.printf("  Database: %d statements (%.1f per message), %d entity loads, %d transactions%n",
+                statistics.getPrepareStatementCount(), (double) statistics.getPrepareStatementCount() / messages,
+                statistics.getEntityLoadCount(), statistics.getTransactionCount());
+
+        assertEquals(messages, latencies.size());
+        assertTrue(replies.getOrDefault("answered", new AtomicInteger()).get() > 0, "No messages were answered by the AI");
+    }
+
+    /**
+     * Sends a chat message from a client as a STOMP SEND frame, the same way a browser's frame reaches the
+     * controller once its WebSocket session is authenticated.
+     */
+    private void send(Client client, String content) {
+        IncomingMessage incoming = new IncomingMessage(content, client.channel().getId(), client.renovation().getId(),
+                List.of(new IncomingMention(aiUser.getId(), 0, "@BrickAI".length())));
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.SEND);
+        headers.setDestination("/app/chat");
+        headers.setSessionId("load-test-" + client.user().getId());
+        headers.setSessionAttributes(new HashMap<>(Map.of("userId", client.user().getId())));
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        try {
+            Message<byte[]> frame = MessageBuilder.createMessage(objectMapper.writeValueAsBytes(incoming),
+                    headers.getMessageHeaders());
+            clientInboundChannel.send(frame);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialise the message", e);
+        }
+    }
+
+    private String replyKind(JsonNode outgoing) {
+        String fragments = outgoing.path("fragments").toString();
+        if (fragments.contains(ChatAiService.BUSY_MESSAGE)) {
+            return "busy";
+        }
+        if (fragments.contains(ChatAiService.RESPONSE_FAILURE_MESSAGE)) {
+            return "failed";
+        }
+        return "answered";
+    }
+
+    private double executorGauge(String name) {
+        return meterRegistry.get(name).tag("executor", AI_EXECUTOR_TAG).gauge().value();
+    }
+
+    private double executorRejections() {
+        return meterRegistry.get("async.executor.rejected").tag("executor", AI_EXECUTOR_TAG).counter().count();
+    }
+
+    private static long percentileMillis(List<Long> sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000;
+    }
+}
@@ -0,0 +1,83 @@
+package nz.ac.canterbury.seng302.homehelper.unit.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.config.AsyncConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncConfigTests {
+
+    private final AsyncConfig asyncConfig = new AsyncConfig();
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor aiExecutor;
+    private ThreadPoolTaskExecutor mailExecutor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        aiExecutor = asyncConfig.aiTaskExecutor(1, 1, meterRegistry);
+        mailExecutor = asyncConfig.mailTaskExecutor(1, 1, meterRegistry);
+        aiExecutor.initialize();
+        mailExecutor.initialize();
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void teardown() {
+        release.countDown();
+        aiExecutor.shutdown();
+        mailExecutor.shutdown();
+    }
+
+    @Test
+    void testAiTaskExecutor_WhenFull_ThenRejectsAndCountsRejection() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        aiExecutor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        aiExecutor.execute(() -> await(release));
+
+        assertThrows(TaskRejectedException.class, () -> aiExecutor.execute(() -> { }));
+        assertEquals(1, meterRegistry.get("async.executor.active").tag("executor", "brickai").gauge().value());
+        assertEquals(1, meterRegistry.get("async.executor.queued").tag("executor", "brickai").gauge().value());
+        assertEquals(1, meterRegistry.get("async.executor.rejected").tag("executor", "brickai").counter().count());
+    }
+
+    @Test
+    void testMailTaskExecutor_WhenAiExecutorFull_ThenStillRunsMail() throws Exception {
+        aiExecutor.execute(() -> await(release));
+        aiExecutor.execute(() -> await(release));
+
+        Future<String> mail = mailExecutor.submit(() -> Thread.currentThread().getName());
+
+        String threadName = mail.get(1, TimeUnit.SECONDS);
+        assertTrue(threadName.startsWith("mail-"));
+    }
+
+    @Test
+    void testAiTaskExecutor_WhenTaskRuns_ThenRunsOnVirtualThread() throws Exception {
+        Future<Boolean> isVirtual = aiExecutor.submit(() -> Thread.currentThread().isVirtual());
+
+        assertTrue(isVirtual.get(1, TimeUnit.SECONDS));
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package nz.ac.canterbury.seng302.homehelper.unit.config.chat;
+
+import nz.ac.canterbury.seng302.homehelper.config.chat.AiPromptConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AiPromptConfigTests {
+
+    private final AiPromptConfig aiPromptConfig = new AiPromptConfig();
+
+    @Test
+    void testGetSystemPromptInitial_GivenRenovationContext_ThenContextAndDateFilledIn() {
+        String prompt = aiPromptConfig.getSystemPromptInitial("RenovationAiView[name=Deck {new}]").getText();
+
+        assertTrue(prompt.contains("Current renovation:\nRenovationAiView[name=Deck {new}]"));
+        assertTrue(prompt.contains("\"type\": \"REQUIRE_CHAT_CONTEXT\""));
+        assertFalse(prompt.contains("{date}"));
+        assertFalse(prompt.contains("\u0000"));
+    }
+
+    @Test
+    void testGetSystemPromptInitialWithHistoryTool_GivenRenovationContext_ThenToldToCallTool() {
+        String prompt = aiPromptConfig.getSystemPromptInitialWithHistoryTool("RenovationAiView[name=Deck]").getText();
+
+        assertTrue(prompt.contains("Current renovation:\nRenovationAiView[name=Deck]"));
+        assertTrue(prompt.contains("getChatHistory"));
+        assertFalse(prompt.contains("REQUIRE_CHAT_CONTEXT"));
+    }
+}
@@ -34,6 +34,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.ui.Model;
@@ -71,7 +72,7 @@ public class ChatControllerTests {
     private ChatMentionService chatMentionService;
 
     @Mock
-    private ChatAiService chatAiService;
+    private ChatAiRequestQueue chatAiRequestQueue;
 
     @Mock
     private RenovationService renovationService;
@@ -83,6 +84,12 @@ public class ChatControllerTests {
     @Mock
     private AppConfig appConfig;
 
+    @Mock
+    private ChatHistoryBufferService chatHistoryBufferService;
+
+    @Mock
+    private ChatModerationService chatModerationService;
+
     @InjectMocks
     private NewIndividualRenovationController getChatController;
 
@@ -224,9 +231,10 @@ public class ChatControllerTests {
         when(savedMessage.getSender()).thenReturn(user);
         when(savedMessage.getTimestamp()).thenReturn(Instant.parse("2023-01-01T12:00:00Z"));
         when(savedMessage.getMentions()).thenReturn(List.of(new ChatMention(savedMessage, mentionedUser, 3, 12)));
+        when(savedMessage.getId()).thenReturn(7L);
         when(chatMentionService.createOutgoingMention(eq(renovationId), eq(channelId), eq(user), eq("Hello @Sam Smith"), any(Instant.class))).thenReturn(mockOutgoingMention);
         
-        when(chatAiService.handleAiResponse(savedMessage)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(chatAiRequestQueue.submit(savedMessage)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 
         IncomingMessage incomingMessage = new IncomingMessage("Hello @Sam Smith", channelId, renovationId, List.of(incomingMention));
         chatController.sendMessage(incomingMessage, headerAccessor);
@@ -241,6 +249,7 @@ public class ChatControllerTests {
                 mentionCaptor.capture()
         );
         verify(chatMessageService).saveMessage(2L, 1L, "Hello @Sam Smith", List.of(incomingMention));
+        verify(chatMentionService).recordMention(7L, List.of(2L), mockOutgoingMention);
 
         OutgoingMention outgoingMention = mentionCaptor.getValue();
         OutgoingMessage outgoingMessage = messageCaptor.getValue();
@@ -297,7 +306,7 @@ public class ChatControllerTests {
                 new ChatMention(savedMessage, mentionedUser2, 14, 23)));
         when(chatMentionService.createOutgoingMention(eq(renovationId), eq(channelId), eq(user), eq("Hello @Sam Smith @Bob Smith"), any(Instant.class))).thenReturn(mockOutgoingMention);
 
-        when(chatAiService.handleAiResponse(savedMessage)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(chatAiRequestQueue.submit(savedMessage)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 
         IncomingMessage incomingMessage = new IncomingMessage("Hello @Sam Smith @Bob Smith", channelId, renovationId, List.of(incomingMention1, incomingMention2));
         chatController.sendMessage(incomingMessage, headerAccessor);
@@ -337,6 +346,28 @@ public class ChatControllerTests {
         assertEquals(user.getId(), outgoingMention2.sender().getId());
     }
 
+    @Test
+    void sendMessage_AiQueueFull_BusyResponseSent() {
+        SimpMessageHeaderAccessor headerAccessor = mock();
+        User user = mock();
+        ChatMessage savedMessage = mock();
+        long channelId = 2L;
+        when(headerAccessor.getSessionAttributes()).thenReturn(Map.of("userId", 1L));
+        when(user.getId()).thenReturn(1L);
+        when(userService.findUserById(1L)).thenReturn(user);
+        when(chatMessageService.saveMessage(channelId, 1L, "Hello @BrickAI", List.of())).thenReturn(savedMessage);
+        when(chatFragmentService.extractFragmentsFromMessage(savedMessage)).thenReturn(List.of(new ChatMessageFragmentText("Hello @BrickAI")));
+        when(savedMessage.getSender()).thenReturn(user);
+        when(savedMessage.getMentions()).thenReturn(List.of());
+        OutgoingMessage busyMessage = new OutgoingMessage(5L, List.of(new ChatMessageFragmentText(ChatAiService.BUSY_MESSAGE)), Instant.now(), null, true);
+        when(chatAiRequestQueue.submit(savedMessage)).thenReturn(CompletableFuture.completedFuture(Optional.of(busyMessage)));
+
+        chatController.sendMessage(new IncomingMessage("Hello @BrickAI", channelId, 3L, List.of()), headerAccessor);
+
+        verify(simpMessagingTemplate).convertAndSend("/topic/renovation/3/channel/2", busyMessage);
+        verify(chatHistoryBufferService).append(channelId, busyMessage);
+    }
+
     @Test
     void sendMessage_GivenValidUserAndSessionAttributes_ThenSavesAndSendsOutgoingMessage() {
         SimpMessageHeaderAccessor headerAccessor = mock();
@@ -351,9 +382,11 @@ public class ChatControllerTests {
         when(chatMessageService.saveMessage(2L, 1L, "Hello World", List.of())).thenReturn(savedMessage);
         when(chatFragmentService.extractFragmentsFromMessage(savedMessage))
                 .thenReturn(List.of(new ChatMessageFragmentText("Hello World")));
-        when(chatAiService.handleAiResponse(savedMessage)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(chatAiRequestQueue.submit(savedMessage)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
         when(savedMessage.getSender()).thenReturn(user);
         when(savedMessage.getTimestamp()).thenReturn(Instant.parse("2023-01-01T12:00:00Z"));
+        when(savedMessage.getId()).thenReturn(7L);
+        when(savedMessage.getContent()).thenReturn("Hello World");
 
         IncomingMessage incomingMessage = new IncomingMessage("Hello World", 2L, 1L, new ArrayList<>());
         chatController.sendMessage(incomingMessage, headerAccessor);
@@ -364,6 +397,7 @@ public class ChatControllerTests {
                 captor.capture()
         );
         verify(chatMessageService).saveMessage(2L, 1L, "Hello World", List.of());
+        verify(chatModerationService).moderate(1L, 2L, 7L, "Hello World");
 
         OutgoingMessage outgoingMessage = captor.getValue();
         List<ChatMessageFragment> fragments = outgoingMessage.fragments();
@@ -378,6 +412,31 @@ public class ChatControllerTests {
 
 
 
+    @Test
+    void sendMessage_GivenModerationBusy_ThenMessageStillSentAndAnswered() {
+        SimpMessageHeaderAccessor headerAccessor = mock();
+        User user = mock();
+        ChatMessage savedMessage = mock();
+        when(headerAccessor.getSessionAttributes()).thenReturn(Map.of("userId", 1L));
+        when(user.getId()).thenReturn(1L);
+        when(userService.findUserById(1L)).thenReturn(user);
+        when(chatMessageService.saveMessage(2L, 1L, "Hello World", List.of())).thenReturn(savedMessage);
+        when(chatFragmentService.extractFragmentsFromMessage(savedMessage))
+                .thenReturn(List.of(new ChatMessageFragmentText("Hello World")));
+        when(chatAiRequestQueue.submit(savedMessage)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(savedMessage.getSender()).thenReturn(user);
+        when(savedMessage.getId()).thenReturn(7L);
+        when(savedMessage.getContent()).thenReturn("Hello World");
+        doThrow(new TaskRejectedException("The moderation executor is full"))
+                .when(chatModerationService).moderate(1L, 2L, 7L, "Hello World");
+
+        IncomingMessage incomingMessage = new IncomingMessage("Hello World", 2L, 1L, new ArrayList<>());
+        chatController.sendMessage(incomingMessage, headerAccessor);
+
+        verify(simpMessagingTemplate).convertAndSend(eq("/topic/renovation/1/channel/2"), any(OutgoingMessage.class));
+        verify(chatAiRequestQueue).submit(savedMessage);
+    }
+
     @Test
     void sendMessage_GivenNullSessionAttributes_ThenDoesNotSendMessage() {
         SimpMessageHeaderAccessor headerAccessor = mock();
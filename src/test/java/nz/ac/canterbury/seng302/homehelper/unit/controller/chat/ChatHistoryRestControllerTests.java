@@ -9,6 +9,7 @@ import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragme
 import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragmentText;
 import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragmentType;
 import nz.ac.canterbury.seng302.homehelper.service.chat.ChatFragmentService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatHistoryBufferService;
 import nz.ac.canterbury.seng302.homehelper.service.chat.ChatMentionService;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.BrickAiService;
 import nz.ac.canterbury.seng302.homehelper.service.user.UserService;
@@ -20,6 +21,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
@@ -38,6 +40,7 @@ public class ChatHistoryRestControllerTests {
     private @Mock BrickAiService brickAiService;
     private @Mock UserService userService;
     private @Mock User user;
+    private @Spy ChatHistoryBufferService chatHistoryBufferService = new ChatHistoryBufferService(25, 30);
 
     private @InjectMocks ChatHistoryRestController chatHistoryRestController;
 
@@ -110,4 +113,22 @@ public class ChatHistoryRestControllerTests {
             assertTrue(chatHistory.isEmpty());
         }
     }
+
+    @Test
+    void testGetChatHistory_GivenChannelOpenedTwice_ThenSecondRequestServedFromBuffer() throws NoResourceFoundException {
+        long channelId = 10L;
+        HttpServletRequest request = mock();
+        User user = mock();
+        when(chatChannelService.isUserMemberOfChannel(user, channelId)).thenReturn(true);
+        when(chatMessageService.getLatestMessage(channelId)).thenReturn(List.of());
+
+        try (MockedStatic<UserUtil> mockedStatic = mockStatic(UserUtil.class)) {
+            mockedStatic.when(() -> UserUtil.getUserFromHttpServletRequest(userService, request))
+                    .thenReturn(user);
+
+            chatHistoryRestController.getChatHistory(channelId, request);
+            chatHistoryRestController.getChatHistory(channelId, request);
+            verify(chatMessageService, times(1)).getLatestMessage(channelId);
+        }
+    }
 }
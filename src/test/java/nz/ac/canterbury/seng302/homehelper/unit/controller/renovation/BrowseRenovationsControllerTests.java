@@ -2,8 +2,8 @@ package nz.ac.canterbury.seng302.homehelper.unit.controller.renovation;
 
 import jakarta.servlet.http.HttpServletRequest;
 import nz.ac.canterbury.seng302.homehelper.controller.renovation.BrowseRenovationsController;
-import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.model.Pagination;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard;
 import nz.ac.canterbury.seng302.homehelper.service.CalendarService;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationMemberService;
 import nz.ac.canterbury.seng302.homehelper.service.PaginationService;
@@ -47,10 +47,10 @@ public class BrowseRenovationsControllerTests {
     private HttpServletRequest request;
 
     @Mock
-    private Pagination<Renovation> pagination;
+    private Pagination<RenovationCard> pagination;
 
     @Mock
-    private Function<Pageable, Page<Renovation>> pageSupplier;
+    private Function<Pageable, Page<RenovationCard>> pageSupplier;
 
     @SuppressWarnings("unchecked")
     @Test
@@ -58,11 +58,11 @@ public class BrowseRenovationsControllerTests {
         when(paginationService.paginate(
                 eq(1),
                 eq(null),
-                (Function<Pageable, Page<Renovation>>) any(Function.class),
+                (Function<Pageable, Page<RenovationCard>>) any(Function.class),
                 eq(request))
         ).thenReturn(pagination);
 
-        String result = controller.getBrowseRenovations(1, null, "", null, false, model, request);
+        String result = controller.getBrowseRenovations(1, null, "", null, false, "newest", model, request);
 
         assertEquals("pages/renovation/browseRenovationsPage", result);
         verify(model).addAttribute("activeLink", "Browse Renovations");
@@ -0,0 +1,82 @@
+package nz.ac.canterbury.seng302.homehelper.unit.controller.renovation;
+
+import jakarta.servlet.http.HttpServletRequest;
+import nz.ac.canterbury.seng302.homehelper.controller.renovation.BrowseRenovationsRestController;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCardPage;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCursor;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationService;
+import nz.ac.canterbury.seng302.homehelper.service.user.UserService;
+import nz.ac.canterbury.seng302.homehelper.utility.UserUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BrowseRenovationsRestControllerTests {
+
+    private @Mock RenovationService renovationService;
+    private @Mock UserService userService;
+    private @Mock HttpServletRequest request;
+    private @Mock User user;
+
+    private @InjectMocks BrowseRenovationsRestController controller;
+
+    private final RenovationCardPage emptyPage = new RenovationCardPage(List.of(), null);
+
+    @Test
+    void testGetRenovations_GivenCursorAndLimitOverMax_ThenNextPublicPageFetchedWithMaxLimit() {
+        RenovationCursor cursor = new RenovationCursor(LocalDateTime.of(2025, 5, 1, 12, 0), 7L);
+        when(renovationService.findPublicRenovationCards("deck", List.of("Outdoor"), cursor,
+                BrowseRenovationsRestController.MAX_LIMIT)).thenReturn(emptyPage);
+
+        RenovationCardPage page = controller.getRenovations("deck", List.of("Outdoor"), false, cursor.encode(), 1000,
+                request);
+
+        assertSame(emptyPage, page);
+    }
+
+    @Test
+    void testGetRenovations_GivenInvalidCursor_ThenBadRequest() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> controller.getRenovations("", null, false, "not a cursor", 10, request));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(renovationService);
+    }
+
+    @Test
+    void testGetRenovations_GivenOnlyMineAndLoggedIn_ThenUsersRenovationsFetched() {
+        when(renovationService.findUsersRenovationCards(user, "", null, null, 10)).thenReturn(emptyPage);
+        try (MockedStatic<UserUtil> mockedStatic = mockStatic(UserUtil.class)) {
+            mockedStatic.when(() -> UserUtil.getOptionalUserFromHttpServletRequest(userService, request))
+                    .thenReturn(Optional.of(user));
+
+            assertSame(emptyPage, controller.getRenovations("", null, true, null, 10, request));
+        }
+    }
+
+    @Test
+    void testGetRenovations_GivenOnlyMineAndNotLoggedIn_ThenUnauthorized() {
+        try (MockedStatic<UserUtil> mockedStatic = mockStatic(UserUtil.class)) {
+            mockedStatic.when(() -> UserUtil.getOptionalUserFromHttpServletRequest(userService, request))
+                    .thenReturn(Optional.empty());
+
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                    () -> controller.getRenovations("", null, true, null, 10, request));
+            assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+        }
+    }
+}
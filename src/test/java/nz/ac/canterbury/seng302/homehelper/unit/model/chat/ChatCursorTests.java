@@ -0,0 +1,36 @@
+package nz.ac.canterbury.seng302.homehelper.unit.model.chat;
+
+import nz.ac.canterbury.seng302.homehelper.exceptions.chat.InvalidChatCursorException;
+import nz.ac.canterbury.seng302.homehelper.model.chat.ChatCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChatCursorTests {
+
+    @Test
+    void testDecode_WhenEncodedCursor_ThenKeepsFullTimestampPrecision() {
+        ChatCursor cursor = new ChatCursor(Instant.parse("2025-08-04T23:07:12.099561800Z"), 42L);
+
+        ChatCursor decoded = ChatCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void testEncode_WhenCalled_ThenTokenIsUrlSafe() {
+        String token = new ChatCursor(Instant.now(), Long.MAX_VALUE).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not a cursor", "MTIz", "YS5iLmM"})
+    void testDecode_WhenInvalidToken_ThenThrowsInvalidChatCursorException(String token) {
+        assertThrows(InvalidChatCursorException.class, () -> ChatCursor.decode(token));
+    }
+}
@@ -0,0 +1,53 @@
+package nz.ac.canterbury.seng302.homehelper.unit.model.chat.ai;
+
+import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponseStreamParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AiResponseStreamParserTests {
+
+    private AiResponseStreamParser parser;
+
+    @BeforeEach
+    void setup() {
+        parser = new AiResponseStreamParser();
+    }
+
+    @Test
+    void testAppend_GivenMessageInChunks_ThenReturnsContentSoFar() {
+        assertTrue(parser.append("{\"type\": \"MES").isEmpty());
+        assertTrue(parser.append("SAGE\", \"conte").isEmpty());
+        assertEquals(Optional.of("Hel"), parser.append("nt\": \"Hel"));
+        assertEquals(Optional.of("Hello there"), parser.append("lo there\"}"));
+        assertEquals("{\"type\": \"MESSAGE\", \"content\": \"Hello there\"}", parser.getText());
+    }
+
+    @Test
+    void testAppend_GivenOtherResponseType_ThenReturnsNothing() {
+        assertTrue(parser.append("{\"type\": \"TASK_CREATION\", \"content\": \"Paint\"").isEmpty());
+    }
+
+    @Test
+    void testAppend_GivenContentBeforeType_ThenReturnsContentOnceTypeKnown() {
+        assertTrue(parser.append("{\"content\": \"Hi\", ").isEmpty());
+        assertEquals(Optional.of("Hi"), parser.append("\"type\": \"MESSAGE\"}"));
+    }
+
+    @Test
+    void testAppend_GivenEscapeSplitAcrossChunks_ThenWaitsForWholeEscape() {
+        assertEquals(Optional.of("Line"), parser.append("{\"type\": \"MESSAGE\", \"content\": \"Line\\"));
+        assertEquals(Optional.of("Line\nTwo \"quoted\" "), parser.append("nTwo \\\"quoted\\\" \\u00"));
+        assertEquals(Optional.of("Line\nTwo \"quoted\" é"), parser.append("e9\"}"));
+    }
+
+    @Test
+    void testAppend_GivenChunkAfterContentClosed_ThenReturnsNothing() {
+        parser.append("{\"type\": \"MESSAGE\", \"content\": \"Done\"");
+        assertTrue(parser.append("}").isEmpty());
+    }
+}
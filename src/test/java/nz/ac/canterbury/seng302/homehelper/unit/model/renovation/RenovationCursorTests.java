@@ -0,0 +1,40 @@
+package nz.ac.canterbury.seng302.homehelper.unit.model.renovation;
+
+import nz.ac.canterbury.seng302.homehelper.exceptions.renovation.InvalidRenovationCursorException;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenovationCursorTests {
+
+    @Test
+    void testDecode_WhenEncodedCursor_ThenKeepsFullTimestampPrecision() {
+        RenovationCursor cursor = new RenovationCursor(LocalDateTime.parse("2025-08-04T23:07:12.099561800"), 42L);
+
+        RenovationCursor decoded = RenovationCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not a cursor", "MTIz", "YS5iLmM"})
+    void testDecode_WhenInvalidToken_ThenThrowsInvalidRenovationCursorException(String token) {
+        assertThrows(InvalidRenovationCursorException.class, () -> RenovationCursor.decode(token));
+    }
+
+    @Test
+    void testIsBefore_WhenRenovationCreatedEarlierOrAtSameTimeWithSmallerId_ThenTrue() {
+        LocalDateTime created = LocalDateTime.of(2025, 5, 1, 12, 0);
+        RenovationCursor cursor = new RenovationCursor(created, 10L);
+
+        assertTrue(cursor.isBefore(created.minusNanos(1000), 99L));
+        assertTrue(cursor.isBefore(created, 9L));
+        assertFalse(cursor.isBefore(created, 10L));
+        assertFalse(cursor.isBefore(created.plusSeconds(1), 1L));
+    }
+}
@@ -0,0 +1,150 @@
+package nz.ac.canterbury.seng302.homehelper.unit.repository.chat;
+
+import nz.ac.canterbury.seng302.homehelper.repository.chat.AppendOnlyChatMemoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests AppendOnlyChatMemoryRepository against an in-memory database, used through the same window chat memory
+ * that BrickAI uses.
+ */
+public class AppendOnlyChatMemoryRepositoryTests {
+
+    private static final String CONVERSATION_ID = "100";
+    private static final int WINDOW = 4;
+    private static final int TRIM_BATCH = 3;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private AppendOnlyChatMemoryRepository repository;
+    private ChatMemory chatMemory;
+
+    @BeforeEach
+    void setup() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("""
+                CREATE TABLE SPRING_AI_CHAT_MEMORY (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    conversation_id VARCHAR(36) NOT NULL,
+                    content TEXT NOT NULL,
+                    type VARCHAR(10) NOT NULL,
+                    timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+                )""");
+        repository = newRepository();
+        chatMemory = MessageWindowChatMemory.builder()
+                .chatMemoryRepository(repository)
+                .maxMessages(WINDOW)
+                .build();
+    }
+
+    @AfterEach
+    void teardown() {
+        database.shutdown();
+    }
+
+    private AppendOnlyChatMemoryRepository newRepository() {
+        return new AppendOnlyChatMemoryRepository(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(database)), WINDOW, TRIM_BATCH, 10);
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM SPRING_AI_CHAT_MEMORY WHERE conversation_id = ?", Integer.class, CONVERSATION_ID);
+    }
+
+    private void turn(int number) {
+        chatMemory.add(CONVERSATION_ID, new UserMessage("question " + number));
+        chatMemory.add(CONVERSATION_ID, new AssistantMessage("answer " + number));
+    }
+
+    private List<String> texts(List<Message> messages) {
+        return messages.stream().map(Message::getText).toList();
+    }
+
+    @Test
+    void testSaveAll_GivenNewTurn_ThenOnlyNewMessagesInserted() {
+        turn(1);
+        int rowsBefore = rowCount();
+
+        turn(2);
+
+        assertEquals(2, rowsBefore);
+        assertEquals(4, rowCount());
+        assertEquals(List.of("question 1", "answer 1", "question 2", "answer 2"),
+                texts(chatMemory.get(CONVERSATION_ID)));
+    }
+
+    @Test
+    void testSaveAll_GivenWindowExceeded_ThenDroppedRowsDeletedInBatches() {
+        turn(1);
+        turn(2);
+        turn(3);
+        // window of 4 plus 2 dropped rows, under the trim batch
+        assertEquals(6, rowCount());
+
+        turn(4);
+
+        // the third dropped row reached the trim batch, so the dropped rows were deleted together before the answer
+        assertEquals(WINDOW + 1, rowCount());
+        assertEquals(List.of("question 3", "answer 3", "question 4", "answer 4"),
+                texts(chatMemory.get(CONVERSATION_ID)));
+    }
+
+    @Test
+    void testFindByConversationId_GivenNotCached_ThenLoadsLatestWindowFromDatabase() {
+        turn(1);
+        turn(2);
+        turn(3);
+
+        List<Message> loaded = newRepository().findByConversationId(CONVERSATION_ID);
+
+        assertEquals(List.of("question 2", "answer 2", "question 3", "answer 3"), texts(loaded));
+    }
+
+    @Test
+    void testFindByConversationId_GivenCached_ThenDatabaseNotRead() {
+        turn(1);
+        jdbcTemplate.update("DELETE FROM SPRING_AI_CHAT_MEMORY");
+
+        assertEquals(List.of("question 1", "answer 1"), texts(repository.findByConversationId(CONVERSATION_ID)));
+    }
+
+    @Test
+    void testSaveAll_GivenMessagesNotExtendingStored_ThenConversationRewritten() {
+        turn(1);
+        turn(2);
+
+        repository.saveAll(CONVERSATION_ID, List.of(new UserMessage("something else")));
+
+        assertEquals(1, rowCount());
+        assertEquals(List.of("something else"), texts(newRepository().findByConversationId(CONVERSATION_ID)));
+    }
+
+    @Test
+    void testDeleteByConversationId_GivenConversation_ThenRowsAndCacheCleared() {
+        turn(1);
+
+        repository.deleteByConversationId(CONVERSATION_ID);
+
+        assertEquals(0, rowCount());
+        assertTrue(repository.findByConversationId(CONVERSATION_ID).isEmpty());
+        assertFalse(repository.findConversationIds().contains(CONVERSATION_ID));
+    }
+}
@@ -4,12 +4,14 @@ import jakarta.servlet.http.HttpServletRequest;
 import nz.ac.canterbury.seng302.homehelper.exceptions.PaginationException;
 import nz.ac.canterbury.seng302.homehelper.model.Pagination;
 import nz.ac.canterbury.seng302.homehelper.service.PaginationService;
+import nz.ac.canterbury.seng302.homehelper.service.PaginationTotalCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -17,11 +19,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class PaginationServiceTests {
@@ -29,9 +33,15 @@ public class PaginationServiceTests {
     @Mock
     private Function<Pageable, Page<String>> pageSupplier;
 
+    @Mock
+    private PaginationService.PageSupplier<String> countedPageSupplier;
+
     @Mock
     private HttpServletRequest request;
 
+    @Spy
+    private PaginationTotalCache paginationTotalCache = new PaginationTotalCache(10, 60);
+
     @InjectMocks
     private PaginationService paginationService;
 
@@ -161,4 +171,88 @@ public class PaginationServiceTests {
         Pagination<String> pagination = paginationService.paginate(page, gotoPage, pageSupplier, request);
         assertEquals(data, pagination.getItems());
     }
+
+    /* cached total tests */
+
+    @Test
+    void testPaginate_WhenTotalCachedAndSecondPageRequested_ThenOnlySecondPageLoaded() {
+        int itemsPerPage = 3;
+        Page<String> firstPage = new PageImpl<>(List.of("Item1", "Item2", "Item3"), PageRequest.of(0, itemsPerPage), 5);
+        Page<String> secondPage = new PageImpl<>(List.of("Item4", "Item5"), PageRequest.of(1, itemsPerPage), 5);
+        when(pageSupplier.apply(PageRequest.of(0, itemsPerPage))).thenReturn(firstPage);
+        when(pageSupplier.apply(PageRequest.of(1, itemsPerPage))).thenReturn(secondPage);
+        paginationService.paginate(1, null, pageSupplier, request);
+
+        Pagination<String> pagination = paginationService.paginate(2, null, pageSupplier, request);
+
+        assertEquals(2, pagination.getCurrentPage());
+        assertEquals(List.of("Item4", "Item5"), pagination.getItems());
+        verify(pageSupplier, times(1)).apply(PageRequest.of(0, itemsPerPage));
+        verify(pageSupplier, times(1)).apply(PageRequest.of(1, itemsPerPage));
+    }
+
+    @Test
+    void testPaginate_WhenTotalCachedAndPageOutOfBounds_ThenThrowExceptionWithoutLoadingPage() {
+        int itemsPerPage = 3;
+        Page<String> firstPage = new PageImpl<>(List.of("Item1", "Item2"), PageRequest.of(0, itemsPerPage), 2);
+        when(pageSupplier.apply(PageRequest.of(0, itemsPerPage))).thenReturn(firstPage);
+        paginationService.paginate(1, null, pageSupplier, request);
+
+        assertThrows(PaginationException.class, () -> paginationService.paginate(2, null, pageSupplier, request));
+        verify(pageSupplier, times(1)).apply(any());
+    }
+
+    @Test
+    void testPaginate_WhenCacheInvalidated_ThenTotalCountedAgain() {
+        int itemsPerPage = 3;
+        Page<String> onePage = new PageImpl<>(List.of("Item1", "Item2"), PageRequest.of(0, itemsPerPage), 2);
+        Page<String> twoPages = new PageImpl<>(List.of("Item1", "Item2", "Item3"), PageRequest.of(0, itemsPerPage), 4);
+        when(pageSupplier.apply(PageRequest.of(0, itemsPerPage))).thenReturn(onePage, twoPages);
+        paginationService.paginate(1, null, pageSupplier, request);
+
+        paginationTotalCache.invalidate();
+        Pagination<String> pagination = paginationService.paginate(1, null, pageSupplier, request);
+
+        assertEquals(2, pagination.getTotalPages());
+    }
+
+    @Test
+    void testPaginate_WhenTotalNotCached_ThenFirstPageLoadedWithoutKnownTotal() {
+        int itemsPerPage = 3;
+        Page<String> firstPage = new PageImpl<>(List.of("Item1", "Item2", "Item3"), PageRequest.of(0, itemsPerPage), 5);
+        when(countedPageSupplier.getPage(PageRequest.of(0, itemsPerPage), OptionalLong.empty())).thenReturn(firstPage);
+
+        Pagination<String> pagination = paginationService.paginate(1, null, countedPageSupplier, request);
+
+        assertEquals(2, pagination.getTotalPages());
+        verify(countedPageSupplier, times(1)).getPage(any(), any());
+    }
+
+    @Test
+    void testPaginate_WhenTotalCached_ThenCachedTotalPassedToPageSupplier() {
+        int itemsPerPage = 3;
+        Page<String> firstPage = new PageImpl<>(List.of("Item1", "Item2", "Item3"), PageRequest.of(0, itemsPerPage), 5);
+        Page<String> secondPage = new PageImpl<>(List.of("Item4", "Item5"), PageRequest.of(1, itemsPerPage), 5);
+        when(countedPageSupplier.getPage(PageRequest.of(0, itemsPerPage), OptionalLong.empty())).thenReturn(firstPage);
+        when(countedPageSupplier.getPage(PageRequest.of(1, itemsPerPage), OptionalLong.of(5))).thenReturn(secondPage);
+        paginationService.paginate(1, null, countedPageSupplier, request);
+
+        Pagination<String> pagination = paginationService.paginate(2, null, countedPageSupplier, request);
+
+        assertEquals(List.of("Item4", "Item5"), pagination.getItems());
+        verify(countedPageSupplier, never()).getPage(PageRequest.of(1, itemsPerPage), OptionalLong.empty());
+    }
+
+    @Test
+    void testPaginate_WhenTotalCountedForFirstPageAndLaterPageRequested_ThenCountedTotalPassedToPageSupplier() {
+        int itemsPerPage = 3;
+        Page<String> firstPage = new PageImpl<>(List.of("Item1", "Item2", "Item3"), PageRequest.of(0, itemsPerPage), 5);
+        Page<String> secondPage = new PageImpl<>(List.of("Item4", "Item5"), PageRequest.of(1, itemsPerPage), 5);
+        when(countedPageSupplier.getPage(PageRequest.of(0, itemsPerPage), OptionalLong.empty())).thenReturn(firstPage);
+        when(countedPageSupplier.getPage(PageRequest.of(1, itemsPerPage), OptionalLong.of(5))).thenReturn(secondPage);
+
+        Pagination<String> pagination = paginationService.paginate(2, null, countedPageSupplier, request);
+
+        assertEquals(List.of("Item4", "Item5"), pagination.getItems());
+    }
 }
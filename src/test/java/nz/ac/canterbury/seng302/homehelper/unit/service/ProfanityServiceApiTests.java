@@ -0,0 +1,121 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service;
+
+import com.sun.net.httpserver.HttpServer;
+import nz.ac.canterbury.seng302.homehelper.service.ProfanityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests ProfanityService's ProfanityAPI client against a local HTTP stub.
+ */
+public class ProfanityServiceApiTests {
+
+    private HttpServer server;
+    private ProfanityService profanityService;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile long responseDelayMillis = 0;
+    private volatile String responseBody = "{\"isProfanity\": true}";
+    private volatile int responseStatus = 200;
+    private CountDownLatch requestReceived;
+
+    @BeforeEach
+    void setup() throws IOException {
+        requestReceived = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            requestCount.incrementAndGet();
+            requestReceived.countDown();
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(responseStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (IOException ignored) {
+                // client may have timed out and closed the connection
+            }
+        });
+        server.start();
+        String url = "http://localhost:" + server.getAddress().getPort();
+        profanityService = new ProfanityService(url, 500, 10);
+    }
+
+    @AfterEach
+    void teardown() {
+        profanityService.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testCheckProfanityAPI_WhenSameMessageCheckedTwice_ThenSecondCheckIsCached() {
+        assertTrue(profanityService.checkProfanityAPI("Some Tag"));
+        assertTrue(profanityService.checkProfanityAPI("some tag"));
+        assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    void testCheckProfanityAPI_WhenApiTooSlow_ThenReturnsFalseAndDoesNotCache() {
+        responseDelayMillis = 2000;
+        assertFalse(profanityService.checkProfanityAPI("Slow Tag"));
+
+        responseDelayMillis = 0;
+        assertTrue(profanityService.checkProfanityAPI("Slow Tag"));
+        assertEquals(2, requestCount.get());
+    }
+
+    @Test
+    void testCheckProfanityAPI_WhenApiReturnsError_ThenReturnsFalse() {
+        responseStatus = 500;
+        responseBody = "error";
+        assertFalse(profanityService.checkProfanityAPI("Broken Tag"));
+    }
+
+    @Test
+    void testCheckProfanityAPI_WhenApiReturnsUnexpectedPayload_ThenReturnsFalseAndReleasesWaiters() throws Exception {
+        responseDelayMillis = 300;
+        responseBody = "{\"unexpected\": true}";
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> profanityService.checkProfanityAPI("Odd Tag"));
+        assertTrue(requestReceived.await(1, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> profanityService.checkProfanityAPI("Odd Tag"));
+
+        assertFalse(first.get(2, TimeUnit.SECONDS));
+        // the waiting check is released with the first check's result, well before its own 1 second timeout
+        assertFalse(waiting.get(600, TimeUnit.MILLISECONDS));
+        assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    void testCheckProfanityAPI_WhenCheckedConcurrently_ThenSharesOneRequest() throws Exception {
+        responseDelayMillis = 300;
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> profanityService.checkProfanityAPI("Busy Tag"));
+        assertTrue(requestReceived.await(1, TimeUnit.SECONDS));
+        List<CompletableFuture<Boolean>> others = IntStream.range(0, 5)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> profanityService.checkProfanityAPI("Busy Tag")))
+                .toList();
+
+        assertTrue(first.get(2, TimeUnit.SECONDS));
+        for (CompletableFuture<Boolean> other : others) {
+            assertTrue(other.get(2, TimeUnit.SECONDS));
+        }
+        assertEquals(1, requestCount.get());
+    }
+}
@@ -2,11 +2,13 @@ package nz.ac.canterbury.seng302.homehelper.unit.service;
 
 import nz.ac.canterbury.seng302.homehelper.service.ProfanityService;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -95,4 +97,28 @@ public class ProfanityServiceTest {
     void testCheckProfanityLocal_WhenClean_ThenReturnFalse(String message) {
         assertFalse(profanityService.checkProfanityLocal(message));
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Assignment due friday",
+            "Wh@t a day"
+    })
+    void testCheckProfanityLocalVerdict_WhenHiddenOrPartialMatch_ThenReturnAmbiguous(String message) {
+        assertEquals(ProfanityService.LocalVerdict.AMBIGUOUS, profanityService.checkProfanityLocalVerdict(message));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Paint the deck with 3 coats",
+            "Buy 12 tins of paint",
+            "Family Room"
+    })
+    void testCheckProfanityLocalVerdict_WhenPlainText_ThenReturnClean(String message) {
+        assertEquals(ProfanityService.LocalVerdict.CLEAN, profanityService.checkProfanityLocalVerdict(message));
+    }
+
+    @Test
+    void testCheckProfanityLocalVerdict_WhenBadWord_ThenReturnProfane() {
+        assertEquals(ProfanityService.LocalVerdict.PROFANE, profanityService.checkProfanityLocalVerdict("This is Bullshit"));
+    }
 }
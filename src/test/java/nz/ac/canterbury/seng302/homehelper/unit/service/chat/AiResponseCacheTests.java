@@ -0,0 +1,117 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.service.chat.AiResponseCache;
+import nz.ac.canterbury.seng302.homehelper.service.chat.RenovationAiContextCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AiResponseCacheTests {
+
+    private static final long RENOVATION_ID = 10L;
+    private static final String CONTEXT = "Renovation: Deck";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RenovationAiContextCache renovationAiContextCache;
+    private AiResponseCache aiResponseCache;
+    private User jane;
+    private User steve;
+    private ChatChannel general;
+    private ChatChannel privateChannel;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        renovationAiContextCache = new RenovationAiContextCache(10, 10);
+        aiResponseCache = new AiResponseCache(renovationAiContextCache, meterRegistry, 10, 10, 5);
+        jane = new User("Jane", "Doe", "jane@doe.nz");
+        jane.setId(1L);
+        steve = new User("Steve", "Smith", "steve@smith.nz");
+        steve.setId(2L);
+        general = new ChatChannel(100L, "General", null, List.of(jane, steve), List.of());
+        privateChannel = new ChatChannel(101L, "Private", null, List.of(jane), List.of());
+    }
+
+    private String questionKey(User sender, String content) {
+        return questionKey(general, sender, content);
+    }
+
+    private String questionKey(ChatChannel channel, User sender, String content) {
+        return aiResponseCache.getQuestionKey(new ChatMessage(content, Instant.now(), channel, sender));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("chat.ai.response-cache").tag("result", result).counter().count();
+    }
+
+    @Test
+    void testGetQuestionKey_GivenSameQuestionWrittenDifferently_ThenSameKey() {
+        assertEquals(questionKey(jane, "@BrickAI What's the budget?"), questionKey(steve, "what's  the BUDGET @brickai"));
+    }
+
+    @Test
+    void testGetQuestionKey_GivenQuestionAboutAsker_ThenKeyedBySender() {
+        assertNotEquals(questionKey(jane, "@BrickAI what are my tasks?"), questionKey(steve, "@BrickAI what are my tasks?"));
+    }
+
+    @Test
+    void testGetQuestionKey_GivenSameQuestionInTwoChannels_ThenDifferentKeys() {
+        assertNotEquals(questionKey(general, jane, "@BrickAI What's the budget?"),
+                questionKey(privateChannel, jane, "@BrickAI What's the budget?"));
+    }
+
+    @Test
+    void testGet_GivenQuestionAnsweredInAnotherChannel_ThenMiss() {
+        aiResponseCache.put(RENOVATION_ID, CONTEXT, questionKey(privateChannel, jane, "@BrickAI what did we agree on?"),
+                "The budget is secret");
+
+        assertEquals(Optional.empty(),
+                aiResponseCache.get(RENOVATION_ID, CONTEXT, questionKey(general, steve, "@BrickAI what did we agree on?")));
+        assertEquals(Optional.empty(),
+                aiResponseCache.get(RENOVATION_ID, CONTEXT, questionKey(general, jane, "@BrickAI what did we agree on?")));
+        assertEquals(2.0, count("miss"));
+    }
+
+    @Test
+    void testGet_GivenAnswerCachedWithSameContext_ThenHit() {
+        aiResponseCache.put(RENOVATION_ID, CONTEXT, "what's the budget", "$5000");
+
+        assertEquals(Optional.of("$5000"), aiResponseCache.get(RENOVATION_ID, CONTEXT, "what's the budget"));
+        assertEquals(1.0, count("hit"));
+        assertEquals(0.0, count("miss"));
+    }
+
+    @Test
+    void testGet_GivenContextChanged_ThenMiss() {
+        aiResponseCache.put(RENOVATION_ID, CONTEXT, "what's the budget", "$5000");
+
+        assertEquals(Optional.empty(), aiResponseCache.get(RENOVATION_ID, CONTEXT + ", Budget: $6000", "what's the budget"));
+        assertEquals(1.0, count("miss"));
+    }
+
+    @Test
+    void testGet_GivenRenovationContextInvalidated_ThenAnswersEvicted() {
+        aiResponseCache.put(RENOVATION_ID, CONTEXT, "what's the budget", "$5000");
+
+        renovationAiContextCache.invalidate(RENOVATION_ID);
+
+        assertEquals(Optional.empty(), aiResponseCache.get(RENOVATION_ID, CONTEXT, "what's the budget"));
+    }
+
+    @Test
+    void testGet_GivenAnswerExpired_ThenMiss() {
+        aiResponseCache = new AiResponseCache(renovationAiContextCache, meterRegistry, 10, 10, 0);
+        aiResponseCache.put(RENOVATION_ID, CONTEXT, "what's the budget", "$5000");
+
+        assertEquals(Optional.empty(), aiResponseCache.get(RENOVATION_ID, CONTEXT, "what's the budget"));
+    }
+}
@@ -0,0 +1,156 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.AiUsageRollup;
+import nz.ac.canterbury.seng302.homehelper.entity.key.AiUsageRollupKey;
+import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponseType;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.AiUsageRollupRepository;
+import nz.ac.canterbury.seng302.homehelper.service.chat.AiUsageAdvisor;
+import nz.ac.canterbury.seng302.homehelper.service.chat.AiUsageService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.RoutingChatModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AiUsageServiceTests {
+
+    private static final long RENOVATION_ID = 10L;
+
+    private @Mock AiUsageRollupRepository aiUsageRollupRepository;
+    private @Mock ChatModel chatModel;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AiUsageService aiUsageService;
+    private AiUsageRollupKey key;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        aiUsageService = new AiUsageService(aiUsageRollupRepository, meterRegistry);
+        key = new AiUsageRollupKey(RENOVATION_ID, LocalDate.now());
+    }
+
+    private ChatResponse response(String model, boolean fallback, int promptTokens, int completionTokens) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage("Paint the deck"))),
+                ChatResponseMetadata.builder()
+                        .usage(new DefaultUsage(promptTokens, completionTokens))
+                        .keyValue(RoutingChatModel.ROUTED_MODEL, model)
+                        .keyValue(RoutingChatModel.FALLBACK, fallback)
+                        .build());
+    }
+
+    private AiUsageRollup flushedRollup() {
+        ArgumentCaptor<AiUsageRollup> saved = ArgumentCaptor.forClass(AiUsageRollup.class);
+        aiUsageService.flush();
+        verify(aiUsageRollupRepository).save(saved.capture());
+        return saved.getValue();
+    }
+
+    @Test
+    void testRecordCall_GivenResponseFromFallbackModel_ThenRolledUpWithTokensAndFallback() {
+        AiUsageService.AiCall call = aiUsageService.startCall(RENOVATION_ID);
+        call.onResponse(response("gemini-2.5-flash-lite", true, 1200, 80));
+        when(aiUsageRollupRepository.findById(key)).thenReturn(Optional.empty());
+
+        aiUsageService.recordCall(call, AiResponseType.MESSAGE);
+
+        AiUsageRollup rollup = flushedRollup();
+        assertEquals(key, rollup.getId());
+        assertEquals(1, rollup.getCallCount());
+        assertEquals(1, rollup.getFallbackCount());
+        assertEquals(1, rollup.getMessageCount());
+        assertEquals(1200, rollup.getPromptTokens());
+        assertEquals(80, rollup.getCompletionTokens());
+        assertEquals(1, meterRegistry.get("chat.ai.call")
+                .tag("model", "gemini-2.5-flash-lite").tag("type", "MESSAGE").tag("fallback", "true")
+                .timer().count());
+        assertEquals(1200.0, meterRegistry.get("chat.ai.tokens").tag("kind", "prompt").counter().count());
+    }
+
+    @Test
+    void testRecordCall_GivenStreamedChunks_ThenUsageTakenFromChunkWithUsage() {
+        AiUsageService.AiCall call = aiUsageService.startCall(RENOVATION_ID);
+        call.onResponse(response("gemini-2.0-flash-lite", false, 0, 0));
+        call.onResponse(response("gemini-2.0-flash-lite", false, 900, 40));
+        call.onResponse(new ChatResponse(List.of()));
+
+        assertEquals("gemini-2.0-flash-lite", call.getModel());
+        assertFalse(call.isFallback());
+        assertEquals(900, call.getPromptTokens());
+        assertEquals(40, call.getCompletionTokens());
+    }
+
+    @Test
+    void testRecordFailure_GivenFailedCall_ThenCountedAsFailure() {
+        when(aiUsageRollupRepository.findById(key)).thenReturn(Optional.empty());
+
+        aiUsageService.recordFailure(aiUsageService.startCall(RENOVATION_ID));
+
+        AiUsageRollup rollup = flushedRollup();
+        assertEquals(1, rollup.getCallCount());
+        assertEquals(1, rollup.getFailureCount());
+        assertEquals(0, rollup.getMessageCount());
+    }
+
+    @Test
+    void testFlush_GivenRollupAlreadySaved_ThenUsageAddedToIt() {
+        AiUsageRollup existing = new AiUsageRollup(key);
+        existing.recordCall(AiResponseType.TASK_CREATION, false, 500, 50, 2000);
+        when(aiUsageRollupRepository.findById(key)).thenReturn(Optional.of(existing));
+        AiUsageService.AiCall call = aiUsageService.startCall(RENOVATION_ID);
+        call.onResponse(response("gemini-2.0-flash-lite", false, 100, 10));
+        aiUsageService.recordCall(call, AiResponseType.MESSAGE);
+
+        AiUsageRollup rollup = flushedRollup();
+
+        assertSame(existing, rollup);
+        assertEquals(2, rollup.getCallCount());
+        assertEquals(1, rollup.getTaskCreationCount());
+        assertEquals(1, rollup.getMessageCount());
+        assertEquals(600, rollup.getPromptTokens());
+        assertEquals(2000, rollup.getMaxMillis());
+    }
+
+    @Test
+    void testFlush_GivenNothingRecorded_ThenNothingSaved() {
+        aiUsageService.flush();
+
+        verify(aiUsageRollupRepository, never()).save(any());
+    }
+
+    @Test
+    void testAiUsageAdvisor_GivenRequestWithCall_ThenCallToldAboutResponse() {
+        when(chatModel.call(any(org.springframework.ai.chat.prompt.Prompt.class)))
+                .thenReturn(response("gemini-2.0-flash-lite", false, 300, 20));
+        ChatClient chatClient = ChatClient.builder(chatModel).defaultAdvisors(new AiUsageAdvisor()).build();
+        AiUsageService.AiCall call = aiUsageService.startCall(RENOVATION_ID);
+
+        chatClient.prompt("When should I paint the deck?")
+                .advisors(a -> a.param(AiUsageAdvisor.CALL, call))
+                .call()
+                .content();
+
+        assertEquals("gemini-2.0-flash-lite", call.getModel());
+        assertEquals(300, call.getPromptTokens());
+        assertEquals(20, call.getCompletionTokens());
+    }
+}
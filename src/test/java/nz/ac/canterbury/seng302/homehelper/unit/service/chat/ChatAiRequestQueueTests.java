@@ -0,0 +1,245 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingMessage;
+import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragmentText;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatAiRequestQueue;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatAiService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChatAiRequestQueueTests {
+
+    private @Mock ChatAiService chatAiService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChatAiRequestQueue chatAiRequestQueue;
+    private User sender;
+    private User otherSender;
+    private ChatChannel channel;
+    private ChatChannel otherChannel;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        // messages wait 50ms for duplicates, and at most 1 message waits per channel
+        chatAiRequestQueue = new ChatAiRequestQueue(chatAiService, meterRegistry, 50, 1);
+        sender = new User("Jane", "Doe", "jane@doe.nz");
+        sender.setId(1L);
+        otherSender = new User("John", "Smith", "john@smith.nz");
+        otherSender.setId(2L);
+        channel = new ChatChannel(100L, "General", null, List.of(), List.of());
+        otherChannel = new ChatChannel(101L, "Deck", null, List.of(), List.of());
+    }
+
+    private ChatMessage messageForAi(long id, ChatChannel channel, String content) {
+        return messageForAi(id, channel, sender, content);
+    }
+
+    private ChatMessage messageForAi(long id, ChatChannel channel, User sender, String content) {
+        ChatMessage message = new ChatMessage(id, content, Instant.now(), channel, sender);
+        when(chatAiService.isMessageForAi(message)).thenReturn(true);
+        return message;
+    }
+
+    private OutgoingMessage reply(long id, String content) {
+        return new OutgoingMessage(id, List.of(new ChatMessageFragmentText(content)), Instant.now(), null, true);
+    }
+
+    @Test
+    void testSubmit_GivenMessageNotForAi_ThenCompletesEmptyWithoutRequest() {
+        ChatMessage message = new ChatMessage(1L, "Hello", Instant.now(), channel, sender);
+        when(chatAiService.isMessageForAi(message)).thenReturn(false);
+
+        assertEquals(Optional.empty(), chatAiRequestQueue.submit(message).join());
+        verify(chatAiService, never()).handleAiResponse(any());
+    }
+
+    @Test
+    void testSubmit_GivenTwoMessagesInChannel_ThenSecondSentOnceFirstAnswered() throws Exception {
+        ChatMessage first = messageForAi(1L, channel, "@BrickAI what colour is the deck?");
+        ChatMessage second = messageForAi(2L, channel, "@BrickAI when is the deck due?");
+        CompletableFuture<Optional<OutgoingMessage>> firstResponse = new CompletableFuture<>();
+        OutgoingMessage secondReply = reply(4L, "Next week");
+        when(chatAiService.handleAiResponse(first)).thenReturn(firstResponse);
+        when(chatAiService.handleAiResponse(second)).thenReturn(CompletableFuture.completedFuture(Optional.of(secondReply)));
+
+        CompletableFuture<Optional<OutgoingMessage>> firstResult = chatAiRequestQueue.submit(first);
+        CompletableFuture<Optional<OutgoingMessage>> secondResult = chatAiRequestQueue.submit(second);
+
+        verify(chatAiService, timeout(1000)).handleAiResponse(first);
+        verify(chatAiService, after(200).never()).handleAiResponse(second);
+        OutgoingMessage firstReply = reply(3L, "Green");
+        firstResponse.complete(Optional.of(firstReply));
+        assertEquals(Optional.of(firstReply), firstResult.get(1, TimeUnit.SECONDS));
+        assertEquals(Optional.of(secondReply), secondResult.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSubmit_GivenDuplicateMessagesInWindow_ThenMergedIntoOneRequest() throws Exception {
+        ChatMessage first = messageForAi(1L, channel, "@BrickAI what colour is the deck?");
+        ChatMessage duplicate = messageForAi(2L, channel, "@brickai   What colour is the deck? ");
+        OutgoingMessage aiReply = reply(3L, "Green");
+        when(chatAiService.handleAiResponse(first)).thenReturn(CompletableFuture.completedFuture(Optional.of(aiReply)));
+
+        CompletableFuture<Optional<OutgoingMessage>> firstResult = chatAiRequestQueue.submit(first);
+        CompletableFuture<Optional<OutgoingMessage>> duplicateResult = chatAiRequestQueue.submit(duplicate);
+
+        assertEquals(Optional.of(aiReply), firstResult.get(1, TimeUnit.SECONDS));
+        // the reply is only published once
+        assertEquals(Optional.empty(), duplicateResult.get(1, TimeUnit.SECONDS));
+        verify(chatAiService, never()).handleAiResponse(duplicate);
+        assertEquals(1.0, meterRegistry.get("chat.ai.queue.merged").counter().count());
+    }
+
+    @Test
+    void testSubmit_GivenDuplicateSentAfterWindow_ThenAnsweredSeparately() throws Exception {
+        // room for both messages to wait behind the one in flight
+        chatAiRequestQueue = new ChatAiRequestQueue(chatAiService, meterRegistry, 50, 2);
+        ChatMessage inFlight = messageForAi(1L, channel, "@BrickAI when is the deck due?");
+        ChatMessage first = messageForAi(2L, channel, "@BrickAI what colour is the deck?");
+        ChatMessage lateDuplicate = messageForAi(3L, channel, "@BrickAI what colour is the deck?");
+        CompletableFuture<Optional<OutgoingMessage>> inFlightResponse = new CompletableFuture<>();
+        OutgoingMessage firstReply = reply(4L, "Green");
+        OutgoingMessage lateReply = reply(5L, "Still green");
+        when(chatAiService.handleAiResponse(inFlight)).thenReturn(inFlightResponse);
+        when(chatAiService.handleAiResponse(first)).thenReturn(CompletableFuture.completedFuture(Optional.of(firstReply)));
+        when(chatAiService.handleAiResponse(lateDuplicate))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(lateReply)));
+
+        chatAiRequestQueue.submit(inFlight);
+        verify(chatAiService, timeout(1000)).handleAiResponse(inFlight);
+        CompletableFuture<Optional<OutgoingMessage>> firstResult = chatAiRequestQueue.submit(first);
+        // the first message is still waiting behind the one in flight, but its window has passed
+        Thread.sleep(150);
+        CompletableFuture<Optional<OutgoingMessage>> lateResult = chatAiRequestQueue.submit(lateDuplicate);
+        inFlightResponse.complete(Optional.empty());
+
+        assertEquals(Optional.of(firstReply), firstResult.get(1, TimeUnit.SECONDS));
+        assertEquals(Optional.of(lateReply), lateResult.get(1, TimeUnit.SECONDS));
+        assertEquals(0.0, meterRegistry.get("chat.ai.queue.merged").counter().count());
+    }
+
+    @Test
+    void testSubmit_GivenMergedDuplicateAndRequestFails_ThenDuplicateFailsToo() {
+        ChatMessage first = messageForAi(1L, channel, "@BrickAI what colour is the deck?");
+        ChatMessage duplicate = messageForAi(2L, channel, "@BrickAI what colour is the deck?");
+        IllegalStateException failure = new IllegalStateException("No AI model is available");
+        when(chatAiService.handleAiResponse(first)).thenReturn(CompletableFuture.failedFuture(failure));
+
+        CompletableFuture<Optional<OutgoingMessage>> firstResult = chatAiRequestQueue.submit(first);
+        CompletableFuture<Optional<OutgoingMessage>> duplicateResult = chatAiRequestQueue.submit(duplicate);
+
+        ExecutionException firstError = assertThrows(ExecutionException.class,
+                () -> firstResult.get(1, TimeUnit.SECONDS));
+        ExecutionException duplicateError = assertThrows(ExecutionException.class,
+                () -> duplicateResult.get(1, TimeUnit.SECONDS));
+        assertSame(failure, firstError.getCause());
+        assertSame(failure, duplicateError.getCause());
+    }
+
+    @Test
+    void testSubmit_GivenSameQuestionFromTwoSenders_ThenMergedIntoOneRequest() throws Exception {
+        ChatMessage first = messageForAi(1L, channel, "@BrickAI what colour is the deck?");
+        ChatMessage duplicate = messageForAi(2L, channel, otherSender, "@BrickAI what colour is the deck?");
+        OutgoingMessage aiReply = reply(3L, "Green");
+        when(chatAiService.handleAiResponse(first)).thenReturn(CompletableFuture.completedFuture(Optional.of(aiReply)));
+
+        CompletableFuture<Optional<OutgoingMessage>> firstResult = chatAiRequestQueue.submit(first);
+        CompletableFuture<Optional<OutgoingMessage>> duplicateResult = chatAiRequestQueue.submit(duplicate);
+
+        assertEquals(Optional.of(aiReply), firstResult.get(1, TimeUnit.SECONDS));
+        assertEquals(Optional.empty(), duplicateResult.get(1, TimeUnit.SECONDS));
+        verify(chatAiService, never()).handleAiResponse(duplicate);
+    }
+
+    @Test
+    void testSubmit_GivenQuestionAboutAskerFromTwoSenders_ThenBothAnswered() throws Exception {
+        // room for both messages to wait, so the second isn't turned away as busy
+        chatAiRequestQueue = new ChatAiRequestQueue(chatAiService, new SimpleMeterRegistry(), 50, 2);
+        ChatMessage first = messageForAi(1L, channel, "@BrickAI what are my tasks?");
+        ChatMessage second = messageForAi(2L, channel, otherSender, "@BrickAI what are my tasks?");
+        OutgoingMessage firstReply = reply(3L, "Paint the deck");
+        OutgoingMessage secondReply = reply(4L, "Sand the deck");
+        when(chatAiService.handleAiResponse(first)).thenReturn(CompletableFuture.completedFuture(Optional.of(firstReply)));
+        when(chatAiService.handleAiResponse(second)).thenReturn(CompletableFuture.completedFuture(Optional.of(secondReply)));
+
+        CompletableFuture<Optional<OutgoingMessage>> firstResult = chatAiRequestQueue.submit(first);
+        CompletableFuture<Optional<OutgoingMessage>> secondResult = chatAiRequestQueue.submit(second);
+
+        assertEquals(Optional.of(firstReply), firstResult.get(1, TimeUnit.SECONDS));
+        assertEquals(Optional.of(secondReply), secondResult.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSubmit_GivenMessagesInDifferentChannels_ThenSentConcurrently() {
+        ChatMessage first = messageForAi(1L, channel, "@BrickAI what colour is the deck?");
+        ChatMessage second = messageForAi(2L, otherChannel, "@BrickAI what colour is the deck?");
+        when(chatAiService.handleAiResponse(first)).thenReturn(new CompletableFuture<>());
+        when(chatAiService.handleAiResponse(second)).thenReturn(new CompletableFuture<>());
+
+        chatAiRequestQueue.submit(first);
+        chatAiRequestQueue.submit(second);
+
+        verify(chatAiService, timeout(1000)).handleAiResponse(first);
+        verify(chatAiService, timeout(1000)).handleAiResponse(second);
+        assertEquals(2.0, meterRegistry.get("chat.ai.queue.channels").gauge().value());
+    }
+
+    @Test
+    void testSubmit_GivenChannelQueueFull_ThenBusyResponse() {
+        ChatMessage inFlight = messageForAi(1L, channel, "@BrickAI what colour is the deck?");
+        ChatMessage queued = messageForAi(2L, channel, "@BrickAI when is the deck due?");
+        ChatMessage overflow = messageForAi(3L, channel, "@BrickAI how much is the deck?");
+        when(chatAiService.handleAiResponse(inFlight)).thenReturn(new CompletableFuture<>());
+        OutgoingMessage busyReply = reply(4L, ChatAiService.BUSY_MESSAGE);
+        when(chatAiService.createBusyResponse(overflow)).thenReturn(busyReply);
+
+        chatAiRequestQueue.submit(inFlight);
+        verify(chatAiService, timeout(1000)).handleAiResponse(inFlight);
+        chatAiRequestQueue.submit(queued);
+
+        assertEquals(Optional.of(busyReply), chatAiRequestQueue.submit(overflow).join());
+        assertEquals(1.0, meterRegistry.get("chat.ai.queue.queued").gauge().value());
+    }
+
+    @Test
+    void testSubmit_GivenAiExecutorFull_ThenBusyResponseAndNextMessageSent() throws Exception {
+        ChatMessage rejected = messageForAi(1L, channel, "@BrickAI what colour is the deck?");
+        ChatMessage next = messageForAi(2L, channel, "@BrickAI when is the deck due?");
+        OutgoingMessage busyReply = reply(3L, ChatAiService.BUSY_MESSAGE);
+        OutgoingMessage nextReply = reply(4L, "Next week");
+        when(chatAiService.handleAiResponse(rejected)).thenThrow(new TaskRejectedException("The brickai executor is full"));
+        when(chatAiService.createBusyResponse(rejected)).thenReturn(busyReply);
+        when(chatAiService.handleAiResponse(next)).thenReturn(CompletableFuture.completedFuture(Optional.of(nextReply)));
+
+        CompletableFuture<Optional<OutgoingMessage>> rejectedResult = chatAiRequestQueue.submit(rejected);
+        CompletableFuture<Optional<OutgoingMessage>> nextResult = chatAiRequestQueue.submit(next);
+
+        assertEquals(Optional.of(busyReply), rejectedResult.get(1, TimeUnit.SECONDS));
+        assertEquals(Optional.of(nextReply), nextResult.get(1, TimeUnit.SECONDS));
+        // the busy reply is built before moving on, not handed to another pool
+        InOrder inOrder = inOrder(chatAiService);
+        inOrder.verify(chatAiService).createBusyResponse(rejected);
+        inOrder.verify(chatAiService).handleAiResponse(next);
+    }
+}
@@ -0,0 +1,231 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.config.AppConfig;
+import nz.ac.canterbury.seng302.homehelper.config.chat.AiPromptConfig;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMention;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.fake.FakeOpenAiServer;
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatHistoryAiView;
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatMessageAiView;
+import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingAiStreamFrame;
+import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingMessage;
+import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponse;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.AiUsageRollupRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatMessageRepository;
+import nz.ac.canterbury.seng302.homehelper.service.chat.AiReplyStreamService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.AiResponseCache;
+import nz.ac.canterbury.seng302.homehelper.service.chat.AiUsageService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatAiService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatChannelSummaryService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatHistoryTool;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatMessageService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.RenovationAiContextCache;
+import nz.ac.canterbury.seng302.homehelper.service.chat.TaskRelevanceIndex;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.BrickAiService;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationService;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests streamed BrickAI replies against a local server that streams chat completions like an OpenAI-compatible API.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ChatAiServiceStreamingTests {
+
+    private static final List<String> REPLY_CHUNKS = List.of(
+            "{\"type\": \"MESS", "AGE\", \"content\": \"", "Paint the ", "deck before ", "winter.\"}");
+    private static final String REPLY_CONTENT = "Paint the deck before winter.";
+
+    private @Mock AiPromptConfig aiPromptConfig;
+    private @Mock BrickAiService brickAiService;
+    private @Mock ChatMessageService chatMessageService;
+    private @Mock RenovationService renovationService;
+    private @Mock AppConfig appConfig;
+    private @Mock ChatMessageRepository chatMessageRepository;
+    private @Mock TaskService taskService;
+    private @Mock SimpMessagingTemplate messagingTemplate;
+    private @Mock ChatMessage userMessage;
+    private @Mock ChatMention aiChatMention;
+    private @Mock ChatChannelSummaryService chatChannelSummaryService;
+    private @Mock AiUsageRollupRepository aiUsageRollupRepository;
+
+    private FakeOpenAiServer server;
+    private volatile boolean callHistoryTool;
+    private ChatAiService chatAiService;
+    private ChatMemory chatMemory;
+    private ChatChannel channel;
+    private User aiUser;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = FakeOpenAiServer.start();
+        server.setChunkDelay(20);
+        server.setResponder(request -> callHistoryTool && !request.hasToolResult()
+                ? FakeOpenAiServer.Reply.toolCall("getChatHistory", "{}")
+                : FakeOpenAiServer.Reply.content(REPLY_CHUNKS));
+
+        OpenAiApi openAiApi = OpenAiApi.builder()
+                .baseUrl(server.getBaseUrl())
+                .apiKey("test-key")
+                .build();
+        OpenAiChatModel chatModel = OpenAiChatModel.builder()
+                .openAiApi(openAiApi)
+                .defaultOptions(OpenAiChatOptions.builder().model("fake-model").build())
+                .build();
+
+        ChatHistoryTool chatHistoryTool = new ChatHistoryTool(chatChannelSummaryService);
+        RenovationAiContextCache renovationAiContextCache = new RenovationAiContextCache(10, 10);
+        chatMemory = MessageWindowChatMemory.builder().build();
+        ChatClient chatClient = ChatClient.builder(chatModel)
+                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).build())
+                .build();
+        chatAiService = new ChatAiService(chatClient, aiPromptConfig, brickAiService,
+                chatMessageService, renovationService, appConfig, appConfig, chatMessageRepository, taskService,
+                new AiReplyStreamService(messagingTemplate, 0), renovationAiContextCache, chatHistoryTool, chatChannelSummaryService,
+                new AiResponseCache(renovationAiContextCache, new SimpleMeterRegistry(), 10, 10, 5),
+                chatMemory, new TaskRelevanceIndex(renovationAiContextCache, 10, 15),
+                new AiUsageService(aiUsageRollupRepository, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(chatAiService, "streamingEnabled", true);
+
+        User user = new User("Jane", "Doe", "jane@doe.nz");
+        user.setId(1L);
+        aiUser = new User("BrickAI", "", "brickai@homehelper.nz");
+        aiUser.setId(2L);
+        Renovation renovation = new Renovation("Deck", "New deck");
+        renovation.setId(10L);
+        renovation.setOwner(user);
+        channel = new ChatChannel(100L, "General", renovation, List.of(user, aiUser), List.of());
+    }
+
+    @AfterEach
+    void teardown() {
+        server.close();
+    }
+
+    @Test
+    void testHandleAiResponse_GivenStreamingEnabled_ThenPublishesPartialRepliesThenSavedMessageId() {
+        when(userMessage.getMentions()).thenReturn(List.of(aiChatMention));
+        when(userMessage.getChannel()).thenReturn(channel);
+        when(userMessage.getSender()).thenReturn(aiUser);
+        when(userMessage.getContent()).thenReturn("@BrickAI when should I paint?");
+        when(userMessage.getTimestamp()).thenReturn(Instant.now());
+        when(aiChatMention.getMentionedUser()).thenReturn(aiUser);
+        when(brickAiService.isAiUser(aiUser)).thenReturn(true);
+        when(brickAiService.getAiUser()).thenReturn(aiUser);
+        when(renovationService.getRenovationMembers(channel.getRenovation())).thenReturn(List.of());
+        when(aiPromptConfig.getSystemPromptInitial(anyString())).thenReturn(new SystemMessage("You are BrickAI"));
+        ChatMessage savedReply = new ChatMessage(55L, REPLY_CONTENT, Instant.now(), channel, aiUser);
+        when(chatMessageService.saveMessage(100L, 2L, REPLY_CONTENT, List.of())).thenReturn(savedReply);
+
+        Optional<OutgoingMessage> reply = chatAiService.handleAiResponse(userMessage).join();
+
+        assertTrue(reply.isPresent());
+        assertEquals(55L, reply.get().id());
+        assertEquals(REPLY_CONTENT, reply.get().fragments().getFirst().getText());
+        assertTrue(server.getRequests().getFirst().body().contains("\"stream\":true"));
+
+        ArgumentCaptor<OutgoingAiStreamFrame> frames = ArgumentCaptor.forClass(OutgoingAiStreamFrame.class);
+        verify(messagingTemplate, atLeast(2)).convertAndSend(eq("/topic/renovation/10/channel/100"), frames.capture());
+        List<OutgoingAiStreamFrame> published = frames.getAllValues();
+        OutgoingAiStreamFrame first = published.getFirst();
+        OutgoingAiStreamFrame last = published.getLast();
+        assertTrue(first.provisional());
+        assertTrue(REPLY_CONTENT.startsWith(first.fragments().getFirst().getText()));
+        assertTrue(first.fragments().getFirst().getText().length() < REPLY_CONTENT.length());
+        assertFalse(last.provisional());
+        assertEquals(55L, last.messageId());
+        assertTrue(published.stream().allMatch(frame -> frame.streamId().equals(first.streamId())));
+        for (int i = 1; i < published.size(); i++) {
+            assertTrue(published.get(i).sequence() > published.get(i - 1).sequence());
+        }
+        verify(chatMessageService, never()).saveMessage(anyLong(), anyLong(), eq(ChatAiService.RESPONSE_FAILURE_MESSAGE), anyList());
+        verify(chatMessageService, times(1)).saveMessage(anyLong(), anyLong(), anyString(), anyList());
+    }
+
+    @Test
+    void testHandleAiResponse_GivenStreamingEnabled_ThenFormatInstructionsNotStoredInChatMemory() {
+        when(userMessage.getMentions()).thenReturn(List.of(aiChatMention));
+        when(userMessage.getChannel()).thenReturn(channel);
+        when(userMessage.getSender()).thenReturn(aiUser);
+        when(userMessage.getContent()).thenReturn("@BrickAI when should I paint?");
+        when(userMessage.getTimestamp()).thenReturn(Instant.now());
+        when(aiChatMention.getMentionedUser()).thenReturn(aiUser);
+        when(brickAiService.isAiUser(aiUser)).thenReturn(true);
+        when(brickAiService.getAiUser()).thenReturn(aiUser);
+        when(renovationService.getRenovationMembers(channel.getRenovation())).thenReturn(List.of());
+        when(aiPromptConfig.getSystemPromptInitial(anyString())).thenReturn(new SystemMessage("You are BrickAI"));
+        when(chatMessageService.saveMessage(100L, 2L, REPLY_CONTENT, List.of()))
+                .thenReturn(new ChatMessage(55L, REPLY_CONTENT, Instant.now(), channel, aiUser));
+        String format = new BeanOutputConverter<>(AiResponse.class).getFormat();
+
+        chatAiService.handleAiResponse(userMessage).join();
+
+        List<Message> remembered = chatMemory.get("100");
+        assertFalse(remembered.isEmpty());
+        assertTrue(remembered.stream().noneMatch(message -> message.getText().contains(format)));
+        assertTrue(server.getRequests().getFirst().body().contains("Your response should be in JSON format"));
+    }
+
+    @Test
+    void testHandleAiResponse_GivenHistoryToolCalled_ThenHistorySentBackInSameRequest() {
+        ReflectionTestUtils.setField(chatAiService, "historyToolEnabled", true);
+        callHistoryTool = true;
+        ChatHistoryAiView history = new ChatHistoryAiView(null, List.of(
+                new ChatMessageAiView("Steve Smith", "We are painting the deck green", "Monday, August 4, 2025, at 10:00 AM")));
+        when(userMessage.getMentions()).thenReturn(List.of(aiChatMention));
+        when(userMessage.getChannel()).thenReturn(channel);
+        when(userMessage.getSender()).thenReturn(aiUser);
+        when(userMessage.getContent()).thenReturn("@BrickAI what colour is the deck?");
+        when(userMessage.getTimestamp()).thenReturn(Instant.now());
+        when(aiChatMention.getMentionedUser()).thenReturn(aiUser);
+        when(brickAiService.isAiUser(aiUser)).thenReturn(true);
+        when(brickAiService.getAiUser()).thenReturn(aiUser);
+        when(renovationService.getRenovationMembers(channel.getRenovation())).thenReturn(List.of());
+        when(aiPromptConfig.getSystemPromptInitialWithHistoryTool(anyString())).thenReturn(new SystemMessage("You are BrickAI"));
+        when(chatChannelSummaryService.getHistory(100L)).thenReturn(history);
+        ChatMessage savedReply = new ChatMessage(55L, REPLY_CONTENT, Instant.now(), channel, aiUser);
+        when(chatMessageService.saveMessage(100L, 2L, REPLY_CONTENT, List.of())).thenReturn(savedReply);
+
+        Optional<OutgoingMessage> reply = chatAiService.handleAiResponse(userMessage).join();
+
+        assertTrue(reply.isPresent());
+        assertEquals(REPLY_CONTENT, reply.get().fragments().getFirst().getText());
+        assertEquals(2, server.getRequests().size());
+        assertTrue(server.getRequests().getFirst().body().contains("getChatHistory"));
+        assertTrue(server.getRequests().getLast().body().contains("We are painting the deck green"));
+        verify(aiPromptConfig, never()).getSystemPromptTemplateWithChatContext(any());
+    }
+}
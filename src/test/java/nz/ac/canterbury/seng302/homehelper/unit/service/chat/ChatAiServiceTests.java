@@ -1,5 +1,6 @@
 package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import nz.ac.canterbury.seng302.homehelper.config.chat.AiPromptConfig;
 import nz.ac.canterbury.seng302.homehelper.service.chat.ChatAiService;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
@@ -7,13 +8,22 @@ import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMention;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatHistoryAiView;
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatMessageAiView;
+import nz.ac.canterbury.seng302.homehelper.model.ai.RelevantTasksAiView;
 import nz.ac.canterbury.seng302.homehelper.model.ai.RenovationAiView;
 import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingMessage;
 import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponse;
 import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponseMessage;
 import nz.ac.canterbury.seng302.homehelper.model.chat.ai.AiResponseType;
 import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragment;
+import nz.ac.canterbury.seng302.homehelper.service.chat.AiResponseCache;
+import nz.ac.canterbury.seng302.homehelper.service.chat.AiUsageService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatChannelSummaryService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatHistoryTool;
 import nz.ac.canterbury.seng302.homehelper.service.chat.ChatMessageService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.RenovationAiContextCache;
+import nz.ac.canterbury.seng302.homehelper.service.chat.TaskRelevanceIndex;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.BrickAiService;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,18 +31,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +60,13 @@ public class ChatAiServiceTests {
     private @Mock BrickAiService brickAiService;
     private @Mock ChatMessageService chatMessageService;
     private @Mock AiPromptConfig aiPromptConfig;
+    private @Mock ChatHistoryTool chatHistoryTool;
+    private @Mock ChatChannelSummaryService chatChannelSummaryService;
+    private @Mock ChatMemory chatMemory;
+    private @Mock AiUsageService aiUsageService;
+    private @Spy RenovationAiContextCache renovationAiContextCache = new RenovationAiContextCache(10, 10);
+    private @Spy AiResponseCache aiResponseCache = new AiResponseCache(renovationAiContextCache, new SimpleMeterRegistry(), 10, 10, 5);
+    private @Spy TaskRelevanceIndex taskRelevanceIndex = new TaskRelevanceIndex(renovationAiContextCache, 10, 15);
     private @InjectMocks ChatAiService chatAiService;
 
     // chat client prompt builder
@@ -80,6 +104,27 @@ public class ChatAiServiceTests {
         assertTrue(optionalAiMessage.isEmpty());
     }
 
+    @Test
+    void testIsMessageForAi_GivenMessageInBrickAiChannel_ThenReturnsTrue() {
+        ChatChannel brickAiChannel = new ChatChannel(101L, "brickAI", this.renovation, List.of(user, aiUser), List.of());
+        when(userMessage.getChannel()).thenReturn(brickAiChannel);
+
+        assertTrue(chatAiService.isMessageForAi(userMessage));
+    }
+
+    @Test
+    void testCreateBusyResponse_GivenMessage_ThenSavesBusyMessageFromAi() {
+        when(userMessage.getChannel()).thenReturn(channel);
+        when(aiMessage.getSender()).thenReturn(aiUser);
+        when(brickAiService.getAiUser()).thenReturn(aiUser);
+        when(chatMessageService.saveMessage(channel.getId(), aiUser.getId(), ChatAiService.BUSY_MESSAGE, List.of())).thenReturn(aiMessage);
+
+        OutgoingMessage busyMessage = chatAiService.createBusyResponse(userMessage);
+
+        assertTrue(busyMessage.ai());
+        assertEquals(ChatAiService.BUSY_MESSAGE, busyMessage.fragments().getFirst().getText());
+    }
+
     @Test
     void testHandleAiResponse_GivenMessageForAi_ThenReturnsOutgoingMessage() {
         String userMessageContent = "Hello @BrickAI!";
@@ -96,7 +141,8 @@ public class ChatAiServiceTests {
         when(brickAiService.getAiUser()).thenReturn(aiUser);
         when(renovationService.getRenovationMembers(renovation)).thenReturn(List.of());
         when(chatMessageService.saveMessage(channel.getId(), aiUser.getId(), aiMessageContent, List.of())).thenReturn(aiMessage);
-        when(aiPromptConfig.getSystemPromptTemplateInitial(new RenovationAiView(renovation, List.of()))).thenReturn(message);
+        when(aiPromptConfig.getSystemPromptInitial(new RenovationAiView(renovation, List.of()) + System.lineSeparator()
+                + new RelevantTasksAiView(List.of()))).thenReturn(message);
         when(chatClient.prompt(any(Prompt.class))).thenReturn(chatClientRequestSpec);
         when(chatClientRequestSpec.advisors((Consumer<ChatClient.AdvisorSpec>) any())).thenReturn(chatClientRequestSpec);
         when(chatClientRequestSpec.call()).thenReturn(chatClientResponseSpec);
@@ -123,7 +169,8 @@ public class ChatAiServiceTests {
         when(brickAiService.isAiUser(aiUser)).thenReturn(true);
         when(brickAiService.getAiUser()).thenReturn(aiUser);
         when(chatMessageService.saveMessage(channel.getId(), aiUser.getId(), aiMessageContent, List.of())).thenReturn(aiMessage);
-        when(aiPromptConfig.getSystemPromptTemplateInitial(new RenovationAiView(renovation, List.of()))).thenReturn(message);
+        when(aiPromptConfig.getSystemPromptInitial(new RenovationAiView(renovation, List.of()) + System.lineSeparator()
+                + new RelevantTasksAiView(List.of()))).thenReturn(message);
         when(chatClient.prompt(any(Prompt.class))).thenThrow(new RuntimeException("ERROR"));
         when(renovationService.getRenovationMembers(renovation)).thenReturn(List.of());
 
@@ -156,16 +203,12 @@ public class ChatAiServiceTests {
         when(brickAiService.getAiUser()).thenReturn(aiUser);
         when(renovationService.getRenovationMembers(renovation)).thenReturn(List.of());
 
-        when(aiPromptConfig.getSystemPromptTemplateInitial(any(RenovationAiView.class))).thenReturn(message);
-        when(aiPromptConfig.getSystemPromptTemplateWithChatContext(any())).thenReturn(contextMessage);
+        when(aiPromptConfig.getSystemPromptInitial(anyString())).thenReturn(message);
+        when(aiPromptConfig.getSystemPromptTemplateWithChatContext(chatHistory)).thenReturn(contextMessage);
 
-        ChatMessage previousMessage = mock(ChatMessage.class);
-        User previousUser = mock(User.class);
-        when(previousMessage.getSender()).thenReturn(previousUser);
-        when(previousMessage.getTimestamp()).thenReturn(Instant.now());
-        when(previousUser.getFullName()).thenReturn("Steve");
-        when(previousMessage.getContent()).thenReturn("The door is yellow");
-        when(chatMessageService.getLatestMessagesExcludingUser(channel.getId(), aiUser, 20)).thenReturn(List.of(previousMessage));
+        ChatHistoryAiView chatHistory = new ChatHistoryAiView("Steve and Jane are renovating the entrance",
+                List.of(new ChatMessageAiView("Steve", "The door is yellow", "Monday, August 4, 2025, at 10:00 AM")));
+        when(chatChannelSummaryService.getHistory(channel.getId())).thenReturn(chatHistory);
 
         when(chatMessageService.saveMessage(channel.getId(), aiUser.getId(), aiFinalResponseContent, List.of())).thenReturn(aiMessage);
         when(aiMessage.getSender()).thenReturn(user);
@@ -205,16 +248,12 @@ public class ChatAiServiceTests {
         when(brickAiService.getAiUser()).thenReturn(aiUser);
         when(renovationService.getRenovationMembers(renovation)).thenReturn(List.of());
 
-        when(aiPromptConfig.getSystemPromptTemplateInitial(any(RenovationAiView.class))).thenReturn(message);
+        when(aiPromptConfig.getSystemPromptInitial(anyString())).thenReturn(message);
         when(aiPromptConfig.getSystemPromptTemplateWithChatContext(any())).thenReturn(contextMessage);
 
-        ChatMessage previousMessage = mock(ChatMessage.class);
-        User previousUser = mock(User.class);
-        when(previousMessage.getSender()).thenReturn(previousUser);
-        when(previousMessage.getTimestamp()).thenReturn(Instant.now());
-        when(previousUser.getFullName()).thenReturn("Steve");
-        when(previousMessage.getContent()).thenReturn("The door is yellow");
-        when(chatMessageService.getLatestMessagesExcludingUser(channel.getId(), aiUser, 20)).thenReturn(List.of(previousMessage));
+        ChatHistoryAiView chatHistory = new ChatHistoryAiView("Steve and Jane are renovating the entrance",
+                List.of(new ChatMessageAiView("Steve", "The door is yellow", "Monday, August 4, 2025, at 10:00 AM")));
+        when(chatChannelSummaryService.getHistory(channel.getId())).thenReturn(chatHistory);
 
 
         when(chatMessageService.saveMessage(channel.getId(), aiUser.getId(), aiFinalResponseContent, List.of())).thenReturn(aiMessage);
@@ -255,10 +294,10 @@ public class ChatAiServiceTests {
         when(brickAiService.getAiUser()).thenReturn(aiUser);
         when(renovationService.getRenovationMembers(renovation)).thenReturn(List.of());
 
-        when(aiPromptConfig.getSystemPromptTemplateInitial(any(RenovationAiView.class))).thenReturn(message);
+        when(aiPromptConfig.getSystemPromptInitial(anyString())).thenReturn(message);
         when(aiPromptConfig.getSystemPromptTemplateWithChatContext(any())).thenReturn(contextMessage);
 
-        when(chatMessageService.getLatestMessagesExcludingUser(channel.getId(), aiUser, 20)).thenReturn(List.of());
+        when(chatChannelSummaryService.getHistory(channel.getId())).thenReturn(new ChatHistoryAiView(null, List.of()));
 
         when(chatMessageService.saveMessage(channel.getId(), aiUser.getId(), aiFinalResponseContent, List.of())).thenReturn(aiMessage);
         when(aiMessage.getSender()).thenReturn(user);
@@ -275,4 +314,175 @@ public class ChatAiServiceTests {
         ChatMessageFragment first = optionalAiMessage.get().fragments().getFirst();
         assertEquals(aiFinalResponseContent, first.getText());
     }
+
+    @Test
+    void testHandleAiResponse_GivenHistoryToolEnabled_ThenAnswersInOneRequestWithTool() {
+        ReflectionTestUtils.setField(chatAiService, "historyToolEnabled", true);
+        String aiMessageContent = "The door is yellow";
+        when(userMessage.getMentions()).thenReturn(List.of(aiChatMention));
+        when(userMessage.getChannel()).thenReturn(channel);
+        when(userMessage.getContent()).thenReturn("@BrickAI What colour is the door?");
+        when(userMessage.getSender()).thenReturn(user);
+        when(userMessage.getTimestamp()).thenReturn(Instant.now());
+        when(aiMessage.getSender()).thenReturn(user);
+        when(aiChatMention.getMentionedUser()).thenReturn(aiUser);
+        when(brickAiService.isAiUser(aiUser)).thenReturn(true);
+        when(brickAiService.getAiUser()).thenReturn(aiUser);
+        when(renovationService.getRenovationMembers(renovation)).thenReturn(List.of());
+        when(chatMessageService.saveMessage(channel.getId(), aiUser.getId(), aiMessageContent, List.of())).thenReturn(aiMessage);
+        when(aiPromptConfig.getSystemPromptInitialWithHistoryTool(anyString())).thenReturn(message);
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.advisors((Consumer<ChatClient.AdvisorSpec>) any())).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.tools(chatHistoryTool)).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.toolContext(anyMap())).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.call()).thenReturn(chatClientResponseSpec);
+        when(chatClientResponseSpec.entity(AiResponse.class)).thenReturn(new AiResponseMessage(aiMessageContent));
+
+        Optional<OutgoingMessage> optionalAiMessage = chatAiService.handleAiResponse(userMessage).join();
+
+        assertTrue(optionalAiMessage.isPresent());
+        assertEquals(aiMessageContent, optionalAiMessage.get().fragments().getFirst().getText());
+        verify(chatClient, times(1)).prompt(any(Prompt.class));
+        verify(aiPromptConfig, never()).getSystemPromptTemplateWithChatContext(any());
+    }
+
+    @Test
+    void testHandleAiResponse_GivenHistoryToolEnabledAndAiRequiresChatContext_ThenFallsBackToSecondRequest() {
+        ReflectionTestUtils.setField(chatAiService, "historyToolEnabled", true);
+        String aiFinalResponseContent = "The door is yellow";
+        AiResponse requireContextResponse = mock(AiResponse.class);
+        when(requireContextResponse.getType()).thenReturn(AiResponseType.REQUIRE_CHAT_CONTEXT);
+        when(userMessage.getMentions()).thenReturn(List.of(aiChatMention));
+        when(userMessage.getChannel()).thenReturn(channel);
+        when(userMessage.getContent()).thenReturn("@BrickAI What colour is the door?");
+        when(userMessage.getSender()).thenReturn(user);
+        when(userMessage.getTimestamp()).thenReturn(Instant.now());
+        when(aiMessage.getSender()).thenReturn(user);
+        when(aiChatMention.getMentionedUser()).thenReturn(aiUser);
+        when(brickAiService.isAiUser(aiUser)).thenReturn(true);
+        when(brickAiService.getAiUser()).thenReturn(aiUser);
+        when(renovationService.getRenovationMembers(renovation)).thenReturn(List.of());
+        when(aiPromptConfig.getSystemPromptInitialWithHistoryTool(anyString())).thenReturn(message);
+        when(aiPromptConfig.getSystemPromptTemplateWithChatContext(any())).thenReturn(contextMessage);
+        when(chatChannelSummaryService.getHistory(channel.getId())).thenReturn(new ChatHistoryAiView(null, List.of()));
+        when(chatMessageService.saveMessage(channel.getId(), aiUser.getId(), aiFinalResponseContent, List.of())).thenReturn(aiMessage);
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.advisors((Consumer<ChatClient.AdvisorSpec>) any())).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.tools(chatHistoryTool)).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.toolContext(anyMap())).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.call()).thenReturn(chatClientResponseSpec);
+        when(chatClientResponseSpec.entity(AiResponse.class))
+                .thenReturn(requireContextResponse)
+                .thenReturn(new AiResponseMessage(aiFinalResponseContent));
+
+        Optional<OutgoingMessage> optionalAiMessage = chatAiService.handleAiResponse(userMessage).join();
+
+        assertTrue(optionalAiMessage.isPresent());
+        assertEquals(aiFinalResponseContent, optionalAiMessage.get().fragments().getFirst().getText());
+        verify(chatClient, times(2)).prompt(any(Prompt.class));
+        // the follow-up request already has the history, so the tool is only offered on the first request
+        verify(chatClientRequestSpec, times(1)).tools(chatHistoryTool);
+    }
+
+    @Test
+    void testHandleAiResponse_GivenSameQuestionAskedAgain_ThenAnsweredFromCacheWithoutAiRequest() {
+        String aiMessageContent = "The budget is $5000";
+        ChatMessage repeatedMessage = mock(ChatMessage.class);
+        for (ChatMessage sent : List.of(userMessage, repeatedMessage)) {
+            when(sent.getMentions()).thenReturn(List.of(aiChatMention));
+            when(sent.getChannel()).thenReturn(channel);
+            when(sent.getSender()).thenReturn(user);
+            when(sent.getTimestamp()).thenReturn(Instant.now());
+        }
+        when(userMessage.getContent()).thenReturn("@BrickAI What's the budget?");
+        when(repeatedMessage.getContent()).thenReturn("@BrickAI  what's the budget");
+        when(aiMessage.getSender()).thenReturn(aiUser);
+        when(aiChatMention.getMentionedUser()).thenReturn(aiUser);
+        when(brickAiService.isAiUser(aiUser)).thenReturn(true);
+        when(brickAiService.getAiUser()).thenReturn(aiUser);
+        when(renovationService.getRenovationMembers(renovation)).thenReturn(List.of());
+        when(chatMessageService.saveMessage(channel.getId(), aiUser.getId(), aiMessageContent, List.of())).thenReturn(aiMessage);
+        when(aiPromptConfig.getSystemPromptInitial(anyString())).thenReturn(message);
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.advisors((Consumer<ChatClient.AdvisorSpec>) any())).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.call()).thenReturn(chatClientResponseSpec);
+        when(chatClientResponseSpec.entity(AiResponse.class)).thenReturn(new AiResponseMessage(aiMessageContent));
+
+        chatAiService.handleAiResponse(userMessage).join();
+        Optional<OutgoingMessage> cachedReply = chatAiService.handleAiResponse(repeatedMessage).join();
+
+        assertTrue(cachedReply.isPresent());
+        assertEquals(aiMessageContent, cachedReply.get().fragments().getFirst().getText());
+        verify(chatClient, times(1)).prompt(any(Prompt.class));
+        verify(chatMessageService, times(2)).saveMessage(channel.getId(), aiUser.getId(), aiMessageContent, List.of());
+        verify(chatMemory).add(eq(String.valueOf(channel.getId())), anyList());
+    }
+
+    @Test
+    void testHandleAiResponse_GivenAnswerUsedChatHistory_ThenNotAnsweredFromCache() {
+        ReflectionTestUtils.setField(chatAiService, "historyToolEnabled", true);
+        String aiMessageContent = "You agreed on a yellow door";
+        ChatMessage repeatedMessage = mock(ChatMessage.class);
+        for (ChatMessage sent : List.of(userMessage, repeatedMessage)) {
+            when(sent.getMentions()).thenReturn(List.of(aiChatMention));
+            when(sent.getChannel()).thenReturn(channel);
+            when(sent.getSender()).thenReturn(user);
+            when(sent.getTimestamp()).thenReturn(Instant.now());
+            when(sent.getContent()).thenReturn("@BrickAI What colour did we agree on?");
+        }
+        when(aiMessage.getSender()).thenReturn(aiUser);
+        when(aiChatMention.getMentionedUser()).thenReturn(aiUser);
+        when(brickAiService.isAiUser(aiUser)).thenReturn(true);
+        when(brickAiService.getAiUser()).thenReturn(aiUser);
+        when(renovationService.getRenovationMembers(renovation)).thenReturn(List.of());
+        when(chatMessageService.saveMessage(channel.getId(), aiUser.getId(), aiMessageContent, List.of())).thenReturn(aiMessage);
+        when(aiPromptConfig.getSystemPromptInitialWithHistoryTool(anyString())).thenReturn(message);
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.advisors((Consumer<ChatClient.AdvisorSpec>) any())).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.tools(chatHistoryTool)).thenReturn(chatClientRequestSpec);
+        // the AI calls the history tool while answering
+        when(chatClientRequestSpec.toolContext(anyMap())).thenAnswer(invocation -> {
+            Map<String, Object> toolContext = invocation.getArgument(0);
+            ((AtomicBoolean) toolContext.get(ChatHistoryTool.HISTORY_READ)).set(true);
+            return chatClientRequestSpec;
+        });
+        when(chatClientRequestSpec.call()).thenReturn(chatClientResponseSpec);
+        when(chatClientResponseSpec.entity(AiResponse.class)).thenReturn(new AiResponseMessage(aiMessageContent));
+
+        chatAiService.handleAiResponse(userMessage).join();
+        chatAiService.handleAiResponse(repeatedMessage).join();
+
+        verify(chatClient, times(2)).prompt(any(Prompt.class));
+        verify(aiResponseCache, never()).put(anyLong(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testHandleAiResponse_GivenRenovationChangedSinceQuestionAnswered_ThenAiAskedAgain() {
+        when(userMessage.getMentions()).thenReturn(List.of(aiChatMention));
+        when(userMessage.getChannel()).thenReturn(channel);
+        when(userMessage.getSender()).thenReturn(user);
+        when(userMessage.getTimestamp()).thenReturn(Instant.now());
+        when(userMessage.getContent()).thenReturn("@BrickAI What's the budget?");
+        when(aiMessage.getSender()).thenReturn(aiUser);
+        when(aiChatMention.getMentionedUser()).thenReturn(aiUser);
+        when(brickAiService.isAiUser(aiUser)).thenReturn(true);
+        when(brickAiService.getAiUser()).thenReturn(aiUser);
+        when(renovationService.getRenovationMembers(renovation)).thenReturn(List.of());
+        when(chatMessageService.saveMessage(eq(channel.getId()), eq(aiUser.getId()), anyString(), eq(List.of()))).thenReturn(aiMessage);
+        when(aiPromptConfig.getSystemPromptInitial(anyString())).thenReturn(message);
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.advisors((Consumer<ChatClient.AdvisorSpec>) any())).thenReturn(chatClientRequestSpec);
+        when(chatClientRequestSpec.call()).thenReturn(chatClientResponseSpec);
+        when(chatClientResponseSpec.entity(AiResponse.class))
+                .thenReturn(new AiResponseMessage("The budget is $5000"), new AiResponseMessage("The budget is $6000"));
+
+        chatAiService.handleAiResponse(userMessage).join();
+        renovationAiContextCache.invalidate(renovation.getId());
+        Optional<OutgoingMessage> reply = chatAiService.handleAiResponse(userMessage).join();
+
+        assertTrue(reply.isPresent());
+        assertEquals("The budget is $6000", reply.get().fragments().getFirst().getText());
+        verify(chatClient, times(2)).prompt(any(Prompt.class));
+        verify(chatMemory, never()).add(anyString(), anyList());
+    }
 }
@@ -0,0 +1,290 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.config.chat.AiPromptConfig;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.AiUsageRollup;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannelSummary;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatHistoryAiView;
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatMessageAiView;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.AiUsageRollupRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatChannelSummaryRepository;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatMessageRepository;
+import nz.ac.canterbury.seng302.homehelper.service.chat.AiUsageService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatChannelSummaryService;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.BrickAiService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChatChannelSummaryServiceTests {
+
+    private static final long CHANNEL_ID = 100L;
+    private static final long RENOVATION_ID = 7L;
+    private static final Instant BASE_TIME = Instant.parse("2025-08-04T10:00:00Z");
+
+    private @Mock ChatChannelSummaryRepository summaryRepository;
+    private @Mock ChatMessageRepository chatMessageRepository;
+    private @Mock BrickAiService brickAiService;
+    private @Mock AiUsageRollupRepository aiUsageRollupRepository;
+
+    private StubChatModel chatModel;
+    private SimpleMeterRegistry meterRegistry;
+    private AiUsageService aiUsageService;
+    private List<Runnable> summaryTasks;
+    private ChatChannelSummaryService chatChannelSummaryService;
+    private User aiUser;
+    private User sender;
+    private ChatChannel channel;
+
+    @BeforeEach
+    void setup() {
+        chatModel = new StubChatModel();
+        summaryTasks = new ArrayList<>();
+        meterRegistry = new SimpleMeterRegistry();
+        aiUsageService = new AiUsageService(aiUsageRollupRepository, meterRegistry);
+        // 2 recent messages are kept out of the summary, and messages are summarised 3 at a time
+        chatChannelSummaryService = new ChatChannelSummaryService(summaryRepository, chatMessageRepository,
+                brickAiService, new AiPromptConfig(), chatModel, aiUsageService, summaryTasks::add, 2, 3, 2000);
+        aiUser = new User("BrickAI", "", "brickai@homehelper.nz");
+        sender = new User("Jane", "Doe", "jane@doe.nz");
+        Renovation renovation = new Renovation("Deck", "New deck");
+        renovation.setId(RENOVATION_ID);
+        channel = new ChatChannel(CHANNEL_ID, "general", renovation, List.of(), List.of());
+        when(brickAiService.getAiUser()).thenReturn(aiUser);
+    }
+
+    private ChatMessage message(long id) {
+        return new ChatMessage(id, "message " + id, BASE_TIME.plusSeconds(id), channel, sender);
+    }
+
+    private List<ChatMessage> messages(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId).mapToObj(this::message).toList();
+    }
+
+    private ChatChannelSummary summaryUpTo(String summary, long messageId) {
+        ChatChannelSummary channelSummary = new ChatChannelSummary(CHANNEL_ID);
+        channelSummary.update(summary, message(messageId));
+        return channelSummary;
+    }
+
+    @Test
+    void testSummariseChannel_GivenNoSummaryAndFullBatch_ThenOldestBatchSummarisedInOneRequest() {
+        when(summaryRepository.findById(CHANNEL_ID)).thenReturn(Optional.empty());
+        when(chatMessageRepository.findLatestMessagesExcludingUser(CHANNEL_ID, aiUser, 5))
+                .thenReturn(messages(1, 5).reversed());
+        chatModel.reply = "Jane sent messages 1 to 3";
+
+        chatChannelSummaryService.summariseChannel(CHANNEL_ID);
+
+        assertEquals(1, chatModel.prompts.size());
+        String prompt = chatModel.prompts.getFirst().getContents();
+        assertTrue(prompt.contains("message 1") && prompt.contains("message 3"));
+        assertFalse(prompt.contains("message 4"));
+        ArgumentCaptor<ChatChannelSummary> saved = ArgumentCaptor.forClass(ChatChannelSummary.class);
+        verify(summaryRepository).save(saved.capture());
+        assertEquals("Jane sent messages 1 to 3", saved.getValue().getSummary());
+        assertEquals(3L, saved.getValue().getLastMessageId());
+    }
+
+    @Test
+    void testSummariseChannel_GivenExistingSummary_ThenSummaryExtendedWithOnlyNewMessages() {
+        when(summaryRepository.findById(CHANNEL_ID)).thenReturn(Optional.of(summaryUpTo("The deck is green", 3)));
+        when(chatMessageRepository.findNextMessagesExcludingUser(CHANNEL_ID, aiUser, BASE_TIME.plusSeconds(3), 3L,
+                PageRequest.of(0, 5))).thenReturn(messages(4, 8));
+        chatModel.reply = "The deck is green, and Jane sent messages 4 to 6";
+
+        chatChannelSummaryService.summariseChannel(CHANNEL_ID);
+
+        assertEquals(1, chatModel.prompts.size());
+        String prompt = chatModel.prompts.getFirst().getContents();
+        assertTrue(prompt.contains("The deck is green"));
+        assertTrue(prompt.contains("message 4") && prompt.contains("message 6"));
+        assertFalse(prompt.contains("message 3"));
+        assertFalse(prompt.contains("message 7"));
+        verify(chatMessageRepository, never()).findLatestMessagesExcludingUser(anyLong(), any(), anyInt());
+        ArgumentCaptor<ChatChannelSummary> saved = ArgumentCaptor.forClass(ChatChannelSummary.class);
+        verify(summaryRepository).save(saved.capture());
+        assertEquals("The deck is green, and Jane sent messages 4 to 6", saved.getValue().getSummary());
+        assertEquals(6L, saved.getValue().getLastMessageId());
+    }
+
+    @Test
+    void testSummariseChannel_GivenFullBatch_ThenCallRecordedAsSummaryForChannelsRenovation() {
+        when(summaryRepository.findById(CHANNEL_ID)).thenReturn(Optional.empty());
+        when(chatMessageRepository.findLatestMessagesExcludingUser(CHANNEL_ID, aiUser, 5))
+                .thenReturn(messages(1, 5).reversed());
+
+        chatChannelSummaryService.summariseChannel(CHANNEL_ID);
+        aiUsageService.flush();
+
+        assertEquals(1, meterRegistry.get("chat.ai.call").tag("type", "SUMMARY").timer().count());
+        ArgumentCaptor<AiUsageRollup> rollup = ArgumentCaptor.forClass(AiUsageRollup.class);
+        verify(aiUsageRollupRepository).save(rollup.capture());
+        assertEquals(RENOVATION_ID, rollup.getValue().getId().getRenovationId());
+        assertEquals(1, rollup.getValue().getCallCount());
+        assertEquals(1, rollup.getValue().getSummaryCount());
+        assertEquals(0, rollup.getValue().getMessageCount());
+    }
+
+    @Test
+    void testSummariseChannel_GivenModelFails_ThenCallRecordedAsFailure() {
+        when(summaryRepository.findById(CHANNEL_ID)).thenReturn(Optional.empty());
+        when(chatMessageRepository.findLatestMessagesExcludingUser(CHANNEL_ID, aiUser, 5))
+                .thenReturn(messages(1, 5).reversed());
+        chatModel.failure = new IllegalStateException("Model unavailable");
+
+        assertThrows(IllegalStateException.class, () -> chatChannelSummaryService.summariseChannel(CHANNEL_ID));
+        aiUsageService.flush();
+
+        ArgumentCaptor<AiUsageRollup> rollup = ArgumentCaptor.forClass(AiUsageRollup.class);
+        verify(aiUsageRollupRepository).save(rollup.capture());
+        assertEquals(1, rollup.getValue().getFailureCount());
+        assertEquals(0, rollup.getValue().getSummaryCount());
+        verify(summaryRepository, never()).save(any());
+    }
+
+    @Test
+    void testSummariseChannel_GivenLessThanBatchBeyondRecentMessages_ThenModelNotCalled() {
+        when(summaryRepository.findById(CHANNEL_ID)).thenReturn(Optional.of(summaryUpTo("The deck is green", 3)));
+        when(chatMessageRepository.findNextMessagesExcludingUser(CHANNEL_ID, aiUser, BASE_TIME.plusSeconds(3), 3L,
+                PageRequest.of(0, 5))).thenReturn(messages(4, 7));
+
+        chatChannelSummaryService.summariseChannel(CHANNEL_ID);
+
+        assertTrue(chatModel.prompts.isEmpty());
+        verify(summaryRepository, never()).save(any());
+    }
+
+    @Test
+    void testGetHistory_GivenSummary_ThenReturnsStoredSummaryAndMessagesAfterIt() {
+        when(summaryRepository.findById(CHANNEL_ID)).thenReturn(Optional.of(summaryUpTo("The deck is green", 3)));
+        when(chatMessageRepository.findLatestMessagesExcludingUser(CHANNEL_ID, aiUser, 5))
+                .thenReturn(messages(1, 5).reversed());
+
+        ChatHistoryAiView history = chatChannelSummaryService.getHistory(CHANNEL_ID);
+
+        assertEquals("The deck is green", history.earlierConversationSummary());
+        assertEquals(List.of(new ChatMessageAiView(message(4)), new ChatMessageAiView(message(5))),
+                history.latestMessages());
+        assertTrue(chatModel.prompts.isEmpty());
+    }
+
+    @Test
+    void testSummarisePendingChannels_GivenHistoryReadFromSummarisedChannel_ThenStoredSummaryReused() {
+        ChatChannelSummary summary = summaryUpTo("The deck is green", 3);
+        when(summaryRepository.findById(CHANNEL_ID)).thenReturn(Optional.of(summary));
+        when(chatMessageRepository.findLatestMessagesExcludingUser(CHANNEL_ID, aiUser, 5))
+                .thenReturn(messages(4, 8).reversed());
+        when(chatMessageRepository.findNextMessagesExcludingUser(CHANNEL_ID, aiUser, BASE_TIME.plusSeconds(3), 3L,
+                PageRequest.of(0, 5))).thenReturn(messages(4, 8));
+        when(chatMessageRepository.findNextMessagesExcludingUser(CHANNEL_ID, aiUser, BASE_TIME.plusSeconds(6), 6L,
+                PageRequest.of(0, 5))).thenReturn(messages(7, 8));
+        chatModel.reply = "The deck is green, and Jane sent messages 4 to 6";
+
+        chatChannelSummaryService.getHistory(CHANNEL_ID);
+        summariseAndRunPendingChannels();
+        // the channel is checked again in case more than one batch was waiting
+        summariseAndRunPendingChannels();
+        summariseAndRunPendingChannels();
+
+        assertEquals(1, chatModel.prompts.size());
+        assertEquals(6L, summary.getLastMessageId());
+        verify(summaryRepository, times(1)).save(summary);
+    }
+
+    @Test
+    void testSummarisePendingChannels_GivenChannelMarked_ThenSummarisedOnExecutorNotScheduler() {
+        when(summaryRepository.findById(CHANNEL_ID)).thenReturn(Optional.empty());
+        when(chatMessageRepository.findLatestMessagesExcludingUser(CHANNEL_ID, aiUser, 5))
+                .thenReturn(messages(1, 5).reversed());
+
+        chatChannelSummaryService.getHistory(CHANNEL_ID);
+        chatChannelSummaryService.summarisePendingChannels();
+
+        assertEquals(1, summaryTasks.size());
+        assertTrue(chatModel.prompts.isEmpty());
+
+        summaryTasks.removeFirst().run();
+
+        assertEquals(1, chatModel.prompts.size());
+    }
+
+    @Test
+    void testSummarisePendingChannels_GivenChannelStillBeingSummarised_ThenNotSummarisedTwiceAtOnce() {
+        when(summaryRepository.findById(CHANNEL_ID)).thenReturn(Optional.empty());
+        when(chatMessageRepository.findLatestMessagesExcludingUser(CHANNEL_ID, aiUser, 5))
+                .thenReturn(messages(1, 5).reversed());
+
+        chatChannelSummaryService.getHistory(CHANNEL_ID);
+        chatChannelSummaryService.summarisePendingChannels();
+        chatChannelSummaryService.getHistory(CHANNEL_ID);
+        chatChannelSummaryService.summarisePendingChannels();
+
+        assertEquals(1, summaryTasks.size());
+    }
+
+    @Test
+    void testGetHistory_GivenNoMoreThanRecentMessages_ThenChannelNotSummarised() {
+        when(summaryRepository.findById(CHANNEL_ID)).thenReturn(Optional.empty());
+        when(chatMessageRepository.findLatestMessagesExcludingUser(CHANNEL_ID, aiUser, 5))
+                .thenReturn(messages(1, 2).reversed());
+
+        chatChannelSummaryService.getHistory(CHANNEL_ID);
+        chatChannelSummaryService.summarisePendingChannels();
+
+        assertTrue(summaryTasks.isEmpty());
+    }
+
+    /**
+     * Runs a scheduled summarising pass, then the summaries it handed to the executor.
+     */
+    private void summariseAndRunPendingChannels() {
+        chatChannelSummaryService.summarisePendingChannels();
+        List<Runnable> tasks = List.copyOf(summaryTasks);
+        summaryTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    /**
+     * Chat model that replies with a fixed summary, or fails if given a failure, and records the prompts it was sent.
+     */
+    private static class StubChatModel implements ChatModel {
+
+        private final List<Prompt> prompts = new ArrayList<>();
+        private String reply = "summary";
+        private RuntimeException failure;
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            prompts.add(prompt);
+            if (failure != null) {
+                throw failure;
+            }
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(reply))));
+        }
+    }
+}
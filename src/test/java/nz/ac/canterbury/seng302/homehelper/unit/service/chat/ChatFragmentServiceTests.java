@@ -19,6 +19,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -154,6 +155,49 @@ public class ChatFragmentServiceTests {
         assertThat(fragments.get(1), mentionFragment(userCharlieBob));
     }
 
+    @Test
+    void testExtractFragmentsFromMessage_WhenMentionsNotInOrder_ThenMessageMentionsNotReordered() {
+        String content = "@Jeremy Joe@Charlie Bob";
+        User userJeremyJoe = new User(1, "Jeremy", "Joe");
+        User userCharlieBob = new User(2, "Charlie", "Bob");
+        ChatMention mentionJeremyJoe = new ChatMention(chatMessage, userJeremyJoe, 0, 10);
+        ChatMention mentionCharlieBob = new ChatMention(chatMessage, userCharlieBob, 11, 22);
+        List<ChatMention> mentions = listOf(mentionCharlieBob, mentionJeremyJoe);
+        when(chatMessage.getContent()).thenReturn(content);
+        when(chatMessage.getMentions()).thenReturn(mentions);
+
+        chatFragmentService.extractFragmentsFromMessage(chatMessage);
+
+        assertThat(mentions, contains(mentionCharlieBob, mentionJeremyJoe));
+    }
+
+    @Test
+    void testStoreFragments_WhenMessageHasMention_ThenFragmentsReadBackWithoutMentions() {
+        String content = "Hello @Jeremy Joe";
+        User userJeremyJoe = new User(1, "Jeremy", "Joe");
+        ChatMessage message = new ChatMessage(content, Instant.now(), null, null);
+        message.getMentions().add(new ChatMention(message, userJeremyJoe, 6, 16));
+
+        chatFragmentService.storeFragments(message);
+        message.getMentions().clear();
+        List<ChatMessageFragment> fragments = chatFragmentService.extractFragmentsFromMessage(message);
+
+        assertThat(message.getFragments(), notNullValue());
+        assertThat(fragments, hasSize(2));
+        assertThat(fragments.getFirst(), textFragment("Hello "));
+        assertThat(fragments.get(1), mentionFragment(userJeremyJoe));
+    }
+
+    @Test
+    void testStoreFragments_WhenFragmentsTooLongToStore_ThenNothingStored() {
+        ChatMessage message = new ChatMessage("\u0001".repeat(2000), Instant.now(), null, null);
+
+        List<ChatMessageFragment> fragments = chatFragmentService.storeFragments(message);
+
+        assertThat(message.getFragments(), nullValue());
+        assertThat(fragments, hasSize(1));
+    }
+
     /**
      * Creates a mutable List from a varargs array of elements.
      *
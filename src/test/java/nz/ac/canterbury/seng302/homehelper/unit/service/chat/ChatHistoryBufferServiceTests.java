@@ -0,0 +1,102 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingMessage;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatHistoryBufferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChatHistoryBufferServiceTests {
+
+    private static final Instant BASE_TIME = Instant.parse("2025-08-04T10:00:00Z");
+
+    private ChatHistoryBufferService chatHistoryBufferService;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        chatHistoryBufferService = new ChatHistoryBufferService(3, 30);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testGetLatestMessages_WhenCalledTwice_ThenOnlyLoadsOnce() {
+        List<OutgoingMessage> page = List.of(message(2), message(1));
+
+        List<OutgoingMessage> first = chatHistoryBufferService.getLatestMessages(1L, loader(page));
+        List<OutgoingMessage> second = chatHistoryBufferService.getLatestMessages(1L, loader(page));
+
+        assertEquals(page, first);
+        assertEquals(page, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testAppend_WhenBufferFull_ThenOldestMessageDropped() {
+        chatHistoryBufferService.getLatestMessages(1L, loader(List.of(message(3), message(2), message(1))));
+
+        chatHistoryBufferService.append(1L, message(4));
+
+        List<OutgoingMessage> result = chatHistoryBufferService.getLatestMessages(1L, loader(List.of()));
+        assertEquals(List.of(message(4), message(3), message(2)), result);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testAppend_WhenChannelNotBuffered_ThenNothingStored() {
+        chatHistoryBufferService.append(1L, message(1));
+
+        List<OutgoingMessage> page = List.of(message(2), message(1));
+        assertEquals(page, chatHistoryBufferService.getLatestMessages(1L, loader(page)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testAppend_WhenMessageOutOfOrder_ThenReloadsFromLoader() {
+        chatHistoryBufferService.getLatestMessages(1L, loader(List.of(message(3), message(2))));
+
+        chatHistoryBufferService.append(1L, message(1));
+
+        List<OutgoingMessage> page = List.of(message(3), message(2), message(1));
+        assertEquals(page, chatHistoryBufferService.getLatestMessages(1L, loader(page)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGetLatestMessages_WhenMessageSentWhileLoading_ThenBufferNotFilled() {
+        chatHistoryBufferService.getLatestMessages(1L, () -> {
+            chatHistoryBufferService.append(1L, message(3));
+            return loader(List.of(message(2), message(1))).get();
+        });
+
+        chatHistoryBufferService.getLatestMessages(1L, loader(List.of(message(3), message(2), message(1))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testEvictChannelsIdleSince_WhenChannelIdle_ThenReloadsFromLoader() {
+        chatHistoryBufferService.getLatestMessages(1L, loader(List.of(message(1))));
+
+        chatHistoryBufferService.evictChannelsIdleSince(Instant.now().plusSeconds(1));
+
+        chatHistoryBufferService.getLatestMessages(1L, loader(List.of(message(1))));
+        assertEquals(2, loads.get());
+    }
+
+    private Supplier<List<OutgoingMessage>> loader(List<OutgoingMessage> messages) {
+        return () -> {
+            loads.incrementAndGet();
+            return messages;
+        };
+    }
+
+    private OutgoingMessage message(long id) {
+        return new OutgoingMessage(id, List.of(), BASE_TIME.plusSeconds(id), null, false);
+    }
+}
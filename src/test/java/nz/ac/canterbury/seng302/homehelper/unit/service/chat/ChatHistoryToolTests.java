@@ -0,0 +1,40 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatHistoryAiView;
+import nz.ac.canterbury.seng302.homehelper.model.ai.ChatMessageAiView;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatChannelSummaryService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatHistoryTool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.model.ToolContext;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ChatHistoryToolTests {
+
+    private @Mock ChatChannelSummaryService chatChannelSummaryService;
+    private @InjectMocks ChatHistoryTool chatHistoryTool;
+
+    @Test
+    void testGetChatHistory_GivenChannelInToolContext_ThenReturnsHistoryOfChannel() {
+        ChatHistoryAiView history = new ChatHistoryAiView("Jane is painting the door",
+                List.of(new ChatMessageAiView("Jane Doe", "The door is yellow", "Monday, August 4, 2025, at 10:00 AM")));
+        when(chatChannelSummaryService.getHistory(100L)).thenReturn(history);
+
+        AtomicBoolean historyRead = new AtomicBoolean();
+
+        ChatHistoryAiView result = chatHistoryTool.getChatHistory(new ToolContext(ChatHistoryTool.toolContext(100L, historyRead)));
+
+        assertEquals(history, result);
+        assertTrue(historyRead.get());
+    }
+}
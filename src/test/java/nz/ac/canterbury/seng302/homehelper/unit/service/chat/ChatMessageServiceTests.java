@@ -4,7 +4,6 @@ import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
 import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
-import nz.ac.canterbury.seng302.homehelper.exceptions.user.UserNotFoundException;
 import nz.ac.canterbury.seng302.homehelper.exceptions.chat.ChatChannelNotFoundException;
 import nz.ac.canterbury.seng302.homehelper.exceptions.chat.ChatChannelUnauthorisedException;
 import nz.ac.canterbury.seng302.homehelper.exceptions.chat.ChatMessageException;
@@ -13,6 +12,7 @@ import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatChannelRepository
 import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatMessageRepository;
 import nz.ac.canterbury.seng302.homehelper.repository.renovation.RenovationRepository;
 import nz.ac.canterbury.seng302.homehelper.repository.user.UserRepository;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatFragmentService;
 import nz.ac.canterbury.seng302.homehelper.service.chat.ChatMessageService;
 import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.Test;
@@ -20,6 +20,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -43,6 +44,7 @@ public class ChatMessageServiceTests {
     private @Mock ChatChannelRepository chatChannelRepository;
     private @Mock ChatMessageRepository chatMessageRepository;
     private @Mock UserRepository userRepository;
+    private @Mock ChatFragmentService chatFragmentService;
 
 
     private @InjectMocks ChatMessageService chatMessageService;
@@ -54,49 +56,54 @@ public class ChatMessageServiceTests {
         long channelId = 1L;
         long senderId = 2L;
         String content = "Hello there!";
-        User sender = mock(User.class);
-        ChatChannel channel = mock(ChatChannel.class);
-        when(chatChannelRepository.isUserMemberOfChannel(channelId, senderId)).thenReturn(true);
-        when(chatChannelRepository.findById(channelId)).thenReturn(Optional.of(channel));
-        when(userRepository.findUserById(senderId)).thenReturn(List.of(sender));
-        when(chatMessageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        User sender = mockUser(senderId);
+        ChatChannel channel = mockChannel(sender);
+        when(chatChannelRepository.findByIdWithMembers(channelId)).thenReturn(Optional.of(channel));
+        when(chatMessageRepository.saveWithChildren(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         ChatMessage result = chatMessageService.saveMessage(channelId, senderId, content, List.of());
         assertEquals(content, result.getContent());
         assertEquals(channel, result.getChannel());
         assertEquals(sender, result.getSender());
         assertNotNull(result.getTimestamp());
-        verify(chatMessageRepository).save(any(ChatMessage.class));
+        verify(chatMessageRepository).saveWithChildren(any(ChatMessage.class));
     }
 
     @Test
     void testSaveMessage_GivenUserNotInChannel_ShouldThrowUnauthorisedException() {
-        when(chatChannelRepository.isUserMemberOfChannel(1L, 2L)).thenReturn(false);
+        ChatChannel channel = mockChannel(mockUser(3L));
+        when(chatChannelRepository.findByIdWithMembers(1L)).thenReturn(Optional.of(channel));
 
         assertThrows(ChatChannelUnauthorisedException.class,
                 () -> chatMessageService.saveMessage(1L, 2L, "test", List.of()));
-        verify(chatChannelRepository, never()).findById(anyLong());
-        verify(chatChannelRepository, never()).save(any());
+        verify(chatMessageRepository, never()).saveWithChildren(any());
     }
 
     @Test
     void testSaveMessage_GivenMissingChannel_ShouldThrowChannelNotFoundException() {
-        when(chatChannelRepository.isUserMemberOfChannel(1L, 2L)).thenReturn(true);
-        when(chatChannelRepository.findById(1L)).thenReturn(Optional.empty());
+        when(chatChannelRepository.findByIdWithMembers(1L)).thenReturn(Optional.empty());
 
         assertThrows(ChatChannelNotFoundException.class,
                 () -> chatMessageService.saveMessage(1L, 2L, "test", List.of()));
+        verify(chatMessageRepository, never()).saveWithChildren(any());
     }
 
     @Test
-    void testSaveMessage_GivenMissingUser_ShouldThrowUserNotFoundException() {
-        ChatChannel channel = mock(ChatChannel.class);
-        when(chatChannelRepository.isUserMemberOfChannel(1L, 2L)).thenReturn(true);
-        when(chatChannelRepository.findById(1L)).thenReturn(Optional.of(channel));
-        when(userRepository.findUserById(2L)).thenReturn(List.of());
-
-        assertThrows(UserNotFoundException.class,
-                () -> chatMessageService.saveMessage(1L, 2L, "test", List.of()));
+    void testSaveMessage_GivenValidMessage_ShouldOnlyLoadChannelOnce() {
+        long channelId = 1L;
+        long senderId = 2L;
+        User sender = mockUser(senderId);
+        User mentionedUser1 = mockUser(6L);
+        User mentionedUser2 = mockUser(7L);
+        ChatChannel channel = mockChannel(sender, mentionedUser1, mentionedUser2);
+        when(chatChannelRepository.findByIdWithMembers(channelId)).thenReturn(Optional.of(channel));
+        when(chatMessageRepository.saveWithChildren(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        chatMessageService.saveMessage(channelId, senderId, "Hi @Sam Smith @Bob Smith",
+                List.of(new IncomingMention(6L, 3, 12), new IncomingMention(7L, 14, 23)));
+        verify(chatChannelRepository, times(1)).findByIdWithMembers(channelId);
+        verifyNoMoreInteractions(chatChannelRepository);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -105,18 +112,12 @@ public class ChatMessageServiceTests {
         long senderId = 2L;
         long mentionedUserId = 6L;
         String content = "Hi @Sam Smith";
-        User sender = mock(User.class);
-        User mentionedUser = mock(User.class);
-        ChatChannel channel = mock(ChatChannel.class);
+        User sender = mockUser(senderId);
+        User mentionedUser = mockUser(mentionedUserId);
+        ChatChannel channel = mockChannel(sender, mentionedUser);
 
-        when(sender.getId()).thenReturn(senderId);
-        when(mentionedUser.getId()).thenReturn(mentionedUserId);
-        when(chatChannelRepository.isUserMemberOfChannel(channelId, senderId)).thenReturn(true);
-        when(chatChannelRepository.isUserMemberOfChannel(channelId, mentionedUserId)).thenReturn(true);
-        when(chatChannelRepository.findById(channelId)).thenReturn(Optional.of(channel));
-        when(userRepository.findUserById(senderId)).thenReturn(List.of(sender));
-        when(userRepository.findUserById(mentionedUserId)).thenReturn(List.of(mentionedUser));
-        when(chatMessageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(chatChannelRepository.findByIdWithMembers(channelId)).thenReturn(Optional.of(channel));
+        when(chatMessageRepository.saveWithChildren(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         IncomingMention incomingMention = new IncomingMention(mentionedUserId, 3, 12);
         ChatMessage result = chatMessageService.saveMessage(channelId, senderId, content, List.of(incomingMention));
@@ -126,7 +127,7 @@ public class ChatMessageServiceTests {
         assertNotNull(result.getTimestamp());
         assertEquals(1, result.getMentions().size());
         assertEquals(6L, result.getMentions().getFirst().getMentionedUser().getId());
-        verify(chatMessageRepository).save(any(ChatMessage.class));
+        verify(chatMessageRepository).saveWithChildren(any(ChatMessage.class));
     }
     @Test
     void testSaveMessage_MultipleValidMentions_MentionsSaved() {
@@ -135,22 +136,13 @@ public class ChatMessageServiceTests {
         long mentionedUserId1 = 6L;
         long mentionedUserId2 = 7L;
         String content = "Hi @Sam Smith @Bpb Smith";
-        User sender = mock(User.class);
-        User mentionedUser1 = mock(User.class);
-        User mentionedUser2 = mock(User.class);
-        ChatChannel channel = mock(ChatChannel.class);
+        User sender = mockUser(senderId);
+        User mentionedUser1 = mockUser(mentionedUserId1);
+        User mentionedUser2 = mockUser(mentionedUserId2);
+        ChatChannel channel = mockChannel(sender, mentionedUser1, mentionedUser2);
 
-        when(sender.getId()).thenReturn(senderId);
-        when(mentionedUser1.getId()).thenReturn(mentionedUserId1);
-        when(mentionedUser2.getId()).thenReturn(mentionedUserId2);
-        when(chatChannelRepository.isUserMemberOfChannel(channelId, senderId)).thenReturn(true);
-        when(chatChannelRepository.isUserMemberOfChannel(channelId, mentionedUserId1)).thenReturn(true);
-        when(chatChannelRepository.isUserMemberOfChannel(channelId, mentionedUserId2)).thenReturn(true);
-        when(chatChannelRepository.findById(channelId)).thenReturn(Optional.of(channel));
-        when(userRepository.findUserById(senderId)).thenReturn(List.of(sender));
-        when(userRepository.findUserById(mentionedUserId1)).thenReturn(List.of(mentionedUser1));
-        when(userRepository.findUserById(mentionedUserId2)).thenReturn(List.of(mentionedUser2));
-        when(chatMessageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(chatChannelRepository.findByIdWithMembers(channelId)).thenReturn(Optional.of(channel));
+        when(chatMessageRepository.saveWithChildren(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         IncomingMention incomingMention1 = new IncomingMention(mentionedUserId1, 3, 12);
         IncomingMention incomingMention2 = new IncomingMention(mentionedUserId2, 14, 23);
@@ -162,23 +154,20 @@ public class ChatMessageServiceTests {
         assertEquals(2, result.getMentions().size());
         assertEquals(6L, result.getMentions().getFirst().getMentionedUser().getId());
         assertEquals(7L, result.getMentions().getLast().getMentionedUser().getId());
-        verify(chatMessageRepository).save(any(ChatMessage.class));
+        verify(chatMessageRepository).saveWithChildren(any(ChatMessage.class));
     }
 
     @Test
-    void testSaveMessage_MentionedUserDoesNotExist_MentionBypassed() {
+    void testSaveMessage_MentionedUserNotInChannel_MentionBypassed() {
         long channelId = 1L;
         long senderId = 2L;
         long mentionedUserId = 6L;
         String content = "Hi @Sam Smith";
-        User sender = mock(User.class);
-        ChatChannel channel = mock(ChatChannel.class);
+        User sender = mockUser(senderId);
+        ChatChannel channel = mockChannel(sender);
 
-        when(chatChannelRepository.isUserMemberOfChannel(channelId, senderId)).thenReturn(true);
-        when(chatChannelRepository.findById(channelId)).thenReturn(Optional.of(channel));
-        when(userRepository.findUserById(senderId)).thenReturn(List.of(sender));
-        when(userRepository.findUserById(mentionedUserId)).thenReturn(List.of());
-        when(chatMessageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(chatChannelRepository.findByIdWithMembers(channelId)).thenReturn(Optional.of(channel));
+        when(chatMessageRepository.saveWithChildren(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         IncomingMention incomingMention = new IncomingMention(mentionedUserId, 3, 12);
         ChatMessage result = chatMessageService.saveMessage(channelId, senderId, content, List.of(incomingMention));
@@ -187,35 +176,25 @@ public class ChatMessageServiceTests {
         assertEquals(sender, result.getSender());
         assertNotNull(result.getTimestamp());
         assertEquals(0, result.getMentions().size());
-        verify(chatMessageRepository).save(any(ChatMessage.class));
+        verify(chatMessageRepository).saveWithChildren(any(ChatMessage.class));
     }
 
     @Test
-    void testSaveMessage_MentionedUserNotInChannel_MentionBypassed() {
+    void testSaveMessage_MentionNotAtSymbol_MentionBypassed() {
         long channelId = 1L;
         long senderId = 2L;
         long mentionedUserId = 6L;
-        String content = "Hi @Sam Smith";
-        User sender = mock(User.class);
-        User mentionedUser = mock(User.class);
-        ChatChannel channel = mock(ChatChannel.class);
+        String content = "Hi Sam Smith";
+        User sender = mockUser(senderId);
+        User mentionedUser = mockUser(mentionedUserId);
+        ChatChannel channel = mockChannel(sender, mentionedUser);
 
-        when(sender.getId()).thenReturn(senderId);
-        when(chatChannelRepository.isUserMemberOfChannel(channelId, senderId)).thenReturn(true);
-        when(chatChannelRepository.isUserMemberOfChannel(channelId, mentionedUserId)).thenReturn(false);
-        when(chatChannelRepository.findById(channelId)).thenReturn(Optional.of(channel));
-        when(userRepository.findUserById(senderId)).thenReturn(List.of(sender));
-        when(userRepository.findUserById(mentionedUserId)).thenReturn(List.of(mentionedUser));
-        when(chatMessageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(chatChannelRepository.findByIdWithMembers(channelId)).thenReturn(Optional.of(channel));
+        when(chatMessageRepository.saveWithChildren(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
-        IncomingMention incomingMention = new IncomingMention(mentionedUserId, 3, 12);
+        IncomingMention incomingMention = new IncomingMention(mentionedUserId, 3, 11);
         ChatMessage result = chatMessageService.saveMessage(channelId, senderId, content, List.of(incomingMention));
-        assertEquals(content, result.getContent());
-        assertEquals(channel, result.getChannel());
-        assertEquals(sender, result.getSender());
-        assertNotNull(result.getTimestamp());
         assertEquals(0, result.getMentions().size());
-        verify(chatMessageRepository).save(any(ChatMessage.class));
     }
 
     @Test
@@ -225,21 +204,12 @@ public class ChatMessageServiceTests {
         long mentionedUserId1 = 6L;
         long mentionedUserId2 = 7L;
         String content = "Hi @Sam Smith @Bob Smith";
-        User sender = mock(User.class);
-        User mentionedUser1 = mock(User.class);
-        User mentionedUser2 = mock(User.class);
-        ChatChannel channel = mock(ChatChannel.class);
+        User sender = mockUser(senderId);
+        User mentionedUser2 = mockUser(mentionedUserId2);
+        ChatChannel channel = mockChannel(sender, mentionedUser2);
 
-        when(sender.getId()).thenReturn(senderId);
-        when(mentionedUser2.getId()).thenReturn(mentionedUserId2);
-        when(chatChannelRepository.isUserMemberOfChannel(channelId, senderId)).thenReturn(true);
-        when(chatChannelRepository.isUserMemberOfChannel(channelId, mentionedUserId1)).thenReturn(false);
-        when(chatChannelRepository.isUserMemberOfChannel(channelId, mentionedUserId2)).thenReturn(true);
-        when(chatChannelRepository.findById(channelId)).thenReturn(Optional.of(channel));
-        when(userRepository.findUserById(senderId)).thenReturn(List.of(sender));
-        when(userRepository.findUserById(mentionedUserId1)).thenReturn(List.of(mentionedUser1));
-        when(userRepository.findUserById(mentionedUserId2)).thenReturn(List.of(mentionedUser2));
-        when(chatMessageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(chatChannelRepository.findByIdWithMembers(channelId)).thenReturn(Optional.of(channel));
+        when(chatMessageRepository.saveWithChildren(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         IncomingMention incomingMention1 = new IncomingMention(mentionedUserId1, 3, 12);
         IncomingMention incomingMention2 = new IncomingMention(mentionedUserId2, 14, 23);
@@ -250,10 +220,51 @@ public class ChatMessageServiceTests {
         assertNotNull(result.getTimestamp());
         assertEquals(1, result.getMentions().size());
         assertEquals(7L, result.getMentions().getFirst().getMentionedUser().getId());
-        verify(chatMessageRepository).save(any(ChatMessage.class));
+        verify(chatMessageRepository).saveWithChildren(any(ChatMessage.class));
+    }
+
+
+
+    @Test
+    void testSaveMessage_GivenValidData_ShouldStoreFragmentsBeforeSaving() {
+        long channelId = 1L;
+        long senderId = 2L;
+        ChatChannel channel = mockChannel(mockUser(senderId));
+        when(chatChannelRepository.findByIdWithMembers(channelId)).thenReturn(Optional.of(channel));
+        when(chatMessageRepository.saveWithChildren(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ChatMessage result = chatMessageService.saveMessage(channelId, senderId, "Hello there!", List.of());
+
+        InOrder inOrder = inOrder(chatFragmentService, chatMessageRepository);
+        inOrder.verify(chatFragmentService).storeFragments(result);
+        inOrder.verify(chatMessageRepository).saveWithChildren(result);
     }
 
+    // backfillFragments
 
+    @Test
+    void testBackfillFragments_GivenMessagesWithoutFragments_ShouldStoreFragmentsAndReturnLastId() {
+        ChatMessage first = new ChatMessage(4L, "one", Instant.now(), null, null);
+        ChatMessage second = new ChatMessage(9L, "two", Instant.now(), null, null);
+        when(chatMessageRepository.findByFragmentsIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any(PageRequest.class)))
+                .thenReturn(List.of(first, second));
+
+        long lastId = chatMessageService.backfillFragments(0L, 2);
+
+        assertEquals(9L, lastId);
+        verify(chatFragmentService).storeFragments(first);
+        verify(chatFragmentService).storeFragments(second);
+        verify(chatMessageRepository).saveAll(List.of(first, second));
+    }
+
+    @Test
+    void testBackfillFragments_GivenNoMessagesLeft_ShouldReturnMinusOne() {
+        when(chatMessageRepository.findByFragmentsIsNullAndIdGreaterThanOrderByIdAsc(eq(9L), any(PageRequest.class)))
+                .thenReturn(List.of());
+
+        assertEquals(-1, chatMessageService.backfillFragments(9L, 2));
+        verify(chatMessageRepository, never()).saveAll(any());
+    }
 
     @ParameterizedTest
     @ValueSource(strings = {
@@ -386,6 +397,18 @@ public class ChatMessageServiceTests {
     }
 
 
+    private User mockUser(long id) {
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(id);
+        return user;
+    }
+
+    private ChatChannel mockChannel(User... members) {
+        ChatChannel channel = mock(ChatChannel.class);
+        when(channel.getMembers()).thenReturn(List.of(members));
+        return channel;
+    }
+
     private List<ChatMessage> createSequentialMessages(int start, int end) {
         Instant baseTime = Instant.now();
         User sender = mock(User.class);
@@ -0,0 +1,196 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.exceptions.chat.ChatMessageNotFoundException;
+import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingRedaction;
+import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragment;
+import nz.ac.canterbury.seng302.homehelper.model.chat.fragment.ChatMessageFragmentText;
+import nz.ac.canterbury.seng302.homehelper.service.ProfanityService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatChannelSummaryService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatFragmentService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatHistoryBufferService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatMentionService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatMessageService;
+import nz.ac.canterbury.seng302.homehelper.service.chat.ChatModerationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChatModerationServiceTests {
+
+    private static final long RENOVATION_ID = 1L;
+    private static final long CHANNEL_ID = 2L;
+    private static final String DESTINATION = "/topic/renovation/1/channel/2";
+    private static final int BATCH_SIZE = 2;
+
+    private @Mock ProfanityService profanityService;
+    private @Mock ChatMessageService chatMessageService;
+    private @Mock ChatFragmentService chatFragmentService;
+    private @Mock ChatHistoryBufferService chatHistoryBufferService;
+    private @Mock ChatMentionService chatMentionService;
+    private @Mock ChatChannelSummaryService chatChannelSummaryService;
+    private @Mock ChatMemory chatMemory;
+    private @Mock SimpMessagingTemplate messagingTemplate;
+    private @Mock ChatMessage redactedMessage;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChatModerationService chatModerationService;
+    private final List<ChatMessageFragment> redactedFragments =
+            List.of(new ChatMessageFragmentText(ChatModerationService.REDACTED_CONTENT));
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        chatModerationService = new ChatModerationService(profanityService, chatMessageService, chatFragmentService,
+                chatHistoryBufferService, chatMentionService, chatChannelSummaryService, chatMemory, messagingTemplate,
+                meterRegistry, BATCH_SIZE);
+    }
+
+    private void givenRedactionSucceeds() {
+        when(chatMessageService.redactMessage(anyLong(), eq(ChatModerationService.REDACTED_CONTENT)))
+                .thenReturn(redactedMessage);
+        when(chatFragmentService.extractFragmentsFromMessage(redactedMessage)).thenReturn(redactedFragments);
+    }
+
+    @Test
+    void testModerate_GivenLocalCheckFindsProfanity_ThenMessageRedactedAndChannelTold() {
+        givenRedactionSucceeds();
+        when(profanityService.checkProfanityLocalVerdict("Shit happens"))
+                .thenReturn(ProfanityService.LocalVerdict.PROFANE);
+
+        chatModerationService.moderate(RENOVATION_ID, CHANNEL_ID, 10L, "Shit happens");
+
+        verify(chatMessageService).redactMessage(10L, ChatModerationService.REDACTED_CONTENT);
+        verify(chatHistoryBufferService).invalidate(CHANNEL_ID);
+        ArgumentCaptor<OutgoingRedaction> redaction = ArgumentCaptor.forClass(OutgoingRedaction.class);
+        verify(messagingTemplate).convertAndSend(eq(DESTINATION), redaction.capture());
+        assertEquals(10L, redaction.getValue().redactedMessageId());
+        assertEquals(redactedFragments, redaction.getValue().fragments());
+        assertEquals(1.0, meterRegistry.get("chat.moderation.redacted").tag("detected_by", "local").counter().count());
+        verify(profanityService, never()).checkProfanityAPI(anyString());
+    }
+
+    @Test
+    void testModerate_GivenRedactedMessageMentionedUsers_ThenTheirMentionSummariesEvicted() {
+        givenRedactionSucceeds();
+        when(profanityService.checkProfanityLocalVerdict("@Jane @Steve shit"))
+                .thenReturn(ProfanityService.LocalVerdict.PROFANE);
+        when(chatMentionService.getMentionedUserIds(10L)).thenReturn(List.of(3L, 4L));
+
+        chatModerationService.moderate(RENOVATION_ID, CHANNEL_ID, 10L, "@Jane @Steve shit");
+
+        InOrder inOrder = inOrder(chatMentionService, chatMessageService);
+        inOrder.verify(chatMentionService).getMentionedUserIds(10L);
+        inOrder.verify(chatMessageService).redactMessage(10L, ChatModerationService.REDACTED_CONTENT);
+        inOrder.verify(chatMentionService).evictMentionSummaries(List.of(3L, 4L));
+    }
+
+    @Test
+    void testModerate_GivenMessageRedacted_ThenChannelSummaryAndChatMemoryForgotten() {
+        givenRedactionSucceeds();
+        when(profanityService.checkProfanityLocalVerdict("Shit happens"))
+                .thenReturn(ProfanityService.LocalVerdict.PROFANE);
+
+        chatModerationService.moderate(RENOVATION_ID, CHANNEL_ID, 10L, "Shit happens");
+
+        InOrder inOrder = inOrder(chatMessageService, chatChannelSummaryService, chatMemory);
+        inOrder.verify(chatMessageService).redactMessage(10L, ChatModerationService.REDACTED_CONTENT);
+        inOrder.verify(chatChannelSummaryService).forgetChannel(CHANNEL_ID);
+        inOrder.verify(chatMemory).clear(String.valueOf(CHANNEL_ID));
+    }
+
+    @Test
+    void testModerate_GivenCleanMessage_ThenNothingRedactedOrQueued() {
+        when(profanityService.checkProfanityLocalVerdict("Paint the deck"))
+                .thenReturn(ProfanityService.LocalVerdict.CLEAN);
+
+        chatModerationService.moderate(RENOVATION_ID, CHANNEL_ID, 10L, "Paint the deck");
+        chatModerationService.checkPendingMessages();
+
+        assertEquals(0, chatModerationService.getPendingCount());
+        verifyNoInteractions(chatMessageService, chatHistoryBufferService, messagingTemplate);
+        verify(profanityService, never()).checkProfanityAPI(anyString());
+    }
+
+    @Test
+    void testCheckPendingMessages_GivenAmbiguousMessagesThatApiFlags_ThenOnlyFlaggedMessagesRedacted() {
+        givenRedactionSucceeds();
+        when(profanityService.checkProfanityLocalVerdict(anyString()))
+                .thenReturn(ProfanityService.LocalVerdict.AMBIGUOUS);
+        when(profanityService.checkProfanityAPI("Wh@t a j3rk")).thenReturn(true);
+        when(profanityService.checkProfanityAPI("Wh@t a day")).thenReturn(false);
+
+        chatModerationService.moderate(RENOVATION_ID, CHANNEL_ID, 10L, "Wh@t a j3rk");
+        chatModerationService.moderate(RENOVATION_ID, CHANNEL_ID, 11L, "Wh@t a day");
+        verifyNoInteractions(chatMessageService);
+        chatModerationService.checkPendingMessages();
+
+        verify(chatMessageService).redactMessage(10L, ChatModerationService.REDACTED_CONTENT);
+        verify(chatMessageService, never()).redactMessage(eq(11L), anyString());
+        assertEquals(1.0, meterRegistry.get("chat.moderation.redacted").tag("detected_by", "api").counter().count());
+        assertEquals(0, chatModerationService.getPendingCount());
+    }
+
+    @Test
+    void testCheckPendingMessages_GivenApiCheckFails_ThenRestOfBatchStillRedacted() {
+        givenRedactionSucceeds();
+        when(profanityService.checkProfanityLocalVerdict(anyString()))
+                .thenReturn(ProfanityService.LocalVerdict.AMBIGUOUS);
+        when(profanityService.checkProfanityAPI("Wh@t a day")).thenThrow(new IllegalStateException("Unreadable response"));
+        when(profanityService.checkProfanityAPI("Wh@t a j3rk")).thenReturn(true);
+
+        chatModerationService.moderate(RENOVATION_ID, CHANNEL_ID, 10L, "Wh@t a day");
+        chatModerationService.moderate(RENOVATION_ID, CHANNEL_ID, 11L, "Wh@t a j3rk");
+        chatModerationService.checkPendingMessages();
+
+        verify(chatMessageService, never()).redactMessage(eq(10L), anyString());
+        verify(chatMessageService).redactMessage(11L, ChatModerationService.REDACTED_CONTENT);
+        assertEquals(0, chatModerationService.getPendingCount());
+    }
+
+    @Test
+    void testCheckPendingMessages_GivenMoreAmbiguousMessagesThanBatchSize_ThenRestLeftForNextBatch() {
+        when(profanityService.checkProfanityLocalVerdict(anyString()))
+                .thenReturn(ProfanityService.LocalVerdict.AMBIGUOUS);
+        when(profanityService.checkProfanityAPI(anyString())).thenReturn(false);
+        for (long id = 0; id < BATCH_SIZE + 1; id++) {
+            chatModerationService.moderate(RENOVATION_ID, CHANNEL_ID, id, "Wh@t a day " + id);
+        }
+
+        chatModerationService.checkPendingMessages();
+
+        verify(profanityService, times(BATCH_SIZE)).checkProfanityAPI(anyString());
+        assertEquals(1, chatModerationService.getPendingCount());
+        assertEquals(1.0, meterRegistry.get("chat.moderation.pending").gauge().value());
+    }
+
+    @Test
+    void testModerate_GivenMessageDeletedBeforeRedaction_ThenChannelNotTold() {
+        when(profanityService.checkProfanityLocalVerdict("Shit happens"))
+                .thenReturn(ProfanityService.LocalVerdict.PROFANE);
+        when(chatMessageService.redactMessage(10L, ChatModerationService.REDACTED_CONTENT))
+                .thenThrow(new ChatMessageNotFoundException("Message with ID 10 not found"));
+
+        chatModerationService.moderate(RENOVATION_ID, CHANNEL_ID, 10L, "Shit happens");
+
+        verifyNoInteractions(chatHistoryBufferService, chatChannelSummaryService, chatMemory);
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+}
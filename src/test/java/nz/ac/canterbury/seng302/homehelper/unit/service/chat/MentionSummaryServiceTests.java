@@ -0,0 +1,169 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatChannel;
+import nz.ac.canterbury.seng302.homehelper.entity.chat.ChatMessage;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.entity.user.User;
+import nz.ac.canterbury.seng302.homehelper.model.chat.MentionSummary;
+import nz.ac.canterbury.seng302.homehelper.model.chat.OutgoingMention;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationDto;
+import nz.ac.canterbury.seng302.homehelper.model.user.PublicUserDetails;
+import nz.ac.canterbury.seng302.homehelper.repository.chat.ChatMentionRepository;
+import nz.ac.canterbury.seng302.homehelper.service.chat.MentionSummaryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MentionSummaryServiceTests {
+
+    private static final long USER_ID = 5L;
+    private static final Instant BASE_TIME = Instant.parse("2025-08-04T10:00:00Z");
+
+    private @Mock ChatMentionRepository chatMentionRepository;
+
+    private MentionSummaryService mentionSummaryService;
+    private Renovation renovation;
+    private User sender;
+
+    @BeforeEach
+    void setup() {
+        mentionSummaryService = new MentionSummaryService(chatMentionRepository, 10, 2);
+        sender = new User("Jane", "Doe", "jane@doe.nz");
+        sender.setId(1L);
+        renovation = new Renovation("Kitchen", "New kitchen");
+        renovation.setId(3L);
+    }
+
+    @Test
+    void testGetSummary_WhenCalledTwice_ThenOnlyQueriesOnce() {
+        ChatChannel channel = new ChatChannel(2L, "general", renovation, List.of(), List.of());
+        ChatMessage message = new ChatMessage(10L, "Hi @John", BASE_TIME, channel, sender);
+        when(chatMentionRepository.findLatestUnseenMentionedMessages(USER_ID, PageRequest.of(0, 2))).thenReturn(List.of(message));
+        when(chatMentionRepository.countUnseenMentionedMessages(USER_ID)).thenReturn(1L);
+
+        MentionSummary first = mentionSummaryService.getSummary(USER_ID);
+        MentionSummary second = mentionSummaryService.getSummary(USER_ID);
+
+        assertEquals(first, second);
+        assertEquals(1, first.unreadCount());
+        OutgoingMention preview = first.latestMentions().getFirst();
+        assertEquals(3L, preview.renovationId());
+        assertEquals("Kitchen", preview.renovationName());
+        assertEquals(2L, preview.channelId());
+        assertEquals("general", preview.channelName());
+        assertEquals(1L, preview.sender().getId());
+        assertEquals("Hi @John", preview.messageContent());
+        verify(chatMentionRepository, times(1)).findLatestUnseenMentionedMessages(anyLong(), any());
+        verify(chatMentionRepository, times(1)).countUnseenMentionedMessages(anyLong());
+    }
+
+    @Test
+    void testRecordMention_WhenSummaryCached_ThenNewestFirstAndTrimmed() {
+        stubEmptySummary();
+        mentionSummaryService.getSummary(USER_ID);
+
+        mentionSummaryService.recordMention(10L, List.of(USER_ID), mention(2L, "one"));
+        mentionSummaryService.recordMention(11L, List.of(USER_ID), mention(2L, "two"));
+        mentionSummaryService.recordMention(12L, List.of(USER_ID), mention(2L, "three"));
+
+        MentionSummary summary = mentionSummaryService.getSummary(USER_ID);
+        assertEquals(3, summary.unreadCount());
+        assertEquals(List.of("three", "two"), summary.latestMentions().stream().map(OutgoingMention::messageContent).toList());
+        verify(chatMentionRepository, times(1)).countUnseenMentionedMessages(USER_ID);
+    }
+
+    @Test
+    void testRecordMention_WhenMessageAlreadyInSummary_ThenNotCountedTwice() {
+        ChatChannel channel = new ChatChannel(2L, "general", renovation, List.of(), List.of());
+        when(chatMentionRepository.findLatestUnseenMentionedMessages(USER_ID, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new ChatMessage(10L, "one", BASE_TIME, channel, sender)));
+        when(chatMentionRepository.countUnseenMentionedMessages(USER_ID)).thenReturn(1L);
+        mentionSummaryService.getSummary(USER_ID);
+
+        mentionSummaryService.recordMention(10L, List.of(USER_ID), mention(2L, "one"));
+
+        assertEquals(1, mentionSummaryService.getSummary(USER_ID).unreadCount());
+    }
+
+    @Test
+    void testRecordMention_WhenSummaryNotCached_ThenNothingQueried() {
+        mentionSummaryService.recordMention(10L, List.of(USER_ID), mention(2L, "one"));
+
+        verifyNoInteractions(chatMentionRepository);
+    }
+
+    @Test
+    void testRecordMention_WhenMentionRecordedWhileLoading_ThenSummaryNotCached() {
+        when(chatMentionRepository.findLatestUnseenMentionedMessages(USER_ID, PageRequest.of(0, 2))).thenAnswer(invocation -> {
+            mentionSummaryService.recordMention(10L, List.of(USER_ID), mention(2L, "one"));
+            return List.of();
+        });
+        when(chatMentionRepository.countUnseenMentionedMessages(USER_ID)).thenReturn(0L);
+
+        mentionSummaryService.getSummary(USER_ID);
+        mentionSummaryService.getSummary(USER_ID);
+
+        verify(chatMentionRepository, times(2)).countUnseenMentionedMessages(USER_ID);
+    }
+
+    @Test
+    void testMarkChannelSeen_WhenAllMentionsPreviewed_ThenChannelRemovedWithoutReload() {
+        stubEmptySummary();
+        mentionSummaryService.getSummary(USER_ID);
+        mentionSummaryService.recordMention(10L, List.of(USER_ID), mention(2L, "general"));
+        mentionSummaryService.recordMention(11L, List.of(USER_ID), mention(4L, "random"));
+
+        mentionSummaryService.markChannelSeen(USER_ID, 2L);
+
+        MentionSummary summary = mentionSummaryService.getSummary(USER_ID);
+        assertEquals(1, summary.unreadCount());
+        assertEquals("random", summary.latestMentions().getFirst().messageContent());
+        verify(chatMentionRepository, times(1)).countUnseenMentionedMessages(USER_ID);
+    }
+
+    @Test
+    void testMarkChannelSeen_WhenSomeMentionsNotPreviewed_ThenReloadsSummary() {
+        stubEmptySummary();
+        mentionSummaryService.getSummary(USER_ID);
+        mentionSummaryService.recordMention(10L, List.of(USER_ID), mention(2L, "one"));
+        mentionSummaryService.recordMention(11L, List.of(USER_ID), mention(2L, "two"));
+        mentionSummaryService.recordMention(12L, List.of(USER_ID), mention(4L, "three"));
+
+        mentionSummaryService.markChannelSeen(USER_ID, 4L);
+        mentionSummaryService.getSummary(USER_ID);
+
+        verify(chatMentionRepository, times(2)).countUnseenMentionedMessages(USER_ID);
+    }
+
+    @Test
+    void testEvict_WhenSummaryCached_ThenReloadsSummary() {
+        stubEmptySummary();
+        mentionSummaryService.getSummary(USER_ID);
+
+        mentionSummaryService.evict(List.of(USER_ID));
+        mentionSummaryService.getSummary(USER_ID);
+
+        verify(chatMentionRepository, times(2)).findLatestUnseenMentionedMessages(USER_ID, PageRequest.of(0, 2));
+        verify(chatMentionRepository, times(2)).countUnseenMentionedMessages(USER_ID);
+    }
+
+    private void stubEmptySummary() {
+        when(chatMentionRepository.findLatestUnseenMentionedMessages(USER_ID, PageRequest.of(0, 2))).thenReturn(List.of());
+        when(chatMentionRepository.countUnseenMentionedMessages(USER_ID)).thenReturn(0L);
+    }
+
+    private OutgoingMention mention(long channelId, String content) {
+        return new OutgoingMention(new RenovationDto(3L, "Kitchen"), channelId, "channel", new PublicUserDetails(sender),
+                content, BASE_TIME);
+    }
+}
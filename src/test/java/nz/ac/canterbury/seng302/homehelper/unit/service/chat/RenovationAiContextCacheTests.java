@@ -0,0 +1,63 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import nz.ac.canterbury.seng302.homehelper.service.chat.RenovationAiContextCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RenovationAiContextCacheTests {
+
+    private RenovationAiContextCache renovationAiContextCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        renovationAiContextCache = new RenovationAiContextCache(10, 10);
+        loads = new AtomicInteger();
+    }
+
+    private String load() {
+        return "context " + loads.incrementAndGet();
+    }
+
+    @Test
+    void testGetContext_GivenCachedContext_ThenLoadsOnce() {
+        assertEquals("context 1", renovationAiContextCache.getContext(1L, this::load));
+        assertEquals("context 1", renovationAiContextCache.getContext(1L, this::load));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGetContext_GivenRenovationInvalidated_ThenReloads() {
+        renovationAiContextCache.getContext(1L, this::load);
+        renovationAiContextCache.getContext(2L, this::load);
+
+        renovationAiContextCache.invalidate(1L);
+
+        assertEquals("context 3", renovationAiContextCache.getContext(1L, this::load));
+        assertEquals("context 2", renovationAiContextCache.getContext(2L, this::load));
+    }
+
+    @Test
+    void testGetContext_GivenInvalidatedWhileLoading_ThenNotCached() {
+        String context = renovationAiContextCache.getContext(1L, () -> {
+            renovationAiContextCache.invalidate(1L);
+            return load();
+        });
+
+        assertEquals("context 1", context);
+        assertEquals("context 2", renovationAiContextCache.getContext(1L, this::load));
+    }
+
+    @Test
+    void testGetContext_GivenContextExpired_ThenReloads() {
+        renovationAiContextCache = new RenovationAiContextCache(10, 0);
+
+        renovationAiContextCache.getContext(1L, this::load);
+
+        assertEquals("context 2", renovationAiContextCache.getContext(1L, this::load));
+    }
+}
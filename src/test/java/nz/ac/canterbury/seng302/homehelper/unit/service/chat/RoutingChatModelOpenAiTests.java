@@ -0,0 +1,148 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.fake.FakeOpenAiServer;
+import nz.ac.canterbury.seng302.homehelper.service.chat.RoutingChatModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the RoutingChatModel over real OpenAiChatModels, each talking HTTP to its own FakeOpenAiServer, so hedging is
+ * tested against real request and response handling rather than an in-process model.
+ */
+public class RoutingChatModelOpenAiTests {
+
+    private static final String PRIMARY = "primary-model";
+    private static final String SECONDARY = "secondary-model";
+    private static final String LONG_PROMPT = "How long will the deck take to build? ".repeat(10);
+
+    private FakeOpenAiServer primaryServer;
+    private FakeOpenAiServer secondaryServer;
+    private SimpleMeterRegistry meterRegistry;
+    private RoutingChatModel routingChatModel;
+
+    @BeforeEach
+    void setup() throws IOException {
+        primaryServer = FakeOpenAiServer.start();
+        primaryServer.setResponder(request -> FakeOpenAiServer.Reply.content(List.of("Primary ", "answer")));
+        secondaryServer = FakeOpenAiServer.start();
+        secondaryServer.setResponder(request -> FakeOpenAiServer.Reply.content(List.of("Secondary ", "answer")));
+        meterRegistry = new SimpleMeterRegistry();
+
+        ModelEndpoints endpoints = new ModelEndpoints(Map.of(
+                PRIMARY, openAiChatModel(primaryServer),
+                SECONDARY, openAiChatModel(secondaryServer)));
+        // hedges after 300ms, and every prompt is long enough to skip the cheap model
+        routingChatModel = new RoutingChatModel(endpoints, PRIMARY, SECONDARY, PRIMARY, 50, Duration.ofMillis(300),
+                2, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @AfterEach
+    void teardown() {
+        primaryServer.close();
+        secondaryServer.close();
+    }
+
+    private OpenAiChatModel openAiChatModel(FakeOpenAiServer server) {
+        OpenAiApi openAiApi = OpenAiApi.builder()
+                .baseUrl(server.getBaseUrl())
+                .apiKey("test-key")
+                .build();
+        return OpenAiChatModel.builder()
+                .openAiApi(openAiApi)
+                .defaultOptions(OpenAiChatOptions.builder().model(PRIMARY).build())
+                .build();
+    }
+
+    private List<String> requestedModels(FakeOpenAiServer server) {
+        return server.getRequests().stream().map(FakeOpenAiServer.Request::model).toList();
+    }
+
+    private String replyText(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+
+    @Test
+    void testCall_GivenBothServersFast_ThenOnlyPrimaryServerCalled() {
+        primaryServer.setLatency(() -> 20);
+        secondaryServer.setLatency(() -> 20);
+
+        ChatResponse response = routingChatModel.call(new Prompt(LONG_PROMPT));
+
+        assertEquals("Primary answer", replyText(response));
+        assertEquals(PRIMARY, response.getMetadata().get(RoutingChatModel.ROUTED_MODEL));
+        assertEquals(List.of(PRIMARY), requestedModels(primaryServer));
+        assertTrue(secondaryServer.getRequests().isEmpty());
+    }
+
+    @Test
+    void testCall_GivenPrimaryServerSlow_ThenHedgedToSecondaryServerWhichAnswersFirst() {
+        primaryServer.setLatency(() -> 5000);
+        secondaryServer.setLatency(() -> 50);
+
+        long start = System.nanoTime();
+        ChatResponse response = routingChatModel.call(new Prompt(LONG_PROMPT));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals("Secondary answer", replyText(response));
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(3)) < 0, "took " + elapsed);
+        assertEquals(SECONDARY, response.getMetadata().get(RoutingChatModel.ROUTED_MODEL));
+        assertEquals(true, response.getMetadata().get(RoutingChatModel.FALLBACK));
+        assertEquals(1, primaryServer.getRequests().size());
+        assertEquals(List.of(SECONDARY), requestedModels(secondaryServer));
+        assertEquals(1, meterRegistry.get("chat.ai.hedge.lost").tag("model", PRIMARY).counter().count());
+    }
+
+    @Test
+    void testStream_GivenPrimaryServerSlowToFirstChunk_ThenSecondaryServerStreamUsed() {
+        primaryServer.setLatency(() -> 5000);
+        secondaryServer.setLatency(() -> 50);
+
+        List<ChatResponse> responses = routingChatModel.stream(new Prompt(LONG_PROMPT))
+                .collectList()
+                .block(Duration.ofSeconds(3));
+
+        assertNotNull(responses);
+        String content = responses.stream()
+                .map(ChatResponse::getResult)
+                .filter(Objects::nonNull)
+                .map(generation -> generation.getOutput().getText())
+                .filter(Objects::nonNull)
+                .reduce("", String::concat);
+        assertEquals("Secondary answer", content);
+        assertTrue(secondaryServer.getRequests().getFirst().stream());
+    }
+
+    /**
+     * Sends each request to the OpenAiChatModel of the model named in its options, standing in for a provider that
+     * serves each model from a different endpoint.
+     */
+    private record ModelEndpoints(Map<String, ChatModel> models) implements ChatModel {
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            return models.get(prompt.getOptions().getModel()).call(prompt);
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return models.get(prompt.getOptions().getModel()).stream(prompt);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nz.ac.canterbury.seng302.homehelper.service.chat.RoutingChatModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoutingChatModelTests {
+
+    private static final String PRIMARY = "primary-model";
+    private static final String SECONDARY = "secondary-model";
+    private static final String CHEAP = "cheap-model";
+    private static final String LONG_PROMPT = "How long will the deck take to build? ".repeat(10);
+
+    private StubEndpoints endpoints;
+    private SimpleMeterRegistry meterRegistry;
+    private RoutingChatModel routingChatModel;
+
+    @BeforeEach
+    void setup() {
+        endpoints = new StubEndpoints();
+        meterRegistry = new SimpleMeterRegistry();
+        // hedges after 200ms, prompts up to 50 characters go to the cheap model, and 2 failures open a circuit
+        routingChatModel = new RoutingChatModel(endpoints, PRIMARY, SECONDARY, CHEAP, 50, Duration.ofMillis(200),
+                2, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    private String replyText(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+
+    @Test
+    void testCall_GivenPrimaryFast_ThenOnlyPrimaryCalled() {
+        ChatResponse response = routingChatModel.call(new Prompt(LONG_PROMPT));
+
+        assertEquals(PRIMARY, replyText(response));
+        assertEquals(List.of(PRIMARY), endpoints.calledModels);
+        assertEquals(PRIMARY, response.getMetadata().get(RoutingChatModel.ROUTED_MODEL));
+        assertEquals(false, response.getMetadata().get(RoutingChatModel.FALLBACK));
+        assertNull(meterRegistry.find("chat.ai.hedge.lost").counter());
+    }
+
+    @Test
+    void testCall_GivenPrimarySlow_ThenHedgedToSecondaryWhichAnswersFirst() {
+        endpoints.delays.put(PRIMARY, Duration.ofSeconds(5));
+
+        long start = System.nanoTime();
+        ChatResponse response = routingChatModel.call(new Prompt(LONG_PROMPT));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals(SECONDARY, replyText(response));
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0, "took " + elapsed);
+        assertEquals(List.of(PRIMARY, SECONDARY), endpoints.calledModels);
+        assertEquals(SECONDARY, response.getMetadata().get(RoutingChatModel.ROUTED_MODEL));
+        assertEquals(true, response.getMetadata().get(RoutingChatModel.FALLBACK));
+        assertEquals(1, meterRegistry.get("chat.ai.hedge.lost").tag("model", PRIMARY).counter().count());
+    }
+
+    @Test
+    void testCall_GivenPrimaryFails_ThenSecondaryCalledWithoutWaitingForHedgeDelay() {
+        endpoints.failing.add(PRIMARY);
+        routingChatModel = new RoutingChatModel(endpoints, PRIMARY, SECONDARY, CHEAP, 50, Duration.ofSeconds(10),
+                2, Duration.ofMinutes(1), meterRegistry);
+
+        long start = System.nanoTime();
+        ChatResponse response = routingChatModel.call(new Prompt(LONG_PROMPT));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals(SECONDARY, replyText(response));
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(5)) < 0, "took " + elapsed);
+    }
+
+    @Test
+    void testCall_GivenPrimaryFailsRepeatedly_ThenCircuitOpensAndPrimarySkipped() {
+        endpoints.failing.add(PRIMARY);
+        routingChatModel.call(new Prompt(LONG_PROMPT));
+        routingChatModel.call(new Prompt(LONG_PROMPT));
+        endpoints.calledModels.clear();
+
+        ChatResponse response = routingChatModel.call(new Prompt(LONG_PROMPT));
+
+        assertFalse(routingChatModel.isAvailable(PRIMARY));
+        assertEquals(SECONDARY, replyText(response));
+        assertEquals(List.of(SECONDARY), endpoints.calledModels);
+    }
+
+    @Test
+    void testCall_GivenAllModelsFail_ThenThrows() {
+        endpoints.failing.addAll(Set.of(PRIMARY, SECONDARY));
+
+        assertThrows(RuntimeException.class, () -> routingChatModel.call(new Prompt(LONG_PROMPT)));
+    }
+
+    @Test
+    void testCall_GivenShortPrompt_ThenCheapModelCalled() {
+        ChatResponse response = routingChatModel.call(new Prompt("Hi"));
+
+        assertEquals(CHEAP, replyText(response));
+        assertEquals(List.of(CHEAP), endpoints.calledModels);
+    }
+
+    @Test
+    void testStream_GivenPrimarySlowToFirstChunk_ThenSecondaryStreamUsed() {
+        endpoints.delays.put(PRIMARY, Duration.ofSeconds(5));
+
+        List<ChatResponse> responses = routingChatModel.stream(new Prompt(LONG_PROMPT))
+                .collectList()
+                .block(Duration.ofSeconds(2));
+
+        assertNotNull(responses);
+        assertEquals(List.of(SECONDARY, SECONDARY), responses.stream().map(this::replyText).toList());
+    }
+
+    /**
+     * Stands in for two model endpoints, each replying with its own model name after a configurable delay.
+     */
+    private static class StubEndpoints implements ChatModel {
+
+        private final Map<String, Duration> delays = new ConcurrentHashMap<>();
+        private final Set<String> failing = ConcurrentHashMap.newKeySet();
+        private final List<String> calledModels = new CopyOnWriteArrayList<>();
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            String model = prompt.getOptions().getModel();
+            calledModels.add(model);
+            try {
+                Thread.sleep(delays.getOrDefault(model, Duration.ZERO));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            if (failing.contains(model)) {
+                throw new IllegalStateException(model + " is down");
+            }
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(model))));
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Mono.fromCallable(() -> call(prompt))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapMany(response -> Flux.just(response, response));
+        }
+    }
+}
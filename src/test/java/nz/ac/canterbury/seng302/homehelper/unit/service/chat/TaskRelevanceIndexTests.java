@@ -0,0 +1,139 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.chat;
+
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Renovation;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Room;
+import nz.ac.canterbury.seng302.homehelper.entity.renovation.Task;
+import nz.ac.canterbury.seng302.homehelper.model.ai.TaskAiView;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.TaskState;
+import nz.ac.canterbury.seng302.homehelper.service.chat.RenovationAiContextCache;
+import nz.ac.canterbury.seng302.homehelper.service.chat.TaskRelevanceIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskRelevanceIndexTests {
+
+    private static final int LIMIT = 3;
+
+    private RenovationAiContextCache renovationAiContextCache;
+    private TaskRelevanceIndex taskRelevanceIndex;
+    private Renovation renovation;
+
+    @BeforeEach
+    void setup() {
+        renovationAiContextCache = new RenovationAiContextCache(10, 10);
+        taskRelevanceIndex = new TaskRelevanceIndex(renovationAiContextCache, 10, LIMIT);
+        renovation = new Renovation("House", "Doing up the house");
+        renovation.setId(10L);
+    }
+
+    private Task addTask(String name, String description, LocalDate dueDate) {
+        Task task = new Task(renovation, name, description, "icon.png");
+        task.setDueDate(dueDate);
+        renovation.addTask(task);
+        return task;
+    }
+
+    private List<String> names(List<TaskAiView> tasks) {
+        return tasks.stream().map(TaskAiView::name).toList();
+    }
+
+    @Test
+    void testFindRelevantTasks_GivenNoMoreTasksThanLimit_ThenAllTasksInOrder() {
+        addTask("Paint walls", "Two coats", null);
+        addTask("Sand deck", "Use the orbital sander", null);
+
+        assertEquals(List.of("Paint walls", "Sand deck"),
+                names(taskRelevanceIndex.findRelevantTasks(renovation, "@BrickAI what about the kitchen?")));
+    }
+
+    @Test
+    void testFindRelevantTasks_GivenMatchingTask_ThenMatchingTaskFirst() {
+        LocalDate today = LocalDate.now();
+        addTask("Paint walls", "Two coats of white", today);
+        addTask("Sand deck", "Use the orbital sander", today.plusDays(1));
+        addTask("Replace tiles", "Bathroom floor tiles", today.plusDays(2));
+        addTask("Install dishwasher", "Plumb it in under the bench", today.plusDays(30));
+
+        List<TaskAiView> tasks = taskRelevanceIndex.findRelevantTasks(renovation, "@BrickAI when is the dishwasher going in?");
+
+        assertEquals(List.of("Install dishwasher", "Paint walls", "Sand deck"), names(tasks));
+    }
+
+    @Test
+    void testFindRelevantTasks_GivenTaskMatchingByRoom_ThenTaskIncluded() {
+        addTask("Paint walls", "Two coats of white", LocalDate.now());
+        addTask("Sand deck", "Use the orbital sander", LocalDate.now());
+        addTask("Replace tiles", "Two rows of tiles", LocalDate.now());
+        Task shelves = addTask("Put up shelves", "Three shelves", null);
+        shelves.addRoom(new Room(renovation, "Garage"));
+
+        List<TaskAiView> tasks = taskRelevanceIndex.findRelevantTasks(renovation, "@BrickAI what's happening in the garage?");
+
+        assertEquals("Put up shelves", tasks.getFirst().name());
+        assertEquals(LIMIT, tasks.size());
+    }
+
+    @Test
+    void testFindRelevantTasks_GivenNoMatchingTasks_ThenTasksDueSoonestWithUndatedLast() {
+        LocalDate today = LocalDate.now();
+        addTask("Paint walls", "Two coats of white", null);
+        addTask("Sand deck", "Use the orbital sander", today.plusDays(5));
+        addTask("Replace tiles", "Bathroom floor tiles", today.plusDays(1));
+        addTask("Install dishwasher", "Plumb it in under the bench", today.plusDays(3));
+
+        List<TaskAiView> tasks = taskRelevanceIndex.findRelevantTasks(renovation, "@BrickAI what's due soon?");
+
+        assertEquals(List.of("Replace tiles", "Install dishwasher", "Sand deck"), names(tasks));
+    }
+
+    @Test
+    void testFindRelevantTasks_GivenOldClosedTasksAndUpcomingOpenTasks_ThenUpcomingThenRecentlyOverdueOpenTasks() {
+        LocalDate today = LocalDate.now();
+        addTask("Demolish shed", "Knock it down and clear the site", today.minusDays(60)).setState(TaskState.COMPLETED);
+        addTask("Order skip bin", "For the old carpet", today.minusDays(30)).setState(TaskState.CANCELLED);
+        addTask("Strip wallpaper", "Hallway and lounge", today.minusDays(10)).setState(TaskState.COMPLETED);
+        addTask("Clean windows", "Inside and out", today.minusDays(20));
+        addTask("Fix gutters", "Clear them and fix the leak", today.minusDays(3));
+        addTask("Sand deck", "Use the orbital sander", today.plusDays(6));
+        addTask("Paint walls", "Two coats of white", today.plusDays(2));
+
+        List<TaskAiView> tasks = taskRelevanceIndex.findRelevantTasks(renovation, "@BrickAI what's due this week?");
+
+        assertEquals(List.of("Paint walls", "Sand deck", "Fix gutters"), names(tasks));
+    }
+
+    @Test
+    void testFindRelevantTasks_GivenClosedTaskMatchingMessage_ThenClosedTaskIncluded() {
+        LocalDate today = LocalDate.now();
+        addTask("Demolish shed", "Knock it down and clear the site", today.minusDays(60)).setState(TaskState.COMPLETED);
+        addTask("Sand deck", "Use the orbital sander", today.plusDays(6));
+        addTask("Paint walls", "Two coats of white", today.plusDays(2));
+        addTask("Replace tiles", "Bathroom floor tiles", today.plusDays(1));
+
+        List<TaskAiView> tasks = taskRelevanceIndex.findRelevantTasks(renovation, "@BrickAI is the shed gone yet?");
+
+        assertEquals(List.of("Demolish shed", "Replace tiles", "Paint walls"), names(tasks));
+    }
+
+    @Test
+    void testFindRelevantTasks_GivenRenovationInvalidated_ThenNewTasksIndexed() {
+        addTask("Paint walls", "Two coats of white", null);
+        addTask("Sand deck", "Use the orbital sander", null);
+        addTask("Replace tiles", "Bathroom floor tiles", null);
+        addTask("Install dishwasher", "Plumb it in under the bench", null);
+        taskRelevanceIndex.findRelevantTasks(renovation, "@BrickAI when is the dishwasher going in?");
+
+        addTask("Fix gutters", "Clear the gutters and fix the leak", LocalDate.now().plusYears(1));
+        List<TaskAiView> stale = taskRelevanceIndex.findRelevantTasks(renovation, "@BrickAI are the gutters done?");
+        renovationAiContextCache.invalidate(renovation.getId());
+        List<TaskAiView> fresh = taskRelevanceIndex.findRelevantTasks(renovation, "@BrickAI are the gutters done?");
+
+        assertFalse(names(stale).contains("Fix gutters"));
+        assertEquals("Fix gutters", fresh.getFirst().name());
+    }
+}
@@ -0,0 +1,170 @@
+package nz.ac.canterbury.seng302.homehelper.unit.service.renovation;
+
+import jakarta.persistence.EntityManager;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchDocument;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchOrder;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchText;
+import nz.ac.canterbury.seng302.homehelper.repository.renovation.RenovationRepository;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RenovationSearchIndexTests {
+
+    private @Mock RenovationRepository renovationRepository;
+    private @Mock EntityManager entityManager;
+
+    private RenovationSearchIndex renovationSearchIndex;
+
+    @BeforeEach
+    void setup() {
+        renovationSearchIndex = new RenovationSearchIndex(renovationRepository, entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static RenovationSearchDocument document(long id, boolean isPublic, String name, String description,
+                                                     List<String> tags, List<String> rooms) {
+        return new RenovationSearchDocument(id, isPublic, LocalDateTime.of(2025, 1, (int) id, 12, 0), name,
+                description, tags, rooms);
+    }
+
+    private List<Long> search(String query, List<String> tags, RenovationSearchOrder order) {
+        return renovationSearchIndex.searchPublic(query, tags, order);
+    }
+
+    @Test
+    void testRebuild_GivenRenovationsTagsAndRooms_ThenAllAreSearchable() {
+        when(renovationRepository.findAllSearchDocuments()).thenReturn(List.of(
+                new RenovationSearchDocument(1L, true, LocalDateTime.of(2025, 1, 1, 12, 0), "Deck", "New deck"),
+                new RenovationSearchDocument(2L, true, LocalDateTime.of(2025, 1, 2, 12, 0), "House", "Repaint")));
+        when(renovationRepository.findAllSearchTags()).thenReturn(List.of(new RenovationSearchText(1L, "Outdoor")));
+        when(renovationRepository.findAllSearchRooms()).thenReturn(List.of(new RenovationSearchText(2L, "Laundry")));
+
+        renovationSearchIndex.rebuild();
+
+        assertEquals(List.of(1L), search("outdoor", List.of(), RenovationSearchOrder.NEWEST));
+        assertEquals(List.of(2L), search("laundry", List.of(), RenovationSearchOrder.NEWEST));
+        assertEquals(List.of(2L, 1L), search("", List.of(), RenovationSearchOrder.NEWEST));
+    }
+
+    @Test
+    void testSearch_GivenStartOfWord_ThenRenovationsWithMatchingWordsFound() {
+        renovationSearchIndex.update(document(1L, true, "Kitchen remodel", "", List.of(), List.of()));
+        renovationSearchIndex.update(document(2L, true, "Bathroom", "Retile the shower", List.of(), List.of()));
+        renovationSearchIndex.update(document(3L, true, "Garage", "Kit out the workshop", List.of(), List.of()));
+
+        assertEquals(List.of(3L, 1L), search("kit", List.of(), RenovationSearchOrder.NEWEST));
+        assertEquals(List.of(1L), search("KITCHEN rem", List.of(), RenovationSearchOrder.NEWEST));
+        assertEquals(List.of(), search("itchen", List.of(), RenovationSearchOrder.NEWEST));
+    }
+
+    @Test
+    void testSearch_GivenRelevanceOrder_ThenBetterMatchesFirst() {
+        renovationSearchIndex.update(document(1L, true, "Kitchen", "", List.of(), List.of()));
+        renovationSearchIndex.update(document(2L, true, "Open plan living", "Joins the kitchen", List.of(), List.of()));
+        renovationSearchIndex.update(document(3L, true, "Pantry", "", List.of("Kitchen"), List.of()));
+        renovationSearchIndex.update(document(4L, true, "Kitchenette", "", List.of(), List.of()));
+
+        assertEquals(List.of(1L, 4L, 3L, 2L), search("kitchen", List.of(), RenovationSearchOrder.RELEVANCE));
+        assertEquals(List.of(4L, 3L, 2L, 1L), search("kitchen", List.of(), RenovationSearchOrder.NEWEST));
+    }
+
+    @Test
+    void testSearchPublic_GivenTags_ThenOnlyPublicRenovationsWithEveryTagFound() {
+        renovationSearchIndex.update(document(1L, true, "One", "", List.of("Kitchen", "Outdoor"), List.of()));
+        renovationSearchIndex.update(document(2L, true, "Two", "", List.of("Kitchen"), List.of()));
+        renovationSearchIndex.update(document(3L, false, "Three", "", List.of("Kitchen", "Outdoor"), List.of()));
+
+        assertEquals(List.of(2L, 1L), search("", List.of("kitchen"), RenovationSearchOrder.NEWEST));
+        assertEquals(List.of(1L), search("", List.of("kitchen", "outdoor"), RenovationSearchOrder.NEWEST));
+    }
+
+    @Test
+    void testSearch_GivenTagNoRenovationHas_ThenNothingFound() {
+        renovationSearchIndex.update(document(1L, true, "One", "", List.of("Kitchen"), List.of()));
+
+        assertEquals(List.of(), search("", List.of("kitchen", "bathroom"), RenovationSearchOrder.NEWEST));
+    }
+
+    @Test
+    void testUpdate_GivenTagRemovedAndRenovationMadePrivate_ThenNoLongerFoundByTagOrPublicSearch() {
+        renovationSearchIndex.update(document(1L, true, "One", "", List.of("Kitchen"), List.of()));
+        renovationSearchIndex.update(document(2L, true, "Two", "", List.of("Kitchen"), List.of()));
+
+        renovationSearchIndex.update(document(1L, true, "One", "", List.of(), List.of()));
+        renovationSearchIndex.update(document(2L, false, "Two", "", List.of("Kitchen"), List.of()));
+
+        assertEquals(List.of(), search("", List.of("kitchen"), RenovationSearchOrder.NEWEST));
+        assertEquals(List.of(1L), search("", List.of(), RenovationSearchOrder.NEWEST));
+        assertEquals(List.of(2L), renovationSearchIndex.searchWithin(List.of(2L), "", List.of("kitchen"),
+                RenovationSearchOrder.NEWEST));
+    }
+
+    @Test
+    void testSearchWithin_GivenRenovationIds_ThenOnlyThoseRenovationsSearchedWhetherPublicOrNot() {
+        renovationSearchIndex.update(document(1L, true, "Kitchen", "", List.of(), List.of()));
+        renovationSearchIndex.update(document(2L, false, "Kitchen", "", List.of(), List.of()));
+        renovationSearchIndex.update(document(3L, true, "Kitchen", "", List.of(), List.of()));
+
+        assertEquals(List.of(2L, 1L), renovationSearchIndex.searchWithin(List.of(1L, 2L, 99L), "kitchen", List.of(),
+                RenovationSearchOrder.NEWEST));
+    }
+
+    @Test
+    void testUpdate_GivenRenovationRenamed_ThenOldNameNoLongerMatches() {
+        renovationSearchIndex.update(document(1L, true, "Kitchen", "", List.of(), List.of()));
+        renovationSearchIndex.update(document(1L, true, "Bathroom", "", List.of(), List.of()));
+
+        assertEquals(List.of(), search("kitchen", List.of(), RenovationSearchOrder.NEWEST));
+        assertEquals(List.of(1L), search("bathroom", List.of(), RenovationSearchOrder.NEWEST));
+    }
+
+    @Test
+    void testRemove_GivenIndexedRenovation_ThenNoLongerFound() {
+        renovationSearchIndex.update(document(1L, true, "Kitchen", "", List.of(), List.of()));
+
+        renovationSearchIndex.remove(1L);
+
+        assertEquals(List.of(), search("", List.of(), RenovationSearchOrder.NEWEST));
+    }
+
+    @Test
+    void testSearch_GivenUpdateRolledBack_ThenRenovationReloadedFromDatabase() {
+        renovationSearchIndex.update(document(1L, true, "Kitchen", "", List.of(), List.of()));
+        TransactionSynchronizationManager.initSynchronization();
+        renovationSearchIndex.update(document(1L, true, "Bathroom", "", List.of(), List.of()));
+        renovationSearchIndex.update(document(2L, true, "Deck", "", List.of(), List.of()));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        when(renovationRepository.findSearchDocuments(Set.of(1L, 2L))).thenReturn(List.of(
+                new RenovationSearchDocument(1L, true, LocalDateTime.of(2025, 1, 1, 12, 0), "Kitchen", "")));
+        when(renovationRepository.findSearchTags(anyCollection())).thenReturn(List.of());
+        when(renovationRepository.findSearchRooms(anyCollection())).thenReturn(List.of());
+
+        assertEquals(List.of(1L), search("", List.of(), RenovationSearchOrder.NEWEST));
+        assertEquals(List.of(1L), search("kitchen", List.of(), RenovationSearchOrder.NEWEST));
+    }
+}
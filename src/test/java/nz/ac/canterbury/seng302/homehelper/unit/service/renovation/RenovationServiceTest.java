@@ -6,7 +6,12 @@ import nz.ac.canterbury.seng302.homehelper.entity.renovation.Room;
 import nz.ac.canterbury.seng302.homehelper.entity.renovation.Task;
 import nz.ac.canterbury.seng302.homehelper.entity.user.User;
 import nz.ac.canterbury.seng302.homehelper.exceptions.renovation.TaskDetailsExceptions;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCard;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCardPage;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationCursor;
 import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationMemberRole;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchDocument;
+import nz.ac.canterbury.seng302.homehelper.model.renovation.RenovationSearchText;
 import nz.ac.canterbury.seng302.homehelper.model.renovation.TaskState;
 import nz.ac.canterbury.seng302.homehelper.repository.renovation.RenovationRepository;
 import nz.ac.canterbury.seng302.homehelper.repository.renovation.RoomRepository;
@@ -14,6 +19,7 @@ import nz.ac.canterbury.seng302.homehelper.repository.renovation.TaskRepository;
 import nz.ac.canterbury.seng302.homehelper.repository.user.UserRepository;
 import nz.ac.canterbury.seng302.homehelper.service.chat.ChatChannelService;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.BrickAiService;
+import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationSearchIndex;
 import nz.ac.canterbury.seng302.homehelper.service.renovation.RenovationService;
 import nz.ac.canterbury.seng302.homehelper.validation.renovation.RenovationValidation;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,8 +29,10 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -52,6 +60,9 @@ class RenovationServiceTest {
     @Mock
     private ChatChannelService chatChannelService;
 
+    @Mock
+    private RenovationSearchIndex renovationSearchIndex;
+
     @InjectMocks
     private RenovationService renovationService;
 
@@ -306,6 +317,58 @@ class RenovationServiceTest {
 
     }
 
+    private static RenovationCard card(long id, LocalDateTime created) {
+        return new RenovationCard(id, "Renovation " + id, "Description", true, created, 1L, "fname", "lname",
+                "image.png");
+    }
+
+    @Test
+    void testFindPublicRenovationCards_GivenNoSearchAndMoreThanLimit_ThenPageLoadedFromDatabaseWithNextCursor() {
+        LocalDateTime created = LocalDateTime.of(2025, 5, 1, 12, 0);
+        when(renovationRepository.findPublicCards(Limit.of(3))).thenReturn(List.of(
+                card(3L, created), card(2L, created.minusDays(1)), card(1L, created.minusDays(2))));
+        when(renovationRepository.findSearchTags(List.of(3L, 2L)))
+                .thenReturn(List.of(new RenovationSearchText(2L, "Outdoor")));
+        when(renovationRepository.findSearchRooms(List.of(3L, 2L)))
+                .thenReturn(List.of(new RenovationSearchText(3L, "Kitchen")));
+
+        RenovationCardPage page = renovationService.findPublicRenovationCards("", List.of(), null, 2);
+
+        assertEquals(List.of(3L, 2L), page.renovations().stream().map(RenovationCard::id).toList());
+        assertEquals(List.of("Kitchen"), page.renovations().get(0).rooms());
+        assertEquals(List.of("Outdoor"), page.renovations().get(1).tags());
+        assertEquals(new RenovationCursor(created.minusDays(1), 2L), RenovationCursor.decode(page.nextCursor()));
+        verifyNoInteractions(renovationSearchIndex);
+    }
 
+    @Test
+    void testFindPublicRenovationCards_GivenPageEndsWithoutCreatedTimestamp_ThenCursorSeeksUndatedRenovations() {
+        LocalDateTime created = LocalDateTime.of(2025, 5, 1, 12, 0);
+        when(renovationRepository.findPublicCards(Limit.of(3))).thenReturn(List.of(
+                card(3L, created), card(2L, null), card(1L, null)));
+
+        RenovationCardPage page = renovationService.findPublicRenovationCards("", List.of(), null, 2);
+        RenovationCursor next = RenovationCursor.decode(page.nextCursor());
+        renovationService.findPublicRenovationCards("", List.of(), next, 2);
+
+        assertEquals(new RenovationCursor(LocalDateTime.MIN, 2L), next);
+        verify(renovationRepository).findUndatedPublicCardsBefore(2L, Limit.of(3));
+        verify(renovationRepository, never()).findPublicCardsBefore(any(), anyLong(), any());
+    }
 
+    @Test
+    void testFindPublicRenovationCards_GivenSearchOnLastPage_ThenCardsLoadedInIndexOrderWithoutNextCursor() {
+        LocalDateTime created = LocalDateTime.of(2025, 5, 1, 12, 0);
+        RenovationCursor after = new RenovationCursor(created, 9L);
+        when(renovationSearchIndex.searchPublicPage("deck", List.of(), after, 3)).thenReturn(List.of(
+                new RenovationSearchDocument(5L, true, created.minusDays(1), "Deck", ""),
+                new RenovationSearchDocument(4L, true, created.minusDays(2), "Deck", "")));
+        when(renovationRepository.findCards(List.of(5L, 4L)))
+                .thenReturn(List.of(card(4L, created.minusDays(2)), card(5L, created.minusDays(1))));
+
+        RenovationCardPage page = renovationService.findPublicRenovationCards(" Deck ", null, after, 2);
+
+        assertEquals(List.of(5L, 4L), page.renovations().stream().map(RenovationCard::id).toList());
+        assertNull(page.nextCursor());
+    }
 }
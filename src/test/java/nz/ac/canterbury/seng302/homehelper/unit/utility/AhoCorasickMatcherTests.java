@@ -0,0 +1,54 @@
+package nz.ac.canterbury.seng302.homehelper.unit.utility;
+
+import nz.ac.canterbury.seng302.homehelper.utility.AhoCorasickMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AhoCorasickMatcherTests {
+
+    @Test
+    void testScan_WhenWordsOverlap_ThenReportsEveryMatch() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("he", "she", "his", "hers"));
+        List<String> matches = new ArrayList<>();
+        String text = "ushers";
+
+        boolean stopped = matcher.scan(text, (start, end) -> matches.add(text.substring(start, end)));
+
+        assertFalse(stopped);
+        assertEquals(List.of("she", "he", "hers"), matches);
+    }
+
+    @Test
+    void testScan_WhenListenerReturnsFalse_ThenStopsScanning() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("ab", "cd"));
+        List<Integer> starts = new ArrayList<>();
+
+        boolean stopped = matcher.scan("ab cd", (start, end) -> {
+            starts.add(start);
+            return false;
+        });
+
+        assertTrue(stopped);
+        assertEquals(List.of(0), starts);
+    }
+
+    @Test
+    void testScan_WhenNoWordsMatch_ThenReportsNothing() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("kitchen", "garden"));
+
+        assertFalse(matcher.scan("bathroom", (start, end) -> false));
+        assertEquals(7, matcher.getLongestWord());
+    }
+
+    @Test
+    void testCompile_WhenWordsBlank_ThenIgnoresThem() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("", "  "));
+
+        assertFalse(matcher.scan("anything", (start, end) -> false));
+        assertEquals(0, matcher.getLongestWord());
+    }
+}